@@ -40,5 +40,13 @@ public abstract class BaseProcessInstanceListener implements ProcessInstance.Lis
   @Override
   public void onError(DataException ex) {
   }
+
+  @Override
+  public void onCheckpoint(String checkpoint) {
+  }
+
+  @Override
+  public void onWatermark(String watermark) {
+  }
   
 }
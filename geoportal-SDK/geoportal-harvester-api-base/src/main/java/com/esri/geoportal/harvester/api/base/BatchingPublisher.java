@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.BatchPolicy;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.ex.DataOutputBatchException;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batching publisher.
+ * <p>
+ * Accepts records pushed by any number of threads and publishes them in 
+ * batches with a single call to {@link OutputBroker#publishBatch(java.util.List)}.
+ * Pushing thread doesn't wait for the batch to fill up; the record is accepted
+ * with {@link PublishingStatus#PENDING} status. A batch is published by the 
+ * thread which fills it up, or by the thread flushing the publisher, and the
+ * outcome of each record is reported on the next flush.
+ * <p>
+ * If the broker fails to publish a batch, records of that batch are published
+ * one by one, so an error is reported for the record which caused it. If the
+ * broker reports which records have failed, only records neither published 
+ * nor failed are published again.
+ */
+/*package*/ final class BatchingPublisher {
+  private final OutputBroker broker;
+  private final BatchPolicy policy;
+  
+  private final Object lock = new Object();
+  private Batch current = new Batch();
+  private final List<PublishingOutcome> outcomes = new ArrayList<>();
+  private int publishing;
+
+  /**
+   * Creates instance of the publisher.
+   * @param broker output broker
+   * @param policy batch policy
+   */
+  public BatchingPublisher(OutputBroker broker, BatchPolicy policy) {
+    this.broker = broker;
+    this.policy = policy;
+  }
+  
+  /**
+   * Accepts data reference to be published as a part of a batch. If the 
+   * batch becomes full, it is published by the current thread.
+   * @param ref data reference
+   * @return {@link PublishingStatus#PENDING}
+   */
+  public PublishingStatus publish(DataReference ref) {
+    Entry entry = new Entry(ref, sizeOf(ref));
+    Batch full = null;
+    
+    synchronized (lock) {
+      current.add(entry);
+      if (current.isFull()) {
+        full = current;
+        current = new Batch();
+        publishing++;
+      }
+    }
+    
+    if (full!=null) {
+      List<PublishingOutcome> published = new ArrayList<>();
+      try {
+        published = publish(full);
+      } finally {
+        synchronized (lock) {
+          outcomes.addAll(published);
+          publishing--;
+          lock.notifyAll();
+        }
+      }
+    }
+    
+    return PublishingStatus.PENDING;
+  }
+  
+  /**
+   * Publishes current batch even if not full, and collects outcome of all 
+   * the records published since the last flush. Waits until batches being 
+   * published by other threads are published.
+   * @return list of outcomes
+   */
+  public List<PublishingOutcome> flush() {
+    Batch batch;
+    synchronized (lock) {
+      batch = current;
+      current = new Batch();
+    }
+    
+    List<PublishingOutcome> published = publish(batch);
+    
+    boolean interrupted = false;
+    List<PublishingOutcome> result;
+    synchronized (lock) {
+      outcomes.addAll(published);
+      while (publishing>0) {
+        try {
+          lock.wait();
+        } catch (InterruptedException ex) {
+          interrupted = true;
+        }
+      }
+      result = new ArrayList<>(outcomes);
+      outcomes.clear();
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    return result;
+  }
+  
+  /**
+   * Publishes batch.
+   * @param batch batch
+   * @return outcome of each record of the batch
+   */
+  private List<PublishingOutcome> publish(Batch batch) {
+    List<Entry> remaining = batch.entries;
+    if (batch.entries.size()>1) {
+      List<DataReference> refs = new ArrayList<>(batch.entries.size());
+      batch.entries.forEach(e -> refs.add(e.ref));
+      try {
+        List<PublishingStatus> statuses = broker.publishBatch(refs);
+        if (statuses!=null && statuses.size()==refs.size()) {
+          for (int i=0; i<statuses.size(); i++) {
+            batch.entries.get(i).outcome = new PublishingOutcome(refs.get(i), statuses.get(i)!=null? statuses.get(i): PublishingStatus.EMPTY);
+          }
+          remaining = new ArrayList<>();
+        }
+      } catch (DataOutputBatchException ex) {
+        remaining = resolve(batch.entries, ex);
+      } catch (DataOutputException|RuntimeException ex) {
+        // each record will be published separately
+      }
+    }
+    for (Entry e: remaining) {
+      try {
+        e.outcome = new PublishingOutcome(e.ref, broker.publish(e.ref));
+      } catch (DataOutputException ex) {
+        e.outcome = new PublishingOutcome(e.ref, ex);
+      } catch (RuntimeException ex) {
+        e.outcome = new PublishingOutcome(e.ref, new DataOutputException(broker, e.ref, String.format("Error publishing data: %s", e.ref), ex));
+      }
+    }
+    List<PublishingOutcome> published = new ArrayList<>(batch.entries.size());
+    batch.entries.forEach(e -> published.add(e.outcome));
+    return published;
+  }
+
+  /**
+   * Assigns statuses and errors reported by the broker to the entries.
+   * @param entries entries of the batch
+   * @param ex batch exception
+   * @return entries neither published nor failed
+   */
+  private static List<Entry> resolve(List<Entry> entries, DataOutputBatchException ex) {
+    if (ex.getStatuses().size()!=entries.size() || ex.getErrors().size()!=entries.size()) {
+      return entries;
+    }
+    List<Entry> remaining = new ArrayList<>();
+    for (int i=0; i<entries.size(); i++) {
+      Entry e = entries.get(i);
+      if (ex.getStatuses().get(i)!=null) {
+        e.outcome = new PublishingOutcome(e.ref, ex.getStatuses().get(i));
+      } else if (ex.getErrors().get(i)!=null) {
+        e.outcome = new PublishingOutcome(e.ref, ex.getErrors().get(i));
+      } else {
+        remaining.add(e);
+      }
+    }
+    return remaining;
+  }
+
+  /**
+   * Estimates size of the data reference.
+   * @param ref data reference
+   * @return size in bytes
+   */
+  private static long sizeOf(DataReference ref) {
+    long size = 0;
+    try {
+      for (MimeType mimeType: ref.getContentType()) {
+        size += Math.max(0, ref.getSize(mimeType));
+      }
+    } catch (IOException ex) {
+      // size unknown
+    }
+    return size;
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("%s, %s", broker, policy);
+  }
+  
+  /**
+   * Batch.
+   */
+  private final class Batch {
+    private final List<Entry> entries = new ArrayList<>();
+    private long bytes;
+    
+    public void add(Entry entry) {
+      entries.add(entry);
+      bytes += entry.size;
+    }
+    
+    public boolean isFull() {
+      return entries.size()>=policy.getMaxSize() || (policy.getMaxBytes()>0 && bytes>=policy.getMaxBytes());
+    }
+  }
+  
+  /**
+   * Batch entry.
+   */
+  private static final class Entry {
+    private final DataReference ref;
+    private final long size;
+    private PublishingOutcome outcome;
+
+    public Entry(DataReference ref, long size) {
+      this.ref = ref;
+      this.size = size;
+    }
+  }
+}
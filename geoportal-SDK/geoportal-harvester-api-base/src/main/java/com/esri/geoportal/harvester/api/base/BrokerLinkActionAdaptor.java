@@ -16,7 +16,9 @@
 package com.esri.geoportal.harvester.api.base;
 
 import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.BatchPolicy;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
 import com.esri.geoportal.harvester.api.defs.PublishingStatus;
 import com.esri.geoportal.harvester.api.ex.DataOutputException;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
@@ -24,12 +26,23 @@ import com.esri.geoportal.harvester.api.general.LinkAction;
 import com.esri.geoportal.harvester.api.specs.OutputBroker;
 import java.util.Collections;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Broker link action adaptor.
+ * <p>
+ * If the init context provides batch policy and the broker supports batches,
+ * records are grouped and published in batches. Such records are pending
+ * until the batch is published; records still pending when the adaptor is
+ * terminated are published before the broker is terminated.
+ * 
+ * @see BatchPolicy
  */
 public final class BrokerLinkActionAdaptor implements LinkAction {
+  private static final Logger LOG = LoggerFactory.getLogger(BrokerLinkActionAdaptor.class);
   private final OutputBroker broker;
+  private BatchingPublisher batchingPublisher;
 
   /**
    * Creates instance of the adaptor.
@@ -42,10 +55,19 @@ public final class BrokerLinkActionAdaptor implements LinkAction {
   @Override
   public void initialize(InitContext context) throws DataProcessorException {
     broker.initialize(context);
+    BatchPolicy batchPolicy = context.getBatchPolicy();
+    if (batchPolicy!=null && batchPolicy.isEnabled() && broker.isBatchSupported()) {
+      batchingPublisher = new BatchingPublisher(broker, batchPolicy);
+    }
   }
 
   @Override
   public void terminate() {
+    if (batchingPublisher!=null) {
+      flush().stream()
+              .filter(outcome -> !outcome.isPublished())
+              .forEach(outcome -> LOG.warn(String.format("Failed publishing %s to %s", outcome.getDataReference(), broker), outcome.getError()));
+    }
     broker.terminate();
   }
 
@@ -61,7 +83,12 @@ public final class BrokerLinkActionAdaptor implements LinkAction {
 
   @Override
   public PublishingStatus push(DataReference dataRef) throws DataProcessorException, DataOutputException {
-    return broker.publish(dataRef);
+    return batchingPublisher!=null? batchingPublisher.publish(dataRef): broker.publish(dataRef);
+  }
+
+  @Override
+  public List<PublishingOutcome> flush() {
+    return batchingPublisher!=null? batchingPublisher.flush(): Collections.emptyList();
   }
   
   @Override
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * Content kept on heap.
+ */
+public class BytesContent implements Content {
+  private static final long serialVersionUID = 1L;
+  
+  private final byte[] bytes;
+
+  /**
+   * Creates instance of the content.
+   * @param bytes content bytes
+   */
+  public BytesContent(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  @Override
+  public InputStream openStream() {
+    return new ByteArrayInputStream(bytes);
+  }
+
+  @Override
+  public long getSize() {
+    return bytes.length;
+  }
+
+  @Override
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("BYTES [%d]", bytes.length);
+  }
+}
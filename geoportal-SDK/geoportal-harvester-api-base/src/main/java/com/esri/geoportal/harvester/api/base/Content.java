@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+
+/**
+ * Content of a single type held by the data reference.
+ * <p>
+ * Content may be kept on heap, in a file or fetched from the source each time
+ * it is opened.
+ * @see SimpleDataReference#addContext(com.esri.geoportal.commons.constants.MimeType, com.esri.geoportal.harvester.api.base.Content) 
+ */
+public interface Content extends Serializable {
+  
+  /**
+   * Opens content stream.
+   * <p>
+   * Caller is responsible for closing the stream.
+   * @return content stream
+   * @throws IOException if opening stream fails
+   */
+  InputStream openStream() throws IOException;
+  
+  /**
+   * Gets content size.
+   * @return content size in bytes or <code>-1</code> if size unknown
+   * @throws IOException if getting size fails
+   */
+  long getSize() throws IOException;
+  
+  /**
+   * Gets content as bytes.
+   * @return content bytes
+   * @throws IOException if reading content fails
+   */
+  default byte[] getBytes() throws IOException {
+    try (InputStream input = openStream()) {
+      return input.readAllBytes();
+    }
+  }
+  
+  /**
+   * Releases resources held by the content.
+   * <p>
+   * Content may be unavailable after release.
+   */
+  default void release() {
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import com.esri.geoportal.harvester.api.Initializable.InitContext;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content store.
+ * <p>
+ * Keeps content up to the threshold on heap and spills larger content to a
+ * temporary file, so a few huge records in flight don't exhaust the memory.
+ * Content created by the store has to be released once the record has been 
+ * processed; releasing content deletes its temporary file. The store counts 
+ * bytes kept on heap and bytes spilled to the files.
+ */
+public final class ContentStore {
+  public static final long DEFAULT_THRESHOLD = 16777216;
+  public static final ContentStore DEFAULT = new ContentStore(DEFAULT_THRESHOLD, null);
+  
+  private static final String PREFIX = "hrv-";
+  private static final String SUFFIX = ".tmp";
+  private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+  
+  private final long threshold;
+  private final File directory;
+  
+  private final AtomicLong inMemoryBytes = new AtomicLong();
+  private final AtomicLong peakInMemoryBytes = new AtomicLong();
+  private final LongAdder spilledBytes = new LongAdder();
+  private final LongAdder spilledFiles = new LongAdder();
+
+  /**
+   * Creates instance of the store.
+   * @param threshold maximum size of the content kept on heap or 0 to keep all the content on heap
+   * @param directory directory of the temporary files or <code>null</code> for the default temporary directory
+   */
+  public ContentStore(long threshold, File directory) {
+    this.threshold = Math.max(0, Math.min(threshold, MAX_ARRAY_SIZE));
+    this.directory = directory;
+  }
+  
+  /**
+   * Gets content store of the process.
+   * @param context initialization context
+   * @return content store of the process or the default store
+   */
+  public static ContentStore of(InitContext context) {
+    ContentStore contentStore = context instanceof SimpleInitContext? ((SimpleInitContext)context).getContentStore(): null;
+    return contentStore!=null? contentStore: DEFAULT;
+  }
+
+  /**
+   * Stores content read from the stream. Stream is read till the end but it
+   * is not closed.
+   * @param input input stream
+   * @return content
+   * @throws IOException if reading or spilling content fails
+   */
+  public Content store(InputStream input) throws IOException {
+    if (threshold==0) {
+      return keep(input.readAllBytes());
+    }
+    byte[] head = input.readNBytes((int)threshold);
+    int next = head.length<threshold? -1: input.read();
+    if (next<0) {
+      return keep(head);
+    }
+    
+    Path file = directory!=null? Files.createTempFile(directory.toPath(), PREFIX, SUFFIX): Files.createTempFile(PREFIX, SUFFIX);
+    try (OutputStream output = Files.newOutputStream(file)) {
+      output.write(head);
+      output.write(next);
+      long size = head.length + 1 + input.transferTo(output);
+      spilledBytes.add(size);
+      spilledFiles.increment();
+    } catch (IOException|RuntimeException ex) {
+      Files.deleteIfExists(file);
+      throw ex;
+    }
+    return new SpilledContent(file.toFile());
+  }
+  
+  /**
+   * Keeps content on heap.
+   * @param bytes content bytes
+   * @return content
+   */
+  private Content keep(byte[] bytes) {
+    long current = inMemoryBytes.addAndGet(bytes.length);
+    peakInMemoryBytes.accumulateAndGet(current, Math::max);
+    return new StoredContent(this, bytes);
+  }
+
+  /**
+   * Gets maximum size of the content kept on heap.
+   * @return maximum size of the content kept on heap or 0 if all the content is kept on heap
+   */
+  public long getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Gets number of bytes currently kept on heap.
+   * @return number of bytes kept on heap
+   */
+  public long getInMemoryBytes() {
+    return inMemoryBytes.get();
+  }
+
+  /**
+   * Gets the highest number of bytes observed on heap.
+   * @return peak number of bytes kept on heap
+   */
+  public long getPeakInMemoryBytes() {
+    return peakInMemoryBytes.get();
+  }
+
+  /**
+   * Gets total number of bytes spilled to the temporary files.
+   * @return number of bytes spilled
+   */
+  public long getSpilledBytes() {
+    return spilledBytes.sum();
+  }
+
+  /**
+   * Gets total number of temporary files created.
+   * @return number of temporary files
+   */
+  public long getSpilledFiles() {
+    return spilledFiles.sum();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CONTENT :: threshold: %d, in memory: %d, peak in memory: %d, spilled: %d bytes in %d files",
+            threshold, getInMemoryBytes(), getPeakInMemoryBytes(), getSpilledBytes(), getSpilledFiles());
+  }
+  
+  /**
+   * Content kept on heap.
+   */
+  private static final class StoredContent extends BytesContent {
+    private static final long serialVersionUID = 1L;
+    
+    private final transient ContentStore store;
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final long size;
+
+    public StoredContent(ContentStore store, byte[] bytes) {
+      super(bytes);
+      this.store = store;
+      this.size = bytes.length;
+    }
+
+    @Override
+    public void release() {
+      if (store!=null && released.compareAndSet(false, true)) {
+        store.inMemoryBytes.addAndGet(-size);
+      }
+    }
+  }
+  
+  /**
+   * Content spilled to the temporary file.
+   */
+  private static final class SpilledContent extends FileContent {
+    private static final long serialVersionUID = 1L;
+
+    public SpilledContent(File file) {
+      super(file);
+    }
+
+    @Override
+    public void release() {
+      try {
+        Files.deleteIfExists(getFile().toPath());
+      } catch (IOException ex) {
+        getFile().deleteOnExit();
+      }
+    }
+  }
+}
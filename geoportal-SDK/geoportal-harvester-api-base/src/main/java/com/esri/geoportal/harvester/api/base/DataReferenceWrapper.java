@@ -18,6 +18,7 @@ package com.esri.geoportal.harvester.api.base;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.commons.constants.MimeType;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.Date;
 import java.util.HashMap;
@@ -34,7 +35,7 @@ public class DataReferenceWrapper implements DataReference {
   private final DataReference baseRef;
   
   // data
-  private final Map<MimeType,byte []> content = new HashMap<>();
+  private final Map<MimeType,Content> content = new HashMap<>();
   
   /**
    * Creates instance of the data reference.
@@ -50,17 +51,68 @@ public class DataReferenceWrapper implements DataReference {
    * @param content content
    */
   public void addContext(MimeType mimeType, byte [] content) {
+    invalidate(this.content.get(mimeType));
+    this.content.put(mimeType, content!=null? new BytesContent(content): null);
+  }
+
+  /**
+   * Adds content of a particular type to the reference.
+   * @param mimeType mime type
+   * @param content content
+   */
+  public void addContext(MimeType mimeType, Content content) {
+    invalidate(this.content.get(mimeType));
     this.content.put(mimeType, content);
   }
-  
 
   @Override
   public byte[] getContent(MimeType...mimeType) throws IOException {
-    byte [] data =  content.get(mimeType);
-    if (data==null) {
-      data = baseRef.getContent(mimeType);
+    Content data = findContent(mimeType);
+    return data!=null? data.getBytes(): baseRef.getContent(mimeType);
+  }
+
+  @Override
+  public InputStream openStream(MimeType...mimeType) throws IOException {
+    Content data = findContent(mimeType);
+    return data!=null? data.openStream(): baseRef.openStream(mimeType);
+  }
+
+  @Override
+  public long getSize(MimeType...mimeType) throws IOException {
+    Content data = findContent(mimeType);
+    return data!=null? data.getSize(): baseRef.getSize(mimeType);
+  }
+  
+  /**
+   * Finds content of the first available mime type added to this wrapper.
+   * @param mimeType mime types
+   * @return content or <code>null</code> if content unavailable
+   */
+  /*package*/ Content findContent(MimeType...mimeType) {
+    for (MimeType mt: mimeType) {
+      Content data = content.get(mt);
+      if (data!=null) {
+        return data;
+      }
     }
-    return data;
+    return null;
+  }
+
+  /**
+   * Forgets document parsed from the replaced content.
+   * @param replaced replaced content
+   */
+  private void invalidate(Content replaced) {
+    ParsedDocuments parsedDocuments = ParsedDocuments.of(baseRef);
+    if (replaced!=null && parsedDocuments!=null) {
+      parsedDocuments.remove(replaced);
+    }
+  }
+
+  @Override
+  public void release() {
+    content.values().stream().filter(data -> data!=null).forEach(Content::release);
+    baseRef.release();
   }
 
   @Override
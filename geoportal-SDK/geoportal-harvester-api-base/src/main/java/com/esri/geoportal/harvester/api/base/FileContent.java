@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * Content kept in a file.
+ * <p>
+ * File is read each time the content is opened, thus it has to exist for as 
+ * long as the data reference is in use.
+ */
+public class FileContent implements Content {
+  private static final long serialVersionUID = 1L;
+  
+  private final File file;
+
+  /**
+   * Creates instance of the content.
+   * @param file file
+   */
+  public FileContent(File file) {
+    this.file = file;
+  }
+
+  /**
+   * Gets file.
+   * @return file
+   */
+  public File getFile() {
+    return file;
+  }
+
+  @Override
+  public InputStream openStream() throws IOException {
+    return Files.newInputStream(file.toPath());
+  }
+
+  @Override
+  public long getSize() throws IOException {
+    return Files.size(file.toPath());
+  }
+
+  @Override
+  public String toString() {
+    return String.format("FILE [%s]", file);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import com.esri.geoportal.commons.constants.HttpConstants;
+import static com.esri.geoportal.commons.utils.Constants.DEFAULT_REQUEST_CONFIG;
+import static com.esri.geoportal.commons.utils.HttpClientContextBuilder.createHttpClientContext;
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+/**
+ * Content fetched from the URL.
+ * <p>
+ * Content is requested each time it is opened and streamed directly from the
+ * response, thus it is never held on heap. HTTP client belongs to the broker
+ * which has created the content, so the content can only be opened until the 
+ * broker is terminated.
+ */
+public class HttpContent implements Content {
+  private static final long serialVersionUID = 1L;
+  
+  private final transient CloseableHttpClient httpClient;
+  private final URL url;
+  private final transient SimpleCredentials creds;
+  private final long size;
+
+  /**
+   * Creates instance of the content.
+   * @param httpClient HTTP client
+   * @param url content URL
+   * @param creds credentials or <code>null</code> if no credentials
+   * @param size content size or <code>-1</code> if size unknown
+   */
+  public HttpContent(CloseableHttpClient httpClient, URL url, SimpleCredentials creds, long size) {
+    this.httpClient = httpClient;
+    this.url = url;
+    this.creds = creds;
+    this.size = size;
+  }
+
+  @Override
+  public InputStream openStream() throws IOException {
+    if (httpClient == null) {
+      throw new IOException(String.format("Unable to fetch content after deserialization: %s", url));
+    }
+    HttpGet method = new HttpGet(url.toExternalForm());
+    method.setConfig(DEFAULT_REQUEST_CONFIG);
+    method.setHeader("User-Agent", HttpConstants.getUserAgent());
+    HttpClientContext context = creds!=null && !creds.isEmpty()? createHttpClientContext(url, creds): null;
+    
+    CloseableHttpResponse httpResponse = httpClient.execute(method, context);
+    try {
+      if (httpResponse.getStatusLine().getStatusCode()>=400) {
+        throw new HttpResponseException(httpResponse.getStatusLine().getStatusCode(), httpResponse.getStatusLine().getReasonPhrase());
+      }
+      HttpEntity entity = httpResponse.getEntity();
+      if (entity == null) {
+        throw new IOException(String.format("No content received from: %s", url));
+      }
+      return new FilterInputStream(entity.getContent()) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            httpResponse.close();
+          }
+        }
+      };
+    } catch (IOException|RuntimeException ex) {
+      httpResponse.close();
+      throw ex;
+    }
+  }
+
+  @Override
+  public long getSize() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("HTTP [%s]", url);
+  }
+}
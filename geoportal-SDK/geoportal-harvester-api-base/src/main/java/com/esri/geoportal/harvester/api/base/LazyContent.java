@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content fetched on first access.
+ * <p>
+ * Nothing is fetched until the content is opened for the first time, thus
+ * records rejected by filters cost no download. Once fetched, content is kept 
+ * in the content store, so every consumer reads the same bytes without 
+ * fetching them again.
+ */
+public class LazyContent implements Content {
+  private static final long serialVersionUID = 1L;
+  
+  private final transient Loader loader;
+  private final transient ContentStore store;
+  private final long size;
+  private volatile Content content;
+
+  /**
+   * Creates instance of the content.
+   * @param loader content loader
+   * @param size expected content size or <code>-1</code> if size unknown
+   * @param store content store
+   */
+  public LazyContent(Loader loader, long size, ContentStore store) {
+    this.loader = loader;
+    this.size = size;
+    this.store = store;
+  }
+
+  /**
+   * Creates instance of the content.
+   * @param loader content loader
+   * @param store content store
+   */
+  public LazyContent(Loader loader, ContentStore store) {
+    this(loader, -1, store);
+  }
+
+  @Override
+  public InputStream openStream() throws IOException {
+    return fetch().openStream();
+  }
+
+  @Override
+  public byte[] getBytes() throws IOException {
+    return fetch().getBytes();
+  }
+
+  /**
+   * Gets content size. Content is not fetched just to learn its size.
+   * @return content size or expected size if content not fetched yet
+   * @throws IOException if getting size fails
+   */
+  @Override
+  public long getSize() throws IOException {
+    Content data = content;
+    return data!=null? data.getSize(): size;
+  }
+
+  /**
+   * Checks if content has been fetched.
+   * @return <code>true</code> if content has been fetched
+   */
+  public boolean isFetched() {
+    return content!=null;
+  }
+
+  @Override
+  public void release() {
+    Content data = content;
+    if (data!=null) {
+      data.release();
+    }
+  }
+  
+  /**
+   * Fetches content unless already fetched.
+   * @return fetched content
+   * @throws IOException if fetching content fails
+   */
+  private synchronized Content fetch() throws IOException {
+    if (content==null) {
+      if (loader==null) {
+        throw new IOException(String.format("Unable to fetch content after deserialization: %s", this));
+      }
+      try (InputStream input = loader.load()) {
+        content = (store!=null? store: ContentStore.DEFAULT).store(input);
+      }
+    }
+    return content;
+  }
+
+  @Override
+  public String toString() {
+    Content data = content;
+    return data!=null? String.format("LAZY [%s]", data): "LAZY [not fetched]";
+  }
+  
+  /**
+   * Content loader.
+   */
+  @FunctionalInterface
+  public interface Loader {
+    /**
+     * Opens stream of the content to fetch.
+     * @return content stream
+     * @throws IOException if opening stream fails
+     */
+    InputStream load() throws IOException;
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.DataReference;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Parsed XML documents of a data reference.
+ * <p>
+ * Keeps XML content of a data reference parsed, so transformers, meta 
+ * analyzers and output brokers share a single DOM instead of parsing the same
+ * bytes over and over again. Each document is bound to the content it has been
+ * parsed from, thus once a transformer produces new XML content, the document
+ * parsed from the original content is no longer returned for the transformed
+ * reference. Documents are discarded when the data reference is released.
+ * <p>
+ * Documents are cached only for data references built on top of
+ * {@link SimpleDataReference}; any other reference is parsed on each request.
+ * Shared documents must be treated as read-only, and since the same document
+ * might be used by several destinations at once, readers should synchronize
+ * on the document.
+ */
+public final class ParsedDocuments {
+  private static final Logger LOG = LoggerFactory.getLogger(ParsedDocuments.class);
+  private static final MimeType[] XML = new MimeType[]{MimeType.APPLICATION_XML, MimeType.TEXT_XML};
+  private static final DocumentBuilderFactory FACTORY = DocumentBuilderFactory.newInstance();
+  
+  static {
+    try {
+      FACTORY.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+      FACTORY.setFeature("http://xml.org/sax/features/external-general-entities", false);
+      FACTORY.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+      FACTORY.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+      // fully expanded tree is safe to be read by many threads
+      FACTORY.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+      FACTORY.setXIncludeAware(false);
+      FACTORY.setExpandEntityReferences(false);
+      FACTORY.setNamespaceAware(true);
+    } catch (ParserConfigurationException ex) {
+      LOG.error("Error initializing ParsedDocuments", ex);
+    }
+  }
+  
+  private final Map<Content, Document> documents = new IdentityHashMap<>();
+
+  /**
+   * Gets XML content of the data reference as document. Content is parsed
+   * only if it has not been parsed yet.
+   * @param ref data reference
+   * @return document or <code>null</code> if no XML content
+   * @throws IOException if reading content fails
+   * @throws SAXException if content is not a valid XML
+   */
+  public static Document getDocument(DataReference ref) throws IOException, SAXException {
+    ParsedDocuments parsedDocuments = of(ref);
+    Content content = parsedDocuments != null ? findContent(ref) : null;
+    if (content == null) {
+      try (InputStream input = ref.openStream(XML)) {
+        return input != null ? parse(input) : null;
+      }
+    }
+    return parsedDocuments.get(content);
+  }
+
+  /**
+   * Gets XML content of the data reference as document only if it has been
+   * already parsed.
+   * @param ref data reference
+   * @return document or <code>null</code> if content not parsed yet
+   */
+  public static Document getParsedDocument(DataReference ref) {
+    ParsedDocuments parsedDocuments = of(ref);
+    Content content = parsedDocuments != null ? findContent(ref) : null;
+    if (content == null) {
+      return null;
+    }
+    synchronized (parsedDocuments) {
+      return parsedDocuments.documents.get(content);
+    }
+  }
+
+  /**
+   * Forgets document parsed from the content.
+   * @param content content
+   */
+  synchronized void remove(Content content) {
+    documents.remove(content);
+  }
+
+  /**
+   * Forgets all the documents.
+   */
+  synchronized void clear() {
+    documents.clear();
+  }
+
+  private synchronized Document get(Content content) throws IOException, SAXException {
+    Document document = documents.get(content);
+    if (document == null) {
+      try (InputStream input = content.openStream()) {
+        document = parse(input);
+      }
+      documents.put(content, document);
+    }
+    return document;
+  }
+
+  private static Document parse(InputStream input) throws IOException, SAXException {
+    try {
+      return FACTORY.newDocumentBuilder().parse(new InputSource(input));
+    } catch (ParserConfigurationException ex) {
+      throw new IOException("Unable to create XML parser.", ex);
+    }
+  }
+
+  /**
+   * Finds parsed documents of the data reference.
+   * @param ref data reference
+   * @return parsed documents or <code>null</code> if reference does not support it
+   */
+  static ParsedDocuments of(DataReference ref) {
+    while (ref instanceof DataReferenceWrapper) {
+      ref = ref.getOriginDataReference();
+    }
+    return ref instanceof SimpleDataReference ? ((SimpleDataReference) ref).getParsedDocuments() : null;
+  }
+
+  /**
+   * Finds XML content of the data reference.
+   * @param ref data reference
+   * @return content or <code>null</code> if no XML content
+   */
+  private static Content findContent(DataReference ref) {
+    while (ref instanceof DataReferenceWrapper) {
+      Content content = ((DataReferenceWrapper) ref).findContent(XML);
+      if (content != null) {
+        return content;
+      }
+      ref = ref.getOriginDataReference();
+    }
+    return ref instanceof SimpleDataReference ? ((SimpleDataReference) ref).findContent(XML) : null;
+  }
+}
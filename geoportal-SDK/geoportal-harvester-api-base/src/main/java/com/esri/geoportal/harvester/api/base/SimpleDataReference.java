@@ -18,6 +18,7 @@ package com.esri.geoportal.harvester.api.base;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.commons.constants.MimeType;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.Date;
 import java.util.HashMap;
@@ -40,8 +41,9 @@ public class SimpleDataReference implements DataReference {
   private final String taskRef;
   
   // data
-  private final Map<MimeType,byte []> content = new HashMap<>();
+  private final Map<MimeType,Content> content = new HashMap<>();
   private final HashMap<String,Object> attributesMap = new HashMap<>();
+  private transient ParsedDocuments parsedDocuments;
 
   /**
    * Creates instance of the data reference.
@@ -69,6 +71,17 @@ public class SimpleDataReference implements DataReference {
    * @param content content
    */
   public void addContext(MimeType mimeType, byte [] content) {
+    invalidate(this.content.get(mimeType));
+    this.content.put(mimeType, content!=null? new BytesContent(content): null);
+  }
+
+  /**
+   * Adds content of a particular type to the reference.
+   * @param mimeType mime type
+   * @param content content
+   */
+  public void addContext(MimeType mimeType, Content content) {
+    invalidate(this.content.get(mimeType));
     this.content.put(mimeType, content);
   }
   
@@ -104,15 +117,64 @@ public class SimpleDataReference implements DataReference {
 
   @Override
   public byte[] getContent(MimeType...mimeType) throws IOException {
+    Content data = findContent(mimeType);
+    return data!=null? data.getBytes(): null;
+  }
+
+  @Override
+  public InputStream openStream(MimeType...mimeType) throws IOException {
+    Content data = findContent(mimeType);
+    return data!=null? data.openStream(): null;
+  }
+
+  @Override
+  public long getSize(MimeType...mimeType) throws IOException {
+    Content data = findContent(mimeType);
+    return data!=null? data.getSize(): -1;
+  }
+  
+  /**
+   * Finds content of the first available mime type.
+   * @param mimeType mime types
+   * @return content or <code>null</code> if content unavailable
+   */
+  /*package*/ Content findContent(MimeType...mimeType) {
     for (MimeType mt: mimeType) {
-      byte [] bytes = content.get(mt);
-      if (bytes!=null) {
-        return bytes;
+      Content data = content.get(mt);
+      if (data!=null) {
+        return data;
       }
     }
     return null;
   }
 
+  /**
+   * Gets documents parsed from the content of this reference.
+   * @return parsed documents
+   */
+  /*package*/ synchronized ParsedDocuments getParsedDocuments() {
+    if (parsedDocuments==null) {
+      parsedDocuments = new ParsedDocuments();
+    }
+    return parsedDocuments;
+  }
+  
+  /**
+   * Forgets document parsed from the replaced content.
+   * @param replaced replaced content
+   */
+  private void invalidate(Content replaced) {
+    if (replaced!=null) {
+      getParsedDocuments().remove(replaced);
+    }
+  }
+
+  @Override
+  public void release() {
+    content.values().stream().filter(data -> data!=null).forEach(Content::release);
+    getParsedDocuments().clear();
+  }
+
   @Override
   public Set<MimeType> getContentType() {
     return content.keySet();
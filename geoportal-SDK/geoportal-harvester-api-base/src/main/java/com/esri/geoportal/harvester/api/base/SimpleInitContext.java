@@ -17,10 +17,12 @@ package com.esri.geoportal.harvester.api.base;
 
 import com.esri.geoportal.harvester.api.Broker;
 import com.esri.geoportal.harvester.api.ProcessInstance.Listener;
+import com.esri.geoportal.harvester.api.defs.BatchPolicy;
 import com.esri.geoportal.harvester.api.defs.Task;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Simple broker context.
@@ -28,16 +30,55 @@ import java.util.Map;
 public class SimpleInitContext implements Broker.InitContext {
   private final Task task;
   private final List<Listener> listeners;
+  private final ExecutorService fanOutExecutor;
+  private final BatchPolicy batchPolicy;
+  private final ContentStore contentStore;
   private boolean preventCleanup;
 
   /**
    * Creates instance of the context.
    * @param task task.
    * @param listeners listeners
+   * @param fanOutExecutor executor used to push data to multiple destinations or <code>null</code>
+   * @param batchPolicy batch policy
+   * @param contentStore content store of the process or <code>null</code> for the default store
    */
-  public SimpleInitContext(Task task, List<Listener> listeners) {
+  public SimpleInitContext(Task task, List<Listener> listeners, ExecutorService fanOutExecutor, BatchPolicy batchPolicy, ContentStore contentStore) {
     this.task = task;
     this.listeners = listeners;
+    this.fanOutExecutor = fanOutExecutor;
+    this.batchPolicy = batchPolicy!=null? batchPolicy: BatchPolicy.NONE;
+    this.contentStore = contentStore!=null? contentStore: ContentStore.DEFAULT;
+  }
+
+  /**
+   * Creates instance of the context.
+   * @param task task.
+   * @param listeners listeners
+   * @param fanOutExecutor executor used to push data to multiple destinations or <code>null</code>
+   * @param batchPolicy batch policy
+   */
+  public SimpleInitContext(Task task, List<Listener> listeners, ExecutorService fanOutExecutor, BatchPolicy batchPolicy) {
+    this(task, listeners, fanOutExecutor, batchPolicy, null);
+  }
+
+  /**
+   * Creates instance of the context.
+   * @param task task.
+   * @param listeners listeners
+   * @param fanOutExecutor executor used to push data to multiple destinations or <code>null</code>
+   */
+  public SimpleInitContext(Task task, List<Listener> listeners, ExecutorService fanOutExecutor) {
+    this(task, listeners, fanOutExecutor, BatchPolicy.NONE);
+  }
+
+  /**
+   * Creates instance of the context.
+   * @param task task.
+   * @param listeners listeners
+   */
+  public SimpleInitContext(Task task, List<Listener> listeners) {
+    this(task, listeners, null);
   }
 
   @Override
@@ -64,5 +105,23 @@ public class SimpleInitContext implements Broker.InitContext {
   public void preventCleanup() {
     preventCleanup = true;
   }
+
+  @Override
+  public ExecutorService getFanOutExecutor() {
+    return fanOutExecutor;
+  }
+
+  @Override
+  public BatchPolicy getBatchPolicy() {
+    return batchPolicy;
+  }
+
+  /**
+   * Gets content store of the process.
+   * @return content store
+   */
+  public ContentStore getContentStore() {
+    return contentStore;
+  }
   
 }
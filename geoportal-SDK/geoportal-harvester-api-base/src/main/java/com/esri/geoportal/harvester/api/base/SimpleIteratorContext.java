@@ -23,6 +23,8 @@ import java.util.Date;
  */
 public class SimpleIteratorContext implements IteratorContext {
   private Date lastHarvestDate;
+  private String checkpoint;
+  private String watermark;
 
   @Override
   public Date getLastHarvestDate() {
@@ -32,5 +34,23 @@ public class SimpleIteratorContext implements IteratorContext {
   public void setLastHarvest(Date lastHarvestDate) {
     this.lastHarvestDate = lastHarvestDate;
   }
+
+  @Override
+  public String getCheckpoint() {
+    return checkpoint;
+  }
+
+  public void setCheckpoint(String checkpoint) {
+    this.checkpoint = checkpoint;
+  }
+
+  @Override
+  public String getWatermark() {
+    return watermark;
+  }
+
+  public void setWatermark(String watermark) {
+    this.watermark = watermark;
+  }
   
 }
@@ -17,20 +17,29 @@ package com.esri.geoportal.harvester.api.base;
 
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.defs.LinkDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
 import com.esri.geoportal.harvester.api.defs.PublishingStatus;
 import com.esri.geoportal.harvester.api.ex.DataOutputException;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
 import com.esri.geoportal.harvester.api.general.Link;
 import com.esri.geoportal.harvester.api.general.LinkAction;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
  * Simple link.
+ * <p>
+ * If the init context provides fan-out executor, data is pushed to all the 
+ * drains at the same time.
  */
 public class SimpleLink implements Link {
   private final LinkAction action;
   private final List<Link> drains;
+  private ExecutorService executor;
 
   /**
    * Creates instance of the link.
@@ -44,6 +53,7 @@ public class SimpleLink implements Link {
 
   @Override
   public void initialize(InitContext context) throws DataProcessorException {
+    executor = context.getFanOutExecutor();
     action.initialize(context);
     for (Link l: drains) {
       l.initialize(context);
@@ -68,17 +78,88 @@ public class SimpleLink implements Link {
 
   @Override
   public PublishingStatus push(DataReference dataRef) throws DataProcessorException, DataOutputException {
-    PublishingStatus status = action.push(dataRef);
+    PublishingStatus status = PublishingStatus.emptyStatus().collect(action.push(dataRef));
     for (DataReference dr: action.execute(dataRef)) {
       if (drains!=null) {
-        for (Link l: drains) {
-          status = status.collect(l.push(dr));
+        if (executor!=null && drains.size()>1) {
+          status = status.collect(pushConcurrently(dr));
+        } else {
+          for (Link l: drains) {
+            status = status.collect(l.push(dr));
+          }
         }
       }
     }
     return status;
   }
   
+  @Override
+  public List<PublishingOutcome> flush() {
+    List<PublishingOutcome> outcomes = new ArrayList<>(action.flush());
+    if (drains!=null) {
+      for (Link l: drains) {
+        outcomes.addAll(l.flush());
+      }
+    }
+    return outcomes;
+  }
+  
+  /**
+   * Pushes data reference to all the drains at the same time. Waits until all 
+   * the drains are done even if the current thread gets interrupted.
+   * @param dataRef data reference
+   * @return collected publishing status
+   * @throws DataProcessorException if processing fails
+   * @throws DataOutputException if publishing fails; errors of other drains are suppressed
+   */
+  private PublishingStatus pushConcurrently(DataReference dataRef) throws DataProcessorException, DataOutputException {
+    List<Future<PublishingStatus>> futures = new ArrayList<>();
+    for (Link l: drains) {
+      futures.add(executor.submit(() -> l.push(dataRef)));
+    }
+    
+    PublishingStatus status = PublishingStatus.emptyStatus();
+    Throwable failure = null;
+    boolean interrupted = false;
+    for (Future<PublishingStatus> future: futures) {
+      while (true) {
+        try {
+          status = status.collect(future.get());
+          break;
+        } catch (InterruptedException ex) {
+          interrupted = true;
+        } catch (ExecutionException ex) {
+          if (failure==null) {
+            failure = ex.getCause();
+          } else {
+            failure.addSuppressed(ex.getCause());
+          }
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    
+    if (failure instanceof DataOutputException) {
+      throw (DataOutputException)failure;
+    }
+    if (failure instanceof DataProcessorException) {
+      throw (DataProcessorException)failure;
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException)failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error)failure;
+    }
+    if (failure!=null) {
+      throw new DataProcessorException(String.format("Error pushing data: %s", dataRef), failure);
+    }
+    return status;
+  }
+  
   @Override
   public String toString() {
     if (drains!=null && !drains.isEmpty()) {
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.BatchPolicy;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.ex.DataOutputBatchException;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.esri.geoportal.harvester.api.specs.OutputConnector;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Batching publisher test.
+ */
+public class BatchingPublisherTest {
+
+  @Test
+  public void testBatchesFillUp() throws Exception {
+    TestBroker broker = new TestBroker();
+    BatchingPublisher publisher = new BatchingPublisher(broker, new BatchPolicy(3, 0, 100));
+    
+    List<DataReference> refs = new ArrayList<>();
+    for (int i=1; i<=7; i++) {
+      DataReference ref = record(Integer.toString(i), 10);
+      refs.add(ref);
+      assertEquals(PublishingStatus.PENDING, publisher.publish(ref));
+    }
+    // full batches are published by the pushing thread
+    assertEquals(Arrays.asList(3, 3), broker.batches);
+    
+    // the last record is published alone
+    List<PublishingOutcome> outcomes = publisher.flush();
+    assertEquals(Arrays.asList(3, 3), broker.batches);
+    assertEquals(Arrays.asList("7"), broker.singles);
+    assertEquals(7, outcomes.size());
+    for (int i=0; i<refs.size(); i++) {
+      assertSame(refs.get(i), outcomes.get(i).getDataReference());
+      assertEquals(PublishingStatus.CREATED, outcomes.get(i).getStatus());
+    }
+    
+    // outcomes are reported only once
+    assertTrue(publisher.flush().isEmpty());
+  }
+
+  @Test
+  public void testBatchBytes() throws Exception {
+    TestBroker broker = new TestBroker();
+    BatchingPublisher publisher = new BatchingPublisher(broker, new BatchPolicy(10, 100, 100));
+    
+    publisher.publish(record("1", 60));
+    publisher.publish(record("2", 60));
+    publisher.publish(record("3", 60));
+    assertEquals(Arrays.asList(2), broker.batches);
+    
+    assertEquals(3, publisher.flush().size());
+    assertEquals(Arrays.asList(2), broker.batches);
+    assertEquals(Arrays.asList("3"), broker.singles);
+  }
+
+  @Test
+  public void testPartialBatchFailure() throws Exception {
+    TestBroker broker = new TestBroker();
+    // first record published, second failed, third neither
+    broker.batchFailure = refs -> new DataOutputBatchException(broker, refs.get(1), 
+            Arrays.asList(PublishingStatus.UPDATED, null, null), 
+            Arrays.asList(null, new DataOutputException(broker, refs.get(1), "Invalid record"), null));
+    BatchingPublisher publisher = new BatchingPublisher(broker, new BatchPolicy(5, 0, 100));
+    
+    DataReference first = record("1", 10);
+    DataReference second = record("2", 10);
+    DataReference third = record("3", 10);
+    publisher.publish(first);
+    publisher.publish(second);
+    publisher.publish(third);
+    List<PublishingOutcome> outcomes = publisher.flush();
+    
+    assertEquals(3, outcomes.size());
+    assertSame(first, outcomes.get(0).getDataReference());
+    assertEquals(PublishingStatus.UPDATED, outcomes.get(0).getStatus());
+    assertSame(second, outcomes.get(1).getDataReference());
+    assertFalse(outcomes.get(1).isPublished());
+    assertEquals("Invalid record", outcomes.get(1).getError().getMessage());
+    assertSame(third, outcomes.get(2).getDataReference());
+    assertEquals(PublishingStatus.CREATED, outcomes.get(2).getStatus());
+    
+    // only the record neither published nor failed is published again
+    assertEquals(Arrays.asList("3"), broker.singles);
+  }
+
+  @Test
+  public void testBatchFailure() throws Exception {
+    TestBroker broker = new TestBroker();
+    broker.batchFailure = refs -> new DataOutputException(broker, refs.get(0), "Bulk endpoint unavailable");
+    broker.failing.add("2");
+    BatchingPublisher publisher = new BatchingPublisher(broker, new BatchPolicy(3, 0, 100));
+    
+    DataReference first = record("1", 10);
+    DataReference second = record("2", 10);
+    DataReference third = record("3", 10);
+    publisher.publish(first);
+    publisher.publish(second);
+    publisher.publish(third);
+    List<PublishingOutcome> outcomes = publisher.flush();
+    
+    // each record is published separately, so the error is reported for the record causing it
+    assertEquals(Arrays.asList("1", "2", "3"), broker.singles);
+    assertEquals(3, outcomes.size());
+    assertTrue(outcomes.get(0).isPublished());
+    assertSame(second, outcomes.get(1).getDataReference());
+    assertFalse(outcomes.get(1).isPublished());
+    assertTrue(outcomes.get(2).isPublished());
+  }
+
+  @Test
+  public void testConcurrentPublishing() throws Exception {
+    TestBroker broker = new TestBroker();
+    BatchingPublisher publisher = new BatchingPublisher(broker, new BatchPolicy(10, 0, 100));
+    
+    List<Thread> threads = new ArrayList<>();
+    for (int t=0; t<4; t++) {
+      int thread = t;
+      threads.add(new Thread(() -> {
+        for (int i=0; i<25; i++) {
+          publisher.publish(record(thread + "-" + i, 10));
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread: threads) {
+      thread.join();
+    }
+    
+    List<PublishingOutcome> outcomes = publisher.flush();
+    assertEquals(100, outcomes.size());
+    assertEquals(100, broker.published.size());
+    assertEquals(Collections.nCopies(10, 10), broker.batches);
+  }
+
+  private static DataReference record(String id, int size) {
+    SimpleDataReference ref = new SimpleDataReference(URI.create("test:src"), "test", id, new Date(), URI.create("test:" + id), null, null);
+    ref.addContext(MimeType.APPLICATION_XML, new byte[size]);
+    return ref;
+  }
+
+  /**
+   * Failure of publishing batch.
+   */
+  @FunctionalInterface
+  private interface BatchFailure {
+    DataOutputException create(List<DataReference> refs);
+  }
+
+  /**
+   * Output broker recording published batches.
+   */
+  private static class TestBroker implements OutputBroker {
+    private final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> singles = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> published = Collections.synchronizedSet(new HashSet<>());
+    private final Set<String> failing = new HashSet<>();
+    private BatchFailure batchFailure;
+
+    @Override
+    public PublishingStatus publish(DataReference ref) throws DataOutputException {
+      singles.add(ref.getId());
+      if (failing.contains(ref.getId())) {
+        throw new DataOutputException(this, ref, "Invalid record");
+      }
+      published.add(ref.getId());
+      return PublishingStatus.CREATED;
+    }
+
+    @Override
+    public boolean isBatchSupported() {
+      return true;
+    }
+
+    @Override
+    public List<PublishingStatus> publishBatch(List<DataReference> refs) throws DataOutputException {
+      batches.add(refs.size());
+      if (batchFailure!=null) {
+        throw batchFailure.create(refs);
+      }
+      refs.forEach(ref -> published.add(ref.getId()));
+      return new ArrayList<>(Collections.nCopies(refs.size(), PublishingStatus.CREATED));
+    }
+
+    @Override
+    public EntityDefinition getEntityDefinition() {
+      return null;
+    }
+
+    @Override
+    public OutputConnector getConnector() {
+      return null;
+    }
+
+    @Override
+    public boolean hasAccess(SimpleCredentials creds) {
+      return true;
+    }
+
+    @Override
+    public void initialize(InitContext context) throws DataProcessorException {
+    }
+
+    @Override
+    public void terminate() {
+    }
+  }
+}
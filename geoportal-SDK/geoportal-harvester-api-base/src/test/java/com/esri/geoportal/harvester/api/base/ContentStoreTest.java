@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.base;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Content store test.
+ */
+public class ContentStoreTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testKeepContentUpToThresholdOnHeap() throws Exception {
+    File directory = folder.newFolder();
+    ContentStore store = new ContentStore(ContentStore.DEFAULT_THRESHOLD, directory);
+    byte[] bytes = bytes((int)ContentStore.DEFAULT_THRESHOLD);
+    
+    Content content = store.store(new ByteArrayInputStream(bytes));
+    
+    assertFalse(content instanceof FileContent);
+    assertArrayEquals(bytes, content.getBytes());
+    assertEquals(bytes.length, store.getInMemoryBytes());
+    assertEquals(0, store.getSpilledFiles());
+    assertEquals(0, directory.list().length);
+    
+    content.release();
+    content.release();
+    assertEquals(0, store.getInMemoryBytes());
+    assertEquals(bytes.length, store.getPeakInMemoryBytes());
+  }
+
+  @Test
+  public void testSpillContentAboveThreshold() throws Exception {
+    File directory = folder.newFolder();
+    ContentStore store = new ContentStore(ContentStore.DEFAULT_THRESHOLD, directory);
+    byte[] bytes = bytes((int)ContentStore.DEFAULT_THRESHOLD + 1);
+    
+    Content content = store.store(new ByteArrayInputStream(bytes));
+    
+    assertTrue(content instanceof FileContent);
+    File file = ((FileContent)content).getFile();
+    assertEquals(directory, file.getParentFile());
+    assertTrue(file.exists());
+    assertEquals(bytes.length, content.getSize());
+    assertArrayEquals(bytes, content.getBytes());
+    assertEquals(0, store.getInMemoryBytes());
+    assertEquals(bytes.length, store.getSpilledBytes());
+    assertEquals(1, store.getSpilledFiles());
+  }
+
+  @Test
+  public void testReleaseDeletesSpilledFile() throws Exception {
+    File directory = folder.newFolder();
+    ContentStore store = new ContentStore(10, directory);
+    
+    Content content = store.store(new ByteArrayInputStream(bytes(100)));
+    assertEquals(1, directory.list().length);
+    
+    content.release();
+    assertEquals(0, directory.list().length);
+    content.release();
+  }
+
+  @Test
+  public void testZeroThresholdKeepsAllContentOnHeap() throws Exception {
+    File directory = folder.newFolder();
+    ContentStore store = new ContentStore(0, directory);
+    byte[] bytes = bytes(1000);
+    
+    Content content = store.store(new ByteArrayInputStream(bytes));
+    
+    assertArrayEquals(bytes, content.getBytes());
+    assertEquals(0, directory.list().length);
+    assertEquals(bytes.length, store.getInMemoryBytes());
+  }
+
+  private static byte[] bytes(int length) {
+    byte[] bytes = new byte[length];
+    Arrays.fill(bytes, (byte)'x');
+    bytes[length - 1] = 'y';
+    return bytes;
+  }
+}
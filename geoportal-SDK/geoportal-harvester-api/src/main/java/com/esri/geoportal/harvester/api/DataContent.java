@@ -16,11 +16,20 @@
 package com.esri.geoportal.harvester.api;
 
 import com.esri.geoportal.commons.constants.MimeType;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Set;
 
 /**
  * Data content.
+ * <p>
+ * Content can be accessed either as a byte array or as a stream. Consumers
+ * which don't need the whole content on heap at once should prefer 
+ * {@link #openStream(com.esri.geoportal.commons.constants.MimeType...)} and 
+ * {@link #getSize(com.esri.geoportal.commons.constants.MimeType...)}, since
+ * content of some data references is kept in a file or fetched from the
+ * source on demand.
  */
 public interface DataContent {
 
@@ -32,9 +41,42 @@ public interface DataContent {
    */
   byte[] getContent(MimeType... mimeType) throws IOException;
 
+  /**
+   * Opens content stream.
+   * <p>
+   * Caller is responsible for closing the stream.
+   * @param mimeType required mime type
+   * @return content stream or <code>null</code> if content by the mime type unavailable
+   * @throws IOException if opening content stream fails
+   */
+  default InputStream openStream(MimeType... mimeType) throws IOException {
+    byte[] content = getContent(mimeType);
+    return content!=null? new ByteArrayInputStream(content): null;
+  }
+
+  /**
+   * Gets content size.
+   * @param mimeType required mime type
+   * @return content size in bytes or <code>-1</code> if content by the mime type unavailable or size unknown
+   * @throws IOException if getting content size fails
+   */
+  default long getSize(MimeType... mimeType) throws IOException {
+    byte[] content = getContent(mimeType);
+    return content!=null? content.length: -1;
+  }
+
   /**
    * Gets content type.
    * @return content type variances
    */
   Set<MimeType> getContentType();
+
+  /**
+   * Releases resources held by the content, for example temporary files.
+   * <p>
+   * Called once the content is no longer needed; content may be unavailable
+   * afterwards.
+   */
+  default void release() {
+  }
 }
@@ -16,9 +16,11 @@
 package com.esri.geoportal.harvester.api;
 
 import com.esri.geoportal.harvester.api.ProcessInstance.Listener;
+import com.esri.geoportal.harvester.api.defs.BatchPolicy;
 import com.esri.geoportal.harvester.api.defs.Task;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Initializable.
@@ -69,5 +71,21 @@ public interface Initializable {
      * Makes cleanup disabled.
      */
     void preventCleanup();
+    
+    /**
+     * Gets executor used to push data to multiple destinations at the same time.
+     * @return executor or <code>null</code> if data has to be pushed sequentially
+     */
+    default ExecutorService getFanOutExecutor() {
+      return null;
+    }
+    
+    /**
+     * Gets policy of grouping records published to the output brokers.
+     * @return batch policy
+     */
+    default BatchPolicy getBatchPolicy() {
+      return BatchPolicy.NONE;
+    }
   }
 }
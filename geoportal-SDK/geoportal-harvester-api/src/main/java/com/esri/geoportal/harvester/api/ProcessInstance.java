@@ -73,6 +73,10 @@ public interface ProcessInstance {
      * just submitted
      */
     submitted,
+    /**
+     * waiting for a free slot to begin
+     */
+    queued,
     /**
      * currently being executing
      */
@@ -119,6 +123,26 @@ public interface ProcessInstance {
      * @param ex onError
      */
     public void onError(DataException ex);
+
+    /**
+     * Called when input iterator reached a position from which harvesting can
+     * be resumed.
+     *
+     * @param checkpoint checkpoint
+     * @see com.esri.geoportal.harvester.api.specs.InputBroker.Iterator#getCheckpoint()
+     */
+    default void onCheckpoint(String checkpoint) {
+    }
+
+    /**
+     * Called when input iterator has been exhausted and provided watermark 
+     * for the next incremental harvest.
+     *
+     * @param watermark watermark
+     * @see com.esri.geoportal.harvester.api.specs.InputBroker.Iterator#getWatermark()
+     */
+    default void onWatermark(String watermark) {
+    }
   }
   
 }
@@ -17,6 +17,7 @@ package com.esri.geoportal.harvester.api;
 
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import com.esri.geoportal.harvester.api.general.Entity;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
 
@@ -42,5 +43,15 @@ public interface Processor extends Entity {
    * @return instance of the process
    */
   ProcessInstance createProcess(Task task, InputBroker.IteratorContext iteratorContext);
+  
+  /**
+   * Configures processor according to the definition.
+   * @param processorDefinition processor definition
+   * @return configured processor (by default the same processor)
+   * @throws InvalidDefinitionException if processor definition is invalid
+   */
+  default Processor configure(EntityDefinition processorDefinition) throws InvalidDefinitionException {
+    return this;
+  }
 
 }
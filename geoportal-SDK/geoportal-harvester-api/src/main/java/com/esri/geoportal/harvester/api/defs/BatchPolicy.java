@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.defs;
+
+/**
+ * Batch policy.
+ * <p>
+ * Tells how records are grouped before being published to the output broker
+ * supporting batches. Records are accepted without waiting for the batch to be
+ * published. Batch is published as soon as it reaches maximum number of 
+ * records or maximum number of bytes, or when the link is flushed. Processor 
+ * flushes links once maximum number of records is pending, once the first 
+ * pending record has been waiting longer than maximum linger time, before each
+ * checkpoint, and when harvesting ends.
+ */
+public final class BatchPolicy {
+  public static final BatchPolicy NONE = new BatchPolicy(0, 0, 0);
+  
+  private final int maxSize;
+  private final long maxBytes;
+  private final long maxLinger;
+
+  /**
+   * Creates instance of the policy.
+   * @param maxSize maximum number of records in the batch
+   * @param maxBytes maximum number of bytes in the batch or 0 for no limit
+   * @param maxLinger maximum time in milliseconds a record waits for the batch to be published
+   */
+  public BatchPolicy(int maxSize, long maxBytes, long maxLinger) {
+    this.maxSize = Math.max(0, maxSize);
+    this.maxBytes = Math.max(0, maxBytes);
+    this.maxLinger = Math.max(0, maxLinger);
+  }
+
+  /**
+   * Gets maximum number of records in the batch.
+   * @return maximum number of records in the batch
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Gets maximum number of bytes in the batch.
+   * @return maximum number of bytes in the batch or 0 for no limit
+   */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Gets maximum time a record waits for the batch to be published.
+   * @return maximum linger time in milliseconds
+   */
+  public long getMaxLinger() {
+    return maxLinger;
+  }
+  
+  /**
+   * Checks if batching is enabled.
+   * @return <code>true</code> if more than one record can be published at once
+   */
+  public boolean isEnabled() {
+    return maxSize>1;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("BATCH :: size: %d, bytes: %d, linger: %d ms", maxSize, maxBytes, maxLinger);
+  }
+}
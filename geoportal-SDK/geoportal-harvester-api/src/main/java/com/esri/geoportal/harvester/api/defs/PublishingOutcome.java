@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.defs;
+
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.ex.DataException;
+
+/**
+ * Publishing outcome.
+ * <p>
+ * Final outcome of publishing a record which has been pending when pushed:
+ * either publishing status or error.
+ * 
+ * @see PublishingStatus#PENDING
+ */
+public final class PublishingOutcome {
+  private final DataReference dataReference;
+  private final PublishingStatus status;
+  private final DataException error;
+
+  /**
+   * Creates outcome of the record successfully published.
+   * @param dataReference data reference
+   * @param status publishing status
+   */
+  public PublishingOutcome(DataReference dataReference, PublishingStatus status) {
+    this.dataReference = dataReference;
+    this.status = status;
+    this.error = null;
+  }
+
+  /**
+   * Creates outcome of the record failed to publish.
+   * @param dataReference data reference
+   * @param error error
+   */
+  public PublishingOutcome(DataReference dataReference, DataException error) {
+    this.dataReference = dataReference;
+    this.status = null;
+    this.error = error;
+  }
+
+  /**
+   * Gets data reference.
+   * @return data reference as it has been pushed
+   */
+  public DataReference getDataReference() {
+    return dataReference;
+  }
+
+  /**
+   * Gets publishing status.
+   * @return publishing status or <code>null</code> if failed
+   */
+  public PublishingStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * Gets error.
+   * @return error or <code>null</code> if published
+   */
+  public DataException getError() {
+    return error;
+  }
+
+  /**
+   * Checks if record has been published.
+   * @return <code>true</code> if record has been published
+   */
+  public boolean isPublished() {
+    return error==null;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("OUTCOME :: %s, %s", dataReference, error!=null? error.getMessage(): status);
+  }
+}
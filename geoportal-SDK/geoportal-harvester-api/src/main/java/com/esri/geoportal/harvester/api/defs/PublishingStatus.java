@@ -17,27 +17,65 @@ package com.esri.geoportal.harvester.api.defs;
 
 /**
  * Publishing status.
+ * <p>
+ * Pending records have been accepted by the destination, but their publishing
+ * has been deferred, for example until the batch fills up. Final status of 
+ * each pending record is available once the link is flushed.
+ * <p>
+ * Unchanged records are skipped records which haven't changed since they have
+ * been published last time, thus each of them is counted as skipped as well.
+ * 
+ * @see com.esri.geoportal.harvester.api.general.Link#flush() 
  */
 public class PublishingStatus {
   public static final PublishingStatus EMPTY   = new ImmutablePublishingStatus(0, 0, 0);
   public static final PublishingStatus SKIPPED = new ImmutablePublishingStatus(1, 0, 0);
   public static final PublishingStatus CREATED = new ImmutablePublishingStatus(0, 1, 0);
   public static final PublishingStatus UPDATED = new ImmutablePublishingStatus(0, 0, 1);
+  public static final PublishingStatus PENDING = new ImmutablePublishingStatus(0, 0, 0, 1);
+  public static final PublishingStatus UNCHANGED = new ImmutablePublishingStatus(1, 0, 0, 0, 1);
   
   private final long skipped;
   private final long created;
   private final long updated;
+  private final long pending;
+  private final long unchanged;
   
   /**
    * Creates instance of the status.
    * @param skipped number of records skipped
    * @param created number of created record
    * @param updated number of updated records
+   * @param pending number of records pending
+   * @param unchanged number of records skipped as unchanged
    */
-  public PublishingStatus(long skipped, long created, long updated) {
+  public PublishingStatus(long skipped, long created, long updated, long pending, long unchanged) {
     this.skipped = skipped;
     this.created = created;
     this.updated = updated;
+    this.pending = pending;
+    this.unchanged = unchanged;
+  }
+  
+  /**
+   * Creates instance of the status.
+   * @param skipped number of records skipped
+   * @param created number of created record
+   * @param updated number of updated records
+   * @param pending number of records pending
+   */
+  public PublishingStatus(long skipped, long created, long updated, long pending) {
+    this(skipped, created, updated, pending, 0);
+  }
+  
+  /**
+   * Creates instance of the status.
+   * @param skipped number of records skipped
+   * @param created number of created record
+   * @param updated number of updated records
+   */
+  public PublishingStatus(long skipped, long created, long updated) {
+    this(skipped, created, updated, 0);
   }
   
   /**
@@ -54,7 +92,7 @@ public class PublishingStatus {
    * @return outcome of collecting
    */
   public PublishingStatus collect(PublishingStatus ps) {
-    return new PublishingStatus(skipped+ps.getSkipped(), created+ps.getCreated(), updated+ps.getUpdated());
+    return new PublishingStatus(skipped+ps.getSkipped(), created+ps.getCreated(), updated+ps.getUpdated(), pending+ps.getPending(), unchanged+ps.getUnchanged());
   }
   
   /**
@@ -80,12 +118,36 @@ public class PublishingStatus {
   public long getUpdated() {
     return updated;
   }
+
+  /**
+   * Gets number of pending records.
+   * @return number of pending records
+   */
+  public long getPending() {
+    return pending;
+  }
+
+  /**
+   * Gets number of records skipped as unchanged.
+   * @return number of records skipped as unchanged
+   */
+  public long getUnchanged() {
+    return unchanged;
+  }
+  
+  /**
+   * Checks if status consists of pending records only.
+   * @return <code>true</code> if all the records are pending
+   */
+  public boolean isPending() {
+    return pending>0 && skipped==0 && created==0 && updated==0;
+  }
   
   @Override
   public boolean equals(Object obj) {
     if (obj instanceof PublishingStatus) {
       PublishingStatus ps = (PublishingStatus)obj;
-      return getSkipped()==ps.getSkipped() && getCreated()==ps.getCreated() && getUpdated()==ps.getUpdated();
+      return getSkipped()==ps.getSkipped() && getCreated()==ps.getCreated() && getUpdated()==ps.getUpdated() && getPending()==ps.getPending() && getUnchanged()==ps.getUnchanged();
     }
     return false;
   }
@@ -96,6 +158,8 @@ public class PublishingStatus {
     hash = 73 * hash + (int) (this.skipped ^ (this.skipped >>> 32));
     hash = 73 * hash + (int) (this.created ^ (this.created >>> 32));
     hash = 73 * hash + (int) (this.updated ^ (this.updated >>> 32));
+    hash = 73 * hash + (int) (this.pending ^ (this.pending >>> 32));
+    hash = 73 * hash + (int) (this.unchanged ^ (this.unchanged >>> 32));
     return hash;
   }
   
@@ -110,9 +174,21 @@ public class PublishingStatus {
     if (equals(UPDATED)) {
       return String.format("STATUS::UPDATED");
     }
+    if (equals(PENDING)) {
+      return String.format("STATUS::PENDING");
+    }
+    if (equals(UNCHANGED)) {
+      return String.format("STATUS::UNCHANGED");
+    }
     if (equals(EMPTY)) {
       return String.format("STATUS::EMPTY");
     }
+    if (unchanged>0) {
+      return String.format("STATUS::skipped:%d,created:%d,updated:%s,pending:%d,unchanged:%d", skipped,created,updated,pending,unchanged);
+    }
+    if (pending>0) {
+      return String.format("STATUS::skipped:%d,created:%d,updated:%s,pending:%d", skipped,created,updated,pending);
+    }
     return String.format("STATUS::skipped:%d,created:%d,updated:%s", skipped,created,updated);
   }
   
@@ -131,6 +207,29 @@ public class PublishingStatus {
       super(skipped, created, updated);
     }
 
+    /**
+     * Creates instance of the status.
+     * @param skipped number of records skipped
+     * @param created number of created record
+     * @param updated number of updated records
+     * @param pending number of records pending
+     */
+    public ImmutablePublishingStatus(long skipped, long created, long updated, long pending) {
+      super(skipped, created, updated, pending);
+    }
+
+    /**
+     * Creates instance of the status.
+     * @param skipped number of records skipped
+     * @param created number of created record
+     * @param updated number of updated records
+     * @param pending number of records pending
+     * @param unchanged number of records skipped as unchanged
+     */
+    public ImmutablePublishingStatus(long skipped, long created, long updated, long pending, long unchanged) {
+      super(skipped, created, updated, pending, unchanged);
+    }
+
     @Override
     public PublishingStatus collect(PublishingStatus ps) {
       throw new IllegalStateException("Object is immutable.");
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.api.ex;
+
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data output batch exception.
+ * <p>
+ * Thrown when some records of a batch have been published and some have 
+ * failed. Both the statuses and the errors are listed in the order of the
+ * batch; records with neither status nor error have not been published.
+ */
+public class DataOutputBatchException extends DataOutputException {
+  private final List<PublishingStatus> statuses;
+  private final List<DataOutputException> errors;
+
+  /**
+   * Constructs an instance of <code>DataOutputBatchException</code>.
+   *
+   * @param outputBroker output
+   * @param ref reference of the first failed record
+   * @param statuses publishing statuses; <code>null</code> for records not published
+   * @param errors errors; <code>null</code> for records not failed
+   */
+  public DataOutputBatchException(OutputBroker outputBroker, DataReference ref, List<PublishingStatus> statuses, List<DataOutputException> errors) {
+    super(outputBroker, ref, String.format("Error publishing %d of %d records", errors.stream().filter(e -> e!=null).count(), errors.size()));
+    this.statuses = Collections.unmodifiableList(statuses);
+    this.errors = Collections.unmodifiableList(errors);
+  }
+
+  /**
+   * Gets publishing statuses.
+   * @return publishing statuses; <code>null</code> for records not published
+   */
+  public List<PublishingStatus> getStatuses() {
+    return statuses;
+  }
+
+  /**
+   * Gets errors.
+   * @return errors; <code>null</code> for records not failed
+   */
+  public List<DataOutputException> getErrors() {
+    return errors;
+  }
+}
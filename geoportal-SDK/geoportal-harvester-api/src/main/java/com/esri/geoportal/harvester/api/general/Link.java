@@ -17,10 +17,13 @@ package com.esri.geoportal.harvester.api.general;
 
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.defs.LinkDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
 import com.esri.geoportal.harvester.api.defs.PublishingStatus;
 import com.esri.geoportal.harvester.api.ex.DataOutputException;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
 import com.esri.geoportal.harvester.api.Initializable;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Link.
@@ -41,4 +44,17 @@ public interface Link extends Initializable {
    * @throws DataOutputException if sending to the output fails
    */
   PublishingStatus push(DataReference dataRef) throws DataProcessorException, DataOutputException;
+  
+  /**
+   * Publishes all the records pending since the last flush.
+   * <p>
+   * Push of a record may only accept the record, for example to publish it 
+   * later as a part of a batch; such push reports pending status. Data 
+   * reference of a pending record has to stay valid until the link is 
+   * flushed. Flush must not be called at the same time as push.
+   * @return outcome of each record pending since the last flush
+   */
+  default List<PublishingOutcome> flush() {
+    return Collections.emptyList();
+  }
 }
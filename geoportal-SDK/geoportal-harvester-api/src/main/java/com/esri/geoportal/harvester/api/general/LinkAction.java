@@ -17,9 +17,11 @@ package com.esri.geoportal.harvester.api.general;
 
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
 import com.esri.geoportal.harvester.api.defs.PublishingStatus;
 import com.esri.geoportal.harvester.api.ex.DataOutputException;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import java.util.Collections;
 import java.util.List;
 import com.esri.geoportal.harvester.api.Initializable;
 
@@ -50,4 +52,13 @@ public interface LinkAction extends Initializable {
    * @throws DataOutputException if sending to the output fails
    */
   PublishingStatus push(DataReference dataRef) throws DataProcessorException, DataOutputException;
+  
+  /**
+   * Publishes all the records pending since the last flush.
+   * @return outcome of each record pushed with {@link PublishingStatus#PENDING} status and not reported yet
+   * @see Link#flush() 
+   */
+  default List<PublishingOutcome> flush() {
+    return Collections.emptyList();
+  }
 }
@@ -22,6 +22,7 @@ import com.esri.geoportal.harvester.api.ex.DataInputException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Date;
+import java.util.Map;
 
 /**
  * Input broker.
@@ -72,6 +73,47 @@ public interface InputBroker extends Broker<InputConnector> {
      * @throws DataInputException if getting next data reference fails
      */
     DataReference next() throws DataInputException;
+    
+    /**
+     * Gets checkpoint. 
+     * <p>
+     * Checkpoint is an opaque token, like resumption token or page offset, 
+     * describing position of the iterator. Iterator created with the 
+     * checkpoint in the iterator context continues from that position rather 
+     * than from the beginning. It is allowed to return again some of the 
+     * records returned before the checkpoint has been taken, but no record 
+     * returned after may be skipped.
+     * @return checkpoint or <code>null</code> if no checkpoint available
+     * @see IteratorContext#getCheckpoint() 
+     */
+    default String getCheckpoint() {
+      return null;
+    }
+    
+    /**
+     * Gets watermark.
+     * <p>
+     * Watermark is an opaque token, like the latest modification time of the
+     * returned records, describing how far the source has been harvested. 
+     * Iterator created with the watermark in the iterator context returns 
+     * only records added or modified since then. Watermark is taken only once
+     * the iterator has been exhausted.
+     * @return watermark or <code>null</code> if no watermark available
+     * @see IteratorContext#getWatermark() 
+     */
+    default String getWatermark() {
+      return null;
+    }
+    
+    /**
+     * Gets statistics of reading the data, like number of records read so far
+     * by each of the parallel readers. Statistics may be requested at any 
+     * time by any thread.
+     * @return counters by name or <code>null</code> if no statistics available
+     */
+    default Map<String,Long> getStatistics() {
+      return null;
+    }
   }
   
   /**
@@ -83,5 +125,23 @@ public interface InputBroker extends Broker<InputConnector> {
      * @return last harvest date or <code>null</code> if no last harvest date available
      */
     Date getLastHarvestDate();
+    
+    /**
+     * Gets checkpoint to resume harvesting from.
+     * @return checkpoint or <code>null</code> to harvest from the beginning
+     * @see Iterator#getCheckpoint() 
+     */
+    default String getCheckpoint() {
+      return null;
+    }
+    
+    /**
+     * Gets watermark of the previous harvest.
+     * @return watermark or <code>null</code> to harvest all the records
+     * @see Iterator#getWatermark() 
+     */
+    default String getWatermark() {
+      return null;
+    }
   }
 }
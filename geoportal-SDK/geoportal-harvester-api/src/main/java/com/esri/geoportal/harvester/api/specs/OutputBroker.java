@@ -16,9 +16,12 @@
 package com.esri.geoportal.harvester.api.specs;
 
 import com.esri.geoportal.harvester.api.Broker;
+import com.esri.geoportal.harvester.api.ex.DataOutputBatchException;
 import com.esri.geoportal.harvester.api.ex.DataOutputException;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Output broker.
@@ -36,4 +39,36 @@ public interface OutputBroker extends Broker<OutputConnector> {
    * @throws DataOutputException if publishing data fails
    */
   PublishingStatus publish(DataReference ref) throws DataOutputException;
+  
+  /**
+   * Checks if broker is able to publish multiple records at once in a more 
+   * efficient way than publishing records one by one, for example through a
+   * bulk endpoint of the destination.
+   * @return <code>true</code> if broker supports publishing batches
+   * @see #publishBatch(java.util.List) 
+   */
+  default boolean isBatchSupported() {
+    return false;
+  }
+  
+  /**
+   * Publishes batch of data.
+   * <p>
+   * Default implementation publishes records one by one. If the batch as a 
+   * whole can not be published, an exception is thrown and the caller is 
+   * expected to publish records of the batch one by one to learn which record
+   * has failed. A broker able to tell which records have failed throws
+   * {@link DataOutputBatchException} instead, so records already published
+   * are not published again.
+   * @param refs list of data references
+   * @return list of publishing statuses; one for each reference in the same order
+   * @throws DataOutputException if publishing data fails
+   */
+  default List<PublishingStatus> publishBatch(List<DataReference> refs) throws DataOutputException {
+    List<PublishingStatus> statuses = new ArrayList<>(refs.size());
+    for (DataReference ref: refs) {
+      statuses.add(publish(ref));
+    }
+    return statuses;
+  }
 }
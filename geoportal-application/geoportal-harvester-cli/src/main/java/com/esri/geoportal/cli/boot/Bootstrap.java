@@ -25,6 +25,7 @@ import com.esri.geoportal.commons.meta.xml.SimpleFgdcMetaAnalyzer;
 import com.esri.geoportal.commons.meta.xml.SimpleIso15115MetaAnalyzer;
 import com.esri.geoportal.commons.meta.xml.SimpleIso15115_2MetaAnalyzer;
 import com.esri.geoportal.commons.meta.xml.SimpleIso15119MetaAnalyzer;
+import com.esri.geoportal.commons.meta.xml.SimpleXmlMetaAnalyzer;
 import com.esri.geoportal.geoportal.commons.geometry.GeometryService;
 import com.esri.geoportal.harvester.ckan.CkanConnector;
 import com.esri.geoportal.harvester.ckan.data.gov.DataGovConnector;
@@ -52,6 +53,7 @@ import com.esri.geoportal.harvester.engine.registers.FilterRegistry;
 import com.esri.geoportal.harvester.engine.registers.InboundConnectorRegistry;
 import com.esri.geoportal.harvester.engine.registers.OutboundConnectorRegistry;
 import com.esri.geoportal.harvester.engine.registers.ProcessorRegistry;
+import com.esri.geoportal.harvester.engine.registers.MetricsRegistry;
 import com.esri.geoportal.harvester.engine.registers.StatisticsRegistry;
 import com.esri.geoportal.harvester.engine.registers.TransformerRegistry;
 import com.esri.geoportal.harvester.engine.registers.TriggerRegistry;
@@ -72,8 +74,11 @@ import com.esri.geoportal.harvester.unc.UncConnector;
 import com.esri.geoportal.harvester.waf.WafConnector;
 import com.esri.geoportal.harvester.api.ex.*;
 import com.esri.geoportal.harvester.engine.defaults.DefaultProcessor;
+import com.esri.geoportal.harvester.engine.defaults.ParallelProcessor;
 import com.esri.geoportal.harvester.oai.pmh.OaiConnector;
 import com.esri.geoportal.harvester.sink.SinkConnector;
+import com.esri.geoportal.harvester.synthetic.NullConnector;
+import com.esri.geoportal.harvester.synthetic.SyntheticConnector;
 import com.esri.geoportal.harvester.jdbc.JdbcConnector;
 import com.esri.geoportal.harvester.dcat.DcatConnector;
 import java.io.IOException;
@@ -95,6 +100,7 @@ public class Bootstrap {
   private TriggerRegistry triggerRegistry;
   private TransformerRegistry transformerRegistry;
   private StatisticsRegistry statisticsRegistry;
+  private MetricsRegistry metricsRegistry;
   private MemProcessorRegistry processorRegistry;
   private OutboundConnectorRegistry outboundConnectorRegistry;
   private InboundConnectorRegistry inboundConnectorRegistry;
@@ -184,7 +190,8 @@ public class Bootstrap {
               createFilterRegistry(), 
               createProcessorRegistry(), 
               createTaskManager(), 
-              createHistoryManager() 
+              createHistoryManager(),
+              createMetricsRegistry()
       );
     }
     return taskService;
@@ -287,6 +294,7 @@ public class Bootstrap {
       inboundConnectorRegistry.put(DcatConnector.TYPE, new DcatConnector(metaBuilder));
       inboundConnectorRegistry.put(ThreddsConnector.TYPE, new ThreddsConnector());
       inboundConnectorRegistry.put(StacConnector.TYPE, new StacConnector(metaBuilder));
+      inboundConnectorRegistry.put(SyntheticConnector.TYPE, new SyntheticConnector());
     }
     
     return inboundConnectorRegistry;
@@ -297,6 +305,7 @@ public class Bootstrap {
       outboundConnectorRegistry = new OutboundConnectorRegistry();
 
       MetaAnalyzer metaAnalyzer = new MultiMetaAnalyzerWrapper(
+              new SimpleXmlMetaAnalyzer(), 
               new SimpleDcMetaAnalyzer(), 
               new SimpleFgdcMetaAnalyzer(), 
               new SimpleIso15115MetaAnalyzer(), 
@@ -307,6 +316,7 @@ public class Bootstrap {
       outboundConnectorRegistry.put(ConsoleConnector.TYPE, new ConsoleConnector());
       outboundConnectorRegistry.put(FolderConnector.TYPE, new FolderConnector());
       outboundConnectorRegistry.put(com.esri.geoportal.harvester.gpt.GptConnector.TYPE, new com.esri.geoportal.harvester.gpt.GptConnector(geometryServiceUrl, null));
+      outboundConnectorRegistry.put(NullConnector.TYPE, new NullConnector());
     }
     
     return outboundConnectorRegistry;
@@ -315,6 +325,8 @@ public class Bootstrap {
   protected ProcessorRegistry createProcessorRegistry() {
     if (processorRegistry==null) {
       processorRegistry = new MemProcessorRegistry();
+
+      processorRegistry.put(ParallelProcessor.TYPE, new ParallelProcessor());
     }
     
     return processorRegistry;
@@ -327,6 +339,13 @@ public class Bootstrap {
     return statisticsRegistry;
   }
   
+  protected MetricsRegistry createMetricsRegistry() {
+    if (metricsRegistry==null) {
+      metricsRegistry = new MetricsRegistry();
+    }
+    return metricsRegistry;
+  }
+  
   protected TransformerRegistry createTransformerRegistry() {
     if (transformerRegistry==null) {
       transformerRegistry = new TransformerRegistry();
@@ -19,14 +19,21 @@ import com.esri.geoportal.harvester.engine.managers.History;
 import com.esri.geoportal.harvester.engine.managers.HistoryManager;
 import com.esri.geoportal.harvester.engine.utils.CrudlException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * In-memory history manager.
  */
 public class MemHistoryManager extends MemCruds<History.Event> implements HistoryManager {
+  private final Map<UUID,String> checkpoints = new ConcurrentHashMap<>();
+  private final Map<UUID,String> watermarks = new ConcurrentHashMap<>();
+  private final Map<UUID,Map<String,Map<String,String>>> fingerprints = new ConcurrentHashMap<>();
 
   @Override
   public History buildHistory(UUID uuid) throws CrudlException {
@@ -38,6 +45,9 @@ public class MemHistoryManager extends MemCruds<History.Event> implements Histor
   @Override
   public void purgeHistory(UUID taskId) throws CrudlException {
     mem.entrySet().stream().filter(e->e.getValue().getTaskId().equals(taskId)).map(e->e.getKey()).forEach(uuid->mem.remove(uuid));
+    checkpoints.remove(taskId);
+    watermarks.remove(taskId);
+    fingerprints.remove(taskId);
   }
 
   @Override
@@ -48,5 +58,53 @@ public class MemHistoryManager extends MemCruds<History.Event> implements Histor
   @Override
   public void storeFailedDataId(UUID eventId, String dataId) throws CrudlException {
   }
+
+  @Override
+  public String readCheckpoint(UUID taskId) throws CrudlException {
+    return checkpoints.get(taskId);
+  }
+
+  @Override
+  public void storeCheckpoint(UUID taskId, String checkpoint) throws CrudlException {
+    checkpoints.put(taskId, checkpoint);
+  }
+
+  @Override
+  public void deleteCheckpoint(UUID taskId) throws CrudlException {
+    checkpoints.remove(taskId);
+  }
+
+  @Override
+  public String readWatermark(UUID taskId) throws CrudlException {
+    return watermarks.get(taskId);
+  }
+
+  @Override
+  public void storeWatermark(UUID taskId, String watermark) throws CrudlException {
+    watermarks.put(taskId, watermark);
+  }
+
+  @Override
+  public void deleteWatermark(UUID taskId) throws CrudlException {
+    watermarks.remove(taskId);
+  }
+
+  @Override
+  public Map<String,String> readFingerprints(UUID taskId, String linkId) throws CrudlException {
+    Map<String,String> linkFingerprints = fingerprints.getOrDefault(taskId, Collections.emptyMap()).get(linkId);
+    return linkFingerprints!=null? new HashMap<>(linkFingerprints): new HashMap<>();
+  }
+
+  @Override
+  public void storeFingerprints(UUID taskId, String linkId, Map<String,String> fingerprints) throws CrudlException {
+    this.fingerprints.computeIfAbsent(taskId, id -> new ConcurrentHashMap<>())
+            .computeIfAbsent(linkId, id -> new ConcurrentHashMap<>())
+            .putAll(fingerprints);
+  }
+
+  @Override
+  public void deleteFingerprints(UUID taskId) throws CrudlException {
+    fingerprints.remove(taskId);
+  }
   
 }
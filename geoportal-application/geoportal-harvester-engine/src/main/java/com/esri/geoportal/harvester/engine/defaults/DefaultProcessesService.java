@@ -25,6 +25,7 @@ import com.esri.geoportal.harvester.engine.managers.ProcessManager;
 import com.esri.geoportal.harvester.engine.managers.ReportManager;
 import com.esri.geoportal.harvester.engine.registers.StatisticsRegistry;
 import com.esri.geoportal.harvester.engine.utils.CrudlException;
+import com.esri.geoportal.harvester.engine.utils.ProcessQueue;
 import com.esri.geoportal.harvester.engine.utils.ProcessReference;
 import com.esri.geoportal.harvester.engine.utils.ReportBuilder;
 import com.esri.geoportal.harvester.engine.utils.ReportBuilderAdaptor;
@@ -42,17 +43,30 @@ public class DefaultProcessesService implements ProcessesService {
   protected final ProcessManager processManager;
   protected final ReportManager reportManager;
   protected final StatisticsRegistry statisticsRegistry;
+  protected final ProcessQueue processQueue;
 
   /**
    * Creates instance of the service.
    * @param processManager process manager
    * @param reportManager report manager
    * @param statisticsRegistry statistics registry
+   * @param processQueue process queue or <code>null</code> if number of running processes is unlimited
    */
-  public DefaultProcessesService(ProcessManager processManager, ReportManager reportManager, StatisticsRegistry statisticsRegistry) {
+  public DefaultProcessesService(ProcessManager processManager, ReportManager reportManager, StatisticsRegistry statisticsRegistry, ProcessQueue processQueue) {
     this.processManager = processManager;
     this.reportManager = reportManager;
     this.statisticsRegistry = statisticsRegistry;
+    this.processQueue = processQueue;
+  }
+
+  /**
+   * Creates instance of the service.
+   * @param processManager process manager
+   * @param reportManager report manager
+   * @param statisticsRegistry statistics registry
+   */
+  public DefaultProcessesService(ProcessManager processManager, ReportManager reportManager, StatisticsRegistry statisticsRegistry) {
+    this(processManager, reportManager, statisticsRegistry, null);
   }
 
   @Override
@@ -82,10 +96,11 @@ public class DefaultProcessesService implements ProcessesService {
   public ProcessReference createProcess(Task task, IteratorContext iteratorContext) throws InvalidDefinitionException, DataProcessorException {
     try {
       ProcessInstance process = task.getProcessor().createProcess(task,iteratorContext);
-      UUID uuid = processManager.create(process);
+      ProcessInstance managedProcess = processQueue!=null? processQueue.wrap(process): process;
+      UUID uuid = processManager.create(managedProcess);
       ReportBuilder reportBuilder = reportManager.createReportBuilder(uuid, process);
-      process.addListener(new ReportBuilderAdaptor(uuid, process, reportBuilder));
-      return new ProcessReference(uuid, process);
+      managedProcess.addListener(new ReportBuilderAdaptor(uuid, process, reportBuilder));
+      return new ProcessReference(uuid, managedProcess);
     } catch (CrudlException ex) {
       throw new DataProcessorException(String.format("Error creating process: %s", task), ex);
     }
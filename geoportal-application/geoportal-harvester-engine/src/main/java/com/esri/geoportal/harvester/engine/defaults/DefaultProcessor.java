@@ -20,35 +20,140 @@ import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.Initializable.InitContext;
 import com.esri.geoportal.harvester.api.ProcessInstance;
 import com.esri.geoportal.harvester.api.Processor;
+import com.esri.geoportal.harvester.api.base.ContentStore;
 import com.esri.geoportal.harvester.api.base.SimpleInitContext;
+import com.esri.geoportal.harvester.api.defs.BatchPolicy;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
 import com.esri.geoportal.harvester.api.defs.PublishingStatus;
 import com.esri.geoportal.harvester.api.defs.Task;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.ex.DataException;
 import com.esri.geoportal.harvester.api.ex.DataInputException;
 import com.esri.geoportal.harvester.api.ex.DataOutputException;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import com.esri.geoportal.harvester.api.general.Link;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
 import com.esri.geoportal.harvester.api.specs.InputBroker.IteratorContext;
+import com.esri.geoportal.harvester.engine.utils.EventBus;
+import com.esri.geoportal.harvester.engine.utils.PrefetchIterator;
+import com.esri.geoportal.harvester.engine.utils.PrefetchStatistics;
+import com.esri.geoportal.harvester.engine.utils.ProcessQueue;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * DefaultProcessor.
+ * <p>
+ * Optionally, data can be read ahead from the input broker while the previous
+ * data is still being published. Read-ahead queue is limited by number of 
+ * records and by number of bytes.
+ * <p>
+ * Each data reference can be pushed to all the destinations at the same time
+ * using a limited number of fan-out threads.
+ * <p>
+ * Priority decides which queued process begins first if the number of running
+ * processes is limited.
+ * <p>
+ * Records can be published in batches to the destinations supporting it; such
+ * destinations accept each record right away and publish it once the batch 
+ * fills up. Destinations are flushed once as many records as the batch size 
+ * are pending, once the first pending record has been waiting longer than the
+ * linger time, before each checkpoint, and when harvesting ends. Flush due to
+ * batch size is postponed while other threads are pushing records, unless 
+ * there are more records pending than batches of all the pushing threads. 
+ * Data reference is released only once published to all the destinations.
+ * <p>
+ * Content larger than the spill threshold is kept in temporary files until 
+ * the record is processed:
+   <pre><code>
+   "processor": {
+     "type": "DEFAULT",
+     "properties": {
+       "p-prefetch": "32",
+       "p-prefetch-bytes": "67108864",
+       "p-fanout": "4",
+       "p-priority": "1",
+       "p-batch": "100",
+       "p-batch-bytes": "10485760",
+       "p-batch-linger": "200",
+       "p-spill-threshold": "16777216"
+     }
+   }
+   </code></pre>
  */
 public class DefaultProcessor implements Processor {
 
   public static final String TYPE = "DEFAULT";
+  public static final String P_PREFETCH = "p-prefetch";
+  public static final String P_PREFETCH_BYTES = "p-prefetch-bytes";
+  public static final String P_FANOUT = "p-fanout";
+  public static final String P_PRIORITY = ProcessQueue.P_PRIORITY;
+  public static final String P_BATCH = "p-batch";
+  public static final String P_BATCH_BYTES = "p-batch-bytes";
+  public static final String P_BATCH_LINGER = "p-batch-linger";
+  public static final String P_SPILL_THRESHOLD = "p-spill-threshold";
+  public static final long DEFAULT_BATCH_LINGER = 100;
+  public static final long CHECKPOINT_INTERVAL = 10000;
 
   private static final Logger LOG = LoggerFactory.getLogger(DefaultProcessor.class);
   
+  protected final int prefetch;
+  protected final long prefetchBytes;
+  protected final int fanOut;
+  protected int priority;
+  protected BatchPolicy batchPolicy = BatchPolicy.NONE;
+  protected long spillThreshold = ContentStore.DEFAULT_THRESHOLD;
+
+  /**
+   * Creates instance of the processor.
+   * @param prefetch number of records to read ahead or 0 to disable read-ahead
+   * @param prefetchBytes maximum number of bytes to read ahead or 0 for no limit
+   * @param fanOut number of threads pushing data to the destinations or 0 to push sequentially
+   */
+  public DefaultProcessor(Integer prefetch, Long prefetchBytes, Integer fanOut) {
+    this.prefetch = prefetch!=null && prefetch>0? prefetch: 0;
+    this.prefetchBytes = prefetchBytes!=null && prefetchBytes>0? prefetchBytes: 0;
+    this.fanOut = fanOut!=null && fanOut>0? fanOut: 0;
+  }
+
+  /**
+   * Creates instance of the processor.
+   */
+  public DefaultProcessor() {
+    this(0, 0L, 0);
+  }
+  
+  /**
+   * Sets spill threshold.
+   * @param spillThreshold maximum size of the content kept on heap or 0 to keep all the content on heap
+   */
+  public void setSpillThreshold(Long spillThreshold) {
+    this.spillThreshold = spillThreshold!=null && spillThreshold>0? spillThreshold: 0;
+  }
+  
   @Override
   public String getType() {
     return TYPE;
@@ -56,39 +161,191 @@ public class DefaultProcessor implements Processor {
 
   @Override
   public UITemplate getTemplate(Locale locale) {
-    UITemplate uiTemplate = new UITemplate(getType(), "Default processor", null);
+    ResourceBundle bundle = ResourceBundle.getBundle("EngineResource", locale);
+    UITemplate uiTemplate = new UITemplate(getType(), "Default processor", createArguments(bundle));
     return uiTemplate;
   }
 
   @Override
   public EntityDefinition getEntityDefinition() {
     EntityDefinition entityDefiniton = new EntityDefinition();
-    entityDefiniton.setType(TYPE);
-    entityDefiniton.setLabel(TYPE);
+    entityDefiniton.setType(getType());
+    entityDefiniton.setLabel(getType());
+    entityDefiniton.setProperties(createProperties());
     return entityDefiniton;
   }
 
+  @Override
+  public Processor configure(EntityDefinition processorDefinition) throws InvalidDefinitionException {
+    if (!getType().equals(processorDefinition.getType())) {
+      throw new InvalidDefinitionException(String.format("Invalid processor definition: %s", processorDefinition));
+    }
+    DefaultProcessor processor = new DefaultProcessor(
+            readInteger(processorDefinition, P_PREFETCH, prefetch), 
+            readLong(processorDefinition, P_PREFETCH_BYTES, prefetchBytes),
+            readInteger(processorDefinition, P_FANOUT, fanOut));
+    processor.priority = readInteger(processorDefinition, P_PRIORITY, priority);
+    processor.batchPolicy = readBatchPolicy(processorDefinition, batchPolicy);
+    processor.spillThreshold = readLong(processorDefinition, P_SPILL_THRESHOLD, spillThreshold);
+    return processor;
+  }
+
   @Override
   public ProcessInstance createProcess(Task task, IteratorContext iteratorContext) {
     LOG.info(String.format("SUBMITTING: %s", task));
-    return new DefaultProcess(task, iteratorContext);
+    return new DefaultProcess(task, iteratorContext, createPrefetchStatistics(), fanOut, batchPolicy, createContentStore());
+  }
+  
+  /**
+   * Creates UI template arguments.
+   * @param bundle resource bundle
+   * @return list of arguments
+   */
+  protected List<UITemplate.Argument> createArguments(ResourceBundle bundle) {
+    List<UITemplate.Argument> arguments = new ArrayList<>();
+    arguments.add(new UITemplate.IntegerArgument(P_PREFETCH, bundle.getString("engine.processors.prefetch"), false, prefetch));
+    arguments.add(new UITemplate.IntegerArgument(P_PREFETCH_BYTES, bundle.getString("engine.processors.prefetch.bytes"), false));
+    arguments.add(new UITemplate.IntegerArgument(P_FANOUT, bundle.getString("engine.processors.fanout"), false, fanOut));
+    arguments.add(new UITemplate.IntegerArgument(P_PRIORITY, bundle.getString("engine.processors.priority"), false, priority));
+    arguments.add(new UITemplate.IntegerArgument(P_BATCH, bundle.getString("engine.processors.batch"), false, batchPolicy.getMaxSize()));
+    arguments.add(new UITemplate.IntegerArgument(P_BATCH_BYTES, bundle.getString("engine.processors.batch.bytes"), false));
+    arguments.add(new UITemplate.IntegerArgument(P_BATCH_LINGER, bundle.getString("engine.processors.batch.linger"), false));
+    arguments.add(new UITemplate.IntegerArgument(P_SPILL_THRESHOLD, bundle.getString("engine.processors.spill.threshold"), false));
+    return arguments;
+  }
+  
+  /**
+   * Creates definition properties.
+   * @return properties
+   */
+  protected Map<String,String> createProperties() {
+    Map<String,String> properties = new LinkedHashMap<>();
+    if (prefetch>0) {
+      properties.put(P_PREFETCH, Integer.toString(prefetch));
+      if (prefetchBytes>0) {
+        properties.put(P_PREFETCH_BYTES, Long.toString(prefetchBytes));
+      }
+    }
+    if (fanOut>0) {
+      properties.put(P_FANOUT, Integer.toString(fanOut));
+    }
+    if (priority>0) {
+      properties.put(P_PRIORITY, Integer.toString(priority));
+    }
+    if (batchPolicy.isEnabled()) {
+      properties.put(P_BATCH, Integer.toString(batchPolicy.getMaxSize()));
+      if (batchPolicy.getMaxBytes()>0) {
+        properties.put(P_BATCH_BYTES, Long.toString(batchPolicy.getMaxBytes()));
+      }
+      properties.put(P_BATCH_LINGER, Long.toString(batchPolicy.getMaxLinger()));
+    }
+    if (spillThreshold!=ContentStore.DEFAULT_THRESHOLD) {
+      properties.put(P_SPILL_THRESHOLD, Long.toString(spillThreshold));
+    }
+    return properties;
+  }
+  
+  /**
+   * Creates prefetch statistics.
+   * @return prefetch statistics or <code>null</code> if read-ahead is disabled
+   */
+  protected PrefetchStatistics createPrefetchStatistics() {
+    return prefetch>0? new PrefetchStatistics(prefetch, prefetchBytes): null;
+  }
+  
+  /**
+   * Creates content store.
+   * @return content store of a single process
+   */
+  protected ContentStore createContentStore() {
+    return new ContentStore(spillThreshold, null);
+  }
+  
+  /**
+   * Reads batch policy.
+   * @param definition processor definition
+   * @param defaultPolicy default batch policy
+   * @return batch policy
+   * @throws InvalidDefinitionException if invalid property value
+   */
+  protected static BatchPolicy readBatchPolicy(EntityDefinition definition, BatchPolicy defaultPolicy) throws InvalidDefinitionException {
+    int maxSize = readInteger(definition, P_BATCH, defaultPolicy.getMaxSize());
+    long maxBytes = readLong(definition, P_BATCH_BYTES, defaultPolicy.getMaxBytes());
+    long maxLinger = readLong(definition, P_BATCH_LINGER, defaultPolicy.isEnabled()? defaultPolicy.getMaxLinger(): DEFAULT_BATCH_LINGER);
+    return maxSize>1? new BatchPolicy(maxSize, maxBytes, maxLinger): BatchPolicy.NONE;
+  }
+  
+  /**
+   * Reads integer property.
+   * @param definition processor definition
+   * @param name property name
+   * @param defaultValue default value
+   * @return property value
+   * @throws InvalidDefinitionException if invalid property value
+   */
+  protected static int readInteger(EntityDefinition definition, String name, int defaultValue) throws InvalidDefinitionException {
+    return (int)readLong(definition, name, defaultValue);
+  }
+  
+  /**
+   * Reads long property.
+   * @param definition processor definition
+   * @param name property name
+   * @param defaultValue default value
+   * @return property value
+   * @throws InvalidDefinitionException if invalid property value
+   */
+  protected static long readLong(EntityDefinition definition, String name, long defaultValue) throws InvalidDefinitionException {
+    String value = definition.getProperties().get(name);
+    if (value==null || value.trim().isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      long longValue = Long.parseLong(value.trim());
+      if (longValue<0) {
+        throw new InvalidDefinitionException(formatForLog("Invalid value of %s: %s", name, value));
+      }
+      return longValue;
+    } catch (NumberFormatException ex) {
+      throw new InvalidDefinitionException(formatForLog("Invalid value of %s: %s", name, value), ex);
+    }
   }
 
   /**
    * Default process.
+   * <p>
+   * Listeners are notified asynchronously through the event bus, in the order 
+   * events have occurred. All the events are delivered before the harvesting
+   * thread ends.
    */
   public static class DefaultProcess implements ProcessInstance {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultProcess.class);
     private final List<ProcessInstance.Listener> listeners = Collections.synchronizedList(new ArrayList<>());
+    private final EventBus eventBus = new EventBus(listeners);
 
     final Task task;
     final Thread thread;
+    final PrefetchStatistics prefetchStatistics;
+    final int fanOut;
+    final BatchPolicy batchPolicy;
+    final ContentStore contentStore;
+    private volatile ExecutorService fanOutExecutor;
+    private volatile ScheduledExecutorService lingerExecutor;
 
     private volatile boolean completed;
     private volatile boolean aborting;
+    private volatile InputBroker.Iterator inputIterator;
+    
+    private long lastCheckpointTime = System.currentTimeMillis();
+    private String lastCheckpoint;
+    
+    // records are pushed under read lock and destinations are flushed under write lock
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final List<DataReference> pending = new ArrayList<>();
+    private long pendingSince;
 
-    private String getTitle() {
+    protected String getTitle() {
       return task.getTaskDefinition().toString();
     }
     
@@ -132,9 +389,29 @@ public class DefaultProcessor implements Processor {
      * @param iteratorContext iteration context
      */
     public DefaultProcess(Task task, IteratorContext iteratorContext) {
+      this(task, iteratorContext, null, 0, BatchPolicy.NONE, null);
+    }
+    
+    /**
+     * Creates instance of the process.
+     *
+     * @param task task
+     * @param iteratorContext iteration context
+     * @param prefetchStatistics prefetch statistics or <code>null</code> to disable read-ahead
+     * @param fanOut number of threads pushing data to the destinations or 0 to push sequentially
+     * @param batchPolicy policy of publishing records in batches
+     * @param contentStore content store or <code>null</code> for the default store
+     */
+    public DefaultProcess(Task task, IteratorContext iteratorContext, PrefetchStatistics prefetchStatistics, int fanOut, BatchPolicy batchPolicy, ContentStore contentStore) {
       this.task = task;
+      this.prefetchStatistics = prefetchStatistics;
+      this.fanOut = fanOut;
+      this.batchPolicy = batchPolicy;
+      this.contentStore = contentStore!=null? contentStore: ContentStore.DEFAULT;
       this.thread = new Thread(() -> {
-        InitContext initContext = new SimpleInitContext(task,listeners);
+        fanOutExecutor = createFanOutExecutor(fanOut);
+        lingerExecutor = createLingerExecutor(batchPolicy);
+        InitContext initContext = new SimpleInitContext(task,listeners,fanOutExecutor,batchPolicy,this.contentStore);
         LOG.info(formatForLog("Started harvest: %s", getTitle()));
         
         initializeRefs();
@@ -145,27 +422,15 @@ public class DefaultProcessor implements Processor {
             onStatusChange();
             
             InputBroker.Iterator iterator = task.getDataSource().iterator(iteratorContext);
-            while (iterator.hasNext()) {
-              if (Thread.currentThread().isInterrupted()) {
-                break;
+            inputIterator = iterator;
+            if (prefetchStatistics!=null) {
+              try (PrefetchIterator prefetchIterator = new PrefetchIterator(iterator, prefetchStatistics, "HARVESTING-PREFETCH").start()) {
+                harvest(prefetchIterator);
+                watermark(prefetchIterator);
               }
-              
-              DataReference dataReference = iterator.next();
-              onAcquire(dataReference);
-              
-              task.getDataDestinations().stream().forEach((d) -> {
-                try {
-                  PublishingStatus status = d.push(dataReference);
-                  LOG.debug(formatForLog("Harvested %s during %s", dataReference, getTitle()));
-                  onSuccess(dataReference, status);
-                } catch (DataProcessorException ex) {
-                  LOG.warn(formatForLog("Failed harvesting %s during %s", dataReference, getTitle()));
-                  onError(ex);
-                } catch (DataOutputException ex) {
-                  LOG.warn(formatForLog("Failed harvesting %s during %s", dataReference, getTitle()));
-                  onError(ex);
-                }
-              });
+            } else {
+              harvest(iterator);
+              watermark(iterator);
             }
             
           } catch (DataInputException ex) {
@@ -175,16 +440,391 @@ public class DefaultProcessor implements Processor {
             LOG.error(formatForLog("Error harvesting of %s", getTitle()), ex);
             onError(ex);
           } finally {
+            // brokers may depend on events delivered to their listeners
+            eventBus.flush();
+            if (lingerExecutor!=null) {
+              lingerExecutor.shutdownNow();
+            }
             terminate();
+            if (fanOutExecutor!=null) {
+              fanOutExecutor.shutdown();
+            }
             completed = true;
             aborting = false;
             Thread.interrupted();
             onStatusChange();
+            eventBus.flush();
           }
+        } else {
+          completed = true;
+          onStatusChange();
+          eventBus.flush();
         }
       }, "HARVESTING");
     }
 
+    /**
+     * Harvests all the data available through the iterator.
+     * @param iterator input iterator
+     * @throws DataInputException if reading data fails
+     */
+    protected void harvest(InputBroker.Iterator iterator) throws DataInputException {
+      try {
+        while (iterator.hasNext()) {
+          if (Thread.currentThread().isInterrupted()) {
+            break;
+          }
+
+          DataReference dataReference = iterator.next();
+          onAcquire(dataReference);
+          process(dataReference);
+          checkpoint(iterator, false);
+        }
+      } finally {
+        flush();
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        checkpoint(iterator, true);
+      }
+    }
+    
+    /**
+     * Notifies listeners about checkpoint of the iterator. Listeners are not
+     * notified more often than once per {@link DefaultProcessor#CHECKPOINT_INTERVAL} unless 
+     * forced to, and never with the same checkpoint twice.
+     * @param iterator input iterator
+     * @param force <code>true</code> to ignore checkpoint interval
+     */
+    protected void checkpoint(InputBroker.Iterator iterator, boolean force) {
+      long now = System.currentTimeMillis();
+      if (!force && now - lastCheckpointTime < CHECKPOINT_INTERVAL) {
+        return;
+      }
+      lastCheckpointTime = now;
+      String checkpoint = getCheckpoint(iterator);
+      // records pending in the destinations have to be published before the checkpoint
+      flush();
+      if (checkpoint!=null && !checkpoint.equals(lastCheckpoint)) {
+        lastCheckpoint = checkpoint;
+        LOG.debug(formatForLog("Checkpoint %s reached during %s", checkpoint, getTitle()));
+        eventBus.post(l -> l.onCheckpoint(checkpoint));
+      }
+    }
+    
+    /**
+     * Gets checkpoint of the iterator. Every record returned by the iterator 
+     * before the checkpoint has to be already pushed to the destinations.
+     * @param iterator input iterator
+     * @return checkpoint or <code>null</code> if no checkpoint available
+     */
+    protected String getCheckpoint(InputBroker.Iterator iterator) {
+      return iterator.getCheckpoint();
+    }
+    
+    /**
+     * Notifies listeners about watermark of the exhausted iterator. Listeners
+     * are not notified if harvesting has been interrupted.
+     * @param iterator input iterator
+     */
+    protected void watermark(InputBroker.Iterator iterator) {
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+      String watermark = iterator.getWatermark();
+      if (watermark!=null) {
+        LOG.debug(formatForLog("Watermark %s reached during %s", watermark, getTitle()));
+        eventBus.post(l -> l.onWatermark(watermark));
+      }
+    }
+    
+    /**
+     * Pushes data reference through all the destinations and releases it once
+     * published. Data reference pending in any of the destinations is released
+     * once the destinations are flushed, which happens once it is due and no
+     * other thread is pushing a record, once it is overdue, or once the linger
+     * time passes.
+     * May be called by multiple threads at the same time.
+     * @param dataReference data reference
+     */
+    protected void process(DataReference dataReference) {
+      // unless known otherwise, the record might still be pending
+      boolean isPending = true;
+      flushLock.readLock().lock();
+      try {
+        isPending = publish(dataReference);
+      } finally {
+        if (isPending) {
+          synchronized (pending) {
+            if (pending.isEmpty()) {
+              pendingSince = System.currentTimeMillis();
+              scheduleLingerFlush();
+            }
+            pending.add(dataReference);
+          }
+        }
+        flushLock.readLock().unlock();
+        if (!isPending) {
+          dataReference.release();
+        }
+      }
+      if (isFlushDue()) {
+        // waiting for a full batch being published by another thread would hold
+        // up all the threads and leave the next batch almost empty, thus unless
+        // overdue, flush is left to the thread finding no record being pushed
+        if (isFlushOverdue()) {
+          flush();
+        } else if (flushLock.writeLock().tryLock()) {
+          try {
+            flushPending();
+          } finally {
+            flushLock.writeLock().unlock();
+          }
+        }
+      }
+    }
+    
+    /**
+     * Schedules flush of the destinations once the linger time passes, thus 
+     * pending records are published even if the input stalls.
+     */
+    private void scheduleLingerFlush() {
+      ScheduledExecutorService executor = lingerExecutor;
+      if (executor==null) {
+        return;
+      }
+      try {
+        executor.schedule(() -> {
+          if (isFlushDue()) {
+            flush();
+          }
+        }, batchPolicy.getMaxLinger(), TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException ex) {
+        // harvesting has ended and all the records have been already flushed
+      }
+    }
+    
+    /**
+     * Checks if destinations are due to be flushed.
+     * @return <code>true</code> if flush is due
+     */
+    private boolean isFlushDue() {
+      synchronized (pending) {
+        return !pending.isEmpty() && (pending.size() >= batchPolicy.getMaxSize() || System.currentTimeMillis() - pendingSince >= batchPolicy.getMaxLinger());
+      }
+    }
+    
+    /**
+     * Checks if destinations have to be flushed even if records are being 
+     * pushed by other threads. It happens once there are more records pending
+     * than batches of all the pushing threads and the batch being filled up.
+     * @return <code>true</code> if flush is overdue
+     */
+    private boolean isFlushOverdue() {
+      synchronized (pending) {
+        return pending.size() >= (long)batchPolicy.getMaxSize() * (getPushingThreads() + 1);
+      }
+    }
+    
+    /**
+     * Gets number of threads pushing records at the same time.
+     * @return number of pushing threads
+     */
+    protected int getPushingThreads() {
+      return 1;
+    }
+    
+    /**
+     * Flushes all the destinations unless no record is pending. Reports outcome
+     * of each pending record and releases data references no longer pending.
+     * Waits until records being pushed by other threads are pushed. Pending
+     * records are published even if aborting.
+     */
+    protected void flush() {
+      flushLock.writeLock().lock();
+      try {
+        flushPending();
+      } finally {
+        flushLock.writeLock().unlock();
+      }
+    }
+    
+    /**
+     * Flushes all the destinations unless no record is pending. Has to be 
+     * called under the write lock.
+     */
+    private void flushPending() {
+      boolean interrupted = Thread.interrupted();
+      try {
+        List<DataReference> published;
+        synchronized (pending) {
+          if (pending.isEmpty()) {
+            return;
+          }
+          published = new ArrayList<>(pending);
+          pending.clear();
+        }
+        try {
+          for (Link destination: task.getDataDestinations()) {
+            for (PublishingOutcome outcome: destination.flush()) {
+              onOutcome(destination, outcome);
+            }
+          }
+        } finally {
+          published.forEach(DataReference::release);
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+    
+    /**
+     * Pushes data reference through all the destinations.
+     * @param dataReference data reference
+     * @return <code>true</code> if the record is pending in any of the destinations
+     */
+    protected boolean publish(DataReference dataReference) {
+      List<Link> destinations = task.getDataDestinations();
+      if (fanOutExecutor==null || destinations.size()<2) {
+        boolean isPending = false;
+        for (Link d: destinations) {
+          isPending |= publish(d, dataReference);
+        }
+        return isPending;
+      }
+      
+      List<Future<Boolean>> futures = new ArrayList<>();
+      destinations.forEach(d -> futures.add(fanOutExecutor.submit(() -> publish(d, dataReference))));
+      
+      // the record is published to all the destinations even if aborting
+      RuntimeException failure = null;
+      boolean interrupted = false;
+      boolean isPending = false;
+      for (Future<Boolean> future: futures) {
+        while (true) {
+          try {
+            isPending |= future.get();
+            break;
+          } catch (InterruptedException ex) {
+            interrupted = true;
+          } catch (ExecutionException ex) {
+            if (failure==null) {
+              failure = ex.getCause() instanceof RuntimeException? (RuntimeException)ex.getCause(): new IllegalStateException(ex.getCause());
+            }
+            break;
+          }
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (failure!=null) {
+        throw failure;
+      }
+      return isPending;
+    }
+    
+    /**
+     * Pushes data reference through a single destination.
+     * @param destination destination
+     * @param dataReference data reference
+     * @return <code>true</code> if the record is or might be pending in the destination
+     */
+    private boolean publish(Link destination, DataReference dataReference) {
+      try {
+        PublishingStatus status = destination.push(dataReference);
+        if (!status.isPending()) {
+          LOG.debug(formatForLog("Harvested %s during %s", dataReference, getTitle()));
+          onSuccess(dataReference, status);
+        }
+        return status.getPending()>0;
+      } catch (DataProcessorException ex) {
+        LOG.warn(formatForLog("Failed harvesting %s to %s during %s", dataReference, destination, getTitle()));
+        onError(ex);
+      } catch (DataOutputException ex) {
+        LOG.warn(formatForLog("Failed harvesting %s to %s during %s", dataReference, destination, getTitle()));
+        onError(ex);
+      }
+      // a batching drain might have accepted the record before a sibling drain
+      // failed, thus the record is released only once the destinations are flushed
+      return batchPolicy.isEnabled();
+    }
+    
+    /**
+     * Reports outcome of the record which has been pending in the destination.
+     * @param destination destination
+     * @param outcome publishing outcome
+     */
+    private void onOutcome(Link destination, PublishingOutcome outcome) {
+      if (outcome.isPublished()) {
+        LOG.debug(formatForLog("Harvested %s during %s", outcome.getDataReference(), getTitle()));
+        onSuccess(outcome.getDataReference(), outcome.getStatus());
+      } else {
+        LOG.warn(formatForLog("Failed harvesting %s to %s during %s", outcome.getDataReference(), destination, getTitle()));
+        DataException ex = outcome.getError();
+        eventBus.post(l -> l.onError(ex));
+      }
+    }
+    
+    /**
+     * Creates fan-out executor. Tasks are never queued; if all the threads are
+     * busy, the task is executed by the submitting thread, thus links nested
+     * within destinations can safely use the same executor.
+     * @param fanOut number of threads
+     * @return executor or <code>null</code> if no fan-out
+     */
+    private static ExecutorService createFanOutExecutor(int fanOut) {
+      if (fanOut<=0) {
+        return null;
+      }
+      AtomicInteger counter = new AtomicInteger();
+      return new ThreadPoolExecutor(fanOut, fanOut, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), 
+              r -> new Thread(r, String.format("HARVESTING-FANOUT-%d", counter.incrementAndGet())), 
+              new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Creates executor flushing destinations once the linger time passes.
+     * @param batchPolicy batch policy
+     * @return executor or <code>null</code> if no batches or no linger time
+     */
+    private static ScheduledExecutorService createLingerExecutor(BatchPolicy batchPolicy) {
+      if (!batchPolicy.isEnabled() || batchPolicy.getMaxLinger()<=0) {
+        return null;
+      }
+      return new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "HARVESTING-LINGER");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+
+    /**
+     * Gets prefetch statistics.
+     * @return prefetch statistics or <code>null</code> if read-ahead is disabled
+     */
+    public PrefetchStatistics getPrefetchStatistics() {
+      return prefetchStatistics;
+    }
+
+    /**
+     * Gets statistics reported by the input iterator.
+     * @return statistics or <code>null</code> if not available
+     */
+    public Map<String,Long> getInputStatistics() {
+      InputBroker.Iterator iterator = inputIterator;
+      return iterator!=null? iterator.getStatistics(): null;
+    }
+
+    /**
+     * Gets content store.
+     * @return content store
+     */
+    public ContentStore getContentStore() {
+      return contentStore;
+    }
+
     @Override
     public Task getTask() {
       return task;
@@ -249,10 +889,8 @@ public class DefaultProcessor implements Processor {
      *
      * @param ex output exception
      */
-    private void onError(DataOutputException ex) {
-      listeners.forEach(l -> {
-        l.onError(ex);
-      });
+    protected void onError(DataOutputException ex) {
+      eventBus.post(l -> l.onError(ex));
     }
 
     /**
@@ -260,10 +898,8 @@ public class DefaultProcessor implements Processor {
      *
      * @param ex processor exception
      */
-    private void onError(DataProcessorException ex) {
-      listeners.forEach(l -> {
-        l.onError(ex);
-      });
+    protected void onError(DataProcessorException ex) {
+      eventBus.post(l -> l.onError(ex));
     }
 
     /**
@@ -271,8 +907,8 @@ public class DefaultProcessor implements Processor {
      *
      * @param ex input exception
      */
-    private void onError(DataInputException ex) {
-      listeners.forEach(l -> l.onError(ex));
+    protected void onError(DataInputException ex) {
+      eventBus.post(l -> l.onError(ex));
     }
 
     /**
@@ -281,8 +917,8 @@ public class DefaultProcessor implements Processor {
      * @param dataRef data reference
      * @param status publishing status
      */
-    private void onSuccess(DataReference dataRef, PublishingStatus status) {
-      listeners.forEach(l -> l.onDataProcessed(dataRef, status));
+    protected void onSuccess(DataReference dataRef, PublishingStatus status) {
+      eventBus.post(l -> l.onDataProcessed(dataRef, status));
     }
 
     /**
@@ -290,8 +926,8 @@ public class DefaultProcessor implements Processor {
      *
      * @param dataRef data reference
      */
-    private void onAcquire(DataReference dataRef) {
-      listeners.forEach(l -> l.onDataAcquired(dataRef));
+    protected void onAcquire(DataReference dataRef) {
+      eventBus.post(l -> l.onDataAcquired(dataRef));
     }
 
     /**
@@ -299,7 +935,7 @@ public class DefaultProcessor implements Processor {
      */
     private void onStatusChange() {
       Status status = getStatus();
-      listeners.forEach(l -> l.onStatusChange(status));
+      eventBus.postStatus(l -> l.onStatusChange(status));
     }
 
     @Override
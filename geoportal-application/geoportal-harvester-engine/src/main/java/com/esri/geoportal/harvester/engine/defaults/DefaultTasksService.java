@@ -46,11 +46,16 @@ import com.esri.geoportal.harvester.engine.managers.HistoryManager;
 import com.esri.geoportal.harvester.engine.managers.TaskManager;
 import com.esri.geoportal.harvester.engine.registers.FilterRegistry;
 import com.esri.geoportal.harvester.engine.registers.InboundConnectorRegistry;
+import com.esri.geoportal.harvester.engine.registers.MetricsRegistry;
 import com.esri.geoportal.harvester.engine.registers.OutboundConnectorRegistry;
 import com.esri.geoportal.harvester.engine.registers.ProcessorRegistry;
 import com.esri.geoportal.harvester.engine.registers.TransformerRegistry;
 import com.esri.geoportal.harvester.engine.utils.CrudlException;
+import com.esri.geoportal.harvester.engine.utils.FingerprintLinkAction;
+import com.esri.geoportal.harvester.engine.utils.TimedInputBroker;
+import com.esri.geoportal.harvester.engine.utils.TimedLinkAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -71,6 +76,7 @@ public class DefaultTasksService implements TasksService {
   protected final ProcessorRegistry processorRegistry;
   protected final TaskManager taskManager;
   protected final HistoryManager historyManager;
+  protected final MetricsRegistry metricsRegistry;
 
   /**
    * Creates instance of the service.
@@ -81,6 +87,7 @@ public class DefaultTasksService implements TasksService {
    * @param processorRegistry processor registry
    * @param taskManager task manager task manager
    * @param historyManager history manager history manager
+   * @param metricsRegistry metrics registry
    */
   public DefaultTasksService(
           InboundConnectorRegistry inboundConnectorRegistry, 
@@ -88,7 +95,8 @@ public class DefaultTasksService implements TasksService {
           TransformerRegistry transformerRegistry,
           FilterRegistry filterRegistry,
           ProcessorRegistry processorRegistry, 
-          TaskManager taskManager, HistoryManager historyManager) {
+          TaskManager taskManager, HistoryManager historyManager,
+          MetricsRegistry metricsRegistry) {
     this.inboundConnectorRegistry = inboundConnectorRegistry;
     this.outboundConnectorRegistry = outboundConnectorRegistry;
     this.transformerRegistry = transformerRegistry;
@@ -96,6 +104,27 @@ public class DefaultTasksService implements TasksService {
     this.processorRegistry = processorRegistry;
     this.taskManager = taskManager;
     this.historyManager = historyManager;
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  /**
+   * Creates instance of the service.
+   * @param inboundConnectorRegistry inbound connectors registry
+   * @param outboundConnectorRegistry outbound connectors registry
+   * @param transformerRegistry transformer registry
+   * @param filterRegistry filter registry
+   * @param processorRegistry processor registry
+   * @param taskManager task manager task manager
+   * @param historyManager history manager history manager
+   */
+  public DefaultTasksService(
+          InboundConnectorRegistry inboundConnectorRegistry, 
+          OutboundConnectorRegistry outboundConnectorRegistry, 
+          TransformerRegistry transformerRegistry,
+          FilterRegistry filterRegistry,
+          ProcessorRegistry processorRegistry, 
+          TaskManager taskManager, HistoryManager historyManager) {
+    this(inboundConnectorRegistry, outboundConnectorRegistry, transformerRegistry, filterRegistry, processorRegistry, taskManager, historyManager, new MetricsRegistry());
   }
 
   @Override
@@ -142,6 +171,11 @@ public class DefaultTasksService implements TasksService {
       if (oldTaskDef != null) {
         if (!taskManager.update(taskId, taskDefinition)) {
           oldTaskDef = null;
+        } else {
+          // checkpoint, watermark and fingerprints of the old definition may not apply to the new one
+          historyManager.deleteCheckpoint(taskId);
+          historyManager.deleteWatermark(taskId);
+          historyManager.deleteFingerprints(taskId);
         }
       }
       return oldTaskDef;
@@ -204,17 +238,25 @@ public class DefaultTasksService implements TasksService {
   
   /**
    * Creates new task.
+   * <p>
+   * Input broker and link actions of the task are instrumented to record 
+   * latency of each stage into the metrics registry. If the stored task is 
+   * incremental, output brokers keep fingerprints of the published records and
+   * records which haven't changed since the last harvest are skipped.
    * @param taskDefinition task definition
    * @return task
    * @throws InvalidDefinitionException  if invalid definition
    */
   @Override
   public Task createTask(TaskDefinition taskDefinition) throws InvalidDefinitionException {
+    String taskLabel = StringUtils.defaultIfBlank(taskDefinition.getName(), StringUtils.defaultString(taskDefinition.getRef()));
     InputBroker dataSource = newInputBroker(taskDefinition.getSource());
+    dataSource = new TimedInputBroker(dataSource, metricsRegistry.getHistogram(taskLabel, taskDefinition.getSource().getType(), MetricsRegistry.STAGE_INPUT));
 
+    LinkContext linkContext = new LinkContext(taskLabel, parseTaskId(taskDefinition.getRef()), taskDefinition.isIncremental());
     ArrayList<Link> dataDestinations = new ArrayList<>();
     for (LinkDefinition def : taskDefinition.getDestinations()) {
-      dataDestinations.add(newLink(def));
+      dataDestinations.add(newLink(linkContext, Collections.emptyList(), def));
     }
     
     Processor processor = newProcessor(taskDefinition.getProcessor());
@@ -229,15 +271,18 @@ public class DefaultTasksService implements TasksService {
    * @throws InvalidDefinitionException if invalid definition
    */
   private Processor newProcessor(EntityDefinition processorDefinition) throws InvalidDefinitionException {
+    Processor defaultProcessor = processorRegistry.getDefaultProcessor();
     Processor processor = processorDefinition == null
-            ? processorRegistry.getDefaultProcessor()
+            ? defaultProcessor
+            : defaultProcessor != null && defaultProcessor.getType().equals(processorDefinition.getType())
+            ? defaultProcessor
             : processorRegistry.get(processorDefinition.getType()) != null
             ? processorRegistry.get(processorDefinition.getType())
             : null;
     if (processor == null) {
       throw new InvalidDefinitionException(String.format("Unable to select processor based on definition: %s", processorDefinition));
     }
-    return processor;
+    return processorDefinition!=null? processor.configure(processorDefinition): processor;
   }
   
   /**
@@ -256,18 +301,35 @@ public class DefaultTasksService implements TasksService {
     return dsFactory.createBroker(entityDefinition);
   }
 
+  /**
+   * Parses task reference into task id.
+   * @param ref task reference
+   * @return task id or <code>null</code> if reference is not a task id
+   */
+  private UUID parseTaskId(String ref) {
+    try {
+      return ref!=null? UUID.fromString(ref): null;
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
   /**
    * Creates new link.
+   * @param linkContext link context
+   * @param parentPath definitions of the actions preceding the link
    * @param linkDefinition link definition
    * @return link
    * @throws InvalidDefinitionException if invalid definition
    */
-  private Link newLink(LinkDefinition linkDefinition) throws InvalidDefinitionException {
-    LinkAction linkAction = newLinkAction(linkDefinition.getAction());
+  private Link newLink(LinkContext linkContext, List<EntityDefinition> parentPath, LinkDefinition linkDefinition) throws InvalidDefinitionException {
+    List<EntityDefinition> path = new ArrayList<>(parentPath);
+    path.add(linkDefinition.getAction());
+    LinkAction linkAction = newLinkAction(linkContext, path, linkDefinition.getAction());
     ArrayList<Link> drains = new ArrayList<>();
     if (linkDefinition.getDrains()!=null) {
       for (LinkDefinition drainDef: linkDefinition.getDrains()) {
-        drains.add(newLink(drainDef));
+        drains.add(newLink(linkContext, path, drainDef));
       }
     }
     return new SimpleLink(linkAction, drains);
@@ -275,27 +337,39 @@ public class DefaultTasksService implements TasksService {
   
   /**
    * Creates new link action.
+   * @param linkContext link context
+   * @param path definitions of the actions from the first one up to this one
    * @param actionDefinition action definition
    * @return link action
    * @throws InvalidDefinitionException if invalid definition.
    */
-  private LinkAction newLinkAction(EntityDefinition actionDefinition) throws InvalidDefinitionException {
-    OutputConnector<OutputBroker> outputConnector = outboundConnectorRegistry.get(actionDefinition.getType());
+  private LinkAction newLinkAction(LinkContext linkContext, List<EntityDefinition> path, EntityDefinition actionDefinition) throws InvalidDefinitionException {
+    String type = actionDefinition.getType();
+    String taskLabel = linkContext.taskLabel;
+    
+    OutputConnector<OutputBroker> outputConnector = outboundConnectorRegistry.get(type);
     if (outputConnector!=null) {
       OutputBroker broker = outputConnector.createBroker(actionDefinition);
-      return new BrokerLinkActionAdaptor(broker);
+      LinkAction linkAction = new TimedLinkAction(new BrokerLinkActionAdaptor(broker), 
+              null, metricsRegistry.getHistogram(taskLabel, type, MetricsRegistry.STAGE_PUBLISH));
+      if (linkContext.taskId!=null) {
+        linkAction = new FingerprintLinkAction(linkAction, historyManager, linkContext.taskId, FingerprintLinkAction.linkId(path), linkContext.incremental);
+      }
+      return linkAction;
     }
     
-    Filter filter = filterRegistry.get(actionDefinition.getType());
+    Filter filter = filterRegistry.get(type);
     if (filter!=null) {
       FilterInstance filterInstance = filter.createInstance(actionDefinition);
-      return new FilterLinkActionAdaptor(filterInstance);
+      return new TimedLinkAction(new FilterLinkActionAdaptor(filterInstance), 
+              metricsRegistry.getHistogram(taskLabel, type, MetricsRegistry.STAGE_FILTER), null);
     }
     
-    Transformer transformer = transformerRegistry.get(actionDefinition.getType());
+    Transformer transformer = transformerRegistry.get(type);
     if (transformer!=null) {
       TransformerInstance transformerInstance = transformer.createInstance(actionDefinition);
-      return new TransformerLinkActionAdaptor(transformerInstance);
+      return new TimedLinkAction(new TransformerLinkActionAdaptor(transformerInstance), 
+              metricsRegistry.getHistogram(taskLabel, type, MetricsRegistry.STAGE_TRANSFORM), null);
     }
     
     throw new InvalidDefinitionException(String.format("Error creating link action for: %s", actionDefinition.getType()));
@@ -344,4 +418,19 @@ public class DefaultTasksService implements TasksService {
     
     return updated;
   }
+
+  /**
+   * Context of creating links of a single task.
+   */
+  private static final class LinkContext {
+    private final String taskLabel;
+    private final UUID taskId;
+    private final boolean incremental;
+
+    public LinkContext(String taskLabel, UUID taskId, boolean incremental) {
+      this.taskLabel = taskLabel;
+      this.taskId = taskId;
+      this.incremental = incremental;
+    }
+  }
 }
@@ -208,6 +208,8 @@ public class DefaultTriggersService implements TriggersService {
     public synchronized ProcessInstance execute(TaskDefinition taskDefinition) throws DataProcessorException, InvalidDefinitionException {
       SimpleIteratorContext iteratorContext = new SimpleIteratorContext();
       iteratorContext.setLastHarvest(taskDefinition.isIncremental()? lastHarvest(): null);
+      iteratorContext.setCheckpoint(checkpoint());
+      iteratorContext.setWatermark(taskDefinition.isIncremental()? watermark(): null);
       ProcessReference ref = executionService.execute(taskDefinition,iteratorContext);
       if (taskId!=null) {
         ref.getProcess().addListener(new HistoryManagerAdaptor(taskId, ref, historyManager));
@@ -216,6 +218,32 @@ public class DefaultTriggersService implements TriggersService {
       return ref.getProcess();
     }
     
+    /**
+     * Gets checkpoint of the interrupted harvest.
+     * @return checkpoint or <code>null</code> if no checkpoint
+     * @throws DataProcessorException if getting checkpoint fails
+     */
+    private String checkpoint() throws DataProcessorException {
+      try {
+        return taskId!=null? historyManager.readCheckpoint(taskId): null;
+      } catch (CrudlException ex) {
+        throw new DataProcessorException(formatForLog("Error getting checkpoint for: %s", taskId), ex);
+      }
+    }
+    
+    /**
+     * Gets watermark of the last completed harvest.
+     * @return watermark or <code>null</code> if no watermark
+     * @throws DataProcessorException if getting watermark fails
+     */
+    private String watermark() throws DataProcessorException {
+      try {
+        return taskId!=null? historyManager.readWatermark(taskId): null;
+      } catch (CrudlException ex) {
+        throw new DataProcessorException(formatForLog("Error getting watermark for: %s", taskId), ex);
+      }
+    }
+    
     @Override
     public Date lastHarvest() throws DataProcessorException {
       try {
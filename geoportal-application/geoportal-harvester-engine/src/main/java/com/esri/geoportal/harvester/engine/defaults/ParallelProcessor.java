@@ -0,0 +1,309 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.defaults;
+
+import static com.esri.geoportal.commons.utils.CrlfUtils.formatForLog;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.ProcessInstance;
+import com.esri.geoportal.harvester.api.Processor;
+import com.esri.geoportal.harvester.api.base.ContentStore;
+import com.esri.geoportal.harvester.api.defs.BatchPolicy;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.ex.DataInputException;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import com.esri.geoportal.harvester.api.specs.InputBroker.IteratorContext;
+import com.esri.geoportal.harvester.engine.utils.PrefetchStatistics;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parallel processor.
+ * <p>
+ * Reads data from the input broker on a single thread, but pushes each data
+ * reference to the destinations using a pool of worker threads. Number of
+ * workers can be specified per task through the processor definition:
+   <pre><code>
+   "processor": {
+     "type": "PARALLEL",
+     "properties": {
+       "p-workers": "8",
+       "p-prefetch": "32",
+       "p-batch": "8",
+       "p-spill-threshold": "16777216"
+     }
+   }
+   </code></pre>
+ */
+public class ParallelProcessor extends DefaultProcessor {
+  private static final Logger LOG = LoggerFactory.getLogger(ParallelProcessor.class);
+
+  public static final String TYPE = "PARALLEL";
+  public static final String P_WORKERS = "p-workers";
+  public static final int DEFAULT_WORKERS = 4;
+
+  private final int workers;
+
+  /**
+   * Creates instance of the processor.
+   * @param workers default number of workers
+   * @param prefetch number of records to read ahead or 0 to disable read-ahead
+   * @param prefetchBytes maximum number of bytes to read ahead or 0 for no limit
+   * @param fanOut number of threads pushing data to the destinations or 0 to push sequentially
+   */
+  public ParallelProcessor(Integer workers, Integer prefetch, Long prefetchBytes, Integer fanOut) {
+    super(prefetch, prefetchBytes, fanOut);
+    this.workers = workers!=null && workers>0? workers: DEFAULT_WORKERS;
+  }
+
+  /**
+   * Creates instance of the processor.
+   * @param workers default number of workers
+   */
+  public ParallelProcessor(Integer workers) {
+    this(workers, 0, 0L, 0);
+  }
+
+  /**
+   * Creates instance of the processor.
+   */
+  public ParallelProcessor() {
+    this(DEFAULT_WORKERS);
+  }
+
+  @Override
+  public String getType() {
+    return TYPE;
+  }
+
+  @Override
+  public UITemplate getTemplate(Locale locale) {
+    ResourceBundle bundle = ResourceBundle.getBundle("EngineResource", locale);
+    UITemplate uiTemplate = new UITemplate(getType(), bundle.getString("engine.processors.parallel"), createArguments(bundle));
+    return uiTemplate;
+  }
+
+  @Override
+  public Processor configure(EntityDefinition processorDefinition) throws InvalidDefinitionException {
+    if (!getType().equals(processorDefinition.getType())) {
+      throw new InvalidDefinitionException(String.format("Invalid processor definition: %s", processorDefinition));
+    }
+    int configuredWorkers = readInteger(processorDefinition, P_WORKERS, workers);
+    if (configuredWorkers<=0) {
+      throw new InvalidDefinitionException(formatForLog("Invalid number of workers: %s", processorDefinition.getProperties().get(P_WORKERS)));
+    }
+    ParallelProcessor processor = new ParallelProcessor(
+            configuredWorkers,
+            readInteger(processorDefinition, P_PREFETCH, prefetch), 
+            readLong(processorDefinition, P_PREFETCH_BYTES, prefetchBytes),
+            readInteger(processorDefinition, P_FANOUT, fanOut));
+    processor.priority = readInteger(processorDefinition, P_PRIORITY, priority);
+    processor.batchPolicy = readBatchPolicy(processorDefinition, batchPolicy);
+    processor.spillThreshold = readLong(processorDefinition, P_SPILL_THRESHOLD, spillThreshold);
+    return processor;
+  }
+
+  @Override
+  public ProcessInstance createProcess(Task task, IteratorContext iteratorContext) {
+    LOG.info(String.format("SUBMITTING: %s", task));
+    return new ParallelProcess(task, iteratorContext, createPrefetchStatistics(), fanOut, batchPolicy, createContentStore(), workers);
+  }
+  
+  @Override
+  protected List<UITemplate.Argument> createArguments(ResourceBundle bundle) {
+    List<UITemplate.Argument> arguments = new ArrayList<>();
+    arguments.add(new UITemplate.IntegerArgument(P_WORKERS, bundle.getString("engine.processors.parallel.workers"), false, DEFAULT_WORKERS));
+    arguments.addAll(super.createArguments(bundle));
+    return arguments;
+  }
+  
+  @Override
+  protected Map<String,String> createProperties() {
+    Map<String,String> properties = new LinkedHashMap<>();
+    properties.put(P_WORKERS, Integer.toString(workers));
+    properties.putAll(super.createProperties());
+    return properties;
+  }
+
+  /**
+   * Parallel process.
+   */
+  public static class ParallelProcess extends DefaultProcessor.DefaultProcess {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelProcess.class);
+
+    private final int workers;
+    
+    // sequence number of the last record handed over to the workers
+    private long acquired;
+    // sequence numbers of the records handed over, but not pushed yet
+    private final TreeSet<Long> unfinished = new TreeSet<>();
+    // iterator checkpoints taken after the record with the given sequence number
+    private final TreeMap<Long,String> candidates = new TreeMap<>();
+
+    /**
+     * Creates instance of the process.
+     *
+     * @param task task
+     * @param iteratorContext iteration context
+     * @param prefetchStatistics prefetch statistics or <code>null</code> to disable read-ahead
+     * @param fanOut number of threads pushing data to the destinations or 0 to push sequentially
+     * @param batchPolicy policy of publishing records in batches
+     * @param contentStore content store or <code>null</code> for the default store
+     * @param workers number of workers
+     */
+    public ParallelProcess(Task task, IteratorContext iteratorContext, PrefetchStatistics prefetchStatistics, int fanOut, BatchPolicy batchPolicy, ContentStore contentStore, int workers) {
+      super(task, iteratorContext, prefetchStatistics, fanOut, batchPolicy, contentStore);
+      this.workers = workers;
+    }
+
+    @Override
+    protected void harvest(InputBroker.Iterator iterator) throws DataInputException {
+      AtomicInteger counter = new AtomicInteger();
+      ExecutorService executor = Executors.newFixedThreadPool(workers, r -> new Thread(r, String.format("HARVESTING-WORKER-%d", counter.incrementAndGet())));
+      // allows at most 'workers' records to be published at the same time
+      Semaphore inFlight = new Semaphore(workers);
+
+      LOG.debug(formatForLog("Harvesting with %d workers: %s", workers, getTitle()));
+      try {
+        while (iterator.hasNext()) {
+          if (Thread.currentThread().isInterrupted()) {
+            break;
+          }
+
+          DataReference dataReference = iterator.next();
+          onAcquire(dataReference);
+          long seq = started();
+
+          // the record already acquired has to be published even if aborting
+          inFlight.acquireUninterruptibly();
+          try {
+            executor.execute(() -> {
+              try {
+                process(dataReference);
+              } catch (RuntimeException ex) {
+                LOG.error(formatForLog("Unexpected error harvesting %s during %s", dataReference, getTitle()), ex);
+              } finally {
+                finished(seq);
+                inFlight.release();
+              }
+            });
+          } catch (RejectedExecutionException ex) {
+            // the record stays unfinished, so no checkpoint will ever pass it
+            dataReference.release();
+            inFlight.release();
+            throw ex;
+          }
+          checkpoint(iterator, false);
+        }
+      } finally {
+        shutdown(executor);
+        flush();
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        checkpoint(iterator, true);
+      }
+    }
+
+    /**
+     * Registers record about to be handed over to the workers.
+     * @return sequence number of the record
+     */
+    /*package*/ synchronized long started() {
+      acquired++;
+      unfinished.add(acquired);
+      return acquired;
+    }
+    
+    /**
+     * Marks record as pushed to the destinations.
+     * @param seq sequence number of the record
+     */
+    /*package*/ synchronized void finished(long seq) {
+      unfinished.remove(seq);
+    }
+
+    /**
+     * Gets checkpoint of the iterator. Records are pushed by the workers out
+     * of order, thus the current checkpoint of the iterator may be ahead of the 
+     * records still being pushed. The checkpoint is remembered as a candidate
+     * and the latest candidate preceded by pushed records only is returned, so
+     * resuming from the checkpoint never skips a record. 
+     * @param iterator input iterator
+     * @return checkpoint or <code>null</code> if no checkpoint available
+     */
+    @Override
+    protected synchronized String getCheckpoint(InputBroker.Iterator iterator) {
+      String checkpoint = iterator.getCheckpoint();
+      if (checkpoint!=null) {
+        candidates.put(acquired, checkpoint);
+      }
+      long finished = !unfinished.isEmpty()? unfinished.first() - 1: acquired;
+      Map.Entry<Long,String> candidate = candidates.floorEntry(finished);
+      if (candidate==null) {
+        return null;
+      }
+      candidates.headMap(candidate.getKey(), true).clear();
+      return candidate.getValue();
+    }
+
+    @Override
+    protected int getPushingThreads() {
+      return workers;
+    }
+
+    /**
+     * Waits until all records already handed over to the workers are published.
+     * There is at most as many such records as workers, thus even when the 
+     * process is being aborted, it completes shortly.
+     * @param executor executor
+     */
+    private void shutdown(ExecutorService executor) {
+      boolean interrupted = Thread.interrupted();
+      executor.shutdown();
+      while (!executor.isTerminated()) {
+        try {
+          executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.format("PROCESS:: status: %s, workers: %d, title: %s", getStatus(), workers, getTitle());
+    }
+  }
+}
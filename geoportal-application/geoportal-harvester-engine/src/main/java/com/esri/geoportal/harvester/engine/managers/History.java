@@ -141,6 +141,8 @@ public class History extends ArrayList<History.Event> {
     public long created;
     /** number of records updated. */
     public long updated;
+    /** number of records skipped as unchanged since the last harvest. */
+    public long skipped;
     /** number of records failed. */
     public long failed;
     public Long failedToHarvest;
@@ -19,6 +19,7 @@ import com.esri.geoportal.harvester.engine.utils.CrudlException;
 import java.util.UUID;
 import com.esri.geoportal.harvester.engine.utils.CrudlRepo;
 import java.util.List;
+import java.util.Map;
 
 /**
  * History manager.
@@ -54,4 +55,75 @@ public interface HistoryManager extends CrudlRepo<History.Event> {
    * @throws CrudlException if unable to store data
    */
   void storeFailedDataId(UUID eventId, String dataId) throws CrudlException;
+
+  /**
+   * Reads checkpoint of the interrupted harvest for a given task.
+   * @param taskId task id
+   * @return checkpoint or <code>null</code> if no checkpoint
+   * @throws CrudlException if unable to read checkpoint
+   */
+  String readCheckpoint(UUID taskId) throws CrudlException;
+
+  /**
+   * Stores checkpoint of the running harvest for a given task.
+   * @param taskId task id
+   * @param checkpoint checkpoint
+   * @throws CrudlException if unable to store checkpoint
+   */
+  void storeCheckpoint(UUID taskId, String checkpoint) throws CrudlException;
+
+  /**
+   * Deletes checkpoint for a given task.
+   * @param taskId task id
+   * @throws CrudlException if unable to delete checkpoint
+   */
+  void deleteCheckpoint(UUID taskId) throws CrudlException;
+
+  /**
+   * Reads watermark of the last completed harvest for a given task.
+   * @param taskId task id
+   * @return watermark or <code>null</code> if no watermark
+   * @throws CrudlException if unable to read watermark
+   */
+  String readWatermark(UUID taskId) throws CrudlException;
+
+  /**
+   * Stores watermark of the completed harvest for a given task.
+   * @param taskId task id
+   * @param watermark watermark
+   * @throws CrudlException if unable to store watermark
+   */
+  void storeWatermark(UUID taskId, String watermark) throws CrudlException;
+
+  /**
+   * Deletes watermark for a given task.
+   * @param taskId task id
+   * @throws CrudlException if unable to delete watermark
+   */
+  void deleteWatermark(UUID taskId) throws CrudlException;
+
+  /**
+   * Reads fingerprints of all the data published last time by a given task link.
+   * @param taskId task id
+   * @param linkId link id
+   * @return map of fingerprints by data id
+   * @throws CrudlException if unable to read fingerprints
+   */
+  Map<String,String> readFingerprints(UUID taskId, String linkId) throws CrudlException;
+
+  /**
+   * Stores fingerprints of the data published by a given task link.
+   * @param taskId task id
+   * @param linkId link id
+   * @param fingerprints map of fingerprints by data id
+   * @throws CrudlException if unable to store fingerprints
+   */
+  void storeFingerprints(UUID taskId, String linkId, Map<String,String> fingerprints) throws CrudlException;
+
+  /**
+   * Deletes all fingerprints for a given task.
+   * @param taskId task id
+   * @throws CrudlException if unable to delete fingerprints
+   */
+  void deleteFingerprints(UUID taskId) throws CrudlException;
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.registers;
+
+import com.esri.geoportal.harvester.engine.utils.LatencyHistogram;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Metrics registry.
+ * <p>
+ * Holds latency histograms of the harvesting stages tagged by task, connector
+ * type and stage. Histograms are created on demand and accumulate data for
+ * the lifetime of the application, the same way as Prometheus counters do.
+ */
+public class MetricsRegistry {
+  /** stage of reading data from the input broker */
+  public static final String STAGE_INPUT = "input";
+  /** stage of transforming data */
+  public static final String STAGE_TRANSFORM = "transform";
+  /** stage of filtering data */
+  public static final String STAGE_FILTER = "filter";
+  /** stage of publishing data through the output broker */
+  public static final String STAGE_PUBLISH = "publish";
+  
+  /** name of the metric in the Prometheus exposition format */
+  public static final String METRIC_NAME = "harvester_stage_latency_seconds";
+  
+  /** upper bounds of the Prometheus buckets in seconds */
+  private static final double[] BUCKETS = {
+    0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+  };
+  
+  private final ConcurrentHashMap<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+  
+  /**
+   * Gets histogram for the given tags creating it if necessary.
+   * @param task task name
+   * @param connector connector type
+   * @param stage stage
+   * @return histogram
+   */
+  public LatencyHistogram getHistogram(String task, String connector, String stage) {
+    return histograms.computeIfAbsent(new Key(task, connector, stage), k -> new LatencyHistogram());
+  }
+  
+  /**
+   * Lists all metrics.
+   * @return list of metrics ordered by task, connector and stage
+   */
+  public List<Metric> list() {
+    return histograms.entrySet().stream()
+            .map(e -> new Metric(e.getKey(), e.getValue()))
+            .sorted(Comparator.comparing(Metric::getTask).thenComparing(Metric::getConnector).thenComparing(Metric::getStage))
+            .collect(Collectors.toList());
+  }
+  
+  /**
+   * Formats all metrics in the Prometheus text exposition format.
+   * @return metrics as text
+   */
+  public String formatPrometheus() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("# HELP ").append(METRIC_NAME).append(" Latency of the harvesting stages.\n");
+    sb.append("# TYPE ").append(METRIC_NAME).append(" histogram\n");
+    for (Metric metric: list()) {
+      String labels = String.format("task=\"%s\",connector=\"%s\",stage=\"%s\"", 
+              escape(metric.getTask()), escape(metric.getConnector()), escape(metric.getStage()));
+      for (double bucket: BUCKETS) {
+        long count = metric.histogram.getCountAtOrBelow((long)(bucket * 1_000_000));
+        sb.append(String.format(Locale.ROOT, "%s_bucket{%s,le=\"%s\"} %d\n", METRIC_NAME, labels, new BigDecimal(Double.toString(bucket)).stripTrailingZeros().toPlainString(), count));
+      }
+      sb.append(String.format(Locale.ROOT, "%s_bucket{%s,le=\"+Inf\"} %d\n", METRIC_NAME, labels, metric.getCount()));
+      sb.append(String.format(Locale.ROOT, "%s_sum{%s} %s\n", METRIC_NAME, labels, Double.toString(metric.histogram.getSum() / 1_000_000.0)));
+      sb.append(String.format(Locale.ROOT, "%s_count{%s} %d\n", METRIC_NAME, labels, metric.getCount()));
+    }
+    return sb.toString();
+  }
+  
+  /**
+   * Escapes label value.
+   * @param value label value
+   * @return escaped value
+   */
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+  
+  /**
+   * Metric.
+   */
+  public static final class Metric {
+    private final Key key;
+    private final LatencyHistogram histogram;
+
+    private Metric(Key key, LatencyHistogram histogram) {
+      this.key = key;
+      this.histogram = histogram;
+    }
+    
+    /**
+     * Gets task name.
+     * @return task name
+     */
+    public String getTask() {
+      return key.task;
+    }
+    
+    /**
+     * Gets connector type.
+     * @return connector type
+     */
+    public String getConnector() {
+      return key.connector;
+    }
+    
+    /**
+     * Gets stage.
+     * @return stage
+     */
+    public String getStage() {
+      return key.stage;
+    }
+    
+    /**
+     * Gets number of measurements.
+     * @return number of measurements
+     */
+    public long getCount() {
+      return histogram.getCount();
+    }
+    
+    /**
+     * Gets total time.
+     * @return total time in milliseconds
+     */
+    public double getTotal() {
+      return histogram.getSum() / 1000.0;
+    }
+    
+    /**
+     * Gets mean time.
+     * @return mean time in milliseconds
+     */
+    public double getMean() {
+      return histogram.getMean() / 1000.0;
+    }
+    
+    /**
+     * Gets median time.
+     * @return median time in milliseconds
+     */
+    public double getP50() {
+      return histogram.getValueAtPercentile(50.0) / 1000.0;
+    }
+    
+    /**
+     * Gets 90th percentile.
+     * @return 90th percentile in milliseconds
+     */
+    public double getP90() {
+      return histogram.getValueAtPercentile(90.0) / 1000.0;
+    }
+    
+    /**
+     * Gets 99th percentile.
+     * @return 99th percentile in milliseconds
+     */
+    public double getP99() {
+      return histogram.getValueAtPercentile(99.0) / 1000.0;
+    }
+    
+    /**
+     * Gets 99.9th percentile.
+     * @return 99.9th percentile in milliseconds
+     */
+    public double getP999() {
+      return histogram.getValueAtPercentile(99.9) / 1000.0;
+    }
+    
+    /**
+     * Gets the longest time.
+     * @return the longest time in milliseconds
+     */
+    public double getMax() {
+      return histogram.getMax() / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("METRIC :: task: %s, connector: %s, stage: %s, %s", key.task, key.connector, key.stage, histogram);
+    }
+  }
+  
+  /**
+   * Histogram key.
+   */
+  private static final class Key {
+    private final String task;
+    private final String connector;
+    private final String stage;
+
+    public Key(String task, String connector, String stage) {
+      this.task = Objects.toString(task, "");
+      this.connector = Objects.toString(connector, "");
+      this.stage = Objects.toString(stage, "");
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(task, connector, stage);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return task.equals(other.task) && connector.equals(other.connector) && stage.equals(other.stage);
+    }
+  }
+}
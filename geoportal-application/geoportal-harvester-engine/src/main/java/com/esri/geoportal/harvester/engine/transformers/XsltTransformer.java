@@ -16,10 +16,12 @@
 package com.esri.geoportal.harvester.engine.transformers;
 
 import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.commons.utils.TemplatesCache;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.Transformer;
 import com.esri.geoportal.harvester.api.TransformerInstance;
 import com.esri.geoportal.harvester.api.base.DataReferenceWrapper;
+import com.esri.geoportal.harvester.api.base.ParsedDocuments;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.UITemplate;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
@@ -28,26 +30,32 @@ import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
 
 /**
  * XsltTransformer.
  * <p>
- * Transforms data based on xslt.
+ * Transforms data based on xslt. Compiled stylesheets are shared through
+ * {@link TemplatesCache}, so the same stylesheet is compiled only once no 
+ * matter how many tasks use it.
  */
 public class XsltTransformer implements Transformer {
 
@@ -82,7 +90,7 @@ public class XsltTransformer implements Transformer {
   private class XsltTransformerInstance implements TransformerInstance {
 
     private final EntityDefinition definition;
-    private final javax.xml.transform.Transformer xsltTransformer;
+    private final TemplatesCache.Stylesheet stylesheet;
 
     /**
      * Creates instance of the transformer instance.
@@ -97,13 +105,14 @@ public class XsltTransformer implements Transformer {
         throw new InvalidDefinitionException(String.format("No transformation defined"));
       }
       try {
-        xsltTransformer = TransformerFactory.newInstance().newTransformer(new StreamSource(new ByteArrayInputStream(strXslt.getBytes("UTF-8"))));
+        Map<String, String> params = new LinkedHashMap<>();
         String strProps = definition.getProperties().get(X_XSLT_PROPS);
         if (strProps != null) {
           Properties props = new Properties();
           props.load(new ByteArrayInputStream(strProps.getBytes("UTF-8")));
-          props.entrySet().stream().forEach(e -> xsltTransformer.setParameter(e.getKey().toString(), e.getValue()));
+          props.stringPropertyNames().forEach(name -> params.put(name, props.getProperty(name)));
         }
+        stylesheet = TemplatesCache.getInstance().getStylesheet(strXslt, params);
       } catch (IOException | TransformerConfigurationException ex) {
         throw new InvalidDefinitionException(String.format("Invalid transformation: %s", strXslt), ex);
       }
@@ -116,7 +125,7 @@ public class XsltTransformer implements Transformer {
 
     @Override
     public void terminate() {
-      // empty termination
+      LOG.debug(String.format("%s", TemplatesCache.getInstance()));
     }
 
     @Override
@@ -127,14 +136,40 @@ public class XsltTransformer implements Transformer {
     @Override
     public List<DataReference> transform(DataReference input) throws DataTransformerException {
       ByteArrayOutputStream result = new ByteArrayOutputStream();
-      try {
-        xsltTransformer.transform(new StreamSource(new InputStreamReader(new ByteArrayInputStream(input.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML)), "UTF-8")), new StreamResult(new OutputStreamWriter(result, "UTF-8")));
-        DataReferenceWrapper dataRef = new DataReferenceWrapper(input);
-        dataRef.addContext(MimeType.APPLICATION_XML, result.toByteArray());
-        return Arrays.asList(new DataReference[]{dataRef});
+      // reuse document if already parsed by another stage
+      Document document = ParsedDocuments.getParsedDocument(input);
+      if (document != null) {
+        try {
+          synchronized (document) {
+            stylesheet.transform(new DOMSource(document), new StreamResult(new OutputStreamWriter(result, "UTF-8")));
+          }
+        } catch (IOException | TransformerException ex) {
+          throw new DataTransformerException(String.format("Error transforming input: %s", input.getSourceUri()), ex);
+        }
+        return wrap(input, result);
+      }
+      try (InputStream content = input.openStream(MimeType.APPLICATION_XML, MimeType.TEXT_XML)) {
+        if (content == null) {
+          throw new DataTransformerException(String.format("No XML content to transform: %s", input.getSourceUri()));
+        }
+        StreamSource source = new StreamSource(new InputStreamReader(content, "UTF-8"));
+        stylesheet.transform(source, new StreamResult(new OutputStreamWriter(result, "UTF-8")));
+        return wrap(input, result);
       } catch (IOException | TransformerException ex) {
         throw new DataTransformerException(String.format("Error transforming input: %s", input.getSourceUri()), ex);
       }
     }
+
+    /**
+     * Wraps transformation result.
+     * @param input input data reference
+     * @param result transformation result
+     * @return list of data references
+     */
+    private List<DataReference> wrap(DataReference input, ByteArrayOutputStream result) {
+      DataReferenceWrapper dataRef = new DataReferenceWrapper(input);
+      dataRef.addContext(MimeType.APPLICATION_XML, result.toByteArray());
+      return Arrays.asList(new DataReference[]{dataRef});
+    }
   }
 }
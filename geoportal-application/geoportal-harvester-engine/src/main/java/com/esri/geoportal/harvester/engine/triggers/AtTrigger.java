@@ -82,7 +82,8 @@ public class AtTrigger implements Trigger {
   private static final Logger LOG = LoggerFactory.getLogger(AtTrigger.class);
   public static final String T_AT_TIME = "t-at-time";
   public static final String TYPE = "AT";
-  private static final ScheduledExecutorService service = Executors.newScheduledThreadPool(1000);
+  // scheduled tasks only submit processes to the engine, which runs them on their own threads
+  private static final ScheduledExecutorService service = Executors.newScheduledThreadPool(2);
   private static final WeakHashMap<AtTriggerInstance,WeakReference<AtTriggerInstance>> weakMap = new WeakHashMap<>();
 
   @Override
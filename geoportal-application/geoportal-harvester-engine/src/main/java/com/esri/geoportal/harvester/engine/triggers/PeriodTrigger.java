@@ -67,7 +67,8 @@ public class PeriodTrigger implements Trigger {
   private static final Logger LOG = LoggerFactory.getLogger(PeriodTrigger.class);
   public static final String T_PERIOD = "t-period";
   public static final String TYPE = "PERIOD";
-  private static final ScheduledExecutorService service = Executors.newScheduledThreadPool(1000);
+  // scheduled tasks only submit processes to the engine, which runs them on their own threads
+  private static final ScheduledExecutorService service = Executors.newScheduledThreadPool(2);
   private static final WeakHashMap<PeriodTriggerInstance,WeakReference<PeriodTriggerInstance>> weakMap = new WeakHashMap<>();
 
   @Override
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import com.esri.geoportal.harvester.api.ProcessInstance;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event bus.
+ * <p>
+ * Delivers process events to the listeners asynchronously, so slow listeners
+ * (writing to the database for instance) do not slow down harvesting. Events
+ * are kept in a bounded buffer and delivered by a single consumer at a time,
+ * thus listeners receive events in the same order as they have been posted
+ * and never concurrently. Posting data events blocks when the buffer is full.
+ */
+public final class EventBus {
+  private static final Logger LOG = LoggerFactory.getLogger(EventBus.class);
+  public static final int DEFAULT_CAPACITY = 1024;
+  
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+  private static final ExecutorService CONSUMERS = Executors.newCachedThreadPool(r -> {
+    Thread thread = new Thread(r, String.format("HARVESTING-EVENTS-%d", COUNTER.incrementAndGet()));
+    thread.setDaemon(true);
+    return thread;
+  });
+  
+  private final List<ProcessInstance.Listener> listeners;
+  private final int capacity;
+  private final Object lock = new Object();
+  private final ArrayDeque<Consumer<ProcessInstance.Listener>> buffer;
+  private boolean consuming;
+  private volatile Thread consumer;
+
+  /**
+   * Creates instance of the event bus.
+   * @param listeners listeners
+   * @param capacity maximum number of pending data events
+   */
+  public EventBus(List<ProcessInstance.Listener> listeners, int capacity) {
+    this.listeners = listeners;
+    this.capacity = Math.max(1, capacity);
+    this.buffer = new ArrayDeque<>(this.capacity);
+  }
+
+  /**
+   * Creates instance of the event bus.
+   * @param listeners listeners
+   */
+  public EventBus(List<ProcessInstance.Listener> listeners) {
+    this(listeners, DEFAULT_CAPACITY);
+  }
+  
+  /**
+   * Posts data event. Waits for a free space in the buffer if necessary, even
+   * if the current thread gets interrupted.
+   * @param event event
+   */
+  public void post(Consumer<ProcessInstance.Listener> event) {
+    post(event, true);
+  }
+  
+  /**
+   * Posts status event. Never waits for a free space in the buffer.
+   * @param event event
+   */
+  public void postStatus(Consumer<ProcessInstance.Listener> event) {
+    post(event, false);
+  }
+  
+  /**
+   * Waits until all the events posted so far are delivered, even if the 
+   * current thread gets interrupted. Does nothing if called by a listener.
+   */
+  public void flush() {
+    if (Thread.currentThread()==consumer) {
+      return;
+    }
+    boolean interrupted = false;
+    synchronized (lock) {
+      while (consuming) {
+        try {
+          lock.wait();
+        } catch (InterruptedException ex) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+  
+  /**
+   * Posts event.
+   * @param event event
+   * @param bounded <code>true</code> to wait for a free space in the buffer
+   */
+  private void post(Consumer<ProcessInstance.Listener> event, boolean bounded) {
+    boolean interrupted = false;
+    synchronized (lock) {
+      while (bounded && buffer.size()>=capacity && Thread.currentThread()!=consumer) {
+        try {
+          lock.wait();
+        } catch (InterruptedException ex) {
+          interrupted = true;
+        }
+      }
+      buffer.add(event);
+      if (!consuming) {
+        consuming = true;
+        CONSUMERS.execute(this::consume);
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+  
+  /**
+   * Delivers events until the buffer is empty.
+   */
+  private void consume() {
+    consumer = Thread.currentThread();
+    try {
+      while (true) {
+        Consumer<ProcessInstance.Listener> event;
+        synchronized (lock) {
+          event = buffer.poll();
+          if (event==null) {
+            consumer = null;
+            consuming = false;
+            lock.notifyAll();
+            return;
+          }
+          lock.notifyAll();
+        }
+        listeners.forEach(l -> {
+          try {
+            event.accept(l);
+          } catch (RuntimeException ex) {
+            LOG.error(String.format("Error delivering event to: %s", l), ex);
+          }
+        });
+      }
+    } catch (Error err) {
+      synchronized (lock) {
+        buffer.clear();
+        consumer = null;
+        consuming = false;
+        lock.notifyAll();
+      }
+      throw err;
+    }
+  }
+}
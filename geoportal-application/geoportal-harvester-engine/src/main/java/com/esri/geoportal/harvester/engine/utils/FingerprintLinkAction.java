@@ -0,0 +1,329 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import static com.esri.geoportal.commons.utils.CrlfUtils.formatForLog;
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.general.LinkAction;
+import com.esri.geoportal.harvester.engine.managers.HistoryManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fingerprint link action.
+ * <p>
+ * Wraps link action publishing data and, if the task is incremental, keeps 
+ * fingerprint of each published record in the history manager. Fingerprint is
+ * a hash of the content and of the simple attributes of the record as it 
+ * reaches the output broker, thus it changes when either the source data or 
+ * any transformation on the way changes. Record with the same fingerprint as 
+ * the one published last time is not pushed any further and 
+ * {@link PublishingStatus#UNCHANGED} is returned instead. Since skipped records
+ * never reach the output broker, skipping also prevents the broker from 
+ * cleaning up records it hasn't seen. Fingerprint of a pending record is kept 
+ * only once the record has been published.
+ * <p>
+ * Fingerprints published last time are read all at once upon initialization.
+ * New fingerprints are written in batches; those not written because of a 
+ * crash only cause the records to be published once again. Harvest which is
+ * not incremental publishes all the records without fingerprints and removes
+ * the fingerprints of the task, since they no longer match published records.
+ * <p>
+ * Last modified date is deliberately not a part of the fingerprint, since 
+ * many sources update it without changing the record.
+ */
+public class FingerprintLinkAction implements LinkAction {
+  private static final Logger LOG = LoggerFactory.getLogger(FingerprintLinkAction.class);
+  private static final String ALGORITHM = "SHA-256";
+  private static final int BUFFER_SIZE = 8192;
+  private static final int WRITE_BATCH_SIZE = 100;
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final LinkAction action;
+  private final HistoryManager historyManager;
+  private final UUID taskId;
+  private final String linkId;
+  private final boolean incremental;
+  private final Map<DataReference,String> pending = Collections.synchronizedMap(new IdentityHashMap<>());
+  private final Map<String,String> unsaved = new HashMap<>();
+  private volatile Map<String,String> published = Collections.emptyMap();
+
+  /**
+   * Creates instance of the action.
+   * @param action underlying action
+   * @param historyManager history manager keeping fingerprints
+   * @param taskId task id
+   * @param linkId id of the link within the task
+   * @param incremental <code>true</code> if the task is incremental
+   * @see #linkId(java.util.List) 
+   */
+  public FingerprintLinkAction(LinkAction action, HistoryManager historyManager, UUID taskId, String linkId, boolean incremental) {
+    this.action = action;
+    this.historyManager = historyManager;
+    this.taskId = taskId;
+    this.linkId = linkId;
+    this.incremental = incremental;
+  }
+
+  @Override
+  public EntityDefinition getLinkActionDefinition() {
+    return action.getLinkActionDefinition();
+  }
+
+  @Override
+  public List<DataReference> execute(DataReference dataRef) throws DataProcessorException, DataOutputException {
+    return action.execute(dataRef);
+  }
+
+  @Override
+  public PublishingStatus push(DataReference dataRef) throws DataProcessorException, DataOutputException {
+    if (!incremental) {
+      return action.push(dataRef);
+    }
+    String fingerprint = fingerprint(dataRef);
+    if (fingerprint.equals(published.get(dataRef.getId()))) {
+      return PublishingStatus.UNCHANGED;
+    }
+    PublishingStatus status = action.push(dataRef);
+    if (status.getPending()>0) {
+      pending.put(dataRef, fingerprint);
+    } else {
+      storeFingerprint(dataRef, fingerprint);
+    }
+    return status;
+  }
+
+  @Override
+  public List<PublishingOutcome> flush() {
+    List<PublishingOutcome> outcomes = action.flush();
+    for (PublishingOutcome outcome: outcomes) {
+      String fingerprint = pending.remove(outcome.getDataReference());
+      if (fingerprint!=null && outcome.isPublished()) {
+        storeFingerprint(outcome.getDataReference(), fingerprint);
+      }
+    }
+    return outcomes;
+  }
+
+  @Override
+  public void initialize(InitContext context) throws DataProcessorException {
+    if (incremental) {
+      context.preventCleanup();
+      published = readFingerprints();
+    } else {
+      deleteFingerprints();
+    }
+    action.initialize(context);
+  }
+
+  @Override
+  public void terminate() {
+    Map<String,String> fingerprints;
+    synchronized (unsaved) {
+      fingerprints = new HashMap<>(unsaved);
+      unsaved.clear();
+    }
+    storeFingerprints(fingerprints);
+    published = Collections.emptyMap();
+    action.terminate();
+  }
+
+  @Override
+  public String toString() {
+    return action.toString();
+  }
+  
+  /**
+   * Reads fingerprints of the records published last time.
+   * @return map of fingerprints by data id
+   */
+  private Map<String,String> readFingerprints() {
+    try {
+      return historyManager.readFingerprints(taskId, linkId);
+    } catch (CrudlException ex) {
+      LOG.warn(formatForLog("Error reading fingerprints for: %s", taskId), ex);
+      return Collections.emptyMap();
+    }
+  }
+  
+  /**
+   * Deletes all fingerprints of the task.
+   */
+  private void deleteFingerprints() {
+    try {
+      historyManager.deleteFingerprints(taskId);
+    } catch (CrudlException ex) {
+      LOG.warn(formatForLog("Error deleting fingerprints for: %s", taskId), ex);
+    }
+  }
+  
+  /**
+   * Stores fingerprint of the record. Fingerprints are written once there is
+   * enough of them to make a batch.
+   * @param dataRef data reference
+   * @param fingerprint fingerprint
+   */
+  private void storeFingerprint(DataReference dataRef, String fingerprint) {
+    Map<String,String> fingerprints = null;
+    synchronized (unsaved) {
+      unsaved.put(dataRef.getId(), fingerprint);
+      if (unsaved.size() >= WRITE_BATCH_SIZE) {
+        fingerprints = new HashMap<>(unsaved);
+        unsaved.clear();
+      }
+    }
+    if (fingerprints!=null) {
+      storeFingerprints(fingerprints);
+    }
+  }
+  
+  /**
+   * Stores fingerprints of the records.
+   * @param fingerprints map of fingerprints by data id
+   */
+  private void storeFingerprints(Map<String,String> fingerprints) {
+    if (fingerprints.isEmpty()) {
+      return;
+    }
+    try {
+      historyManager.storeFingerprints(taskId, linkId, fingerprints);
+    } catch (CrudlException ex) {
+      LOG.warn(formatForLog("Error storing %d fingerprints for: %s", fingerprints.size(), taskId), ex);
+    }
+  }
+  
+  /**
+   * Creates id of the link from definitions of all the actions on the path 
+   * from the root of the task to the link. Any change to those definitions
+   * yields different id, thus stored fingerprints no longer apply.
+   * @param path list of action definitions
+   * @return link id
+   */
+  public static String linkId(List<EntityDefinition> path) {
+    MessageDigest digest = createDigest();
+    for (EntityDefinition def: path) {
+      update(digest, def.getType());
+      if (def.getProperties()!=null) {
+        new TreeMap<>(def.getProperties()).forEach((key, value) -> {
+          update(digest, key);
+          update(digest, value);
+        });
+      }
+      update(digest, "/");
+    }
+    return toHex(digest.digest());
+  }
+  
+  /**
+   * Creates fingerprint of the data reference.
+   * @param dataRef data reference
+   * @return fingerprint
+   * @throws DataProcessorException if unable to read content
+   */
+  public static String fingerprint(DataReference dataRef) throws DataProcessorException {
+    MessageDigest digest = createDigest();
+    update(digest, dataRef.getId());
+    update(digest, dataRef.getSourceUri()!=null? dataRef.getSourceUri().toASCIIString(): null);
+    try {
+      MimeType[] contentTypes = dataRef.getContentType().stream()
+              .sorted(Comparator.comparing(MimeType::getName))
+              .toArray(MimeType[]::new);
+      for (MimeType contentType: contentTypes) {
+        update(digest, contentType.getName());
+        try (InputStream input = dataRef.openStream(contentType)) {
+          update(digest, Long.toString(input!=null? update(digest, input): -1));
+        }
+      }
+    } catch (IOException ex) {
+      throw new DataProcessorException(formatForLog("Error reading content of: %s", dataRef.getId()), ex);
+    }
+    Map<String,Object> attributes = dataRef.getAttributesMap();
+    if (attributes!=null) {
+      new TreeMap<>(attributes).forEach((key, value) -> {
+        if (isSimple(value)) {
+          update(digest, key);
+          update(digest, value instanceof Date? Long.toString(((Date)value).getTime()): value.toString());
+        }
+      });
+    }
+    return toHex(digest.digest());
+  }
+  
+  /**
+   * Checks if attribute value is simple enough to be a part of the fingerprint.
+   * Complex values like parsed documents are ignored.
+   * @param value attribute value
+   * @return <code>true</code> if simple value
+   */
+  private static boolean isSimple(Object value) {
+    return value instanceof CharSequence || value instanceof Number || value instanceof Boolean 
+            || value instanceof UUID || value instanceof Date || value instanceof Enum;
+  }
+  
+  private static void update(MessageDigest digest, String value) {
+    if (value!=null) {
+      digest.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+    digest.update((byte)0);
+  }
+  
+  private static long update(MessageDigest digest, InputStream input) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    long length = 0;
+    for (int count = input.read(buffer); count >= 0; count = input.read(buffer)) {
+      digest.update(buffer, 0, count);
+      length += count;
+    }
+    return length;
+  }
+  
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(String.format("Missing %s algorithm.", ALGORITHM), ex);
+    }
+  }
+  
+  private static String toHex(byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i=0; i<bytes.length; i++) {
+      chars[2*i] = HEX[(bytes[i] >> 4) & 0x0F];
+      chars[2*i+1] = HEX[bytes[i] & 0x0F];
+    }
+    return new String(chars);
+  }
+}
@@ -22,6 +22,7 @@ import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.ProcessInstance;
 import com.esri.geoportal.harvester.api.defs.PublishingStatus;
 import com.esri.geoportal.harvester.api.ex.DataException;
+import com.esri.geoportal.harvester.api.ex.DataInputException;
 import com.esri.geoportal.harvester.api.ex.DataOutputException;
 import com.esri.geoportal.harvester.engine.managers.History;
 import com.esri.geoportal.harvester.engine.managers.HistoryManager;
@@ -32,6 +33,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * History manager adaptor.
+ * <p>
+ * Besides history events, it keeps the latest checkpoint of the harvest, so 
+ * the harvest which has been aborted or failed to read the input can be resumed
+ * next time. Checkpoint is removed once the harvest completes normally.
+ * Watermark is stored only once the harvest completes normally, so the next
+ * incremental harvest never skips data which has not been read.
  */
 public class HistoryManagerAdaptor extends BaseProcessInstanceListener {
 
@@ -44,6 +51,8 @@ public class HistoryManagerAdaptor extends BaseProcessInstanceListener {
   private final History.Report report = new History.Report();
   private Date startDate;
   private Date endDate;
+  private volatile boolean interrupted;
+  private volatile String watermark;
 
   /**
    * Creates instance of the adaptor.
@@ -73,6 +82,9 @@ public class HistoryManagerAdaptor extends BaseProcessInstanceListener {
           event.setStartTimestamp(startDate);
         }
         break;
+      case aborting:
+        interrupted = true;
+        break;
       case completed: {
         if (startDate == null) {
           startDate = new Date();
@@ -88,6 +100,20 @@ public class HistoryManagerAdaptor extends BaseProcessInstanceListener {
         } catch (CrudlException ex) {
           LOG.error(formatForLog("Error creating history event for: %s", uuid), ex);
         }
+        if (!interrupted) {
+          try {
+            historyManager.deleteCheckpoint(uuid);
+          } catch (CrudlException ex) {
+            LOG.error(formatForLog("Error deleting checkpoint for: %s", uuid), ex);
+          }
+          if (watermark != null) {
+            try {
+              historyManager.storeWatermark(uuid, watermark);
+            } catch (CrudlException ex) {
+              LOG.error(formatForLog("Error storing watermark for: %s", uuid), ex);
+            }
+          }
+        }
       }
       break;
     }
@@ -102,11 +128,29 @@ public class HistoryManagerAdaptor extends BaseProcessInstanceListener {
   public void onDataProcessed(DataReference dataReference, PublishingStatus status) {
     report.created += status.getCreated();
     report.updated += status.getUpdated();
+    report.skipped += status.getUnchanged();
+  }
+
+  @Override
+  public void onCheckpoint(String checkpoint) {
+    try {
+      historyManager.storeCheckpoint(uuid, checkpoint);
+    } catch (CrudlException ex) {
+      LOG.error(formatForLog("Error storing checkpoint for: %s", uuid), ex);
+    }
+  }
+
+  @Override
+  public void onWatermark(String watermark) {
+    this.watermark = watermark;
   }
 
   @Override
   public void onError(DataException ex) {
     report.failed++;
+    if (ex instanceof DataInputException) {
+      interrupted = true;
+    }
     
     String msg = ex.getMessage();
     report.details.put(msg, report.details.containsKey(msg)? report.details.get(msg) + 1: 1);
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram.
+ * <p>
+ * Records durations with microsecond resolution into log-linear buckets the 
+ * same way as HDR histogram does: each power of two range is split into
+ * {@link #SUB_BUCKETS} linear sub-buckets, which keeps relative error of any
+ * reported value below 1/{@link #SUB_BUCKETS} while using a small, fixed 
+ * amount of memory. Recording is lock-free, thus the histogram can be updated
+ * concurrently by any number of harvesting threads. Durations longer than
+ * about three weeks are recorded into the last bucket.
+ */
+public final class LatencyHistogram {
+  /** number of linear sub-buckets within each power of two */
+  public static final int SUB_BUCKETS = 16;
+  private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+  private static final int MAX_EXPONENT = 40;
+  private static final int SIZE = SUB_BUCKETS + (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+  private static final long MAX_VALUE = upperBound(SIZE - 1);
+  
+  private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+  
+  /**
+   * Records a duration.
+   * @param duration duration
+   * @param unit unit of the duration
+   */
+  public void record(long duration, TimeUnit unit) {
+    long micros = Math.min(Math.max(unit.toMicros(duration), 0), MAX_VALUE);
+    counts.incrementAndGet(indexOf(micros));
+    count.increment();
+    sum.add(micros);
+    long current;
+    while (micros > (current = max.get()) && !max.compareAndSet(current, micros)) {
+      // retry
+    }
+  }
+  
+  /**
+   * Records time elapsed since the start.
+   * @param startNanos start time as obtained from {@link System#nanoTime()}
+   */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+  
+  /**
+   * Gets number of recorded durations.
+   * @return number of recorded durations
+   */
+  public long getCount() {
+    return count.sum();
+  }
+  
+  /**
+   * Gets sum of all recorded durations.
+   * @return sum in microseconds
+   */
+  public long getSum() {
+    return sum.sum();
+  }
+  
+  /**
+   * Gets the longest recorded duration.
+   * @return longest duration in microseconds
+   */
+  public long getMax() {
+    return max.get();
+  }
+  
+  /**
+   * Gets mean of the recorded durations.
+   * @return mean in microseconds
+   */
+  public double getMean() {
+    long n = count.sum();
+    return n>0? (double)sum.sum() / n: 0.0;
+  }
+  
+  /**
+   * Gets value at the given percentile. Reported value is the upper bound of
+   * the bucket containing the percentile, thus it is never underestimated.
+   * @param percentile percentile (0.0 - 100.0)
+   * @return value at the percentile in microseconds
+   */
+  public long getValueAtPercentile(double percentile) {
+    long[] snapshot = snapshot();
+    long total = 0;
+    for (long c: snapshot) {
+      total += c;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long)Math.ceil(Math.min(Math.max(percentile, 0.0), 100.0) / 100.0 * total));
+    long cumulative = 0;
+    for (int i=0; i<snapshot.length; i++) {
+      cumulative += snapshot[i];
+      if (cumulative >= rank) {
+        return Math.min(upperBound(i), max.get());
+      }
+    }
+    return max.get();
+  }
+  
+  /**
+   * Gets number of recorded durations not exceeding the given value. Count of
+   * the bucket containing the value is interpolated linearly unless the value
+   * is not less than the longest recorded duration.
+   * @param micros value in microseconds
+   * @return number of durations
+   */
+  public long getCountAtOrBelow(long micros) {
+    if (micros < 0) {
+      return 0;
+    }
+    long value = Math.min(micros, MAX_VALUE);
+    if (value >= max.get()) {
+      long total = 0;
+      for (int i=0; i<SIZE; i++) {
+        total += counts.get(i);
+      }
+      return total;
+    }
+    int last = indexOf(value);
+    long cumulative = 0;
+    for (int i=0; i<last; i++) {
+      cumulative += counts.get(i);
+    }
+    long low = last > 0? upperBound(last - 1) + 1: 0;
+    long width = upperBound(last) - low + 1;
+    cumulative += counts.get(last) * (value - low + 1) / width;
+    return cumulative;
+  }
+  
+  /**
+   * Resets the histogram.
+   */
+  public void reset() {
+    for (int i=0; i<SIZE; i++) {
+      counts.set(i, 0);
+    }
+    count.reset();
+    sum.reset();
+    max.set(0);
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("count: %d, mean: %.1fus, p50: %dus, p99: %dus, max: %dus", getCount(), getMean(), getValueAtPercentile(50), getValueAtPercentile(99), getMax());
+  }
+  
+  private long[] snapshot() {
+    long[] snapshot = new long[SIZE];
+    for (int i=0; i<SIZE; i++) {
+      snapshot[i] = counts.get(i);
+    }
+    return snapshot;
+  }
+  
+  /**
+   * Finds index of the bucket for the value.
+   * @param value value
+   * @return bucket index
+   */
+  private static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int)value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int sub = (int)(value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+  }
+  
+  /**
+   * Finds the highest value falling into the bucket.
+   * @param index bucket index
+   * @return highest value
+   */
+  private static long upperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+    int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+    return ((long)(SUB_BUCKETS + sub + 1) << shift) - 1;
+  }
+}
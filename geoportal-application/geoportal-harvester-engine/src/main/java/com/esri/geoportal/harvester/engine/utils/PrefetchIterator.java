@@ -0,0 +1,275 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.ex.DataInputException;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prefetch iterator.
+ * <p>
+ * Reads data from the underlying iterator on a separate thread and keeps it in
+ * a queue bounded by number of records and by number of bytes, so the input
+ * broker keeps fetching while the destinations are still publishing.
+ * The underlying iterator is accessed by a single thread only. Checkpoint 
+ * reflects position of the record most recently returned by this iterator 
+ * rather than position of the underlying iterator. Watermark is available
+ * once the underlying iterator has been exhausted.
+ * <p>
+ * Size of each record is taken when the record is queued. Content fetched 
+ * on first access, like {@link com.esri.geoportal.harvester.api.base.LazyContent},
+ * is not fetched by this iterator and is charged nothing until fetched, 
+ * thus the byte limit does not apply to it; such content is fetched only 
+ * once the record leaves the queue.
+ */
+public class PrefetchIterator implements InputBroker.Iterator, AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(PrefetchIterator.class);
+
+  private final InputBroker.Iterator iterator;
+  private final int capacity;
+  private final long capacityBytes;
+  private final PrefetchStatistics statistics;
+  private final Thread thread;
+
+  private final Object lock = new Object();
+  private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+  private long queueBytes;
+  private boolean exhausted;
+  private DataInputException inputException;
+  private RuntimeException runtimeException;
+  private volatile String checkpoint;
+  private volatile String watermark;
+
+  /**
+   * Creates instance of the iterator.
+   * @param iterator underlying iterator
+   * @param statistics statistics to update
+   * @param name name of the fetching thread
+   */
+  public PrefetchIterator(InputBroker.Iterator iterator, PrefetchStatistics statistics, String name) {
+    this.iterator = iterator;
+    this.capacity = Math.max(1, statistics.getCapacity());
+    this.capacityBytes = statistics.getCapacityBytes();
+    this.statistics = statistics;
+    this.thread = new Thread(this::fetch, name);
+  }
+
+  /**
+   * Starts fetching data.
+   * @return this iterator
+   */
+  public PrefetchIterator start() {
+    thread.start();
+    return this;
+  }
+
+  @Override
+  public boolean hasNext() throws DataInputException {
+    synchronized (lock) {
+      if (queue.isEmpty() && !exhausted) {
+        long start = System.nanoTime();
+        try {
+          while (queue.isEmpty() && !exhausted) {
+            lock.wait();
+          }
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return false;
+        } finally {
+          statistics.outputWait(System.nanoTime() - start);
+        }
+      }
+      if (!queue.isEmpty()) {
+        return true;
+      }
+      if (inputException != null) {
+        throw inputException;
+      }
+      if (runtimeException != null) {
+        throw runtimeException;
+      }
+      return false;
+    }
+  }
+
+  @Override
+  public DataReference next() throws DataInputException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    synchronized (lock) {
+      Entry entry = queue.poll();
+      queueBytes -= entry.size;
+      statistics.queue(queue.size(), queueBytes);
+      lock.notifyAll();
+      checkpoint = entry.checkpoint;
+      return entry.dataReference;
+    }
+  }
+
+  @Override
+  public String getCheckpoint() {
+    return checkpoint;
+  }
+
+  @Override
+  public String getWatermark() {
+    return watermark;
+  }
+
+  @Override
+  public Map<String,Long> getStatistics() {
+    return iterator.getStatistics();
+  }
+
+  /**
+   * Stops fetching data and waits until fetching thread completes. Data 
+   * fetched but never returned is released.
+   */
+  @Override
+  public void close() {
+    thread.interrupt();
+    clear();
+    boolean interrupted = Thread.interrupted();
+    while (thread.isAlive()) {
+      try {
+        thread.join();
+      } catch (InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    // fetching thread might have queued one more record before it stopped
+    clear();
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Releases and removes all the data from the queue.
+   */
+  private void clear() {
+    synchronized (lock) {
+      queue.forEach(entry -> entry.dataReference.release());
+      queue.clear();
+      queueBytes = 0;
+      statistics.queue(0, 0);
+      lock.notifyAll();
+    }
+  }
+
+  /**
+   * Fetches data from the underlying iterator until exhausted or interrupted.
+   */
+  private void fetch() {
+    try {
+      while (!Thread.currentThread().isInterrupted() && iterator.hasNext()) {
+        DataReference dataReference = iterator.next();
+        String entryCheckpoint = iterator.getCheckpoint();
+        long size = sizeOf(dataReference);
+        statistics.fetched();
+        synchronized (lock) {
+          if (isFull(size)) {
+            long start = System.nanoTime();
+            try {
+              while (isFull(size)) {
+                lock.wait();
+              }
+            } finally {
+              statistics.inputWait(System.nanoTime() - start);
+            }
+          }
+          queue.add(new Entry(dataReference, size, entryCheckpoint));
+          queueBytes += size;
+          statistics.queue(queue.size(), queueBytes);
+          lock.notifyAll();
+        }
+      }
+      if (!Thread.currentThread().isInterrupted()) {
+        watermark = iterator.getWatermark();
+      }
+    } catch (InterruptedException ex) {
+      LOG.debug(String.format("Prefetching interrupted: %s", thread.getName()));
+    } catch (DataInputException ex) {
+      synchronized (lock) {
+        inputException = ex;
+      }
+    } catch (RuntimeException ex) {
+      synchronized (lock) {
+        runtimeException = ex;
+      }
+    } finally {
+      synchronized (lock) {
+        exhausted = true;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Checks if queue can not accept data of the given size. A single record
+   * is always accepted if the queue is empty regardless of its size.
+   * @param size size of the data
+   * @return <code>true</code> if queue is full
+   */
+  private boolean isFull(long size) {
+    if (queue.isEmpty()) {
+      return false;
+    }
+    return queue.size() >= capacity || (capacityBytes > 0 && queueBytes + size > capacityBytes);
+  }
+
+  /**
+   * Estimates size of the data reference. Content of unknown size, like 
+   * content not fetched yet, counts as empty.
+   * @param dataReference data reference
+   * @return size in bytes
+   */
+  private static long sizeOf(DataReference dataReference) {
+    long size = 0;
+    try {
+      for (MimeType mimeType: dataReference.getContentType()) {
+        size += Math.max(0, dataReference.getSize(mimeType));
+      }
+    } catch (IOException ex) {
+      LOG.debug(String.format("Unable to estimate size of: %s", dataReference), ex);
+    }
+    return size;
+  }
+
+  /**
+   * Queue entry.
+   */
+  private static final class Entry {
+    private final DataReference dataReference;
+    private final long size;
+    private final String checkpoint;
+
+    public Entry(DataReference dataReference, long size, String checkpoint) {
+      this.dataReference = dataReference;
+      this.size = size;
+      this.checkpoint = checkpoint;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prefetch statistics.
+ * <p>
+ * Describes read-ahead queue between input broker and the destinations. Long
+ * input wait time means input is the bottleneck, while long output wait time
+ * means publishing is the bottleneck.
+ */
+public final class PrefetchStatistics {
+  private final int capacity;
+  private final long capacityBytes;
+
+  private volatile int queueDepth;
+  private volatile long queueBytes;
+  private volatile int peakQueueDepth;
+  private final AtomicLong fetched = new AtomicLong();
+  private final AtomicLong inputWaitNanos = new AtomicLong();
+  private final AtomicLong outputWaitNanos = new AtomicLong();
+
+  /**
+   * Creates instance of the statistics.
+   * @param capacity maximum number of records in the queue
+   * @param capacityBytes maximum number of bytes in the queue or 0 if unlimited
+   */
+  public PrefetchStatistics(int capacity, long capacityBytes) {
+    this.capacity = capacity;
+    this.capacityBytes = capacityBytes;
+  }
+
+  /**
+   * Gets maximum number of records in the queue.
+   * @return maximum number of records in the queue
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets maximum number of bytes in the queue.
+   * @return maximum number of bytes in the queue or 0 if unlimited
+   */
+  public long getCapacityBytes() {
+    return capacityBytes;
+  }
+
+  /**
+   * Gets current number of records in the queue.
+   * @return current number of records in the queue
+   */
+  public int getQueueDepth() {
+    return queueDepth;
+  }
+
+  /**
+   * Gets current number of bytes in the queue.
+   * @return current number of bytes in the queue
+   */
+  public long getQueueBytes() {
+    return queueBytes;
+  }
+
+  /**
+   * Gets the highest number of records observed in the queue.
+   * @return peak queue depth
+   */
+  public int getPeakQueueDepth() {
+    return peakQueueDepth;
+  }
+
+  /**
+   * Gets number of records fetched ahead.
+   * @return number of records fetched ahead
+   */
+  public long getFetched() {
+    return fetched.get();
+  }
+
+  /**
+   * Gets total time the input has been waiting for a free space in the queue.
+   * @return wait time in milliseconds
+   */
+  public long getInputWaitTime() {
+    return TimeUnit.NANOSECONDS.toMillis(inputWaitNanos.get());
+  }
+
+  /**
+   * Gets total time the destinations have been waiting for the data.
+   * @return wait time in milliseconds
+   */
+  public long getOutputWaitTime() {
+    return TimeUnit.NANOSECONDS.toMillis(outputWaitNanos.get());
+  }
+
+  /**
+   * Records queue state.
+   * @param depth queue depth
+   * @param bytes queue bytes
+   */
+  void queue(int depth, long bytes) {
+    queueDepth = depth;
+    queueBytes = bytes;
+    if (depth > peakQueueDepth) {
+      peakQueueDepth = depth;
+    }
+  }
+
+  /**
+   * Records fetched data.
+   */
+  void fetched() {
+    fetched.incrementAndGet();
+  }
+
+  /**
+   * Records input wait time.
+   * @param nanos wait time in nanoseconds
+   */
+  void inputWait(long nanos) {
+    inputWaitNanos.addAndGet(nanos);
+  }
+
+  /**
+   * Records output wait time.
+   * @param nanos wait time in nanoseconds
+   */
+  void outputWait(long nanos) {
+    outputWaitNanos.addAndGet(nanos);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("PREFETCH :: depth: %d/%d, bytes: %d/%d, peak depth: %d, fetched: %d, input wait: %d ms, output wait: %d ms",
+            queueDepth, capacity, queueBytes, capacityBytes, peakQueueDepth, fetched.get(), getInputWaitTime(), getOutputWaitTime());
+  }
+}
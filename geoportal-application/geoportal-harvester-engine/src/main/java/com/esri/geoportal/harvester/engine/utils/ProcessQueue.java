@@ -0,0 +1,258 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import static com.esri.geoportal.commons.utils.CrlfUtils.formatForLog;
+import com.esri.geoportal.harvester.api.ProcessInstance;
+import com.esri.geoportal.harvester.api.base.BaseProcessInstanceListener;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.Task;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process queue.
+ * <p>
+ * Limits number of processes running at the same time. Processes begun while
+ * the limit is reached are kept in the queue with {@link ProcessInstance.Status#queued}
+ * status and begin as soon as any running process completes. Processes with 
+ * higher priority (processor property <code>p-priority</code>) are begun first;
+ * processes of the same priority are begun in order of submission.
+ */
+public class ProcessQueue {
+  private static final Logger LOG = LoggerFactory.getLogger(ProcessQueue.class);
+  public static final String P_PRIORITY = "p-priority";
+
+  private final int maxRunning;
+  private final AtomicLong sequence = new AtomicLong();
+  private final PriorityQueue<QueuedProcess> queue = new PriorityQueue<>(
+          Comparator.comparingInt((QueuedProcess p) -> p.priority).reversed().thenComparingLong(p -> p.seq)
+  );
+  private int running;
+
+  /**
+   * Creates instance of the queue.
+   * @param maxRunning maximum number of processes running at the same time
+   */
+  public ProcessQueue(int maxRunning) {
+    this.maxRunning = Math.max(1, maxRunning);
+  }
+
+  /**
+   * Gets maximum number of processes running at the same time.
+   * @return maximum number of running processes
+   */
+  public int getMaxRunning() {
+    return maxRunning;
+  }
+
+  /**
+   * Gets number of running processes.
+   * @return number of running processes
+   */
+  public synchronized int getRunning() {
+    return running;
+  }
+
+  /**
+   * Gets number of queued processes.
+   * @return number of queued processes
+   */
+  public synchronized int getQueued() {
+    return queue.size();
+  }
+
+  /**
+   * Wraps process, so it begins only when permitted by the queue.
+   * @param process process to wrap
+   * @return queued process
+   */
+  public QueuedProcess wrap(ProcessInstance process) {
+    return new QueuedProcess(process);
+  }
+
+  /**
+   * Begins as many queued processes as permitted.
+   */
+  private void dispatch() {
+    while (true) {
+      QueuedProcess next;
+      synchronized (this) {
+        if (running >= maxRunning || queue.isEmpty()) {
+          return;
+        }
+        next = queue.poll();
+        next.queued = false;
+        running++;
+      }
+      next.start();
+    }
+  }
+
+  /**
+   * Releases slot of a completed process.
+   */
+  private void release() {
+    synchronized (this) {
+      running--;
+    }
+    dispatch();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("PROCESS QUEUE :: running: %d/%d, queued: %d", running, maxRunning, queue.size());
+  }
+
+  /**
+   * Reads priority from the processor definition.
+   * @param task task
+   * @return priority
+   */
+  private static int readPriority(Task task) {
+    EntityDefinition processorDefinition = task.getProcessor()!=null? task.getProcessor().getEntityDefinition(): null;
+    String strPriority = processorDefinition!=null? processorDefinition.getProperties().get(P_PRIORITY): null;
+    if (strPriority!=null) {
+      try {
+        return Integer.parseInt(strPriority.trim());
+      } catch (NumberFormatException ex) {
+        LOG.warn(formatForLog("Invalid priority: %s", strPriority));
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Queued process.
+   */
+  public class QueuedProcess implements ProcessInstance {
+    private final ProcessInstance process;
+    private final int priority;
+    private final List<ProcessInstance.Listener> listeners = Collections.synchronizedList(new ArrayList<>());
+    private long seq;
+    private boolean queued;
+    private boolean cancelled;
+
+    /**
+     * Creates instance of the queued process.
+     * @param process process to wrap
+     */
+    private QueuedProcess(ProcessInstance process) {
+      this.process = process;
+      this.priority = readPriority(process.getTask());
+      this.process.addListener(new BaseProcessInstanceListener() {
+        @Override
+        public void onStatusChange(ProcessInstance.Status status) {
+          if (status==ProcessInstance.Status.completed) {
+            release();
+          }
+        }
+      });
+    }
+
+    /**
+     * Gets wrapped process.
+     * @return wrapped process
+     */
+    public ProcessInstance getProcess() {
+      return process;
+    }
+
+    @Override
+    public Task getTask() {
+      return process.getTask();
+    }
+
+    @Override
+    public void init() {
+      process.init();
+    }
+
+    @Override
+    public void begin() {
+      synchronized (ProcessQueue.this) {
+        if (getStatus() != ProcessInstance.Status.submitted) {
+          throw new IllegalStateException(formatForLog("Error begininig the process: process is in %s state", getStatus()));
+        }
+        seq = sequence.incrementAndGet();
+        queued = true;
+        queue.add(this);
+      }
+      LOG.debug(formatForLog("Process queued: %s, %s", this, ProcessQueue.this));
+      listeners.forEach(l -> l.onStatusChange(ProcessInstance.Status.queued));
+      dispatch();
+    }
+
+    @Override
+    public void abort() {
+      synchronized (ProcessQueue.this) {
+        if (queued) {
+          queue.remove(this);
+          queued = false;
+          cancelled = true;
+        }
+      }
+      if (cancelled) {
+        LOG.info(formatForLog("Queued process cancelled: %s", this));
+        listeners.forEach(l -> l.onStatusChange(ProcessInstance.Status.completed));
+      } else {
+        process.abort();
+      }
+    }
+
+    @Override
+    public ProcessInstance.Status getStatus() {
+      synchronized (ProcessQueue.this) {
+        if (cancelled) {
+          return ProcessInstance.Status.completed;
+        }
+        if (queued) {
+          return ProcessInstance.Status.queued;
+        }
+      }
+      return process.getStatus();
+    }
+
+    @Override
+    public void addListener(ProcessInstance.Listener listener) {
+      listeners.add(listener);
+      process.addListener(listener);
+    }
+
+    /**
+     * Begins wrapped process.
+     */
+    private void start() {
+      try {
+        process.begin();
+      } catch (RuntimeException ex) {
+        LOG.error(formatForLog("Error beginning queued process: %s", this), ex);
+        release();
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s, priority: %d", process, priority);
+    }
+  }
+}
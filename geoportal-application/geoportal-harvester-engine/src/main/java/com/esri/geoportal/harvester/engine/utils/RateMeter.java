@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate meter.
+ * <p>
+ * Measures number of events per second as exponentially weighted moving 
+ * averages over one, five and fifteen minutes, the same way as Unix load 
+ * average. Marking events uses striped counters only; averages are updated
+ * every {@link #TICK_INTERVAL} seconds by whichever thread notices it first,
+ * thus neither marking nor reading requires locking.
+ */
+public final class RateMeter {
+  /** tick interval in seconds */
+  public static final long TICK_INTERVAL = 5;
+  private static final long TICK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(TICK_INTERVAL);
+  private static final double M1_ALPHA = alpha(1);
+  private static final double M5_ALPHA = alpha(5);
+  private static final double M15_ALPHA = alpha(15);
+  
+  private final LongAdder count = new LongAdder();
+  private final LongAdder uncounted = new LongAdder();
+  private final long startTime = System.nanoTime();
+  private final AtomicLong lastTick = new AtomicLong(startTime);
+  
+  private volatile boolean initialized;
+  private volatile double m1Rate;
+  private volatile double m5Rate;
+  private volatile double m15Rate;
+  
+  /**
+   * Marks a single event.
+   */
+  public void mark() {
+    mark(1);
+  }
+  
+  /**
+   * Marks events.
+   * @param n number of events
+   */
+  public void mark(long n) {
+    tickIfNecessary();
+    count.add(n);
+    uncounted.add(n);
+  }
+  
+  /**
+   * Gets total number of events.
+   * @return number of events
+   */
+  public long getCount() {
+    return count.sum();
+  }
+  
+  /**
+   * Gets mean rate since the meter has been created.
+   * @return events per second
+   */
+  public double getMeanRate() {
+    long elapsed = System.nanoTime() - startTime;
+    return elapsed>0? count.sum() * (double)TimeUnit.SECONDS.toNanos(1) / elapsed: 0.0;
+  }
+  
+  /**
+   * Gets one minute moving average rate.
+   * @return events per second
+   */
+  public double getOneMinuteRate() {
+    tickIfNecessary();
+    return m1Rate;
+  }
+  
+  /**
+   * Gets five minutes moving average rate.
+   * @return events per second
+   */
+  public double getFiveMinuteRate() {
+    tickIfNecessary();
+    return m5Rate;
+  }
+  
+  /**
+   * Gets fifteen minutes moving average rate.
+   * @return events per second
+   */
+  public double getFifteenMinuteRate() {
+    tickIfNecessary();
+    return m15Rate;
+  }
+  
+  /**
+   * Updates averages for each tick interval elapsed since the last update.
+   */
+  private void tickIfNecessary() {
+    long oldTick = lastTick.get();
+    long now = System.nanoTime();
+    long age = now - oldTick;
+    if (age > TICK_INTERVAL_NANOS) {
+      long newTick = now - age % TICK_INTERVAL_NANOS;
+      if (lastTick.compareAndSet(oldTick, newTick)) {
+        long ticks = age / TICK_INTERVAL_NANOS;
+        for (long i = 0; i < ticks; i++) {
+          tick();
+        }
+      }
+    }
+  }
+  
+  /**
+   * Updates averages with events counted during a single tick interval.
+   */
+  private void tick() {
+    double instantRate = (double)uncounted.sumThenReset() / TICK_INTERVAL;
+    if (initialized) {
+      m1Rate += M1_ALPHA * (instantRate - m1Rate);
+      m5Rate += M5_ALPHA * (instantRate - m5Rate);
+      m15Rate += M15_ALPHA * (instantRate - m15Rate);
+    } else {
+      m1Rate = instantRate;
+      m5Rate = instantRate;
+      m15Rate = instantRate;
+      initialized = true;
+    }
+  }
+  
+  /**
+   * Calculates smoothing factor.
+   * @param minutes averaging period in minutes
+   * @return smoothing factor
+   */
+  private static double alpha(int minutes) {
+    return 1 - Math.exp(-TICK_INTERVAL / 60.0 / minutes);
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("RATE :: count: %d, mean: %.2f/s, 1 min: %.2f/s, 5 min: %.2f/s, 15 min: %.2f/s", 
+            getCount(), getMeanRate(), getOneMinuteRate(), getFiveMinuteRate(), getFifteenMinuteRate());
+  }
+}
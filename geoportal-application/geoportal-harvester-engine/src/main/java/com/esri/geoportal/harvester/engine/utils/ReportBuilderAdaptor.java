@@ -63,7 +63,7 @@ public class ReportBuilderAdaptor extends BaseProcessInstanceListener {
 
   @Override
   public void onDataProcessed(DataReference dataReference, PublishingStatus status) {
-    if (!status.equals(PublishingStatus.SKIPPED)) {
+    if (!status.equals(PublishingStatus.SKIPPED) && !status.equals(PublishingStatus.UNCHANGED)) {
       reportBuilder.success(processInstance, dataReference);
     }
   }
@@ -15,7 +15,9 @@
  */
 package com.esri.geoportal.harvester.engine.utils;
 
+import com.esri.geoportal.harvester.api.base.ContentStore;
 import java.util.Date;
+import java.util.Map;
 
 /**
  * Statistics.
@@ -64,4 +66,54 @@ public interface Statistics {
    */
   boolean isFailure();
   
+  /**
+   * Gets read-ahead statistics.
+   * @return read-ahead statistics or <code>null</code> if read-ahead is disabled
+   */
+  default PrefetchStatistics getPrefetch() {
+    return null;
+  }
+  
+  /**
+   * Gets statistics reported by the input broker, like progress of each of
+   * the parallel readers.
+   * @return counters by name or <code>null</code> if not available
+   * @see com.esri.geoportal.harvester.api.specs.InputBroker.Iterator#getStatistics() 
+   */
+  default Map<String,Long> getInput() {
+    return null;
+  }
+  
+  /**
+   * Gets content statistics, i.e. bytes kept in memory and bytes spilled to disk.
+   * @return content store or <code>null</code> if unknown
+   */
+  default ContentStore getContentStore() {
+    return null;
+  }
+  
+  /**
+   * Gets number of acquired records per second averaged over the last minute.
+   * @return records per second
+   */
+  default double getOneMinuteRate() {
+    return 0.0;
+  }
+  
+  /**
+   * Gets number of acquired records per second averaged over the last five minutes.
+   * @return records per second
+   */
+  default double getFiveMinuteRate() {
+    return 0.0;
+  }
+  
+  /**
+   * Gets number of acquired records per second averaged over the last fifteen minutes.
+   * @return records per second
+   */
+  default double getFifteenMinuteRate() {
+    return 0.0;
+  }
+  
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import com.esri.geoportal.harvester.api.base.ContentStore;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistics snapshot.
+ * <p>
+ * Immutable copy of the statistics taken at a single point in time. Outcomes
+ * are read before the number of acquired records; since a record is always 
+ * acquired before it is processed, the snapshot never reports more processed 
+ * records than acquired ones.
+ */
+public final class StatisticsSnapshot implements Statistics {
+  private final Date startDate;
+  private final Date endDate;
+  private final long succeeded;
+  private final long harvestFailed;
+  private final long publishFailed;
+  private final long acquired;
+  private final boolean failure;
+  private final double oneMinuteRate;
+  private final double fiveMinuteRate;
+  private final double fifteenMinuteRate;
+  private final PrefetchStatistics prefetch;
+  private final ContentStore contentStore;
+  private final Map<String,Long> input;
+
+  /**
+   * Creates instance of the snapshot.
+   * @param statistics statistics
+   */
+  private StatisticsSnapshot(Statistics statistics) {
+    this.endDate = statistics.getEndDate();
+    this.succeeded = statistics.getSucceeded();
+    this.harvestFailed = statistics.getHarvestFailed();
+    this.publishFailed = statistics.getPublishFailed();
+    this.failure = statistics.isFailure();
+    this.acquired = statistics.getAcquired();
+    this.startDate = statistics.getStartDate();
+    this.oneMinuteRate = statistics.getOneMinuteRate();
+    this.fiveMinuteRate = statistics.getFiveMinuteRate();
+    this.fifteenMinuteRate = statistics.getFifteenMinuteRate();
+    this.prefetch = statistics.getPrefetch();
+    this.contentStore = statistics.getContentStore();
+    Map<String,Long> inputStatistics = statistics.getInput();
+    this.input = inputStatistics!=null? Collections.unmodifiableMap(new LinkedHashMap<>(inputStatistics)): null;
+  }
+  
+  /**
+   * Takes snapshot of the statistics.
+   * @param statistics statistics
+   * @return snapshot or <code>null</code> if no statistics
+   */
+  public static StatisticsSnapshot of(Statistics statistics) {
+    if (statistics==null || statistics instanceof StatisticsSnapshot) {
+      return (StatisticsSnapshot)statistics;
+    }
+    return new StatisticsSnapshot(statistics);
+  }
+
+  @Override
+  public Date getStartDate() {
+    return startDate;
+  }
+
+  @Override
+  public Date getEndDate() {
+    return endDate;
+  }
+
+  @Override
+  public long getAcquired() {
+    return acquired;
+  }
+
+  @Override
+  public long getSucceeded() {
+    return succeeded;
+  }
+
+  @Override
+  public long getHarvestFailed() {
+    return harvestFailed;
+  }
+
+  @Override
+  public long getPublishFailed() {
+    return publishFailed;
+  }
+
+  @Override
+  public boolean isFailure() {
+    return failure;
+  }
+
+  @Override
+  public double getOneMinuteRate() {
+    return oneMinuteRate;
+  }
+
+  @Override
+  public double getFiveMinuteRate() {
+    return fiveMinuteRate;
+  }
+
+  @Override
+  public double getFifteenMinuteRate() {
+    return fifteenMinuteRate;
+  }
+
+  @Override
+  public PrefetchStatistics getPrefetch() {
+    return prefetch;
+  }
+
+  @Override
+  public ContentStore getContentStore() {
+    return contentStore;
+  }
+
+  @Override
+  public Map<String,Long> getInput() {
+    return input;
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("STATISTICS :: start: %s, end: %s, acquired: %d, succeeded: %d, harvested failed: %d, published failed: %d, failure: %b, rate: %.2f/%.2f/%.2f", 
+            startDate, endDate, acquired, succeeded, harvestFailed, publishFailed, failure, oneMinuteRate, fiveMinuteRate, fifteenMinuteRate);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataContent;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.ex.DataInputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import com.esri.geoportal.harvester.api.specs.InputConnector;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+/**
+ * Timed input broker.
+ * <p>
+ * Wraps input broker and records time spent in each call to 
+ * {@link InputBroker.Iterator#next()} of its iterators.
+ */
+public class TimedInputBroker implements InputBroker {
+  private final InputBroker broker;
+  private final LatencyHistogram histogram;
+
+  /**
+   * Creates instance of the broker.
+   * @param broker underlying broker
+   * @param histogram histogram to record into
+   */
+  public TimedInputBroker(InputBroker broker, LatencyHistogram histogram) {
+    this.broker = broker;
+    this.histogram = histogram;
+  }
+
+  @Override
+  public URI getBrokerUri() throws URISyntaxException {
+    return broker.getBrokerUri();
+  }
+
+  @Override
+  public Iterator iterator(IteratorContext iteratorContext) throws DataInputException {
+    Iterator iterator = broker.iterator(iteratorContext);
+    return new Iterator() {
+      @Override
+      public boolean hasNext() throws DataInputException {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public DataReference next() throws DataInputException {
+        long start = System.nanoTime();
+        try {
+          return iterator.next();
+        } finally {
+          histogram.recordSince(start);
+        }
+      }
+
+      @Override
+      public String getCheckpoint() {
+        return iterator.getCheckpoint();
+      }
+
+      @Override
+      public String getWatermark() {
+        return iterator.getWatermark();
+      }
+
+      @Override
+      public Map<String,Long> getStatistics() {
+        return iterator.getStatistics();
+      }
+    };
+  }
+
+  @Override
+  public DataContent readContent(String id) throws DataInputException {
+    return broker.readContent(id);
+  }
+
+  @Override
+  public EntityDefinition getEntityDefinition() {
+    return broker.getEntityDefinition();
+  }
+
+  @Override
+  public InputConnector getConnector() {
+    return broker.getConnector();
+  }
+
+  @Override
+  public boolean hasAccess(SimpleCredentials creds) {
+    return broker.hasAccess(creds);
+  }
+
+  @Override
+  public void initialize(InitContext context) throws DataProcessorException {
+    broker.initialize(context);
+  }
+
+  @Override
+  public void terminate() {
+    broker.terminate();
+  }
+
+  @Override
+  public String toString() {
+    return broker.toString();
+  }
+}
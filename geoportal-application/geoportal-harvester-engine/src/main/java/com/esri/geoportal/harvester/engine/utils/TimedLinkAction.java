@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.general.LinkAction;
+import java.util.List;
+
+/**
+ * Timed link action.
+ * <p>
+ * Wraps link action and records time spent in {@link LinkAction#execute} and
+ * {@link LinkAction#push}. Either of the histograms might be <code>null</code>
+ * if the corresponding call is not worth measuring for the wrapped action.
+ */
+public class TimedLinkAction implements LinkAction {
+  private final LinkAction action;
+  private final LatencyHistogram executeHistogram;
+  private final LatencyHistogram pushHistogram;
+
+  /**
+   * Creates instance of the action.
+   * @param action underlying action
+   * @param executeHistogram histogram of execute calls or <code>null</code>
+   * @param pushHistogram histogram of push calls or <code>null</code>
+   */
+  public TimedLinkAction(LinkAction action, LatencyHistogram executeHistogram, LatencyHistogram pushHistogram) {
+    this.action = action;
+    this.executeHistogram = executeHistogram;
+    this.pushHistogram = pushHistogram;
+  }
+
+  @Override
+  public EntityDefinition getLinkActionDefinition() {
+    return action.getLinkActionDefinition();
+  }
+
+  @Override
+  public List<DataReference> execute(DataReference dataRef) throws DataProcessorException, DataOutputException {
+    if (executeHistogram == null) {
+      return action.execute(dataRef);
+    }
+    long start = System.nanoTime();
+    try {
+      return action.execute(dataRef);
+    } finally {
+      executeHistogram.recordSince(start);
+    }
+  }
+
+  @Override
+  public PublishingStatus push(DataReference dataRef) throws DataProcessorException, DataOutputException {
+    if (pushHistogram == null) {
+      return action.push(dataRef);
+    }
+    long start = System.nanoTime();
+    try {
+      return action.push(dataRef);
+    } finally {
+      pushHistogram.recordSince(start);
+    }
+  }
+
+  @Override
+  public List<PublishingOutcome> flush() {
+    return action.flush();
+  }
+
+  @Override
+  public void initialize(InitContext context) throws DataProcessorException {
+    action.initialize(context);
+  }
+
+  @Override
+  public void terminate() {
+    action.terminate();
+  }
+
+  @Override
+  public String toString() {
+    return action.toString();
+  }
+}
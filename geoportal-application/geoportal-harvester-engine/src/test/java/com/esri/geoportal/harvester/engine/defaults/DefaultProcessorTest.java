@@ -0,0 +1,469 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.defaults;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataContent;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.ProcessInstance;
+import com.esri.geoportal.harvester.api.Processor;
+import com.esri.geoportal.harvester.api.base.BaseProcessInstanceListener;
+import com.esri.geoportal.harvester.api.base.BrokerLinkActionAdaptor;
+import com.esri.geoportal.harvester.api.base.SimpleDataReference;
+import com.esri.geoportal.harvester.api.base.SimpleLink;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.api.ex.DataException;
+import com.esri.geoportal.harvester.api.ex.DataInputException;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.general.Link;
+import com.esri.geoportal.harvester.api.general.LinkAction;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import com.esri.geoportal.harvester.api.specs.InputConnector;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.esri.geoportal.harvester.api.specs.OutputConnector;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Default processor test.
+ */
+public class DefaultProcessorTest {
+
+  @Test
+  public void testBatchesFillUpWithSingleThread() throws Exception {
+    TestOutputBroker output = new TestOutputBroker();
+    TestListener listener = run(configure(new DefaultProcessor(), DefaultProcessor.TYPE, "p-batch", "10", "p-batch-linger", "60000"), 25, output);
+    
+    // records are accepted right away and published once the batch fills up
+    assertEquals(Arrays.asList(10, 10, 5), output.batches);
+    assertEquals(25, output.published.get());
+    assertEquals(25, listener.created.get());
+    assertEquals(0, listener.errors.get());
+    assertTrue(output.violations.isEmpty());
+  }
+
+  @Test
+  public void testNoBatches() throws Exception {
+    TestOutputBroker output = new TestOutputBroker();
+    TestListener listener = run(configure(new DefaultProcessor(), DefaultProcessor.TYPE), 25, output);
+    
+    assertTrue(output.batches.isEmpty());
+    assertEquals(25, output.published.get());
+    assertEquals(25, listener.created.get());
+    assertTrue(output.violations.isEmpty());
+  }
+
+  @Test
+  public void testBatchesWithWorkers() throws Exception {
+    TestOutputBroker output = new TestOutputBroker();
+    TestListener listener = run(configure(new ParallelProcessor(), ParallelProcessor.TYPE, "p-workers", "4", "p-batch", "10", "p-batch-linger", "60000"), 95, output);
+    
+    assertEquals(95, output.published.get());
+    assertEquals(95, listener.created.get());
+    assertTrue(output.batches.size() >= 9);
+    assertTrue(output.violations.isEmpty());
+  }
+
+  @Test
+  public void testWorkersPublishBatchesAtTheSameTime() throws Exception {
+    TestOutputBroker output = new TestOutputBroker();
+    output.delay = 50;
+    TestListener listener = run(configure(new ParallelProcessor(), ParallelProcessor.TYPE, "p-workers", "4", "p-batch", "10", "p-batch-linger", "60000"), 100, output);
+    
+    // records pending while a batch is being published don't hold up other workers
+    assertTrue(output.maxConcurrentBatches.get() > 1);
+    assertEquals(100, output.published.get());
+    assertEquals(100, listener.created.get());
+    assertTrue(output.violations.isEmpty());
+  }
+
+  @Test
+  public void testPendingRecordsPublishedWhileInputStalls() throws Exception {
+    TestOutputBroker output = new TestOutputBroker();
+    TestInputBroker input = new TestInputBroker(3);
+    input.stall = new CountDownLatch(1);
+    Processor processor = configure(new DefaultProcessor(), DefaultProcessor.TYPE, "p-batch", "10", "p-batch-linger", "100");
+    Task task = new Task("test", null, processor, input, Arrays.asList(new SimpleLink(new BrokerLinkActionAdaptor(output), Collections.emptyList())));
+    ProcessInstance process = processor.createProcess(task, () -> null);
+    TestListener listener = new TestListener();
+    process.addListener(listener);
+    process.init();
+    process.begin();
+    
+    // records are published once the linger time passes without another record
+    for (int i=0; i<100 && output.batches.isEmpty(); i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(Arrays.asList(3), output.batches);
+    for (TestReference ref: input.records) {
+      assertTrue(String.format("Not released: %s", ref.getId()), ref.released);
+    }
+    
+    input.stall.countDown();
+    assertTrue("Process hasn't completed", listener.completed.await(30, TimeUnit.SECONDS));
+    assertEquals(3, output.published.get());
+    assertTrue(output.violations.isEmpty());
+  }
+
+  @Test
+  public void testFailedRecordsInBatch() throws Exception {
+    TestOutputBroker output = new TestOutputBroker();
+    output.failing = "7";
+    TestListener listener = run(configure(new DefaultProcessor(), DefaultProcessor.TYPE, "p-batch", "10"), 10, output);
+    
+    assertEquals(9, listener.created.get());
+    assertEquals(1, listener.errors.get());
+    assertTrue(output.violations.isEmpty());
+  }
+
+  @Test
+  public void testSiblingDrainFailsAfterBatchingDrainAccepted() throws Exception {
+    TestOutputBroker output = new TestOutputBroker();
+    FailingOutputBroker failing = new FailingOutputBroker();
+    Link link = new SimpleLink(new PassThroughLinkAction(), Arrays.asList(
+            new SimpleLink(new BrokerLinkActionAdaptor(output), Collections.emptyList()),
+            new SimpleLink(new BrokerLinkActionAdaptor(failing), Collections.emptyList())
+    ));
+    TestListener listener = run(configure(new DefaultProcessor(), DefaultProcessor.TYPE, "p-batch", "10", "p-batch-linger", "60000"), 10, Arrays.asList(link));
+    
+    // records accepted by the batching drain are published before being released
+    assertEquals(Arrays.asList(10), output.batches);
+    assertEquals(10, output.published.get());
+    assertEquals(10, listener.created.get());
+    assertEquals(10, listener.errors.get());
+    assertTrue(output.violations.isEmpty());
+  }
+
+  @Test
+  public void testCheckpointNeverPassesUnfinishedRecords() throws Exception {
+    TestInputBroker input = new TestInputBroker(5);
+    Processor processor = configure(new ParallelProcessor(), ParallelProcessor.TYPE, "p-workers", "4");
+    Task task = new Task("test", null, processor, input, Collections.emptyList());
+    ParallelProcessor.ParallelProcess process = (ParallelProcessor.ParallelProcess)processor.createProcess(task, () -> null);
+    InputBroker.Iterator iterator = input.iterator(null);
+    
+    iterator.next();
+    long first = process.started();
+    iterator.next();
+    long second = process.started();
+    iterator.next();
+    long third = process.started();
+    assertNull(process.getCheckpoint(iterator));
+    
+    // records pushed out of order don't move the checkpoint past the first one
+    process.finished(third);
+    process.finished(second);
+    assertNull(process.getCheckpoint(iterator));
+    
+    process.finished(first);
+    iterator.next();
+    long fourth = process.started();
+    assertEquals("3", process.getCheckpoint(iterator));
+    
+    process.finished(fourth);
+    assertEquals("4", process.getCheckpoint(iterator));
+  }
+
+  static Processor configure(Processor processor, String type, String...properties) throws Exception {
+    EntityDefinition definition = new EntityDefinition();
+    definition.setType(type);
+    Map<String,String> props = new HashMap<>();
+    for (int i=0; i+1<properties.length; i+=2) {
+      props.put(properties[i], properties[i+1]);
+    }
+    definition.setProperties(props);
+    return processor.configure(definition);
+  }
+
+  static TestListener run(Processor processor, int count, TestOutputBroker output) throws Exception {
+    return run(processor, count, Arrays.asList(new SimpleLink(new BrokerLinkActionAdaptor(output), Collections.emptyList())));
+  }
+
+  static TestListener run(Processor processor, int count, List<Link> destinations) throws Exception {
+    TestInputBroker input = new TestInputBroker(count);
+    Task task = new Task("test", null, processor, input, destinations);
+    ProcessInstance process = processor.createProcess(task, () -> null);
+    TestListener listener = new TestListener();
+    process.addListener(listener);
+    process.init();
+    process.begin();
+    assertTrue("Process hasn't completed", listener.completed.await(30, TimeUnit.SECONDS));
+    for (TestReference ref: input.records) {
+      assertTrue(String.format("Not released: %s", ref.getId()), ref.released);
+    }
+    return listener;
+  }
+
+  /**
+   * Listener counting events.
+   */
+  static class TestListener extends BaseProcessInstanceListener {
+    final CountDownLatch completed = new CountDownLatch(1);
+    final AtomicInteger created = new AtomicInteger();
+    final AtomicInteger errors = new AtomicInteger();
+    final List<String> checkpoints = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void onStatusChange(ProcessInstance.Status status) {
+      if (status==ProcessInstance.Status.completed) {
+        completed.countDown();
+      }
+    }
+
+    @Override
+    public void onDataProcessed(DataReference dataReference, PublishingStatus status) {
+      created.addAndGet((int)status.getCreated());
+    }
+
+    @Override
+    public void onError(DataException ex) {
+      errors.incrementAndGet();
+    }
+
+    @Override
+    public void onCheckpoint(String checkpoint) {
+      checkpoints.add(checkpoint);
+    }
+  }
+
+  /**
+   * Data reference remembering if it has been released.
+   */
+  static class TestReference extends SimpleDataReference {
+    volatile boolean released;
+
+    public TestReference(String id) {
+      super(URI.create("test:src"), "test", id, new Date(), URI.create("test:" + id), null, null);
+      addContext(MimeType.APPLICATION_XML, new byte[10]);
+    }
+
+    @Override
+    public void release() {
+      released = true;
+      super.release();
+    }
+  }
+
+  /**
+   * Input broker returning given number of records, optionally stalling before
+ * reporting there are no more records.
+   */
+  static class TestInputBroker implements InputBroker {
+    final List<TestReference> records = new ArrayList<>();
+    volatile CountDownLatch stall;
+
+    public TestInputBroker(int count) {
+      for (int i=1; i<=count; i++) {
+        records.add(new TestReference(Integer.toString(i)));
+      }
+    }
+
+    @Override
+    public URI getBrokerUri() {
+      return URI.create("test:src");
+    }
+
+    @Override
+    public Iterator iterator(IteratorContext iteratorContext) {
+      return new Iterator() {
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+          if (index == records.size() && stall != null) {
+            try {
+              stall.await();
+            } catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          return index < records.size();
+        }
+
+        @Override
+        public DataReference next() {
+          return records.get(index++);
+        }
+
+        @Override
+        public String getCheckpoint() {
+          return Integer.toString(index);
+        }
+      };
+    }
+
+    @Override
+    public DataContent readContent(String id) throws DataInputException {
+      return null;
+    }
+
+    @Override
+    public EntityDefinition getEntityDefinition() {
+      EntityDefinition definition = new EntityDefinition();
+      definition.setType("TEST");
+      return definition;
+    }
+
+    @Override
+    public InputConnector getConnector() {
+      return null;
+    }
+
+    @Override
+    public boolean hasAccess(SimpleCredentials creds) {
+      return true;
+    }
+
+    @Override
+    public void initialize(InitContext context) throws DataProcessorException {
+    }
+
+    @Override
+    public void terminate() {
+    }
+  }
+
+  /**
+   * Output broker publishing in batches.
+   */
+  static class TestOutputBroker implements OutputBroker {
+    final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+    final List<String> violations = Collections.synchronizedList(new ArrayList<>());
+    final AtomicInteger published = new AtomicInteger();
+    final AtomicInteger concurrentBatches = new AtomicInteger();
+    final AtomicInteger maxConcurrentBatches = new AtomicInteger();
+    volatile String failing;
+    volatile long delay;
+
+    @Override
+    public PublishingStatus publish(DataReference ref) throws DataOutputException {
+      if (((TestReference)ref).released) {
+        violations.add(String.format("Published after release: %s", ref.getId()));
+      }
+      if (ref.getId().equals(failing)) {
+        throw new DataOutputException(this, ref, "Invalid record");
+      }
+      published.incrementAndGet();
+      return PublishingStatus.CREATED;
+    }
+
+    @Override
+    public boolean isBatchSupported() {
+      return true;
+    }
+
+    @Override
+    public List<PublishingStatus> publishBatch(List<DataReference> refs) throws DataOutputException {
+      batches.add(refs.size());
+      maxConcurrentBatches.accumulateAndGet(concurrentBatches.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } finally {
+        concurrentBatches.decrementAndGet();
+      }
+      return OutputBroker.super.publishBatch(refs);
+    }
+
+    @Override
+    public EntityDefinition getEntityDefinition() {
+      EntityDefinition definition = new EntityDefinition();
+      definition.setType("TEST");
+      return definition;
+    }
+
+    @Override
+    public OutputConnector getConnector() {
+      return null;
+    }
+
+    @Override
+    public boolean hasAccess(SimpleCredentials creds) {
+      return true;
+    }
+
+    @Override
+    public void initialize(InitContext context) throws DataProcessorException {
+    }
+
+    @Override
+    public void terminate() {
+    }
+  }
+
+  /**
+   * Output broker failing to publish any record.
+   */
+  static class FailingOutputBroker extends TestOutputBroker {
+
+    @Override
+    public PublishingStatus publish(DataReference ref) throws DataOutputException {
+      throw new DataOutputException(this, ref, "Destination unavailable");
+    }
+
+    @Override
+    public boolean isBatchSupported() {
+      return false;
+    }
+  }
+
+  /**
+   * Link action passing each record to the drains.
+   */
+  static class PassThroughLinkAction implements LinkAction {
+
+    @Override
+    public EntityDefinition getLinkActionDefinition() {
+      EntityDefinition definition = new EntityDefinition();
+      definition.setType("PASS");
+      return definition;
+    }
+
+    @Override
+    public List<DataReference> execute(DataReference dataRef) {
+      return Arrays.asList(dataRef);
+    }
+
+    @Override
+    public PublishingStatus push(DataReference dataRef) {
+      return PublishingStatus.EMPTY;
+    }
+
+    @Override
+    public void initialize(InitContext context) throws DataProcessorException {
+    }
+
+    @Override
+    public void terminate() {
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import com.esri.geoportal.harvester.api.base.BaseProcessInstanceListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Event bus test.
+ */
+public class EventBusTest {
+
+  @Test
+  public void testEventsDeliveredInOrder() throws Exception {
+    TestListener listener = new TestListener();
+    EventBus eventBus = new EventBus(Arrays.asList(listener), 16);
+    
+    List<Integer> expected = new ArrayList<>();
+    for (int i=0; i<1000; i++) {
+      int event = i;
+      expected.add(event);
+      if (i%10==0) {
+        eventBus.postStatus(l -> ((TestListener)l).events.add(event));
+      } else {
+        eventBus.post(l -> ((TestListener)l).events.add(event));
+      }
+    }
+    eventBus.flush();
+    
+    assertEquals(expected, listener.events);
+  }
+
+  @Test
+  public void testFlushWaitsForDelivery() throws Exception {
+    TestListener listener = new TestListener();
+    EventBus eventBus = new EventBus(Arrays.asList(listener));
+    
+    eventBus.post(l -> {
+      sleep(200);
+      ((TestListener)l).events.add(1);
+    });
+    eventBus.post(l -> ((TestListener)l).events.add(2));
+    eventBus.flush();
+    
+    assertEquals(Arrays.asList(1, 2), listener.events);
+  }
+
+  @Test
+  public void testFlushCalledByListener() throws Exception {
+    TestListener listener = new TestListener();
+    EventBus eventBus = new EventBus(Arrays.asList(listener));
+    CountDownLatch delivered = new CountDownLatch(1);
+    
+    // would never return if the listener waited for itself
+    eventBus.post(l -> {
+      eventBus.flush();
+      delivered.countDown();
+    });
+    
+    assertTrue(delivered.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testStatusEventsNeverBlock() throws Exception {
+    TestListener listener = new TestListener();
+    EventBus eventBus = new EventBus(Arrays.asList(listener), 1);
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch unblocked = new CountDownLatch(1);
+    
+    // the first event holds the consumer, the second one fills up the buffer
+    eventBus.post(l -> {
+      blocked.countDown();
+      await(unblocked);
+    });
+    assertTrue(blocked.await(10, TimeUnit.SECONDS));
+    eventBus.post(l -> ((TestListener)l).events.add(1));
+    
+    CountDownLatch posted = new CountDownLatch(1);
+    Thread poster = new Thread(() -> {
+      eventBus.post(l -> ((TestListener)l).events.add(3));
+      posted.countDown();
+    });
+    poster.start();
+    
+    long start = System.currentTimeMillis();
+    for (int i=0; i<100; i++) {
+      eventBus.postStatus(l -> ((TestListener)l).events.add(2));
+    }
+    assertTrue(System.currentTimeMillis() - start < 5000);
+    assertFalse("Data event posted into the full buffer", posted.await(200, TimeUnit.MILLISECONDS));
+    
+    unblocked.countDown();
+    assertTrue(posted.await(10, TimeUnit.SECONDS));
+    poster.join();
+    eventBus.flush();
+    
+    assertEquals(102, listener.events.size());
+    assertEquals(Integer.valueOf(1), listener.events.get(0));
+    assertEquals(Integer.valueOf(3), listener.events.get(101));
+  }
+
+  @Test
+  public void testListenerErrorDoesNotStopDelivery() throws Exception {
+    TestListener failing = new TestListener();
+    TestListener listener = new TestListener();
+    EventBus eventBus = new EventBus(Arrays.asList(failing, listener));
+    
+    eventBus.post(l -> {
+      if (l==failing) {
+        throw new IllegalStateException("Listener failure");
+      }
+      ((TestListener)l).events.add(1);
+    });
+    eventBus.post(l -> ((TestListener)l).events.add(2));
+    eventBus.flush();
+    
+    assertEquals(Arrays.asList(2), failing.events);
+    assertEquals(Arrays.asList(1, 2), listener.events);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Listener collecting events.
+   */
+  private static class TestListener extends BaseProcessInstanceListener {
+    final List<Integer> events = Collections.synchronizedList(new ArrayList<>());
+  }
+}
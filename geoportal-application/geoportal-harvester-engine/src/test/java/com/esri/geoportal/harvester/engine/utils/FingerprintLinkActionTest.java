@@ -0,0 +1,251 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.ProcessInstance;
+import com.esri.geoportal.harvester.api.base.SimpleDataReference;
+import com.esri.geoportal.harvester.api.base.SimpleInitContext;
+import com.esri.geoportal.harvester.api.base.SimpleLink;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingOutcome;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.api.general.LinkAction;
+import com.esri.geoportal.harvester.engine.managers.History;
+import com.esri.geoportal.harvester.engine.managers.HistoryManager;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Fingerprint link action test.
+ */
+public class FingerprintLinkActionTest {
+  private static final UUID TASK_ID = UUID.randomUUID();
+
+  @Test
+  public void testUnchangedRecordsSkipped() throws Exception {
+    TestHistoryManager historyManager = new TestHistoryManager();
+    TestLinkAction action = new TestLinkAction();
+    
+    assertEquals(PublishingStatus.CREATED, push(action, historyManager, true, "1", "content"));
+    assertEquals(PublishingStatus.UNCHANGED, push(action, historyManager, true, "1", "content"));
+    assertEquals(PublishingStatus.CREATED, push(action, historyManager, true, "1", "changed content"));
+    assertEquals(2, action.pushed.get());
+  }
+
+  @Test
+  public void testFullHarvestWithoutFingerprints() throws Exception {
+    TestHistoryManager historyManager = new TestHistoryManager();
+    TestLinkAction action = new TestLinkAction();
+    push(action, historyManager, true, "1", "content");
+    assertFalse(historyManager.fingerprints.isEmpty());
+    
+    // full harvest publishes all the records and drops fingerprints it hasn't kept up to date
+    assertEquals(PublishingStatus.CREATED, push(action, historyManager, false, "1", "content"));
+    assertEquals(PublishingStatus.CREATED, push(action, historyManager, false, "2", "content"));
+    assertTrue(historyManager.fingerprints.isEmpty());
+    
+    assertEquals(PublishingStatus.CREATED, push(action, historyManager, true, "1", "content"));
+    assertEquals(4, action.pushed.get());
+  }
+
+  @Test
+  public void testOnlyUnchangedRecordsReportedAsUnchanged() throws Exception {
+    TestHistoryManager historyManager = new TestHistoryManager();
+    TestLinkAction action = new TestLinkAction();
+    push(action, historyManager, true, "1", "content");
+    
+    // status of the unchanged record is kept when collected by the link
+    SimpleLink link = new SimpleLink(fingerprint(action, historyManager, true), Collections.emptyList());
+    link.initialize(new SimpleInitContext(new Task("test", null, null, null, Collections.emptyList()), new ArrayList<>()));
+    PublishingStatus status = link.push(createReference("1", "content"));
+    link.terminate();
+    assertEquals(1, status.getUnchanged());
+    
+    // records skipped by the output broker for other reasons are not unchanged
+    HistoryManagerAdaptor adaptor = new HistoryManagerAdaptor(TASK_ID, new ProcessReference(UUID.randomUUID(), null), historyManager);
+    adaptor.onStatusChange(ProcessInstance.Status.submitted);
+    adaptor.onDataProcessed(createReference("1", "content"), status);
+    adaptor.onDataProcessed(createReference("2", "content"), PublishingStatus.SKIPPED);
+    adaptor.onStatusChange(ProcessInstance.Status.completed);
+    assertEquals(1, historyManager.events.get(0).getReport().skipped);
+  }
+  
+  private static PublishingStatus push(LinkAction action, HistoryManager historyManager, boolean incremental, String id, String content) throws Exception {
+    FingerprintLinkAction fingerprintAction = fingerprint(action, historyManager, incremental);
+    fingerprintAction.initialize(new SimpleInitContext(new Task("test", null, null, null, Collections.emptyList()), new ArrayList<>()));
+    try {
+      return fingerprintAction.push(createReference(id, content));
+    } finally {
+      fingerprintAction.terminate();
+    }
+  }
+  
+  private static FingerprintLinkAction fingerprint(LinkAction action, HistoryManager historyManager, boolean incremental) {
+    return new FingerprintLinkAction(action, historyManager, TASK_ID, FingerprintLinkAction.linkId(Arrays.asList(action.getLinkActionDefinition())), incremental);
+  }
+  
+  private static DataReference createReference(String id, String content) {
+    SimpleDataReference ref = new SimpleDataReference(URI.create("test:src"), "test", id, new Date(), URI.create("test:" + id), null, null);
+    ref.addContext(MimeType.APPLICATION_XML, content.getBytes(StandardCharsets.UTF_8));
+    return ref;
+  }
+
+  /**
+   * Link action counting pushed records.
+   */
+  static class TestLinkAction implements LinkAction {
+    final AtomicInteger pushed = new AtomicInteger();
+
+    @Override
+    public EntityDefinition getLinkActionDefinition() {
+      EntityDefinition definition = new EntityDefinition();
+      definition.setType("TEST");
+      return definition;
+    }
+
+    @Override
+    public List<DataReference> execute(DataReference dataRef) {
+      return Arrays.asList(dataRef);
+    }
+
+    @Override
+    public PublishingStatus push(DataReference dataRef) {
+      pushed.incrementAndGet();
+      return PublishingStatus.CREATED;
+    }
+
+    @Override
+    public List<PublishingOutcome> flush() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void initialize(InitContext context) {
+    }
+
+    @Override
+    public void terminate() {
+    }
+  }
+
+  /**
+   * History manager keeping fingerprints and events in memory.
+   */
+  static class TestHistoryManager implements HistoryManager {
+    final Map<String,Map<String,String>> fingerprints = new HashMap<>();
+    final List<History.Event> events = new ArrayList<>();
+
+    @Override
+    public Map<String,String> readFingerprints(UUID taskId, String linkId) {
+      return new HashMap<>(fingerprints.getOrDefault(taskId + "/" + linkId, Collections.emptyMap()));
+    }
+
+    @Override
+    public void storeFingerprints(UUID taskId, String linkId, Map<String,String> fingerprints) {
+      this.fingerprints.computeIfAbsent(taskId + "/" + linkId, key -> new HashMap<>()).putAll(fingerprints);
+    }
+
+    @Override
+    public void deleteFingerprints(UUID taskId) {
+      fingerprints.keySet().removeIf(key -> key.startsWith(taskId + "/"));
+    }
+
+    @Override
+    public UUID create(History.Event data) {
+      events.add(data);
+      return data.getUuid();
+    }
+
+    @Override
+    public History buildHistory(UUID uuid) {
+      return new History();
+    }
+
+    @Override
+    public void purgeHistory(UUID taskId) {
+    }
+
+    @Override
+    public List<String> listFailedData(UUID eventId) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public void storeFailedDataId(UUID eventId, String dataId) {
+    }
+
+    @Override
+    public String readCheckpoint(UUID taskId) {
+      return null;
+    }
+
+    @Override
+    public void storeCheckpoint(UUID taskId, String checkpoint) {
+    }
+
+    @Override
+    public void deleteCheckpoint(UUID taskId) {
+    }
+
+    @Override
+    public String readWatermark(UUID taskId) {
+      return null;
+    }
+
+    @Override
+    public void storeWatermark(UUID taskId, String watermark) {
+    }
+
+    @Override
+    public void deleteWatermark(UUID taskId) {
+    }
+
+    @Override
+    public boolean delete(UUID id) {
+      return false;
+    }
+
+    @Override
+    public History.Event read(UUID id) {
+      return null;
+    }
+
+    @Override
+    public boolean update(UUID id, History.Event data) {
+      return false;
+    }
+
+    @Override
+    public Collection<Map.Entry<UUID, History.Event>> list() {
+      return Collections.emptyList();
+    }
+  }
+}
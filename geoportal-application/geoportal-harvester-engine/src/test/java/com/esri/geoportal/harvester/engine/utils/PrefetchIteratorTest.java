@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.base.LazyContent;
+import com.esri.geoportal.harvester.api.base.SimpleDataReference;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Prefetch iterator test.
+ */
+public class PrefetchIteratorTest {
+
+  @Test
+  public void testCheckpointAndWatermark() throws Exception {
+    ListIterator source = new ListIterator(record("1", 10), record("2", 10), record("3", 10));
+    PrefetchStatistics statistics = new PrefetchStatistics(8, 0);
+    try (PrefetchIterator iterator = new PrefetchIterator(source, statistics, "TEST-PREFETCH").start()) {
+      List<String> ids = new ArrayList<>();
+      while (iterator.hasNext()) {
+        DataReference ref = iterator.next();
+        ids.add(ref.getId());
+        // checkpoint follows the record returned, not the record fetched
+        assertEquals("cp-" + ref.getId(), iterator.getCheckpoint());
+      }
+      assertEquals(3, ids.size());
+      assertEquals("3", ids.get(2));
+      assertEquals("wm", iterator.getWatermark());
+      assertEquals(3, statistics.getFetched());
+    }
+  }
+
+  @Test
+  public void testByteLimit() throws Exception {
+    ListIterator source = new ListIterator(record("1", 60), record("2", 60), record("3", 200));
+    PrefetchStatistics statistics = new PrefetchStatistics(8, 100);
+    try (PrefetchIterator iterator = new PrefetchIterator(source, statistics, "TEST-PREFETCH").start()) {
+      // the second record doesn't fit until the first one is taken
+      awaitFetched(statistics, 2);
+      assertEquals(1, statistics.getQueueDepth());
+      assertEquals(60, statistics.getQueueBytes());
+      
+      assertEquals("1", iterator.next().getId());
+      awaitFetched(statistics, 3);
+      assertEquals(1, statistics.getQueueDepth());
+      
+      // a single record larger than the limit is accepted into an empty queue
+      assertEquals("2", iterator.next().getId());
+      assertEquals("3", iterator.next().getId());
+      assertFalse(iterator.hasNext());
+      assertEquals(1, statistics.getPeakQueueDepth());
+    }
+  }
+
+  @Test
+  public void testLazyContentNotCharged() throws Exception {
+    TestReference lazy = new TestReference("1");
+    lazy.addContext(MimeType.APPLICATION_XML, new LazyContent(() -> new ByteArrayInputStream(new byte[500]), null));
+    ListIterator source = new ListIterator(lazy, record("2", 60));
+    PrefetchStatistics statistics = new PrefetchStatistics(8, 100);
+    try (PrefetchIterator iterator = new PrefetchIterator(source, statistics, "TEST-PREFETCH").start()) {
+      awaitFetched(statistics, 2);
+      assertEquals(2, statistics.getQueueDepth());
+      assertEquals(60, statistics.getQueueBytes());
+      assertEquals(500, iterator.next().getContent(MimeType.APPLICATION_XML).length);
+    }
+  }
+
+  @Test
+  public void testCloseReleasesQueued() throws Exception {
+    ListIterator source = new ListIterator(record("1", 10), record("2", 10));
+    PrefetchStatistics statistics = new PrefetchStatistics(8, 0);
+    PrefetchIterator iterator = new PrefetchIterator(source, statistics, "TEST-PREFETCH").start();
+    awaitFetched(statistics, 2);
+    iterator.close();
+    assertEquals(0, statistics.getQueueDepth());
+    assertTrue(source.records.get(0).released);
+    assertTrue(source.records.get(1).released);
+  }
+
+  private static void awaitFetched(PrefetchStatistics statistics, int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (statistics.getFetched() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, statistics.getFetched());
+    // let the fetching thread settle
+    Thread.sleep(100);
+  }
+
+  private static TestReference record(String id, int size) {
+    TestReference ref = new TestReference(id);
+    ref.addContext(MimeType.APPLICATION_XML, new byte[size]);
+    return ref;
+  }
+
+  /**
+   * Data reference remembering if it has been released.
+   */
+  private static class TestReference extends SimpleDataReference {
+    private volatile boolean released;
+
+    public TestReference(String id) {
+      super(URI.create("test:src"), "test", id, new Date(), URI.create("test:" + id), null, null);
+    }
+
+    @Override
+    public void release() {
+      released = true;
+      super.release();
+    }
+  }
+
+  /**
+   * Iterator over a list of records.
+   */
+  private static class ListIterator implements InputBroker.Iterator {
+    private final List<TestReference> records = new ArrayList<>();
+    private int index;
+
+    public ListIterator(TestReference...records) {
+      for (TestReference ref: records) {
+        this.records.add(ref);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < records.size();
+    }
+
+    @Override
+    public DataReference next() {
+      return records.get(index++);
+    }
+
+    @Override
+    public String getCheckpoint() {
+      return index > 0? "cp-" + records.get(index - 1).getId(): null;
+    }
+
+    @Override
+    public String getWatermark() {
+      return index >= records.size()? "wm": null;
+    }
+  }
+}
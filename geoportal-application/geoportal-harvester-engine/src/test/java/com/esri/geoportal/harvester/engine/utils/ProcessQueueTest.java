@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.engine.utils;
+
+import com.esri.geoportal.harvester.api.ProcessInstance;
+import com.esri.geoportal.harvester.api.base.BaseProcessInstanceListener;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.engine.defaults.DefaultProcessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Process queue test.
+ */
+public class ProcessQueueTest {
+
+  @Test
+  public void testSlotFreedOnCompletion() throws Exception {
+    ProcessQueue processQueue = new ProcessQueue(1);
+    TestProcess first = new TestProcess(0);
+    TestProcess second = new TestProcess(0);
+    ProcessQueue.QueuedProcess queuedFirst = processQueue.wrap(first);
+    ProcessQueue.QueuedProcess queuedSecond = processQueue.wrap(second);
+    
+    queuedFirst.begin();
+    queuedSecond.begin();
+    assertEquals(ProcessInstance.Status.working, queuedFirst.getStatus());
+    assertEquals(ProcessInstance.Status.queued, queuedSecond.getStatus());
+    assertEquals(1, processQueue.getRunning());
+    assertEquals(1, processQueue.getQueued());
+    
+    first.complete();
+    assertEquals(ProcessInstance.Status.working, queuedSecond.getStatus());
+    assertEquals(1, processQueue.getRunning());
+    assertEquals(0, processQueue.getQueued());
+    
+    second.complete();
+    assertEquals(0, processQueue.getRunning());
+  }
+
+  @Test
+  public void testAbortQueued() throws Exception {
+    ProcessQueue processQueue = new ProcessQueue(1);
+    TestProcess first = new TestProcess(0);
+    TestProcess second = new TestProcess(0);
+    TestProcess third = new TestProcess(0);
+    ProcessQueue.QueuedProcess queuedFirst = processQueue.wrap(first);
+    ProcessQueue.QueuedProcess queuedSecond = processQueue.wrap(second);
+    ProcessQueue.QueuedProcess queuedThird = processQueue.wrap(third);
+    List<ProcessInstance.Status> statuses = Collections.synchronizedList(new ArrayList<>());
+    queuedSecond.addListener(new BaseProcessInstanceListener() {
+      @Override
+      public void onStatusChange(ProcessInstance.Status status) {
+        statuses.add(status);
+      }
+    });
+    
+    queuedFirst.begin();
+    queuedSecond.begin();
+    queuedThird.begin();
+    queuedSecond.abort();
+    assertEquals(ProcessInstance.Status.completed, queuedSecond.getStatus());
+    assertEquals(ProcessInstance.Status.completed, statuses.get(statuses.size() - 1));
+    assertEquals(1, processQueue.getQueued());
+    assertEquals(1, processQueue.getRunning());
+    
+    // cancelled process never begins and never holds a slot
+    first.complete();
+    assertFalse(second.begun);
+    assertEquals(ProcessInstance.Status.working, queuedThird.getStatus());
+    assertEquals(1, processQueue.getRunning());
+    
+    third.complete();
+    assertEquals(0, processQueue.getRunning());
+    assertEquals(0, processQueue.getQueued());
+  }
+
+  @Test
+  public void testAbortRunning() throws Exception {
+    ProcessQueue processQueue = new ProcessQueue(1);
+    TestProcess first = new TestProcess(0);
+    TestProcess second = new TestProcess(0);
+    ProcessQueue.QueuedProcess queuedFirst = processQueue.wrap(first);
+    ProcessQueue.QueuedProcess queuedSecond = processQueue.wrap(second);
+    
+    queuedFirst.begin();
+    queuedSecond.begin();
+    queuedFirst.abort();
+    assertTrue(first.aborted);
+    assertEquals(ProcessInstance.Status.working, queuedSecond.getStatus());
+    assertEquals(1, processQueue.getRunning());
+  }
+
+  @Test
+  public void testPriority() throws Exception {
+    ProcessQueue processQueue = new ProcessQueue(1);
+    TestProcess first = new TestProcess(0);
+    TestProcess low = new TestProcess(0);
+    TestProcess high = new TestProcess(5);
+    
+    processQueue.wrap(first).begin();
+    processQueue.wrap(low).begin();
+    processQueue.wrap(high).begin();
+    
+    first.complete();
+    assertTrue(high.begun);
+    assertFalse(low.begun);
+    
+    high.complete();
+    assertTrue(low.begun);
+  }
+
+  /**
+   * Process controlled by the test.
+   */
+  private static class TestProcess implements ProcessInstance {
+    private final List<ProcessInstance.Listener> listeners = Collections.synchronizedList(new ArrayList<>());
+    private final Task task;
+    private volatile ProcessInstance.Status status = ProcessInstance.Status.submitted;
+    private volatile boolean begun;
+    private volatile boolean aborted;
+
+    public TestProcess(int priority) throws Exception {
+      EntityDefinition processorDefinition = new DefaultProcessor().getEntityDefinition();
+      processorDefinition.getProperties().put(ProcessQueue.P_PRIORITY, Integer.toString(priority));
+      this.task = new Task("test", null, new DefaultProcessor().configure(processorDefinition), null, Collections.emptyList());
+    }
+
+    @Override
+    public Task getTask() {
+      return task;
+    }
+
+    @Override
+    public void init() {
+    }
+
+    @Override
+    public void begin() {
+      begun = true;
+      setStatus(ProcessInstance.Status.working);
+    }
+
+    @Override
+    public void abort() {
+      aborted = true;
+      setStatus(ProcessInstance.Status.completed);
+    }
+
+    @Override
+    public ProcessInstance.Status getStatus() {
+      return status;
+    }
+
+    @Override
+    public void addListener(ProcessInstance.Listener listener) {
+      listeners.add(listener);
+    }
+
+    public void complete() {
+      setStatus(ProcessInstance.Status.completed);
+    }
+
+    private void setStatus(ProcessInstance.Status status) {
+      this.status = status;
+      new ArrayList<>(listeners).forEach(l -> l.onStatusChange(status));
+    }
+  }
+}
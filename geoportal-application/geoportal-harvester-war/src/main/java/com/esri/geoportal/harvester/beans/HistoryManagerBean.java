@@ -70,6 +70,9 @@ public class HistoryManagerBean implements HistoryManager {
         ) {
       st.execute();
       initFailedDataTable();
+      initCheckpointsTable();
+      initWatermarksTable();
+      initFingerprintsTable();
       LOG.info("HistoryManagerBean initialized.");
     } catch (SQLException ex) {
       LOG.info("Error initializing history database", ex);
@@ -90,6 +93,42 @@ public class HistoryManagerBean implements HistoryManager {
     }
   }
   
+  private void initCheckpointsTable() {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement(
+                    "CREATE TABLE IF NOT EXISTS CHECKPOINTS ( taskid varchar(38) PRIMARY KEY, updated TIMESTAMP NOT NULL, checkpoint CLOB NOT NULL ) ;");
+        ) {
+      st.execute();
+    } catch (SQLException ex) {
+      LOG.info("Error initializing history database", ex);
+    }
+  }
+  
+  private void initWatermarksTable() {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement(
+                    "CREATE TABLE IF NOT EXISTS WATERMARKS ( taskid varchar(38) PRIMARY KEY, updated TIMESTAMP NOT NULL, watermark CLOB NOT NULL ) ;");
+        ) {
+      st.execute();
+    } catch (SQLException ex) {
+      LOG.info("Error initializing history database", ex);
+    }
+  }
+  
+  private void initFingerprintsTable() {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement(
+                    "CREATE TABLE IF NOT EXISTS FINGERPRINTS ( taskid varchar(38) NOT NULL, linkid varchar(64) NOT NULL, dataid varchar(1024) NOT NULL, updated TIMESTAMP NOT NULL, fingerprint varchar(64) NOT NULL, PRIMARY KEY (taskid, linkid, dataid) ) ;");
+        ) {
+      st.execute();
+    } catch (SQLException ex) {
+      LOG.info("Error initializing history database", ex);
+    }
+  }
+  
   /**
    * Destroys bean.
    */
@@ -242,6 +281,9 @@ public class HistoryManagerBean implements HistoryManager {
     } catch (SQLException ex) {
       throw new CrudlException("Error selecting broker definition", ex);
     }
+    deleteCheckpoint(taskid);
+    deleteWatermark(taskid);
+    deleteFingerprints(taskid);
   }
   
   @Override
@@ -277,6 +319,143 @@ public class HistoryManagerBean implements HistoryManager {
     }
   }
   
+  @Override
+  public String readCheckpoint(UUID taskId) throws CrudlException {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement("SELECT checkpoint FROM CHECKPOINTS WHERE taskid = ?");
+        ) {
+      st.setString(1, taskId.toString());
+      ResultSet rs = st.executeQuery();
+      return rs.next()? rs.getString(1): null;
+    } catch (SQLException ex) {
+      throw new CrudlException("Error reading checkpoint", ex);
+    }
+  }
+  
+  @Override
+  public void storeCheckpoint(UUID taskId, String checkpoint) throws CrudlException {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement("MERGE INTO CHECKPOINTS (taskid,updated,checkpoint) KEY(taskid) VALUES (?,?,?)");
+        ) {
+      st.setString(1, taskId.toString());
+      st.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+      st.setString(3, checkpoint);
+      st.executeUpdate();
+    } catch (SQLException ex) {
+      throw new CrudlException("Error storing checkpoint", ex);
+    }
+  }
+  
+  @Override
+  public void deleteCheckpoint(UUID taskId) throws CrudlException {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement("DELETE FROM CHECKPOINTS WHERE taskid = ?");
+        ) {
+      st.setString(1, taskId.toString());
+      st.executeUpdate();
+    } catch (SQLException ex) {
+      throw new CrudlException("Error deleting checkpoint", ex);
+    }
+  }
+  
+  @Override
+  public String readWatermark(UUID taskId) throws CrudlException {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement("SELECT watermark FROM WATERMARKS WHERE taskid = ?");
+        ) {
+      st.setString(1, taskId.toString());
+      ResultSet rs = st.executeQuery();
+      return rs.next()? rs.getString(1): null;
+    } catch (SQLException ex) {
+      throw new CrudlException("Error reading watermark", ex);
+    }
+  }
+  
+  @Override
+  public void storeWatermark(UUID taskId, String watermark) throws CrudlException {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement("MERGE INTO WATERMARKS (taskid,updated,watermark) KEY(taskid) VALUES (?,?,?)");
+        ) {
+      st.setString(1, taskId.toString());
+      st.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+      st.setString(3, watermark);
+      st.executeUpdate();
+    } catch (SQLException ex) {
+      throw new CrudlException("Error storing watermark", ex);
+    }
+  }
+  
+  @Override
+  public void deleteWatermark(UUID taskId) throws CrudlException {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement("DELETE FROM WATERMARKS WHERE taskid = ?");
+        ) {
+      st.setString(1, taskId.toString());
+      st.executeUpdate();
+    } catch (SQLException ex) {
+      throw new CrudlException("Error deleting watermark", ex);
+    }
+  }
+  
+  @Override
+  public Map<String,String> readFingerprints(UUID taskId, String linkId) throws CrudlException {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement("SELECT dataid,fingerprint FROM FINGERPRINTS WHERE taskid = ? AND linkid = ?");
+        ) {
+      HashMap<String,String> result = new HashMap<>();
+      st.setString(1, taskId.toString());
+      st.setString(2, linkId);
+      ResultSet rs = st.executeQuery();
+      while (rs.next()) {
+        result.put(rs.getString(1), rs.getString(2));
+      }
+      return result;
+    } catch (SQLException ex) {
+      throw new CrudlException("Error reading fingerprints", ex);
+    }
+  }
+  
+  @Override
+  public void storeFingerprints(UUID taskId, String linkId, Map<String,String> fingerprints) throws CrudlException {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement("MERGE INTO FINGERPRINTS (taskid,linkid,dataid,updated,fingerprint) KEY(taskid,linkid,dataid) VALUES (?,?,?,?,?)");
+        ) {
+      Timestamp updated = new Timestamp(System.currentTimeMillis());
+      for (Map.Entry<String,String> e: fingerprints.entrySet()) {
+        st.setString(1, taskId.toString());
+        st.setString(2, linkId);
+        st.setString(3, e.getKey());
+        st.setTimestamp(4, updated);
+        st.setString(5, e.getValue());
+        st.addBatch();
+      }
+      st.executeBatch();
+    } catch (SQLException ex) {
+      throw new CrudlException("Error storing fingerprints", ex);
+    }
+  }
+  
+  @Override
+  public void deleteFingerprints(UUID taskId) throws CrudlException {
+    try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement st = connection.prepareStatement("DELETE FROM FINGERPRINTS WHERE taskid = ?");
+        ) {
+      st.setString(1, taskId.toString());
+      st.executeUpdate();
+    } catch (SQLException ex) {
+      throw new CrudlException("Error deleting fingerprints", ex);
+    }
+  }
+  
   private boolean deleteFailedData(UUID eventId) throws CrudlException {
     try (
             Connection connection = dataSource.getConnection();
@@ -21,6 +21,7 @@ import com.esri.geoportal.harvester.engine.managers.ProcessManager;
 import com.esri.geoportal.harvester.engine.managers.ReportManager;
 import com.esri.geoportal.harvester.engine.registers.StatisticsRegistry;
 import com.esri.geoportal.harvester.engine.utils.CrudlException;
+import com.esri.geoportal.harvester.engine.utils.ProcessQueue;
 import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -41,10 +42,11 @@ public class ProcessesServiceBean extends DefaultProcessesService {
    * @param processManager process manager
    * @param reportManager report manager
    * @param statisticsRegistry statistics registry
+   * @param processQueue process queue
    */
   @Autowired
-  public ProcessesServiceBean(ProcessManager processManager, ReportManager reportManager, StatisticsRegistry statisticsRegistry) {
-    super(processManager, reportManager, statisticsRegistry);
+  public ProcessesServiceBean(ProcessManager processManager, ReportManager reportManager, StatisticsRegistry statisticsRegistry, ProcessQueue processQueue) {
+    super(processManager, reportManager, statisticsRegistry, processQueue);
   }
   
   /**
@@ -52,7 +54,7 @@ public class ProcessesServiceBean extends DefaultProcessesService {
    */
   @PostConstruct
   public void init() {
-    LOG.info("ProcessesServiceBean initialized.");
+    LOG.info(String.format("ProcessesServiceBean initialized: %s", processQueue));
   }
   
   /**
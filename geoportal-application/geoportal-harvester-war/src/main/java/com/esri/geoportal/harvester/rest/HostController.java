@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.rest;
+
+import com.esri.geoportal.commons.http.HostLimiter;
+import com.esri.geoportal.commons.http.HostOccupancy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Host controller.
+ * Provides access to the current occupancy of the remote hosts.
+ * <pre><code>
+   GET /rest/harvester/hosts      - gets occupancy of all the hosts accessed so far
+ * </code></pre>
+ */
+@RestController
+public class HostController {
+  private static final Logger LOG = LoggerFactory.getLogger(HostController.class);
+  
+  /**
+   * Lists occupancy of all the hosts.
+   * @return array of host occupancy
+   */
+  @RequestMapping(value = "/rest/harvester/hosts", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+  public HostOccupancy[] listHosts() {
+    LOG.debug(String.format("GET /rest/harvester/hosts"));
+    return HostLimiter.getInstance().getOccupancy().toArray(new HostOccupancy[0]);
+  }
+  
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.rest;
+
+import com.esri.geoportal.harvester.engine.registers.MetricsRegistry;
+import com.esri.geoportal.harvester.engine.registers.MetricsRegistry.Metric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Metrics controller.
+ * Provides access to the latency of the harvesting stages per task, connector
+ * type and stage (input, transform, filter, publish).
+ * <pre><code>
+   GET /rest/harvester/metrics              - gets metrics in Prometheus text format
+   GET /rest/harvester/metrics?format=json  - gets metrics as JSON
+ * </code></pre>
+ */
+@RestController
+public class MetricsController {
+  private static final Logger LOG = LoggerFactory.getLogger(MetricsController.class);
+  private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  
+  @Autowired
+  private MetricsRegistry metricsRegistry;
+  
+  /**
+   * Gets metrics in Prometheus text exposition format.
+   * @return metrics
+   */
+  @RequestMapping(value = "/rest/harvester/metrics", method = RequestMethod.GET)
+  public ResponseEntity<String> getPrometheusMetrics() {
+    LOG.debug(String.format("GET /rest/harvester/metrics"));
+    MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+    headers.add(HttpHeaders.CONTENT_TYPE, PROMETHEUS_CONTENT_TYPE);
+    return new ResponseEntity<>(metricsRegistry.formatPrometheus(), headers, HttpStatus.OK);
+  }
+  
+  /**
+   * Gets metrics as JSON. Times are in milliseconds.
+   * @return array of metrics
+   */
+  @RequestMapping(value = "/rest/harvester/metrics", params = "format=json", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+  public Metric[] getJsonMetrics() {
+    LOG.debug(String.format("GET /rest/harvester/metrics?format=json"));
+    return metricsRegistry.list().toArray(new Metric[0]);
+  }
+}
@@ -31,6 +31,7 @@ import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
 import com.esri.geoportal.harvester.engine.managers.History;
 import com.esri.geoportal.harvester.engine.managers.HistoryManager;
 import com.esri.geoportal.harvester.engine.services.Engine;
+import com.esri.geoportal.harvester.engine.utils.CrudlException;
 import com.esri.geoportal.harvester.engine.utils.HistoryManagerAdaptor;
 import static com.esri.geoportal.harvester.engine.utils.JsonSerializer.deserialize;
 import com.esri.geoportal.harvester.engine.utils.ProcessReference;
@@ -42,6 +43,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
@@ -52,6 +54,9 @@ import org.apache.http.client.HttpResponseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -114,6 +119,8 @@ import org.springframework.web.multipart.MultipartFile;
  *
  * POST /rest/harvester/tasks/641c741a-37f9-11e6-ac61-9e71128cae77/execute
  * </code></pre>
+ * Interrupted harvest of the particular task continues from the last checkpoint
+ * unless requested with <code>resume=false</code>.
  * <br>
  * Example of 'schedule' request body:
  * <pre><code>
@@ -355,11 +362,12 @@ public class TaskController {
    * @param taskId task id
    * @param ignoreRobots optional flag to ignore robots.txt
    * @param incremental optional incremental harvest flag
+   * @param resume optional flag to resume interrupted harvest from the last checkpoint (default: <code>true</code>)
    * @return task info of the deleted task or <code>null</code> if no tasks have
    * been deleted
    */
   @RequestMapping(value = "/rest/harvester/tasks/{taskId}/execute", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<ProcessResponse> executeTask(@PathVariable UUID taskId, @RequestParam(required = false) Boolean ignoreRobots, @RequestParam(required = false) Boolean incremental) {
+  public ResponseEntity<ProcessResponse> executeTask(@PathVariable UUID taskId, @RequestParam(required = false) Boolean ignoreRobots, @RequestParam(required = false) Boolean incremental, @RequestParam(required = false) Boolean resume) {
     try {
       LOG.debug(formatForLog("POST /rest/harvester/tasks/%s/execute", taskId));
       TaskDefinition taskDefinition = engine.getTasksService().readTaskDefinition(taskId);
@@ -382,6 +390,12 @@ public class TaskController {
       // make iterator context
       SimpleIteratorContext iteratorContext = new SimpleIteratorContext();
       iteratorContext.setLastHarvest(incremental && lastEvent != null ? lastEvent.getStartTimestamp() : null);
+      if (resume == null || resume) {
+        iteratorContext.setCheckpoint(historyManager.readCheckpoint(taskId));
+      } else {
+        historyManager.deleteCheckpoint(taskId);
+      }
+      iteratorContext.setWatermark(incremental ? historyManager.readWatermark(taskId) : null);
 
       ProcessReference ref = engine.getExecutionService().execute(taskDefinition, iteratorContext);
       ref.getProcess().addListener(new HistoryManagerAdaptor(taskId, ref, historyManager));
@@ -395,6 +409,9 @@ public class TaskController {
       return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
     } catch (DataProcessorException ex) {
       return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    } catch (CrudlException ex) {
+      LOG.error(formatForLog("Error reading checkpoint or watermark for task: %s", taskId), ex);
+      return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
     }
   }
 
@@ -520,7 +537,7 @@ public class TaskController {
   }
   
   @RequestMapping(value = "/rest/harvester/tasks/{taskId}/record", method = RequestMethod.POST) 
-  public ResponseEntity<byte[]> handleRecord(@PathVariable UUID taskId, @RequestParam(required = true) String id, @RequestParam(required = false) String userName, @RequestParam(required = false) String password) {
+  public ResponseEntity<Resource> handleRecord(@PathVariable UUID taskId, @RequestParam(required = true) String id, @RequestParam(required = false) String userName, @RequestParam(required = false) String password) {
     try {
       TaskDefinition taskDefinition = engine.getTasksService().readTaskDefinition(taskId);
       if (taskDefinition == null) {
@@ -534,12 +551,29 @@ public class TaskController {
       DataContent content = engine.getTasksService().fetchContent(taskId, id, credentials);
       
       MimeType mimeType = content.getContentType().stream().findFirst().orElse(null);
-      if (mimeType != null) {
+      InputStream contentStream = mimeType != null? content.openStream(mimeType): null;
+      if (contentStream != null) {
+        // content is streamed to the client rather than loaded on heap and released once streamed
         MultiValueMap<String,String> headers = new LinkedMultiValueMap<>();
         headers.add("Content-Type", mimeType.getName());
-        return new ResponseEntity<>(content.getContent(mimeType), headers, HttpStatus.OK);
+        long size = content.getSize(mimeType);
+        if (size >= 0) {
+          headers.add("Content-Length", Long.toString(size));
+        }
+        InputStream releasingStream = new FilterInputStream(contentStream) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+            } finally {
+              content.release();
+            }
+          }
+        };
+        return new ResponseEntity<>(new InputStreamResource(releasingStream), headers, HttpStatus.OK);
       } else {
-        return new ResponseEntity<>(new byte[0], HttpStatus.OK);
+        content.release();
+        return new ResponseEntity<>(new ByteArrayResource(new byte[0]), HttpStatus.OK);
       }
     } catch (DataException ex) {
       LOG.error(formatForLog("Error fetching record: %s <-- %s", taskId, taskId), ex);
@@ -31,6 +31,7 @@ public final class EventResponse {
   private final long acquired;
   private final long created;
   private final long updated;
+  private final long skipped;
   private final long failed;
   private final Long failedToHarvest;
   private final Long failedToPublish;
@@ -44,6 +45,7 @@ public final class EventResponse {
    * @param acquired number of acquired records
    * @param created number of newly created records
    * @param updated number of updated records
+   * @param skipped number of records skipped as unchanged
    * @param failed number of failed records
    * @param failedToHarvest number of records failed to harvest
    * @param failedToPublish number of records failed to publish
@@ -53,7 +55,7 @@ public final class EventResponse {
           UUID uuid, 
           Date startTimestamp, 
           Date endtTimestamp, 
-          long acquired, long created, long updated, long failed,
+          long acquired, long created, long updated, long skipped, long failed,
           Long failedToHarvest, Long failedToPublish,
           List<String> details) {
     this.uuid = uuid;
@@ -62,6 +64,7 @@ public final class EventResponse {
     this.acquired = acquired;
     this.created = created;
     this.updated = updated;
+    this.skipped = skipped;
     this.failed = failed;
     this.failedToHarvest = failedToHarvest;
     this.failedToPublish = failedToPublish;
@@ -80,6 +83,7 @@ public final class EventResponse {
             event.getReport()!=null? event.getReport().acquired: 0, 
             event.getReport()!=null? event.getReport().created: 0, 
             event.getReport()!=null? event.getReport().updated: 0, 
+            event.getReport()!=null? event.getReport().skipped: 0, 
             event.getReport()!=null? event.getReport().failed: 0,
             event.getReport()!=null? event.getReport().failedToHarvest: null,
             event.getReport()!=null? event.getReport().failedToPublish: null,
@@ -134,6 +138,14 @@ public final class EventResponse {
     return updated;
   }
 
+  /**
+   * Gets number of records skipped as unchanged.
+   * @return number of records skipped as unchanged
+   */
+  public long getSkipped() {
+    return skipped;
+  }
+
   /**
    * Gets number of failed records.
    * @return number of failed records
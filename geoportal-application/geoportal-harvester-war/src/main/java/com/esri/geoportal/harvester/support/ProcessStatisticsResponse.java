@@ -18,6 +18,7 @@ package com.esri.geoportal.harvester.support;
 import com.esri.geoportal.harvester.api.ProcessInstance;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 import com.esri.geoportal.harvester.engine.utils.Statistics;
+import com.esri.geoportal.harvester.engine.utils.StatisticsSnapshot;
 import java.util.UUID;
 
 /**
@@ -34,13 +35,13 @@ public final class ProcessStatisticsResponse {
    * @param uuid process uuid
    * @param taskDefinition task definition
    * @param status process status
-   * @param statistics statistics
+   * @param statistics statistics; snapshot of the statistics is taken
    */
   public ProcessStatisticsResponse(UUID uuid, TaskDefinition taskDefinition, ProcessInstance.Status status, Statistics statistics) {
     this.uuid = uuid;
     this.taskDefinition = taskDefinition;
     this.status = status;
-    this.statistics = statistics;
+    this.statistics = StatisticsSnapshot.of(statistics);
   }
 
   /**
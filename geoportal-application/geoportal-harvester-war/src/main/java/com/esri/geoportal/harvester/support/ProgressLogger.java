@@ -19,6 +19,7 @@ import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.ProcessInstance;
 import com.esri.geoportal.harvester.api.ex.DataInputException;
 import com.esri.geoportal.harvester.engine.utils.ReportBuilder;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,11 +29,11 @@ import org.slf4j.LoggerFactory;
 public abstract class ProgressLogger implements ReportBuilder {
   private final Logger LOG = LoggerFactory.getLogger(ProgressLogger.class);
   private final long STATUS_LOG_MODULO = 250;
-  private int counter;
+  private final AtomicLong counter = new AtomicLong();
 
   @Override
   public void acquire(ProcessInstance process, DataReference dataReference) {
-    counter++;
+    counter.incrementAndGet();
   }
 
   @Override
@@ -46,8 +47,9 @@ public abstract class ProgressLogger implements ReportBuilder {
   }
 
   private void printStatusLog(ProcessInstance process) {
-    if (counter % STATUS_LOG_MODULO == 0) {
-      LOG.info(String.format("Harvesting of %s progress: %d", process, counter));
+    long count = counter.get();
+    if (count % STATUS_LOG_MODULO == 0) {
+      LOG.info(String.format("Harvesting of %s progress: %d", process, count));
     }
   }
 }
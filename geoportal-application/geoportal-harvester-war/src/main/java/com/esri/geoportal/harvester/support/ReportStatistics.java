@@ -15,6 +15,10 @@
  */
 package com.esri.geoportal.harvester.support;
 
+import com.esri.geoportal.harvester.api.base.ContentStore;
+import com.esri.geoportal.harvester.engine.defaults.DefaultProcessor;
+import com.esri.geoportal.harvester.engine.utils.PrefetchStatistics;
+import com.esri.geoportal.harvester.engine.utils.RateMeter;
 import com.esri.geoportal.harvester.engine.utils.Statistics;
 import com.esri.geoportal.harvester.api.ex.DataOutputException;
 import com.esri.geoportal.harvester.api.DataReference;
@@ -23,24 +27,34 @@ import com.esri.geoportal.harvester.api.ex.DataInputException;
 import com.esri.geoportal.harvester.engine.utils.ReportBuilder;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Report statistics.
+ * <p>
+ * Counters may be updated by many threads and read at the same time without
+ * locking. Use {@link com.esri.geoportal.harvester.engine.utils.StatisticsSnapshot}
+ * to read consistent values.
  */
 public class ReportStatistics extends ProgressLogger implements ReportBuilder, Statistics {
   private final Logger LOG = LoggerFactory.getLogger(ReportStatistics.class);
   
-  private Date startDate;
-  private Date endDate;
+  private volatile Date startDate;
+  private volatile Date endDate;
   
-  private long acquired;
-  private long succeeded;
-  private long harvestFailed;
-  private long publishFailed;
+  private final RateMeter acquired = new RateMeter();
+  private final LongAdder succeeded = new LongAdder();
+  private final LongAdder harvestFailed = new LongAdder();
+  private final LongAdder publishFailed = new LongAdder();
   
-  private boolean failure;
+  private volatile boolean failure;
+  
+  private volatile PrefetchStatistics prefetch;
+  private volatile ContentStore contentStore;
+  private volatile DefaultProcessor.DefaultProcess defaultProcess;
   
   @Override
   public Date getStartDate() {
@@ -54,17 +68,17 @@ public class ReportStatistics extends ProgressLogger implements ReportBuilder, S
 
   @Override
   public long getSucceeded() {
-    return succeeded;
+    return succeeded.sum();
   }
 
   @Override
   public long getHarvestFailed() {
-    return harvestFailed;
+    return harvestFailed.sum();
   }
 
   @Override
   public long getPublishFailed() {
-    return publishFailed;
+    return publishFailed.sum();
   }
 
   @Override
@@ -72,44 +86,90 @@ public class ReportStatistics extends ProgressLogger implements ReportBuilder, S
     return failure;
   }
 
+  @Override
+  public PrefetchStatistics getPrefetch() {
+    return prefetch;
+  }
+
+  @Override
+  public ContentStore getContentStore() {
+    return contentStore;
+  }
+
+  @Override
+  public Map<String,Long> getInput() {
+    DefaultProcessor.DefaultProcess process = defaultProcess;
+    return process!=null? process.getInputStatistics(): null;
+  }
+
+  @Override
+  public double getOneMinuteRate() {
+    return acquired.getOneMinuteRate();
+  }
+
+  @Override
+  public double getFiveMinuteRate() {
+    return acquired.getFiveMinuteRate();
+  }
+
+  @Override
+  public double getFifteenMinuteRate() {
+    return acquired.getFifteenMinuteRate();
+  }
+
   @Override
   public void started(ProcessInstance process) {
     startDate = Calendar.getInstance().getTime();
+    if (process instanceof DefaultProcessor.DefaultProcess) {
+      prefetch = ((DefaultProcessor.DefaultProcess)process).getPrefetchStatistics();
+      contentStore = ((DefaultProcessor.DefaultProcess)process).getContentStore();
+      defaultProcess = (DefaultProcessor.DefaultProcess)process;
+    }
     LOG.info(String.format("Harvesting of %s started at %s", process, startDate));
   }
 
   @Override
   public void acquire(ProcessInstance process, DataReference dataReference) {
-    acquired++;
+    acquired.mark();
     super.acquire(process, dataReference);
   }
 
   @Override
   public void completed(ProcessInstance process) {
     endDate = Calendar.getInstance().getTime();
-    LOG.info(String.format("Harvesting of %s completed at %s. No. succeded: %d, no. failed: %d", process, endDate, succeeded, harvestFailed+publishFailed));
+    LOG.info(String.format("Harvesting of %s completed at %s. No. succeded: %d, no. failed: %d, mean rate: %.2f/s", process, endDate, getSucceeded(), getHarvestFailed()+getPublishFailed(), acquired.getMeanRate()));
+    if (prefetch!=null) {
+      LOG.info(String.format("Harvesting of %s read-ahead: %s", process, prefetch));
+    }
+    if (contentStore!=null) {
+      LOG.info(String.format("Harvesting of %s content: %s", process, contentStore));
+    }
+    Map<String,Long> input = getInput();
+    if (input!=null) {
+      LOG.info(String.format("Harvesting of %s input: %s", process, input));
+    }
   }
 
   @Override
   public long getAcquired() {
-    return acquired;
+    return acquired.getCount();
   }
 
   @Override
   public void success(ProcessInstance process, DataReference dataReference) {
-    ++succeeded;
+    succeeded.increment();
     super.success(process, dataReference);
   }
 
   @Override
   public void error(ProcessInstance process, DataInputException ex) {
-    ++harvestFailed;
+    harvestFailed.increment();
     super.error(process, ex);
   }
 
   @Override
   public void error(ProcessInstance process, DataOutputException ex) {
-    ++publishFailed;
+    publishFailed.increment();
   }
 
   @Override
@@ -119,6 +179,6 @@ public class ReportStatistics extends ProgressLogger implements ReportBuilder, S
   
   @Override
   public String toString() {
-    return String.format("STATISTICS :: start: %s, end: %s, succeeded: %d, harvested failed: %d, published failed: %d, failure: %b", startDate, endDate, succeeded, harvestFailed, publishFailed, failure);
+    return String.format("STATISTICS :: start: %s, end: %s, succeeded: %d, harvested failed: %d, published failed: %d, failure: %b", startDate, endDate, getSucceeded(), getHarvestFailed(), getPublishFailed(), failure);
   }
 }
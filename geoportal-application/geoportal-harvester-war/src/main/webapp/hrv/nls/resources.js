@@ -105,6 +105,7 @@ define({
         acquired: "Acquired",
         created: "Created",
         updated: "Updated",
+        skipped: "Unchanged",
         failed: "Failed (in/out)",
       },
       scheduler: {
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.benchmarks;
+
+import com.esri.geoportal.commons.dcat.client.DcatParser;
+import com.esri.geoportal.commons.dcat.client.DcatParserAdaptor;
+import com.esri.geoportal.commons.dcat.client.dcat.DcatRecord;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of {@link DcatParser}.
+ * <p>
+ * Parses DCAT 1.1 (data.json) document generated during setup the same way 
+ * as DCAT broker does, i.e. through {@link DcatParserAdaptor}. Content of
+ * the document depends on its size only, thus every run parses exactly the 
+ * same data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class DcatParserBenchmark {
+  
+  @Param({"100"})
+  public int sizeMb;
+  
+  private File dataJson;
+  
+  @Setup
+  public void setup() throws IOException {
+    dataJson = File.createTempFile("data", ".json");
+    generate(dataJson, sizeMb * 1024L * 1024L);
+  }
+  
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(dataJson.toPath());
+  }
+  
+  @Benchmark
+  public int parse(Blackhole blackhole) throws IOException {
+    try (InputStream input = new BufferedInputStream(new FileInputStream(dataJson))) {
+      DcatParserAdaptor adaptor = new DcatParserAdaptor(new DcatParser(input));
+      int count = 0;
+      for (DcatRecord record: adaptor) {
+        blackhole.consume(record.getIdentifier());
+        count++;
+      }
+      return count;
+    }
+  }
+  
+  /**
+   * Generates data.json of approximately given size.
+   * @param file output file
+   * @param size requested size in bytes
+   * @throws IOException if writing fails
+   */
+  private static void generate(File file, long size) throws IOException {
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8))) {
+      String header = "{\"@type\":\"dcat:Catalog\",\"conformsTo\":\"https://project-open-data.cio.gov/v1.1/schema\",\"dataset\":[\n";
+      writer.write(header);
+      long written = header.length();
+      for (int i = 0; written < size; i++) {
+        String record = (i > 0 ? ",\n" : "") + record(i);
+        writer.write(record);
+        written += record.length();
+      }
+      writer.write("\n]}\n");
+    }
+  }
+  
+  private static String record(int i) {
+    double west = -180.0 + (i % 360);
+    double south = -90.0 + (i % 170);
+    return String.format(Locale.ROOT, 
+        "{\"@type\":\"dcat:Dataset\",\"identifier\":\"dataset-%1$08d\",\"title\":\"Sample dataset %1$d\","
+      + "\"description\":\"Generated dataset number %1$d describing hydrography, elevation and land cover of the sample area. "
+      + "The description is long enough to resemble descriptions found in real catalogs which usually span a few sentences.\","
+      + "\"keyword\":[\"hydrography\",\"elevation\",\"land cover\",\"sample-%2$d\"],"
+      + "\"modified\":\"2016-%3$02d-%4$02d\",\"issued\":\"2015-01-01\",\"accessLevel\":\"public\","
+      + "\"publisher\":{\"@type\":\"org:Organization\",\"name\":\"Sample Mapping Agency\"},"
+      + "\"contactPoint\":{\"@type\":\"vcard:Contact\",\"fn\":\"Data Steward\",\"hasEmail\":\"mailto:steward@example.com\"},"
+      + "\"bureauCode\":[\"010:00\"],\"programCode\":[\"010:000\"],\"language\":[\"en-US\"],\"theme\":[\"geospatial\"],"
+      + "\"spatial\":\"%5$.2f,%6$.2f,%7$.2f,%8$.2f\",\"license\":\"http://creativecommons.org/publicdomain/zero/1.0/\","
+      + "\"landingPage\":\"http://example.com/datasets/%1$d\","
+      + "\"distribution\":[{\"@type\":\"dcat:Distribution\",\"downloadURL\":\"http://example.com/datasets/%1$d/data.zip\",\"mediaType\":\"application/zip\",\"title\":\"Shapefile\"},"
+      + "{\"@type\":\"dcat:Distribution\",\"accessURL\":\"http://example.com/arcgis/rest/services/Dataset%1$d/MapServer\",\"format\":\"Esri REST\",\"title\":\"Map service\"}]}",
+        i, i % 100, 1 + i % 12, 1 + i % 28, west, south, west + 1.0, south + 1.0);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.benchmarks;
+
+import com.esri.geoportal.commons.gpt.client.Client;
+import com.esri.geoportal.commons.gpt.client.PublishRequest;
+import com.esri.geoportal.commons.gpt.client.PublishResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link Client#publish}.
+ * <p>
+ * Measures building and serializing JSON request out of the XML, JSON and 
+ * attributes of a record. HTTP client is replaced by a stub which consumes
+ * the request entity and answers immediately without any network traffic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GptClientBenchmark {
+  private static final String JSON = 
+          "{\"fileid\":\"5c1a7e6f3f0b4a439c2e8d1f2a6b9e01\",\"title\":\"Hydrography of the Sample River Basin\","
+        + "\"description\":\"Streams, rivers, lakes and reservoirs of the Sample River Basin.\","
+        + "\"type\":\"Feature Service\",\"tags\":\"hydrography,rivers\",\"currentVersion\":10.81,\"hasVersionedData\":false,"
+        + "\"fullExtent\":{\"xmin\":-117.45,\"ymin\":33.90,\"xmax\":-116.80,\"ymax\":34.35,\"spatialReference\":{\"wkid\":4326}},"
+        + "\"layers\":[{\"id\":0,\"name\":\"Streams\"},{\"id\":1,\"name\":\"Lakes\"}]}";
+  
+  private Client client;
+  private PublishRequest request;
+  private Map<String, Object> attributes;
+  private String xml;
+  private final String[] collections = {"benchmarks", "hydrography"};
+  
+  @Setup
+  public void setup() throws IOException {
+    client = new Client(new StubHttpClient(), new URL("http://localhost/geoportal/"), null, "metadata", "src_collections_s");
+    
+    request = new PublishRequest();
+    request.src_source_type_s = "BENCHMARK";
+    request.src_source_uri_s = "BENCHMARK://samples";
+    request.src_source_name_s = "samples";
+    request.src_uri_s = "BENCHMARK://samples/sample";
+    request.src_lastupdate_dt = "2016-08-19T10:15:30Z";
+    
+    attributes = new HashMap<>();
+    attributes.put("src_title_txt", "Hydrography of the Sample River Basin");
+    attributes.put("src_keywords_s", "hydrography");
+    attributes.put("src_size_l", 1024L);
+    attributes.put("src_scale_d", 24000.0);
+    attributes.put("src_public_b", Boolean.TRUE);
+    
+    xml = new String(Samples.readMetadata(Samples.ISO), StandardCharsets.UTF_8);
+  }
+  
+  @TearDown
+  public void tearDown() throws IOException {
+    client.close();
+  }
+  
+  @Benchmark
+  public PublishResponse publish() throws IOException, URISyntaxException {
+    return client.publish(request, attributes, "5c1a7e6f3f0b4a439c2e8d1f2a6b9e01", xml, JSON, true, collections);
+  }
+  
+  /**
+   * HTTP client stub.
+   */
+  private static final class StubHttpClient extends CloseableHttpClient {
+    private static final String RESPONSE = "{\"id\":\"5c1a7e6f3f0b4a439c2e8d1f2a6b9e01\",\"status\":\"created\"}";
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) throws IOException {
+      if (request instanceof HttpEntityEnclosingRequest && ((HttpEntityEnclosingRequest) request).getEntity() != null) {
+        ((HttpEntityEnclosingRequest) request).getEntity().writeTo(OutputStream.nullOutputStream());
+      }
+      StubHttpResponse response = new StubHttpResponse();
+      response.setEntity(new StringEntity(RESPONSE, ContentType.APPLICATION_JSON));
+      return response;
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+
+    @Override
+    @Deprecated
+    public HttpParams getParams() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    @Deprecated
+    public ClientConnectionManager getConnectionManager() {
+      throw new UnsupportedOperationException();
+    }
+  }
+  
+  /**
+   * HTTP response stub.
+   */
+  private static final class StubHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+    public StubHttpResponse() {
+      super(HttpVersion.HTTP_1_1, 200, "OK");
+    }
+
+    @Override
+    public void close() {
+      // nothing to close
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.benchmarks;
+
+import com.esri.geoportal.commons.constants.CredentialsConstants;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.base.SimpleInitContext;
+import com.esri.geoportal.harvester.api.base.SimpleIteratorContext;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.Task;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import com.esri.geoportal.harvester.jdbc.JdbcConnector;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of building records by the JDBC broker.
+ * <p>
+ * Reads the whole in-memory H2 table through the broker iterator; reported
+ * score is number of records per second. Table is populated during setup with
+ * the same data in every run. The script variant runs a trivial script for 
+ * every record; partitioned variant splits records by hash of the primary
+ * key and reads partitions on separate connections in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JdbcBrokerBenchmark {
+  private static final int ROWS = 10000;
+  private static final String CONNECTION = "jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1";
+  private static final String SCRIPT = "data.json.title = data.json.title.toUpperCase();";
+  
+  @Param({"none", "js"})
+  public String script;
+  
+  @Param({"1", "4"})
+  public String partitions;
+  
+  private Connection keepAlive;
+  private EntityDefinition definition;
+  
+  @Setup
+  public void setup() throws SQLException {
+    keepAlive = DriverManager.getConnection(CONNECTION, "sa", "");
+    try (Statement st = keepAlive.createStatement()) {
+      st.execute("DROP TABLE IF EXISTS RECORDS");
+      st.execute("CREATE TABLE RECORDS (ID VARCHAR(64) PRIMARY KEY, TITLE VARCHAR(256), DESCRIPTION VARCHAR(2048), "
+              + "KEYWORDS VARCHAR(256), UPDATED TIMESTAMP, XMIN DOUBLE, YMIN DOUBLE, XMAX DOUBLE, YMAX DOUBLE, METADATA CLOB)");
+    }
+    try (PreparedStatement st = keepAlive.prepareStatement("INSERT INTO RECORDS VALUES (?,?,?,?,?,?,?,?,?,?)")) {
+      for (int i = 0; i < ROWS; i++) {
+        st.setString(1, String.format("record-%08d", i));
+        st.setString(2, String.format("Sample record %d", i));
+        st.setString(3, String.format("Generated record number %d describing hydrography, elevation and land cover of the sample area.", i));
+        st.setString(4, String.format("hydrography,elevation;land cover|sample-%d", i % 100));
+        st.setTimestamp(5, new Timestamp(1451606400000L + i * 60000L));
+        st.setDouble(6, -180.0 + (i % 360));
+        st.setDouble(7, -90.0 + (i % 170));
+        st.setDouble(8, -179.0 + (i % 360));
+        st.setDouble(9, -89.0 + (i % 170));
+        st.setString(10, String.format("<metadata><title>Sample record %d</title></metadata>", i));
+        st.addBatch();
+      }
+      st.executeBatch();
+    }
+    
+    definition = new EntityDefinition();
+    definition.setType(JdbcConnector.TYPE);
+    definition.getProperties().put("jdbc-driver", "org.h2.Driver");
+    definition.getProperties().put("jdbc-connection", CONNECTION);
+    definition.getProperties().put("jdbc-sql-statement", "RECORDS");
+    definition.getProperties().put("jdbc-fileid-column", "ID");
+    definition.getProperties().put("jdbc-title-column", "TITLE");
+    definition.getProperties().put("jdbc-description-column", "DESCRIPTION");
+    definition.getProperties().put("jdbc-types", "keywords=[keywords_s], [xmin,ymin,xmax,ymax]=envelope_geo, metadata=_xml");
+    definition.getProperties().put("jdbc-partitions", partitions);
+    definition.getProperties().put("jdbc-partition-expression", "ORA_HASH(ID)");
+    if ("js".equals(script)) {
+      definition.getProperties().put("jdbc-script", SCRIPT);
+    }
+    definition.getProperties().put(CredentialsConstants.P_CRED_USERNAME, "sa");
+    definition.getProperties().put(CredentialsConstants.P_CRED_PASSWORD, "");
+  }
+  
+  @TearDown
+  public void tearDown() throws SQLException {
+    try (Statement st = keepAlive.createStatement()) {
+      st.execute("DROP TABLE IF EXISTS RECORDS");
+    }
+    keepAlive.close();
+  }
+  
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public int readAll(Blackhole blackhole) throws Exception {
+    InputBroker broker = new JdbcConnector(true).createBroker(definition);
+    Task task = new Task("benchmark", null, null, broker, Collections.emptyList());
+    broker.initialize(new SimpleInitContext(task, new ArrayList<>()));
+    try {
+      int count = 0;
+      InputBroker.Iterator iterator = broker.iterator(new SimpleIteratorContext());
+      while (iterator.hasNext()) {
+        DataReference ref = iterator.next();
+        blackhole.consume(ref);
+        count++;
+      }
+      if (count != ROWS) {
+        throw new IllegalStateException(String.format("Expected %d records, got %d", ROWS, count));
+      }
+      return count;
+    } finally {
+      broker.terminate();
+    }
+  }
+}
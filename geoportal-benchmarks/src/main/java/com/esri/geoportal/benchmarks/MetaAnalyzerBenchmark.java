@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.benchmarks;
+
+import com.esri.geoportal.commons.meta.MapAttribute;
+import com.esri.geoportal.commons.meta.MetaAnalyzer;
+import com.esri.geoportal.commons.meta.MetaException;
+import com.esri.geoportal.commons.meta.util.MultiMetaAnalyzerWrapper;
+import com.esri.geoportal.commons.meta.xml.SimpleDcMetaAnalyzer;
+import com.esri.geoportal.commons.meta.xml.SimpleFgdcMetaAnalyzer;
+import com.esri.geoportal.commons.meta.xml.SimpleIso15115MetaAnalyzer;
+import com.esri.geoportal.commons.meta.xml.SimpleIso15115_2MetaAnalyzer;
+import com.esri.geoportal.commons.meta.xml.SimpleIso15119MetaAnalyzer;
+import com.esri.geoportal.commons.meta.xml.SimpleXmlMetaAnalyzer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Benchmark of meta analyzers.
+ * <p>
+ * Compares {@link MultiMetaAnalyzerWrapper} chaining stylesheet based 
+ * analyzers ("chain") with {@link SimpleXmlMetaAnalyzer} reading attributes
+ * directly from the document ("direct"). Chained analyzers are registered in 
+ * the same order as they used to be in the application, so the sample type 
+ * determines how many analyzers are interrogated before one of them 
+ * recognizes the document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetaAnalyzerBenchmark {
+  
+  @Param({Samples.ISO, Samples.FGDC, Samples.DC})
+  public String sample;
+  
+  @Param({"chain", "direct"})
+  public String analyzer;
+  
+  private MetaAnalyzer metaAnalyzer;
+  private DocumentBuilderFactory factory;
+  private byte[] content;
+  private Document document;
+  
+  @Setup
+  public void setup() throws Exception {
+    metaAnalyzer = "direct".equals(analyzer)? new SimpleXmlMetaAnalyzer(): new MultiMetaAnalyzerWrapper(
+            new SimpleDcMetaAnalyzer(), 
+            new SimpleFgdcMetaAnalyzer(),
+            new SimpleIso15115MetaAnalyzer(),
+            new SimpleIso15115_2MetaAnalyzer(),
+            new SimpleIso15119MetaAnalyzer()
+    );
+    factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    content = Samples.readMetadata(sample);
+    document = parse();
+    if (metaAnalyzer.extract(document) == null) {
+      throw new IllegalStateException(String.format("Sample not recognized: %s", sample));
+    }
+  }
+  
+  @Benchmark
+  public MapAttribute extract() throws MetaException {
+    return metaAnalyzer.extract(document);
+  }
+  
+  @Benchmark
+  public MapAttribute parseAndExtract() throws MetaException, ParserConfigurationException, SAXException, IOException {
+    return metaAnalyzer.extract(parse());
+  }
+  
+  private Document parse() throws ParserConfigurationException, SAXException, IOException {
+    return factory.newDocumentBuilder().parse(new ByteArrayInputStream(content));
+  }
+}
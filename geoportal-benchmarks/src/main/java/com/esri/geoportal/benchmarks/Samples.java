@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.benchmarks;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.base.SimpleDataReference;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Date;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Sample data shared by the benchmarks.
+ */
+/*package*/ final class Samples {
+  /** ISO 19139 sample */
+  public static final String ISO = "iso";
+  /** FGDC sample */
+  public static final String FGDC = "fgdc";
+  /** Dublin Core sample */
+  public static final String DC = "dc";
+  
+  private static final URI BROKER_URI = URI.create("BENCHMARK://samples");
+  
+  private Samples() {}
+  
+  /**
+   * Reads bundled sample.
+   * @param name file name of the sample
+   * @return sample content
+   * @throws IOException if reading sample fails
+   */
+  public static byte[] read(String name) throws IOException {
+    try (InputStream input = Samples.class.getResourceAsStream("/samples/" + name)) {
+      if (input == null) {
+        throw new IOException(String.format("Missing sample: %s", name));
+      }
+      return IOUtils.toByteArray(input);
+    }
+  }
+  
+  /**
+   * Reads bundled metadata sample.
+   * @param sample sample name (iso, fgdc, dc)
+   * @return sample content
+   * @throws IOException if reading sample fails
+   */
+  public static byte[] readMetadata(String sample) throws IOException {
+    return read(sample + ".xml");
+  }
+  
+  /**
+   * Creates data reference holding XML content.
+   * @param id record id
+   * @param xml XML content
+   * @return data reference
+   */
+  public static DataReference createDataReference(String id, byte[] xml) {
+    SimpleDataReference ref = new SimpleDataReference(BROKER_URI, "samples", id, new Date(0), URI.create("BENCHMARK://samples/" + id), null, null);
+    ref.addContext(MimeType.APPLICATION_XML, xml);
+    return ref;
+  }
+}
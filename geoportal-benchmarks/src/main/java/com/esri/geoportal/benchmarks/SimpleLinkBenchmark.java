@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.benchmarks;
+
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.FilterInstance;
+import com.esri.geoportal.harvester.api.TransformerInstance;
+import com.esri.geoportal.harvester.api.base.BrokerLinkActionAdaptor;
+import com.esri.geoportal.harvester.api.base.DataReferenceWrapper;
+import com.esri.geoportal.harvester.api.base.FilterLinkActionAdaptor;
+import com.esri.geoportal.harvester.api.base.SimpleInitContext;
+import com.esri.geoportal.harvester.api.base.SimpleLink;
+import com.esri.geoportal.harvester.api.base.TransformerLinkActionAdaptor;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.general.Link;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.esri.geoportal.harvester.api.specs.OutputConnector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link SimpleLink#push}.
+ * <p>
+ * Measures the overhead of routing a single record through the link tree with
+ * output brokers doing no work at all:
+ * <ul>
+ * <li>single - broker only</li>
+ * <li>chain - filter, transformer and broker</li>
+ * <li>fanout - filter draining into three brokers</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimpleLinkBenchmark {
+  
+  @Param({"single", "chain", "fanout"})
+  public String topology;
+  
+  private Link link;
+  private DataReference dataReference;
+  
+  @Setup
+  public void setup() throws Exception {
+    switch (topology) {
+      case "single":
+        link = brokerLink();
+        break;
+      case "chain":
+        link = new SimpleLink(new FilterLinkActionAdaptor(new AcceptAllFilter()), Arrays.asList(
+                new SimpleLink(new TransformerLinkActionAdaptor(new IdentityTransformer()), Arrays.asList(brokerLink()))
+        ));
+        break;
+      case "fanout":
+        link = new SimpleLink(new FilterLinkActionAdaptor(new AcceptAllFilter()), Arrays.asList(brokerLink(), brokerLink(), brokerLink()));
+        break;
+      default:
+        throw new IllegalArgumentException(String.format("Unsupported topology: %s", topology));
+    }
+    link.initialize(new SimpleInitContext(null, new ArrayList<>()));
+    dataReference = Samples.createDataReference("sample", Samples.readMetadata(Samples.ISO));
+  }
+  
+  @TearDown
+  public void tearDown() {
+    link.terminate();
+  }
+  
+  @Benchmark
+  public PublishingStatus push() throws DataProcessorException, DataOutputException {
+    return link.push(dataReference);
+  }
+  
+  private static Link brokerLink() {
+    return new SimpleLink(new BrokerLinkActionAdaptor(new NullOutputBroker()), Collections.emptyList());
+  }
+  
+  /**
+   * Broker accepting everything without doing any work.
+   */
+  private static final class NullOutputBroker implements OutputBroker {
+    private final EntityDefinition definition = new EntityDefinition();
+
+    @Override
+    public PublishingStatus publish(DataReference ref) {
+      return PublishingStatus.CREATED;
+    }
+
+    @Override
+    public EntityDefinition getEntityDefinition() {
+      return definition;
+    }
+
+    @Override
+    public OutputConnector getConnector() {
+      return null;
+    }
+
+    @Override
+    public boolean hasAccess(SimpleCredentials creds) {
+      return true;
+    }
+
+    @Override
+    public void initialize(InitContext context) {
+      // nothing to initialize
+    }
+
+    @Override
+    public void terminate() {
+      // nothing to terminate
+    }
+  }
+  
+  /**
+   * Filter accepting every record.
+   */
+  private static final class AcceptAllFilter implements FilterInstance {
+    private final EntityDefinition definition = new EntityDefinition();
+
+    @Override
+    public EntityDefinition getFilterDefinition() {
+      return definition;
+    }
+
+    @Override
+    public boolean test(DataReference dataReference) {
+      return true;
+    }
+
+    @Override
+    public void initialize(InitContext context) {
+      // nothing to initialize
+    }
+
+    @Override
+    public void terminate() {
+      // nothing to terminate
+    }
+  }
+  
+  /**
+   * Transformer wrapping record without changing it.
+   */
+  private static final class IdentityTransformer implements TransformerInstance {
+    private final EntityDefinition definition = new EntityDefinition();
+
+    @Override
+    public EntityDefinition getTransformerDefinition() {
+      return definition;
+    }
+
+    @Override
+    public List<DataReference> transform(DataReference input) {
+      return Arrays.asList(new DataReferenceWrapper(input));
+    }
+
+    @Override
+    public void initialize(InitContext context) {
+      // nothing to initialize
+    }
+
+    @Override
+    public void terminate() {
+      // nothing to terminate
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.benchmarks;
+
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.TransformerInstance;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.ex.DataTransformerException;
+import com.esri.geoportal.harvester.engine.transformers.XsltTransformer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link XsltTransformer} instances.
+ * <p>
+ * Transforms ISO 19139 sample into Dublin Core. The concurrent variant shares
+ * a single transformer instance among four threads the same way as parallel
+ * processor does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XsltTransformerBenchmark {
+  
+  private TransformerInstance transformerInstance;
+  private DataReference dataReference;
+  
+  @Setup
+  public void setup() throws Exception {
+    EntityDefinition definition = new EntityDefinition();
+    definition.setType(XsltTransformer.TYPE);
+    definition.getProperties().put(XsltTransformer.X_XSLT_XSLT, new String(Samples.read("iso2dc.xslt"), StandardCharsets.UTF_8));
+    definition.getProperties().put(XsltTransformer.X_XSLT_PROPS, "publisher=Benchmark");
+    transformerInstance = new XsltTransformer().createInstance(definition);
+    dataReference = Samples.createDataReference("sample", Samples.readMetadata(Samples.ISO));
+  }
+  
+  @Benchmark
+  public List<DataReference> transform() throws DataTransformerException {
+    return transformerInstance.transform(dataReference);
+  }
+  
+  @Benchmark
+  @Threads(4)
+  public List<DataReference> transformConcurrently() throws DataTransformerException {
+    return transformerInstance.transform(dataReference);
+  }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * JMH benchmarks of the harvesting hot paths.
+ * <p>
+ * All the input data is either bundled with the module or generated 
+ * deterministically during setup, thus results do not depend on network 
+ * access and are comparable between runs. Build and run:
+ * <pre><code>
+   mvn install -Pbenchmarks
+   java -jar geoportal-benchmarks/target/benchmarks.jar
+   java -jar geoportal-benchmarks/target/benchmarks.jar XsltTransformerBenchmark -rf json
+ * </code></pre>
+ */
+package com.esri.geoportal.benchmarks;
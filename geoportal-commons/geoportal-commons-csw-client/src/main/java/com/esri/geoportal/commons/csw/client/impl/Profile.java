@@ -20,16 +20,13 @@ import static com.esri.core.geometry.Operator.Type.Intersects;
 import com.esri.geoportal.commons.csw.client.ICriteria;
 import com.esri.geoportal.commons.csw.client.IProfile;
 import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.io.StringWriter;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
-import javax.xml.transform.stream.StreamSource;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -129,9 +126,7 @@ public class Profile implements IProfile {
   @Override
   public String generateCSWGetRecordsRequest(ICriteria criteria) {
     String internalRequestXml = createInternalXmlRequest(criteria);
-    try (
-            ByteArrayInputStream internalRequestInputStream = new ByteArrayInputStream(internalRequestXml.getBytes("UTF-8"));
-            InputStream reqXsltInputStream = streamOpener.open(getGetRecordsReqXslt())) {
+    try (ByteArrayInputStream internalRequestInputStream = new ByteArrayInputStream(internalRequestXml.getBytes("UTF-8"))) {
       
       // create internal request DOM
       DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
@@ -146,8 +141,7 @@ public class Profile implements IProfile {
       Document internalRequestDOM = builder.parse(new InputSource(internalRequestInputStream));
 
       // create transformer
-      TransformerFactory transformerFactory = TransformerFactory.newInstance();
-      Templates template = transformerFactory.newTemplates(new StreamSource(reqXsltInputStream));
+      Templates template = ProfilesService.getTemplate(streamOpener, getGetRecordsReqXslt());
       Transformer transformer = template.newTransformer();
       
       // perform transformation
@@ -16,20 +16,17 @@
 package com.esri.geoportal.commons.csw.client.impl;
 
 import com.esri.geoportal.commons.csw.client.IProfiles;
+import com.esri.geoportal.commons.utils.TemplatesCache;
 import static com.esri.geoportal.commons.csw.client.impl.Constants.CONFIG_FILE;
 import static com.esri.geoportal.commons.csw.client.impl.Constants.CONFIG_FOLDER_PATH;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Map;
-import java.util.TreeMap;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.stream.StreamSource;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
@@ -50,7 +47,6 @@ public class ProfilesService {
   private static final Logger LOG = LoggerFactory.getLogger(ProfilesService.class);
   
   private final Profiles profiles = new Profiles();
-  private final Map<String,Templates> cache = new TreeMap<>();
   private final String cswProfilesFolder;
   private final StreamOpener streamOpener;
 
@@ -71,15 +67,19 @@ public class ProfilesService {
   }
   
   public Templates getTemplate(String path) throws IOException, TransformerConfigurationException {
-    Templates template = cache.get(path);
-    if (template==null) {
-      try (InputStream xsltStream = streamOpener.open(path)) {
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        template = transformerFactory.newTemplates(new StreamSource(xsltStream));
-        cache.put(path, template);
-      }
-    }
-    return template;
+    return getTemplate(streamOpener, path);
+  }
+  
+  /**
+   * Gets compiled stylesheet from the shared templates cache.
+   * @param streamOpener stream opener
+   * @param path stylesheet path
+   * @return compiled stylesheet
+   * @throws IOException if reading stylesheet fails
+   * @throws TransformerConfigurationException if stylesheet is invalid
+   */
+  static Templates getTemplate(StreamOpener streamOpener, String path) throws IOException, TransformerConfigurationException {
+    return TemplatesCache.getInstance().getTemplates(String.format("%s/%s", streamOpener, path), () -> streamOpener.open(path));
   }
   
   public IProfiles newProfiles() {
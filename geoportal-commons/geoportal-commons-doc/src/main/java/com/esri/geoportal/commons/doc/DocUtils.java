@@ -25,6 +25,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -83,9 +84,13 @@ public class DocUtils {
 
     // Class Used By Geoportal Harvester
     public static byte[] generateMetadataXML(byte[] file_bytes, String file_name, Integer sizeLimit) throws IOException {
+    	return generateMetadataXML(new ByteArrayInputStream(file_bytes), file_name, sizeLimit);
+    }
+
+    // Class Used By Geoportal Harvester; reads document from the stream without loading it on heap
+    public static byte[] generateMetadataXML(InputStream base_input, String file_name, Integer sizeLimit) throws IOException {
     	
-    	// Input & Output Variables
-    	ByteArrayInputStream base_input = new ByteArrayInputStream(file_bytes);
+    	// Output Variables
     	byte[]               xml_bytes  = null;
     	
     	// Tika Parser Objects
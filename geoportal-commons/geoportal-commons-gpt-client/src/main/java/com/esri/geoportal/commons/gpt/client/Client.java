@@ -41,6 +41,7 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -78,6 +79,7 @@ public class Client implements Closeable {
 
   private static final Logger LOG = LoggerFactory.getLogger(Client.class);
   private static final int BATCH_SIZE = 500;
+  private static final int MAX_RESULT_WINDOW = 10000;
 
   private static final String DEFAULT_INDEX = "metadata";
   private static final String REST_ITEM_URL = "rest/metadata/item";
@@ -149,6 +151,104 @@ public class Client implements Closeable {
     boolean forceAdd,
     String [] collections) throws IOException, URISyntaxException {
 
+    StringEntity entity = createPublishEntity(data, attributes, xml, json, collections);
+    List<String> ids = id == null && !forceAdd ? queryIds("src_uri_s", data.src_uri_s, 1) : Collections.emptyList();
+    return publish(id != null ? id : !ids.isEmpty() ? ids.get(0) : null, entity, data.sys_owner_s);
+  }
+
+  /**
+   * Publishes a document as an item with the known id. No query is made to
+   * find an item published from the same source URI.
+   *
+   * @param data data to publish
+   * @param attributes extra attributes
+   * @param id id of the item or <code>null</code> to create a new item
+   * @param xml xml
+   * @param json json
+   * @param collections list of collections
+   * @return response information
+   * @throws IOException if reading response fails
+   * @throws URISyntaxException if URL has invalid syntax
+   * @see #queryIdsBySourceUri(java.util.Collection) 
+   */
+  public PublishResponse publishItem(
+    PublishRequest data, 
+    Map<String, Object> attributes, 
+    String id, 
+    String xml, String json, 
+    String [] collections) throws IOException, URISyntaxException {
+    
+    return publish(id, createPublishEntity(data, attributes, xml, json, collections), data.sys_owner_s);
+  }
+
+  /**
+   * Finds items published from any of the source URIs through a single query.
+   * If more than one item has been published from the same source URI, the
+   * same item is chosen as when publishing a single document.
+   *
+   * @param uris source URIs
+   * @return map of source URI to the id of the item; URIs not published are absent
+   * @throws IOException if reading response fails or query is not supported
+   * @throws URISyntaxException if URL has invalid syntax
+   */
+  public Map<String, String> queryIdsBySourceUri(Collection<String> uris) throws IOException, URISyntaxException {
+    Map<String, String> ids = new HashMap<>();
+    Set<String> terms = new HashSet<>(uris);
+    if (terms.isEmpty()) {
+      return ids;
+    }
+    
+    int size = Math.min(2 * terms.size(), MAX_RESULT_WINDOW);
+    ObjectNode root = mapper.createObjectNode();
+    root.put("size", size);
+    root.set("_source", mapper.createArrayNode().add("src_uri_s"));
+    root.set("sort", mapper.createArrayNode().add(mapper.createObjectNode().put("_id", "asc")));
+    ArrayNode values = mapper.createArrayNode();
+    terms.forEach(values::add);
+    root.set("query", mapper.createObjectNode().set("terms", mapper.createObjectNode().set("src_uri_s", values)));
+
+    URIBuilder builder = new URIBuilder(url.toURI().resolve(createElasticSearchUrl()));
+    HttpEntity entity = new StringEntity(mapper.writeValueAsString(root), ContentType.APPLICATION_JSON);
+    QueryResponse response = query(builder, entity);
+    if (response == null) {
+      throw new HttpResponseException(500, "Error querying items by source URI");
+    }
+    // response without hits, like an error without status, doesn't tell the items don't exist
+    if (response.hits == null || (response.status != null && response.status >= 400)) {
+      throw new HttpResponseException(response.status != null ? response.status : 400, "Error querying items by source URI");
+    }
+    
+    int hits = 0;
+    if (response.hasHits()) {
+      for (Hit hit: response.hits.hits) {
+        hits++;
+        if (hit._id != null && hit._source != null && hit._source.src_uri_s != null) {
+          ids.putIfAbsent(hit._source.src_uri_s, hit._id);
+        }
+      }
+    }
+    
+    if (hits >= size) {
+      // result truncated; items of the remaining URIs might exist anyway
+      for (String uri: terms) {
+        if (!ids.containsKey(uri)) {
+          List<String> uriIds = queryIds("src_uri_s", uri, 1);
+          if (!uriIds.isEmpty()) {
+            ids.put(uri, uriIds.get(0));
+          }
+        }
+      }
+    }
+    
+    return ids;
+  }
+
+  private StringEntity createPublishEntity(
+    PublishRequest data, 
+    Map<String, Object> attributes, 
+    String xml, String json, 
+    String [] collections) throws IOException {
+    
     ObjectNode jsonRequest = mapper.convertValue(data, ObjectNode.class);
     if (xml != null) {
       jsonRequest.put("xml", xml);
@@ -304,18 +404,18 @@ public class Client implements Closeable {
     }
     
     String strRequest = mapper.writeValueAsString(jsonRequest);
-    StringEntity entity = new StringEntity(strRequest, "UTF-8");
-
-    List<String> ids = !forceAdd ? queryIds("src_uri_s", data.src_uri_s, 1) : Collections.emptyList();
+    return new StringEntity(strRequest, "UTF-8");
+  }
 
-    URI pubUri = id != null ? createItemUri(id) : !ids.isEmpty() ? createItemUri(ids.get(0)) : createItemsUri();
+  private PublishResponse publish(String id, StringEntity entity, String owner) throws IOException, URISyntaxException {
+    URI pubUri = id != null ? createItemUri(id) : createItemsUri();
     try {
-      return publish(pubUri, entity, data.sys_owner_s);
+      return publish(pubUri, entity, owner);
     } catch (HttpResponseException ex) {
       if (ex.getStatusCode() == 401) {
         clearToken();
-        pubUri = id != null ? createItemUri(id) : !ids.isEmpty() ? createItemUri(ids.get(0)) : createItemsUri();
-        return publish(pubUri, entity, data.sys_owner_s);
+        pubUri = id != null ? createItemUri(id) : createItemsUri();
+        return publish(pubUri, entity, owner);
       } else {
         throw ex;
       }
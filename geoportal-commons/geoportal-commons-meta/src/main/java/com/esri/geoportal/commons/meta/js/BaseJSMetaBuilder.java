@@ -19,10 +19,7 @@ import com.esri.geoportal.commons.meta.MapAttribute;
 import com.esri.geoportal.commons.meta.MetaBuilder;
 import com.esri.geoportal.commons.meta.MetaException;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import javax.script.Invocable;
 import javax.script.ScriptException;
-import javax.script.SimpleBindings;
 import javax.xml.parsers.ParserConfigurationException;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
@@ -56,11 +53,8 @@ public class BaseJSMetaBuilder implements MetaBuilder {
   
   private Object execute(MapAttribute wellKnowsAttributes) throws MetaException {
     try {
-      SimpleBindings bindings = new SimpleBindings();
-      bindings.put("attributes", wellKnowsAttributes);
-      Invocable invocable = (Invocable)engines.getCachedEngine(javascriptPath);
-      return invocable.invokeFunction("create", wellKnowsAttributes);
-    } catch (ScriptException|NoSuchMethodException|IOException|URISyntaxException ex) {
+      return engines.getPool(javascriptPath).invokeFunction("create", wellKnowsAttributes);
+    } catch (ScriptException|IOException ex) {
       throw new MetaException("Error executing script.", ex);
     }
   }
@@ -23,7 +23,15 @@ import java.net.URISyntaxException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
@@ -33,11 +41,26 @@ import javax.script.ScriptException;
  */
 public class ScriptEngines {
   
+  /** System property with maximum number of script globals per script file. */
+  public static final String POOL_SIZE_PROPERTY = "geoportal.js.pool.size";
+  
   /** Instance variables. */
   private Map<String,ScriptEngine> engines = Collections.synchronizedMap(new HashMap<String,ScriptEngine>());
+  private final Map<String,ScriptPool> pools = new ConcurrentHashMap<>();
+  private final int poolSize;
   
   /** Constructor. */
-  public ScriptEngines() {}
+  public ScriptEngines() {
+    this(Integer.getInteger(POOL_SIZE_PROPERTY, Runtime.getRuntime().availableProcessors()));
+  }
+  
+  /**
+   * Constructor.
+   * @param poolSize maximum number of script globals per script file
+   */
+  public ScriptEngines(int poolSize) {
+    this.poolSize = Math.max(1, poolSize);
+  }
 
   /**
    * Gets a cached script engine.
@@ -67,4 +90,113 @@ public class ScriptEngines {
     }
   }
   
+  /**
+   * Gets a pool of script globals for the script file.
+   * <br>Unlike {@link #getCachedEngine(java.lang.String)}, the pool is safe
+   * for scripts with mutable globals and allows to run the script by many
+   * threads at the same time.
+   * @param javascriptFile the path to a JavaScript file
+   * @return the pool
+   * @throws IOException if reading script fails
+   * @throws ScriptException if invalid script
+   */
+  public ScriptPool getPool(String javascriptFile) throws IOException, ScriptException {
+    ScriptPool pool = pools.get(javascriptFile);
+    if (pool == null) {
+      synchronized(pools) {
+        pool = pools.get(javascriptFile);
+        if (pool == null) {
+          pool = new ScriptPool(javascriptFile, poolSize);
+          pools.put(javascriptFile, pool);
+        }
+      }
+    }
+    return pool;
+  }
+  
+  /**
+   * Pool of script globals.
+   * <br>The script is compiled once by a single engine and then evaluated
+   * into as many separate globals as there are threads running it at the same
+   * time, up to the pool size. Each global is used by one thread at a time.
+   */
+  public static class ScriptPool {
+    private final ScriptEngine engine;
+    private final CompiledScript script;
+    private final Semaphore available;
+    private final ConcurrentLinkedQueue<Bindings> idle = new ConcurrentLinkedQueue<>();
+    private final Map<String,CompiledScript> invocations = new ConcurrentHashMap<>();
+    
+    private ScriptPool(String javascriptFile, int size) throws IOException, ScriptException {
+      try (
+        InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(javascriptFile);
+        Reader reader = new BufferedReader(new InputStreamReader(inputStream,"UTF-8"));
+              ) {
+        ScriptEngineManager engineManager = new ScriptEngineManager();
+        this.engine = engineManager.getEngineByName("nashorn");
+        this.script = ((Compilable)engine).compile(reader);
+        this.available = new Semaphore(size);
+      }
+    }
+    
+    /**
+     * Invokes top level function defined by the script.
+     * @param name function name
+     * @param args arguments
+     * @return function result
+     * @throws ScriptException if executing script fails
+     */
+    public Object invokeFunction(String name, Object...args) throws ScriptException {
+      CompiledScript invocation = getInvocation(name, args.length);
+      Bindings bindings = borrow();
+      try {
+        for (int i=0; i<args.length; i++) {
+          bindings.put(argName(i), args[i]);
+        }
+        return invocation.eval(bindings);
+      } finally {
+        for (int i=0; i<args.length; i++) {
+          bindings.remove(argName(i));
+        }
+        idle.offer(bindings);
+        available.release();
+      }
+    }
+    
+    private CompiledScript getInvocation(String name, int argc) throws ScriptException {
+      String key = name + "/" + argc;
+      CompiledScript invocation = invocations.get(key);
+      if (invocation == null) {
+        String call = IntStream.range(0, argc).mapToObj(ScriptPool::argName).collect(Collectors.joining(",", name + "(", ")"));
+        invocation = ((Compilable)engine).compile(call);
+        invocations.put(key, invocation);
+      }
+      return invocation;
+    }
+    
+    private Bindings borrow() throws ScriptException {
+      try {
+        available.acquire();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new ScriptException("Interrupted while waiting for script engine.");
+      }
+      Bindings bindings = idle.poll();
+      if (bindings == null) {
+        try {
+          bindings = engine.createBindings();
+          script.eval(bindings);
+        } catch (ScriptException|RuntimeException ex) {
+          available.release();
+          throw ex;
+        }
+      }
+      return bindings;
+    }
+    
+    private static String argName(int index) {
+      return "__arg" + index;
+    }
+  }
+  
 }
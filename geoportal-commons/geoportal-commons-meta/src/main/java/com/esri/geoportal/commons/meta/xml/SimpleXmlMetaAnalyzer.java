@@ -0,0 +1,308 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.meta.xml;
+
+import com.esri.geoportal.commons.meta.Attribute;
+import com.esri.geoportal.commons.meta.MapAttribute;
+import com.esri.geoportal.commons.meta.MetaAnalyzer;
+import com.esri.geoportal.commons.meta.MetaException;
+import com.esri.geoportal.commons.meta.StringAttribute;
+import static com.esri.geoportal.commons.meta.util.WKAConstants.WKA_BBOX;
+import static com.esri.geoportal.commons.meta.util.WKAConstants.WKA_DESCRIPTION;
+import static com.esri.geoportal.commons.meta.util.WKAConstants.WKA_IDENTIFIER;
+import static com.esri.geoportal.commons.meta.util.WKAConstants.WKA_MODIFIED;
+import static com.esri.geoportal.commons.meta.util.WKAConstants.WKA_RESOURCE_URL;
+import static com.esri.geoportal.commons.meta.util.WKAConstants.WKA_RESOURCE_URL_SCHEME;
+import static com.esri.geoportal.commons.meta.util.WKAConstants.WKA_THUMBNAIL_URL;
+import static com.esri.geoportal.commons.meta.util.WKAConstants.WKA_TITLE;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Simple xml meta analyzer.
+ * <p>
+ * Recognizes ISO 19115, ISO 19115-2, ISO 19119, FGDC and Dublin Core metadata
+ * by the namespace and name of the root element and reads well known 
+ * attributes directly from the document. It extracts the same attributes as
+ * the chain of {@link SimpleDcMetaAnalyzer}, {@link SimpleFgdcMetaAnalyzer},
+ * {@link SimpleIso15115MetaAnalyzer}, {@link SimpleIso15115_2MetaAnalyzer} and
+ * {@link SimpleIso15119MetaAnalyzer}, but without running decoding stylesheets
+ * and parsing their output. Analyzer is stateless and thread safe.
+ */
+public class SimpleXmlMetaAnalyzer implements MetaAnalyzer {
+  private static final String NS_RDF = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+  private static final String NS_DC = "http://purl.org/dc/elements/1.1/";
+  private static final String NS_DCT = "http://purl.org/dc/terms/";
+  private static final String NS_OWS = "http://www.opengis.net/ows";
+  private static final String NS_GMD = "http://www.isotc211.org/2005/gmd";
+  private static final String NS_GCO = "http://www.isotc211.org/2005/gco";
+  private static final String NS_SRV = "http://www.isotc211.org/2005/srv";
+  private static final String NS_GMI = "http://www.isotc211.org/2005/gmi";
+  private static final String NS_XLINK = "http://www.w3.org/1999/xlink";
+  
+  private static final Map<String, String> NAMESPACES = new HashMap<>();
+  static {
+    NAMESPACES.put("rdf", NS_RDF);
+    NAMESPACES.put("dc", NS_DC);
+    NAMESPACES.put("dct", NS_DCT);
+    NAMESPACES.put("ows", NS_OWS);
+    NAMESPACES.put("gmd", NS_GMD);
+    NAMESPACES.put("gco", NS_GCO);
+    NAMESPACES.put("srv", NS_SRV);
+    NAMESPACES.put("gmi", NS_GMI);
+    NAMESPACES.put("xlink", NS_XLINK);
+  }
+  
+  // Dublin Core
+  private static final Path DC_ABOUT = new Path("rdf:Description/@rdf:about");
+  private static final Path DC_IDENTIFIER = new Path("rdf:Description/dc:identifier");
+  private static final Path DC_TITLE = new Path("rdf:Description/dc:title");
+  private static final Path DC_DESCRIPTION = new Path("rdf:Description/dc:description");
+  private static final Path DC_MODIFIED = new Path("rdf:Description/dc:date");
+  private static final Path DC_RESOURCE_URL = new Path("rdf:Description/dct:references");
+  private static final Path DC_RESOURCE_URL_SCHEME = new Path("rdf:Description/dct:references/@scheme");
+  private static final Path DC_LOWER_CORNER = new Path("rdf:Description/ows:WGS84BoundingBox/ows:LowerCorner");
+  private static final Path DC_UPPER_CORNER = new Path("rdf:Description/ows:WGS84BoundingBox/ows:UpperCorner");
+  
+  // FGDC
+  private static final Path FGDC_CITEINFO = new Path("idinfo/citation/citeinfo");
+  private static final Path FGDC_TITLE = new Path("idinfo/citation/citeinfo/title");
+  private static final Path FGDC_DESCRIPTION = new Path("idinfo/descript/abstract");
+  private static final Path FGDC_MODIFIED = new Path("idinfo/citation/citeinfo/pubdate");
+  private static final Path FGDC_RESOURCE_URL = new Path("idinfo/citation/citeinfo/onlink");
+  private static final Path FGDC_THUMBNAIL_URL = new Path("idinfo/browse/browsen");
+  private static final Path FGDC_WEST = new Path("idinfo/spdom/bounding/westbc");
+  private static final Path FGDC_SOUTH = new Path("idinfo/spdom/bounding/southbc");
+  private static final Path FGDC_EAST = new Path("idinfo/spdom/bounding/eastbc");
+  private static final Path FGDC_NORTH = new Path("idinfo/spdom/bounding/northbc");
+  
+  // ISO 19115, ISO 19115-2 and ISO 19119 (relative to the root element)
+  private static final Path ISO_DATA_IDENTIFICATION = new Path("gmd:identificationInfo/gmd:MD_DataIdentification");
+  private static final Path ISO_SERVICE_IDENTIFICATION = new Path("gmd:identificationInfo/srv:SV_ServiceIdentification");
+  private static final Path ISO_IDENTIFIER = new Path("gmd:fileIdentifier/gco:CharacterString");
+  private static final Path ISO_MODIFIED = new Path("gmd:dateStamp/gco:Date|gco:DateTime");
+  
+  // ISO 19115 and ISO 19115-2
+  private static final Path ISO_DATA_TITLE = new Path("gmd:identificationInfo/gmd:MD_DataIdentification/gmd:citation/gmd:CI_Citation/gmd:title/gco:CharacterString");
+  private static final Path ISO_DATA_DESCRIPTION = new Path("gmd:identificationInfo/gmd:MD_DataIdentification/gmd:abstract/gco:CharacterString");
+  private static final Path ISO_DATA_THUMBNAIL_URL = new Path("gmd:identificationInfo/gmd:MD_DataIdentification/gmd:graphicOverview/gmd:MD_BrowseGraphic/gmd:fileName/gco:CharacterString");
+  private static final Path ISO_DATA_RESOURCE_URL = new Path("gmd:distributionInfo/gmd:MD_Distribution/gmd:transferOptions/gmd:MD_DigitalTransferOptions/gmd:onLine/gmd:CI_OnlineResource/gmd:linkage/gmd:URL");
+  private static final Path ISO_DATA_WEST = new Path("gmd:identificationInfo/gmd:MD_DataIdentification/gmd:extent/gmd:EX_Extent/gmd:geographicElement/gmd:EX_GeographicBoundingBox/gmd:westBoundLongitude/gco:Decimal");
+  private static final Path ISO_DATA_SOUTH = new Path("gmd:identificationInfo/gmd:MD_DataIdentification/gmd:extent/gmd:EX_Extent/gmd:geographicElement/gmd:EX_GeographicBoundingBox/gmd:southBoundLatitude/gco:Decimal");
+  private static final Path ISO_DATA_EAST = new Path("gmd:identificationInfo/gmd:MD_DataIdentification/gmd:extent/gmd:EX_Extent/gmd:geographicElement/gmd:EX_GeographicBoundingBox/gmd:eastBoundLongitude/gco:Decimal");
+  private static final Path ISO_DATA_NORTH = new Path("gmd:identificationInfo/gmd:MD_DataIdentification/gmd:extent/gmd:EX_Extent/gmd:geographicElement/gmd:EX_GeographicBoundingBox/gmd:northBoundLatitude/gco:Decimal");
+  
+  // ISO 19119
+  private static final Path ISO_SERVICE_TITLE = new Path("gmd:identificationInfo/srv:SV_ServiceIdentification/gmd:citation/gmd:CI_Citation/gmd:title/gco:CharacterString");
+  private static final Path ISO_SERVICE_DESCRIPTION = new Path("gmd:identificationInfo/srv:SV_ServiceIdentification/gmd:abstract/gco:CharacterString");
+  private static final Path ISO_SERVICE_CONNECT_POINT = new Path("gmd:identificationInfo/srv:SV_ServiceIdentification/srv:containsOperations/srv:SV_OperationMetadata/srv:connectPoint/gmd:CI_OnlineResource/gmd:linkage/gmd:URL");
+  private static final Path ISO_SERVICE_OPERATES_ON = new Path("gmd:identificationInfo/srv:SV_ServiceIdentification/srv:operatesOn/@xlink:href");
+  private static final Path ISO_SERVICE_WEST = new Path("gmd:identificationInfo/srv:SV_ServiceIdentification/srv:extent/gmd:EX_Extent/gmd:geographicElement/gmd:EX_GeographicBoundingBox/gmd:westBoundLongitude/gco:Decimal");
+  private static final Path ISO_SERVICE_SOUTH = new Path("gmd:identificationInfo/srv:SV_ServiceIdentification/srv:extent/gmd:EX_Extent/gmd:geographicElement/gmd:EX_GeographicBoundingBox/gmd:southBoundLatitude/gco:Decimal");
+  private static final Path ISO_SERVICE_EAST = new Path("gmd:identificationInfo/srv:SV_ServiceIdentification/srv:extent/gmd:EX_Extent/gmd:geographicElement/gmd:EX_GeographicBoundingBox/gmd:eastBoundLongitude/gco:Decimal");
+  private static final Path ISO_SERVICE_NORTH = new Path("gmd:identificationInfo/srv:SV_ServiceIdentification/srv:extent/gmd:EX_Extent/gmd:geographicElement/gmd:EX_GeographicBoundingBox/gmd:northBoundLatitude/gco:Decimal");
+
+  @Override
+  public MapAttribute extract(Document doc) throws MetaException {
+    Element root = doc!=null? doc.getDocumentElement(): null;
+    if (root==null) {
+      return null;
+    }
+    String ns = root.getNamespaceURI();
+    String name = localName(root);
+    
+    if (NS_RDF.equals(ns) && "RDF".equals(name)) {
+      return DC_ABOUT.select(root)!=null? extractDc(root): null;
+    }
+    if (ns==null && "metadata".equals(name)) {
+      return FGDC_CITEINFO.select(root)!=null? extractFgdc(root): null;
+    }
+    if (NS_GMD.equals(ns) && "MD_Metadata".equals(name)) {
+      if (ISO_DATA_IDENTIFICATION.select(root)!=null) {
+        return extractIsoData(root);
+      }
+      if (ISO_SERVICE_IDENTIFICATION.select(root)!=null) {
+        return extractIsoService(root);
+      }
+      return null;
+    }
+    if (NS_GMI.equals(ns) && "MI_Metadata".equals(name)) {
+      return ISO_DATA_IDENTIFICATION.select(root)!=null? extractIsoData(root): null;
+    }
+    return null;
+  }
+  
+  private MapAttribute extractDc(Element root) {
+    Map<String, Attribute> attrs = new HashMap<>();
+    put(attrs, WKA_IDENTIFIER, value(DC_IDENTIFIER.select(root)));
+    put(attrs, WKA_TITLE, value(DC_TITLE.select(root)));
+    put(attrs, WKA_DESCRIPTION, value(DC_DESCRIPTION.select(root)));
+    put(attrs, WKA_MODIFIED, value(DC_MODIFIED.select(root)));
+    put(attrs, WKA_RESOURCE_URL, value(DC_RESOURCE_URL.select(root)));
+    put(attrs, WKA_RESOURCE_URL_SCHEME, value(DC_RESOURCE_URL_SCHEME.select(root)));
+    put(attrs, WKA_BBOX, value(DC_LOWER_CORNER.select(root)) + "," + value(DC_UPPER_CORNER.select(root)));
+    return new MapAttribute(attrs);
+  }
+  
+  private MapAttribute extractFgdc(Element root) {
+    Map<String, Attribute> attrs = new HashMap<>();
+    put(attrs, WKA_TITLE, value(FGDC_TITLE.select(root)));
+    put(attrs, WKA_DESCRIPTION, value(FGDC_DESCRIPTION.select(root)));
+    put(attrs, WKA_MODIFIED, value(FGDC_MODIFIED.select(root)));
+    put(attrs, WKA_RESOURCE_URL, value(FGDC_RESOURCE_URL.select(root)));
+    put(attrs, WKA_THUMBNAIL_URL, value(FGDC_THUMBNAIL_URL.select(root)));
+    put(attrs, WKA_BBOX, bbox(root, FGDC_WEST, FGDC_SOUTH, FGDC_EAST, FGDC_NORTH));
+    return new MapAttribute(attrs);
+  }
+  
+  private MapAttribute extractIsoData(Element root) {
+    Map<String, Attribute> attrs = new HashMap<>();
+    put(attrs, WKA_IDENTIFIER, value(ISO_IDENTIFIER.select(root)));
+    put(attrs, WKA_MODIFIED, value(ISO_MODIFIED.select(root)));
+    put(attrs, WKA_RESOURCE_URL, value(ISO_DATA_RESOURCE_URL.select(root)));
+    put(attrs, WKA_TITLE, value(ISO_DATA_TITLE.select(root)));
+    put(attrs, WKA_DESCRIPTION, value(ISO_DATA_DESCRIPTION.select(root)));
+    put(attrs, WKA_THUMBNAIL_URL, value(ISO_DATA_THUMBNAIL_URL.select(root)));
+    put(attrs, WKA_BBOX, bbox(root, ISO_DATA_WEST, ISO_DATA_SOUTH, ISO_DATA_EAST, ISO_DATA_NORTH));
+    return new MapAttribute(attrs);
+  }
+  
+  private MapAttribute extractIsoService(Element root) {
+    Map<String, Attribute> attrs = new HashMap<>();
+    put(attrs, WKA_IDENTIFIER, value(ISO_IDENTIFIER.select(root)));
+    put(attrs, WKA_MODIFIED, value(ISO_MODIFIED.select(root)));
+    put(attrs, WKA_TITLE, value(ISO_SERVICE_TITLE.select(root)));
+    put(attrs, WKA_DESCRIPTION, value(ISO_SERVICE_DESCRIPTION.select(root)));
+    String url = value(first(ISO_SERVICE_CONNECT_POINT.select(root), ISO_SERVICE_OPERATES_ON.select(root)));
+    put(attrs, WKA_RESOURCE_URL, url);
+    put(attrs, WKA_THUMBNAIL_URL, url);
+    put(attrs, WKA_BBOX, bbox(root, ISO_SERVICE_WEST, ISO_SERVICE_SOUTH, ISO_SERVICE_EAST, ISO_SERVICE_NORTH));
+    return new MapAttribute(attrs);
+  }
+  
+  /**
+   * Creates bounding box attribute value in the same format as decoding 
+   * stylesheets: "west south,east north".
+   */
+  private static String bbox(Element root, Path west, Path south, Path east, Path north) {
+    return (value(west.select(root)) + " " + value(south.select(root)) + "," + value(east.select(root)) + " " + value(north.select(root))).stripLeading();
+  }
+  
+  private static void put(Map<String, Attribute> attrs, String name, String value) {
+    attrs.put(name, new StringAttribute(value));
+  }
+  
+  /**
+   * Gets string value of the node the same way XPath does.
+   */
+  private static String value(Node node) {
+    if (node==null) {
+      return "";
+    }
+    String value = node instanceof Attr? ((Attr)node).getValue(): node.getTextContent();
+    return value!=null? value.strip(): "";
+  }
+  
+  /**
+   * Picks the node which comes first in the document order.
+   */
+  private static Node first(Node a, Node b) {
+    if (a==null || b==null) {
+      return a!=null? a: b;
+    }
+    return (a.compareDocumentPosition(b) & Node.DOCUMENT_POSITION_PRECEDING)!=0? b: a;
+  }
+  
+  private static String localName(Node node) {
+    return node.getLocalName()!=null? node.getLocalName(): node.getNodeName();
+  }
+  
+  /**
+   * Location path. A simplified XPath consisting of the child element steps
+   * optionally ending with an attribute step. Each element step might list
+   * alternative names separated by "|".
+   */
+  private static final class Path {
+    private final Step[] steps;
+    
+    public Path(String definition) {
+      String[] parts = definition.split("/");
+      steps = new Step[parts.length];
+      for (int i=0; i<parts.length; i++) {
+        steps[i] = new Step(parts[i]);
+      }
+    }
+    
+    /**
+     * Selects the first node in the document order.
+     */
+    public Node select(Element context) {
+      return select(context, 0);
+    }
+    
+    private Node select(Element context, int index) {
+      Step step = steps[index];
+      if (step.attribute) {
+        return context.getAttributeNodeNS(step.namespaces[0], step.names[0]);
+      }
+      for (Node child = context.getFirstChild(); child!=null; child = child.getNextSibling()) {
+        if (child.getNodeType()==Node.ELEMENT_NODE && step.matches(child)) {
+          Node found = index+1<steps.length? select((Element)child, index+1): child;
+          if (found!=null) {
+            return found;
+          }
+        }
+      }
+      return null;
+    }
+  }
+  
+  /**
+   * Location step.
+   */
+  private static final class Step {
+    private final boolean attribute;
+    private final String[] namespaces;
+    private final String[] names;
+    
+    public Step(String definition) {
+      attribute = definition.startsWith("@");
+      String[] alternatives = (attribute? definition.substring(1): definition).split("\\|");
+      namespaces = new String[alternatives.length];
+      names = new String[alternatives.length];
+      for (int i=0; i<alternatives.length; i++) {
+        int colon = alternatives[i].indexOf(':');
+        namespaces[i] = colon>=0? NAMESPACES.get(alternatives[i].substring(0, colon)): null;
+        names[i] = alternatives[i].substring(colon+1);
+      }
+    }
+    
+    public boolean matches(Node node) {
+      String name = localName(node);
+      for (int i=0; i<names.length; i++) {
+        if (names[i].equals(name) && Objects.equals(namespaces[i], node.getNamespaceURI())) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.meta.xml;
+
+import com.esri.geoportal.commons.meta.Attribute;
+import com.esri.geoportal.commons.meta.MapAttribute;
+import com.esri.geoportal.commons.meta.MetaAnalyzer;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import static org.junit.Assert.*;
+
+/**
+ * Simple XML meta analyzer test. Compares attributes extracted by the analyzer
+ * with attributes extracted by the stylesheet based analyzers.
+ */
+public class SimpleXmlMetaAnalyzerTest {
+  private static MetaAnalyzer dc;
+  private static MetaAnalyzer fgdc;
+  private static MetaAnalyzer iso;
+  private static MetaAnalyzer iso2;
+  private static MetaAnalyzer iso19119;
+  
+  private final MetaAnalyzer analyzer = new SimpleXmlMetaAnalyzer();
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    dc = new SimpleDcMetaAnalyzer();
+    fgdc = new SimpleFgdcMetaAnalyzer();
+    iso = new SimpleIso15115MetaAnalyzer();
+    iso2 = new SimpleIso15115_2MetaAnalyzer();
+    iso19119 = new SimpleIso15119MetaAnalyzer();
+  }
+
+  @Test
+  public void testIso() throws Exception {
+    compare(iso, "iso.xml");
+  }
+
+  @Test
+  public void testIso15115_2() throws Exception {
+    compare(iso2, "iso19115-2.xml");
+  }
+
+  @Test
+  public void testIso15119() throws Exception {
+    compare(iso19119, "iso19119.xml");
+  }
+
+  @Test
+  public void testFgdc() throws Exception {
+    compare(fgdc, "fgdc.xml");
+  }
+
+  @Test
+  public void testDc() throws Exception {
+    compare(dc, "dc.xml");
+  }
+
+  @Test
+  public void testUnrecognizedDocument() throws Exception {
+    Document doc = parse(new InputSource(new StringReader("<metadata><unknown/></metadata>")));
+    
+    assertNull(analyzer.extract(doc));
+    assertNull(fgdc.extract(doc));
+  }
+  
+  private void compare(MetaAnalyzer expectedAnalyzer, String sample) throws Exception {
+    Document doc = read(sample);
+    Map<String,String> expected = toMap(expectedAnalyzer.extract(doc));
+    Map<String,String> actual = toMap(analyzer.extract(doc));
+    
+    assertFalse(String.format("No title in: %s", sample), expected.getOrDefault("title", "").isEmpty());
+    assertEquals(sample, expected, actual);
+  }
+  
+  private static Map<String,String> toMap(MapAttribute attributes) {
+    assertNotNull(attributes);
+    Map<String,String> map = new TreeMap<>();
+    for (Map.Entry<String,Attribute> e: attributes.getNamedAttributes().entrySet()) {
+      map.put(e.getKey(), e.getValue().getValue());
+    }
+    return map;
+  }
+  
+  private static Document read(String sample) throws Exception {
+    try (InputStream input = SimpleXmlMetaAnalyzerTest.class.getResourceAsStream("/samples/" + sample)) {
+      assertNotNull(String.format("Missing sample: %s", sample), input);
+      return parse(new InputSource(input));
+    }
+  }
+  
+  private static Document parse(InputSource source) throws Exception {
+    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    return factory.newDocumentBuilder().parse(source);
+  }
+}
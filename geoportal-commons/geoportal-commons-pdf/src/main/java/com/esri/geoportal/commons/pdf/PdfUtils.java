@@ -17,6 +17,7 @@
 package com.esri.geoportal.commons.pdf;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -47,6 +48,7 @@ import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.cos.COSObject;
 import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -64,6 +66,7 @@ public class PdfUtils {
     private static final String PROJ_WKT_TEMPLATE = "PROJCS[\"${name}\", ${geo_cs}, ${projection}, ${parameters}, ${linear_unit}]";
     private static final String DEFAULT_BBOX = "-90 -180, 90 180";
     private static final int WGS84_WKID = 4326;
+    private static final long MAX_MAIN_MEMORY_BYTES = 16 * 1024 * 1024;
     
     private static final Logger LOG = LoggerFactory.getLogger(PdfUtils.class);
 
@@ -100,10 +103,28 @@ public class PdfUtils {
      * @throws java.io.IOException if error reading metadata
      */
     public static byte[] generateMetadataXML(byte[] pdfBytes, String fileName, String url, String geometryServiceUrl) throws IOException {
-        byte[] bytes = null;
+        // Read in the PDF metadata.
+        return generateMetadataXML(readMetadata(pdfBytes, fileName, geometryServiceUrl), url);
+    }
 
+    /**
+     * Generates a Dublin-Core XML string from the metadata of the PDF read from the stream.
+     * 
+     * @param pdfStream the PDF file to parse
+     * @param fileName the name of the PDF file. Used if the PDF metadata doesn't specify a title.
+     * @param url the source location of the PDF file. Used to set the XML's "resource URL".
+     * @param geometryServiceUrl url of a <a href="https://developers.arcgis.com/rest/services-reference/geometry-service.htm">geometry service</a> for reprojecting coordinates. 
+     * 
+     * @return Dublin-Core XML metadata
+     * @throws java.io.IOException if error reading metadata
+     */
+    public static byte[] generateMetadataXML(InputStream pdfStream, String fileName, String url, String geometryServiceUrl) throws IOException {
         // Read in the PDF metadata.
-        Properties metaProps = readMetadata(pdfBytes, fileName, geometryServiceUrl);
+        return generateMetadataXML(readMetadata(pdfStream, fileName, geometryServiceUrl), url);
+    }
+
+    private static byte[] generateMetadataXML(Properties metaProps, String url) throws IOException {
+        byte[] bytes = null;
 
         // Build out the XML metadata
         if (metaProps != null) {
@@ -140,10 +161,32 @@ public class PdfUtils {
      * @throws IOException on parsing error
      */
     public static Properties readMetadata(byte[] rawBytes, String defaultTitle, String geometryServiceUrl) throws IOException {
+        return readMetadata(() -> PDDocument.load(rawBytes), defaultTitle, geometryServiceUrl);
+    }
+
+    /**
+     * Reads metadata values from a PDF stream.
+     * <p>
+     * Only a limited part of the PDF is buffered in memory; the rest is 
+     * buffered in a temporary file.
+     * 
+     * @param input the PDF to read
+     * @param defaultTitle title to be used if the PDF metadata doesn't have one
+     * @param geometryServiceUrl url of a <a href="https://developers.arcgis.com/rest/services-reference/geometry-service.htm">geometry service</a> for reprojecting coordinates. 
+     * 
+     * @return metadata properties or null if the PDF cannot be read.
+     * 
+     * @throws IOException on parsing error
+     */
+    public static Properties readMetadata(InputStream input, String defaultTitle, String geometryServiceUrl) throws IOException {
+        return readMetadata(() -> PDDocument.load(input, MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES)), defaultTitle, geometryServiceUrl);
+    }
+
+    private static Properties readMetadata(DocumentLoader loader, String defaultTitle, String geometryServiceUrl) throws IOException {
         Properties ret = new Properties();
 
         // Attempt to read in the PDF file
-        try (PDDocument document = PDDocument.load(rawBytes)) {
+        try (PDDocument document = loader.load()) {
 
             // See if we can read the PDF
             if (!document.isEncrypted()) {
@@ -536,4 +579,12 @@ public class PdfUtils {
         }
       }
     }
-}
\ No newline at end of file
+
+    /**
+     * PDF document loader.
+     */
+    @FunctionalInterface
+    private interface DocumentLoader {
+        PDDocument load() throws IOException;
+    }
+}
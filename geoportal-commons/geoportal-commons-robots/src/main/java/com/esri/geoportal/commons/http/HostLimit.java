@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Esri, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.http;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Host limit.
+ * <p>
+ * Defines maximum number of concurrent requests and maximum number of requests
+ * per second for the hosts matching the pattern. Pattern may contain '*' wildcard, 
+ * for example: <code>*.arcgis.com</code>. Limits are defined as a list of entries
+ * separated by semicolon:
+ * <pre><code>
+ * pattern=concurrency[,requests per second];...
+ * </code></pre>
+ * For example:
+ * <pre><code>
+ * *.arcgis.com=4,10;localhost:8080=2;*=8
+ * </code></pre>
+ * Zero means no limit.
+ */
+public final class HostLimit {
+  private final String pattern;
+  private final Pattern regex;
+  private final int maxConcurrent;
+  private final double maxRate;
+
+  /**
+   * Creates instance of the host limit.
+   * @param pattern host pattern
+   * @param maxConcurrent maximum number of concurrent requests or 0 for no limit
+   * @param maxRate maximum number of requests per second or 0 for no limit
+   */
+  public HostLimit(String pattern, int maxConcurrent, double maxRate) {
+    this.pattern = pattern.trim().toLowerCase(Locale.ROOT);
+    this.regex = Pattern.compile(toRegex(this.pattern));
+    this.maxConcurrent = Math.max(0, maxConcurrent);
+    this.maxRate = Math.max(0, maxRate);
+  }
+
+  /**
+   * Parses host limits.
+   * @param spec limits specification
+   * @return list of host limits
+   * @throws IllegalArgumentException if invalid specification
+   */
+  public static List<HostLimit> parse(String spec) {
+    if (spec==null || spec.trim().isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<HostLimit> limits = new ArrayList<>();
+    for (String entry: spec.split("[;\\n]")) {
+      entry = entry.trim();
+      if (entry.isEmpty()) {
+        continue;
+      }
+      String[] patternValues = entry.split("=", 2);
+      if (patternValues.length!=2 || patternValues[0].trim().isEmpty()) {
+        throw new IllegalArgumentException(String.format("Invalid host limit: %s", entry));
+      }
+      String[] values = patternValues[1].split(",", 2);
+      try {
+        int maxConcurrent = Integer.parseInt(values[0].trim());
+        double maxRate = values.length>1? Double.parseDouble(values[1].trim()): 0;
+        limits.add(new HostLimit(patternValues[0], maxConcurrent, maxRate));
+      } catch (NumberFormatException ex) {
+        throw new IllegalArgumentException(String.format("Invalid host limit: %s", entry), ex);
+      }
+    }
+    return limits;
+  }
+
+  /**
+   * Checks if limit applies to the host.
+   * @param host host name optionally followed by port number
+   * @return <code>true</code> if limit applies to the host
+   */
+  public boolean matches(String host) {
+    String lowerCaseHost = host.toLowerCase(Locale.ROOT);
+    if (regex.matcher(lowerCaseHost).matches()) {
+      return true;
+    }
+    int portIdx = lowerCaseHost.lastIndexOf(':');
+    return portIdx>0 && regex.matcher(lowerCaseHost.substring(0, portIdx)).matches();
+  }
+
+  /**
+   * Gets host pattern.
+   * @return host pattern
+   */
+  public String getPattern() {
+    return pattern;
+  }
+
+  /**
+   * Gets maximum number of concurrent requests.
+   * @return maximum number of concurrent requests or 0 for no limit
+   */
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  /**
+   * Gets maximum number of requests per second.
+   * @return maximum number of requests per second or 0 for no limit
+   */
+  public double getMaxRate() {
+    return maxRate;
+  }
+
+  private static String toRegex(String pattern) {
+    StringBuilder sb = new StringBuilder();
+    String[] parts = pattern.split("\\*", -1);
+    for (int i=0; i<parts.length; i++) {
+      if (i>0) {
+        sb.append(".*");
+      }
+      sb.append(Pattern.quote(parts[i]));
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s=%d,%s", pattern, maxConcurrent, maxRate);
+  }
+}
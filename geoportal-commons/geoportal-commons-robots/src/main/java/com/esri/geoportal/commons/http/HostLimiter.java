@@ -0,0 +1,246 @@
+/*
+ * Copyright 2016 Esri, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.http;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Host limiter.
+ * <p>
+ * Registry of per host limits shared by all the HTTP clients within JVM. Each
+ * request has to acquire a permit for the host before it is sent and release
+ * it once the response is consumed. Waiting for a permit is bounded by the
+ * acquire timeout, thus a response never released, or a request nested 
+ * within another request to the same host, fails the request instead of 
+ * blocking the host forever.
+ * 
+ * @see HostLimit
+ * @see LimitedHttpClient
+ */
+public class HostLimiter {
+  private static final Logger LOG = LoggerFactory.getLogger(HostLimiter.class);
+  private static final HostLimiter instance = new HostLimiter();
+  public static final long DEFAULT_ACQUIRE_TIMEOUT = 60000;
+  
+  private volatile List<HostLimit> limits = Collections.emptyList();
+  private volatile long acquireTimeout = DEFAULT_ACQUIRE_TIMEOUT;
+  private final ConcurrentHashMap<String,HostSlot> slots = new ConcurrentHashMap<>();
+  
+  /**
+   * Gets singleton instance.
+   * @return instance (never <code>null</code>)
+   */
+  public static HostLimiter getInstance() {
+    return instance;
+  }
+  
+  /*package*/ HostLimiter() {}
+  
+  /**
+   * Sets host limits.
+   * @param limits list of host limits; first matching limit applies
+   */
+  public synchronized void configure(List<HostLimit> limits) {
+    this.limits = limits!=null? Collections.unmodifiableList(new ArrayList<>(limits)): Collections.emptyList();
+    slots.clear();
+    LOG.info(String.format("Host limits: %s", this.limits));
+  }
+  
+  /**
+   * Sets host limits.
+   * @param spec limits specification
+   * @see HostLimit#parse(java.lang.String) 
+   */
+  public void setHostLimits(String spec) {
+    configure(HostLimit.parse(spec));
+  }
+  
+  /**
+   * Gets host limits.
+   * @return list of host limits
+   */
+  public List<HostLimit> getLimits() {
+    return limits;
+  }
+  
+  /**
+   * Gets acquire timeout.
+   * @return maximum time in milliseconds to wait for a permit or 0 to wait indefinitely
+   */
+  public long getAcquireTimeout() {
+    return acquireTimeout;
+  }
+  
+  /**
+   * Sets acquire timeout.
+   * @param acquireTimeout maximum time in milliseconds to wait for a permit or 0 to wait indefinitely
+   */
+  public void setAcquireTimeout(Long acquireTimeout) {
+    this.acquireTimeout = acquireTimeout!=null && acquireTimeout>0? acquireTimeout: 0;
+  }
+  
+  /**
+   * Acquires permit for the host. Blocks until permitted by the host limit
+   * or until acquire timeout elapses.
+   * @param host host name optionally followed by port number
+   * @return permit
+   * @throws InterruptedIOException if interrupted or timed out while waiting for the permit
+   */
+  public Permit acquire(String host) throws InterruptedIOException {
+    if (host==null) {
+      return new Permit(null);
+    }
+    String key = host.toLowerCase(Locale.ROOT);
+    HostSlot slot = slots.computeIfAbsent(key, this::createSlot);
+    slot.acquire(acquireTimeout);
+    return new Permit(slot);
+  }
+  
+  /**
+   * Gets current occupancy of all the hosts accessed so far.
+   * @return list of hosts occupancy
+   */
+  public List<HostOccupancy> getOccupancy() {
+    return slots.values().stream()
+            .map(HostSlot::snapshot)
+            .sorted((a,b)->a.getHost().compareTo(b.getHost()))
+            .collect(Collectors.toList());
+  }
+  
+  private HostSlot createSlot(String host) {
+    HostLimit limit = limits.stream().filter(l->l.matches(host)).findFirst().orElse(null);
+    return new HostSlot(host, limit);
+  }
+  
+  /**
+   * Permit to access host. Has to be released exactly once; subsequent calls
+   * to {@link #release()} are ignored.
+   */
+  public static final class Permit {
+    private final HostSlot slot;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(HostSlot slot) {
+      this.slot = slot;
+    }
+    
+    /**
+     * Releases permit.
+     */
+    public void release() {
+      if (slot!=null && released.compareAndSet(false, true)) {
+        slot.release();
+      }
+    }
+  }
+  
+  /**
+   * Host slot.
+   */
+  private static final class HostSlot {
+    private final String host;
+    private final HostLimit limit;
+    private final Semaphore semaphore;
+    private final long intervalNanos;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private long nextStart = System.nanoTime();
+
+    public HostSlot(String host, HostLimit limit) {
+      this.host = host;
+      this.limit = limit;
+      this.semaphore = limit!=null && limit.getMaxConcurrent()>0? new Semaphore(limit.getMaxConcurrent(), true): null;
+      this.intervalNanos = limit!=null && limit.getMaxRate()>0? (long)(TimeUnit.SECONDS.toNanos(1)/limit.getMaxRate()): 0;
+    }
+    
+    public void acquire(long timeout) throws InterruptedIOException {
+      waiting.incrementAndGet();
+      try {
+        if (semaphore!=null) {
+          if (timeout<=0) {
+            semaphore.acquire();
+          } else if (!semaphore.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+            throw new InterruptedIOException(String.format("Timeout waiting %d ms for access to: %s", timeout, host));
+          }
+        }
+        try {
+          throttle();
+        } catch (InterruptedException ex) {
+          if (semaphore!=null) {
+            semaphore.release();
+          }
+          throw ex;
+        }
+        active.incrementAndGet();
+        requests.incrementAndGet();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException(String.format("Interrupted while waiting for access to: %s", host));
+      } finally {
+        waiting.decrementAndGet();
+      }
+    }
+    
+    public void release() {
+      active.decrementAndGet();
+      if (semaphore!=null) {
+        semaphore.release();
+      }
+    }
+    
+    private void throttle() throws InterruptedException {
+      if (intervalNanos<=0) {
+        return;
+      }
+      long delay;
+      synchronized (this) {
+        long now = System.nanoTime();
+        long start = Math.max(now, nextStart);
+        nextStart = start + intervalNanos;
+        delay = start - now;
+      }
+      if (delay>0) {
+        TimeUnit.NANOSECONDS.sleep(delay);
+      }
+    }
+    
+    public HostOccupancy snapshot() {
+      return new HostOccupancy(
+              host, 
+              limit!=null? limit.getPattern(): null, 
+              limit!=null? limit.getMaxConcurrent(): 0, 
+              limit!=null? limit.getMaxRate(): 0, 
+              active.get(), 
+              waiting.get(), 
+              requests.get()
+      );
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Esri, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.http;
+
+/**
+ * Host occupancy.
+ */
+public final class HostOccupancy {
+  private final String host;
+  private final String pattern;
+  private final int maxConcurrent;
+  private final double maxRate;
+  private final int active;
+  private final int waiting;
+  private final long requests;
+
+  /**
+   * Creates instance of the occupancy.
+   * @param host host
+   * @param pattern pattern of the applied limit or <code>null</code> if no limit
+   * @param maxConcurrent maximum number of concurrent requests or 0 for no limit
+   * @param maxRate maximum number of requests per second or 0 for no limit
+   * @param active number of requests in progress
+   * @param waiting number of requests waiting for a permit
+   * @param requests total number of requests
+   */
+  public HostOccupancy(String host, String pattern, int maxConcurrent, double maxRate, int active, int waiting, long requests) {
+    this.host = host;
+    this.pattern = pattern;
+    this.maxConcurrent = maxConcurrent;
+    this.maxRate = maxRate;
+    this.active = active;
+    this.waiting = waiting;
+    this.requests = requests;
+  }
+
+  /**
+   * Gets host.
+   * @return host
+   */
+  public String getHost() {
+    return host;
+  }
+
+  /**
+   * Gets pattern of the applied limit.
+   * @return pattern or <code>null</code> if no limit
+   */
+  public String getPattern() {
+    return pattern;
+  }
+
+  /**
+   * Gets maximum number of concurrent requests.
+   * @return maximum number of concurrent requests or 0 for no limit
+   */
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  /**
+   * Gets maximum number of requests per second.
+   * @return maximum number of requests per second or 0 for no limit
+   */
+  public double getMaxRate() {
+    return maxRate;
+  }
+
+  /**
+   * Gets number of requests in progress.
+   * @return number of requests in progress
+   */
+  public int getActive() {
+    return active;
+  }
+
+  /**
+   * Gets number of requests waiting for a permit.
+   * @return number of waiting requests
+   */
+  public int getWaiting() {
+    return waiting;
+  }
+
+  /**
+   * Gets total number of requests.
+   * @return total number of requests
+   */
+  public long getRequests() {
+    return requests;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("HOST :: %s, limit: %s, active: %d, waiting: %d, requests: %d", host, pattern, active, waiting, requests);
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 Esri, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.EofSensorInputStream;
+import org.apache.http.conn.EofSensorWatcher;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Limited http client.
+ * <p>
+ * Consults {@link HostLimiter} before each request. The permit is held until
+ * the response entity is fully consumed or the response is closed, whichever
+ * comes first. Response without a streamed entity releases the permit 
+ * immediately.
+ */
+public class LimitedHttpClient extends CloseableHttpClient {
+  private final CloseableHttpClient client;
+  private final HostLimiter limiter;
+
+  /**
+   * Creates instance of the client.
+   * @param client underlying client
+   * @param limiter host limiter
+   */
+  public LimitedHttpClient(CloseableHttpClient client, HostLimiter limiter) {
+    this.client = client;
+    this.limiter = limiter;
+  }
+
+  /**
+   * Creates instance of the client using shared host limiter.
+   * @param client underlying client
+   */
+  public LimitedHttpClient(CloseableHttpClient client) {
+    this(client, HostLimiter.getInstance());
+  }
+
+  @Override
+  public HttpParams getParams() {
+    return client.getParams();
+  }
+
+  @Override
+  public ClientConnectionManager getConnectionManager() {
+    return client.getConnectionManager();
+  }
+
+  @Override
+  protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) throws IOException, ClientProtocolException {
+    HostLimiter.Permit permit = limiter.acquire(resolveHost(target, request));
+    try {
+      CloseableHttpResponse response = client.execute(target, request, context);
+      HttpEntity entity = response.getEntity();
+      if (entity!=null && entity.isStreaming()) {
+        response.setEntity(new ReleasingEntity(entity, permit));
+      } else {
+        permit.release();
+      }
+      return releaseOnClose(response, permit);
+    } catch (IOException|RuntimeException ex) {
+      permit.release();
+      throw ex;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    client.close();
+  }
+  
+  private String resolveHost(HttpHost target, HttpRequest request) {
+    if (target!=null) {
+      return target.getPort()>=0? String.format("%s:%d", target.getHostName(), target.getPort()): target.getHostName();
+    }
+    if (request instanceof HttpUriRequest) {
+      URI uri = ((HttpUriRequest)request).getURI();
+      if (uri!=null && uri.getHost()!=null) {
+        return uri.getPort()>=0? String.format("%s:%d", uri.getHost(), uri.getPort()): uri.getHost();
+      }
+    }
+    return null;
+  }
+  
+  private static CloseableHttpResponse releaseOnClose(CloseableHttpResponse response, HostLimiter.Permit permit) {
+    return (CloseableHttpResponse)Proxy.newProxyInstance(
+            LimitedHttpClient.class.getClassLoader(), 
+            new Class<?>[]{CloseableHttpResponse.class}, 
+            (proxy, method, args) -> {
+              try {
+                return method.invoke(response, args);
+              } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+              } finally {
+                if ("close".equals(method.getName()) && method.getParameterCount()==0) {
+                  permit.release();
+                }
+              }
+            });
+  }
+  
+  /**
+   * Entity releasing permit once its content is consumed, closed or aborted.
+   */
+  private static final class ReleasingEntity extends HttpEntityWrapper {
+    private final HostLimiter.Permit permit;
+
+    public ReleasingEntity(HttpEntity wrappedEntity, HostLimiter.Permit permit) {
+      super(wrappedEntity);
+      this.permit = permit;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+      try {
+        InputStream content = super.getContent();
+        if (content==null) {
+          permit.release();
+          return null;
+        }
+        return new EofSensorInputStream(content, new EofSensorWatcher() {
+          @Override
+          public boolean eofDetected(InputStream wrapped) throws IOException {
+            permit.release();
+            return true;
+          }
+
+          @Override
+          public boolean streamClosed(InputStream wrapped) throws IOException {
+            permit.release();
+            return true;
+          }
+
+          @Override
+          public boolean streamAbort(InputStream wrapped) throws IOException {
+            permit.release();
+            return true;
+          }
+        });
+      } catch (IOException|RuntimeException ex) {
+        permit.release();
+        throw ex;
+      }
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+      try (InputStream content = getContent()) {
+        byte [] buffer = new byte[4096];
+        int length;
+        while ((length = content.read(buffer)) != -1) {
+          outStream.write(buffer, 0, length);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Esri, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.http;
+
+import java.io.InterruptedIOException;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Host limiter test.
+ */
+public class HostLimiterTest {
+
+  @Test
+  public void testParse() {
+    List<HostLimit> limits = HostLimit.parse("*.arcgis.com=4,10; localhost:5000=2 ;*=8");
+    assertEquals(3, limits.size());
+    assertEquals(4, limits.get(0).getMaxConcurrent());
+    assertEquals(10.0, limits.get(0).getMaxRate(), 0.0);
+    assertTrue(limits.get(0).matches("www.ARCGIS.com"));
+    assertTrue(limits.get(0).matches("www.arcgis.com:443"));
+    assertFalse(limits.get(0).matches("arcgis.company.org"));
+    assertTrue(limits.get(1).matches("localhost:5000"));
+    assertFalse(limits.get(1).matches("localhost:5001"));
+    assertTrue(limits.get(2).matches("any.host"));
+    assertTrue(HostLimit.parse(" ").isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseInvalid() {
+    HostLimit.parse("localhost=many");
+  }
+
+  @Test
+  public void testOccupancy() throws InterruptedIOException {
+    HostLimiter limiter = new HostLimiter();
+    limiter.setHostLimits("localhost=2");
+    
+    HostLimiter.Permit first = limiter.acquire("localhost");
+    HostLimiter.Permit second = limiter.acquire("LOCALHOST");
+    HostLimiter.Permit other = limiter.acquire("otherhost");
+    
+    List<HostOccupancy> occupancy = limiter.getOccupancy();
+    assertEquals(2, occupancy.size());
+    assertEquals("localhost", occupancy.get(0).getHost());
+    assertEquals(2, occupancy.get(0).getActive());
+    assertEquals(2, occupancy.get(0).getMaxConcurrent());
+    assertEquals(1, occupancy.get(1).getActive());
+    assertNull(occupancy.get(1).getPattern());
+    
+    first.release();
+    first.release();
+    second.release();
+    other.release();
+    assertEquals(0, limiter.getOccupancy().get(0).getActive());
+    assertEquals(2, limiter.getOccupancy().get(0).getRequests());
+  }
+
+  @Test
+  public void testConcurrencyLimit() throws Exception {
+    HostLimiter limiter = new HostLimiter();
+    limiter.setHostLimits("localhost=1");
+    
+    HostLimiter.Permit permit = limiter.acquire("localhost");
+    Thread thread = new Thread(() -> {
+      try {
+        limiter.acquire("localhost").release();
+      } catch (InterruptedIOException ex) {
+        fail(ex.getMessage());
+      }
+    });
+    thread.start();
+    thread.join(200);
+    assertTrue(thread.isAlive());
+    assertEquals(1, limiter.getOccupancy().get(0).getWaiting());
+    
+    permit.release();
+    thread.join(1000);
+    assertFalse(thread.isAlive());
+    assertEquals(0, limiter.getOccupancy().get(0).getActive());
+  }
+}
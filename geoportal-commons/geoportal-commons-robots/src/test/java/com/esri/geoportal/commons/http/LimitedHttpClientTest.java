@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 Esri, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Limited http client test.
+ */
+public class LimitedHttpClientTest {
+
+  @Test
+  public void testReleaseOnEntityConsumed() throws Exception {
+    HostLimiter limiter = createLimiter(1000);
+    LimitedHttpClient client = new LimitedHttpClient(new TestHttpClient(), limiter);
+    
+    // response never closed, but its entity is read to the end
+    CloseableHttpResponse response = client.execute(new HttpGet("http://localhost/first"));
+    assertEquals(1, limiter.getOccupancy().get(0).getActive());
+    assertEquals("http://localhost/first", EntityUtils.toString(response.getEntity()));
+    assertEquals(0, limiter.getOccupancy().get(0).getActive());
+    
+    try (CloseableHttpResponse second = client.execute(new HttpGet("http://localhost/second"))) {
+      assertEquals(200, second.getStatusLine().getStatusCode());
+    }
+    assertEquals(0, limiter.getOccupancy().get(0).getActive());
+  }
+
+  @Test
+  public void testReleaseOnClose() throws Exception {
+    HostLimiter limiter = createLimiter(1000);
+    LimitedHttpClient client = new LimitedHttpClient(new TestHttpClient(), limiter);
+    
+    CloseableHttpResponse response = client.execute(new HttpGet("http://localhost/first"));
+    response.close();
+    response.close();
+    assertEquals(0, limiter.getOccupancy().get(0).getActive());
+  }
+
+  @Test
+  public void testLeakedResponseTimesOut() throws Exception {
+    HostLimiter limiter = createLimiter(200);
+    LimitedHttpClient client = new LimitedHttpClient(new TestHttpClient(), limiter);
+    
+    // only status is read; response neither consumed nor closed
+    CloseableHttpResponse leaked = client.execute(new HttpGet("http://localhost/leaked"));
+    assertEquals(200, leaked.getStatusLine().getStatusCode());
+    
+    long start = System.currentTimeMillis();
+    try {
+      client.execute(new HttpGet("http://localhost/next"));
+      fail("Request should time out");
+    } catch (InterruptedIOException ex) {
+      assertTrue(System.currentTimeMillis() - start >= 200);
+      assertFalse(Thread.currentThread().isInterrupted());
+    }
+    assertEquals(0, limiter.getOccupancy().get(0).getWaiting());
+    
+    leaked.close();
+    client.execute(new HttpGet("http://localhost/next")).close();
+  }
+
+  @Test
+  public void testNestedRequestTimesOut() throws Exception {
+    HostLimiter limiter = createLimiter(200);
+    LimitedHttpClient client = new LimitedHttpClient(new TestHttpClient(), limiter);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    
+    Thread thread = new Thread(() -> {
+      try (CloseableHttpResponse outer = client.execute(new HttpGet("http://localhost/outer"))) {
+        try (CloseableHttpResponse inner = client.execute(new HttpGet("http://localhost/inner"))) {
+          fail("Nested request should time out");
+        }
+      } catch (Throwable ex) {
+        failure.set(ex);
+      }
+    });
+    thread.start();
+    thread.join(5000);
+    assertFalse("Nested request deadlocked", thread.isAlive());
+    assertTrue(failure.get() instanceof InterruptedIOException);
+    assertEquals(0, limiter.getOccupancy().get(0).getActive());
+  }
+
+  private static HostLimiter createLimiter(long acquireTimeout) {
+    HostLimiter limiter = new HostLimiter();
+    limiter.setHostLimits("localhost=1");
+    limiter.setAcquireTimeout(acquireTimeout);
+    return limiter;
+  }
+
+  /**
+   * Client responding with the request URI as a streamed entity.
+   */
+  private static class TestHttpClient extends CloseableHttpClient {
+
+    @Override
+    protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context) throws IOException {
+      TestHttpResponse response = new TestHttpResponse();
+      byte [] body = request.getRequestLine().getUri().getBytes("UTF-8");
+      response.setEntity(new InputStreamEntity(new ByteArrayInputStream(body), body.length));
+      return response;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public HttpParams getParams() {
+      return null;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public ClientConnectionManager getConnectionManager() {
+      return null;
+    }
+  }
+
+  /**
+   * Closeable response.
+   */
+  private static class TestHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+    public TestHttpResponse() {
+      super(HttpVersion.HTTP_1_1, 200, "OK");
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -46,6 +46,7 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.slf4j.Logger;
@@ -156,6 +157,29 @@ public class Client implements Closeable {
     }
   }
 
+  /**
+   * Fetches content data without the body. Only headers are requested.
+   *
+   * @param uri content URI
+   * @return content data without the body or <code>null</code> if server doesn't answer HEAD request
+   * @throws IOException if fetching content data fails
+   */
+  public ContentData fetchContentInfo(URI uri) throws IOException {
+    HttpHead method = new HttpHead(uri);
+    method.setConfig(DEFAULT_REQUEST_CONFIG);
+    method.setHeader("User-Agent", HttpConstants.getUserAgent());
+
+    try (CloseableHttpResponse httpResponse = httpClient.execute(method);) {
+      if (httpResponse.getStatusLine().getStatusCode() >= 400) {
+        return null;
+      }
+      Date lastModifiedDate = readLastModifiedDate(httpResponse, uri);
+      MimeType contentType = readContentType(httpResponse, uri);
+      
+      return new ContentData(lastModifiedDate, contentType);
+    }
+  }
+
   /**
    * Reads content type.
    *
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.commons.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Templates cache.
+ * <p>
+ * Process-wide cache of compiled XSLT stylesheets. Compiling a stylesheet is 
+ * far more expensive than transforming a single document, thus each distinct
+ * stylesheet is compiled once and the resulting {@link Templates}, which are
+ * thread safe, are shared by all the users. Stylesheets are identified by a
+ * digest of the stylesheet text and the parameters, or by a key chosen by the
+ * caller. Least recently used stylesheets are evicted once the capacity is
+ * exceeded. Capacity of the shared instance can be changed with the
+ * <code>geoportal.xslt.cache.capacity</code> system property.
+ */
+public final class TemplatesCache {
+  private static final Logger LOG = LoggerFactory.getLogger(TemplatesCache.class);
+  
+  public static final String CAPACITY_PROPERTY = "geoportal.xslt.cache.capacity";
+  public static final int DEFAULT_CAPACITY = 64;
+  
+  private static final TemplatesCache INSTANCE = new TemplatesCache(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+  
+  private final int capacity;
+  private final Map<String, Stylesheet> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Gets shared instance of the cache.
+   * @return shared instance
+   */
+  public static TemplatesCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Creates instance of the cache.
+   * @param capacity maximum number of stylesheets to keep or 0 to disable caching
+   */
+  public TemplatesCache(int capacity) {
+    this.capacity = Math.max(0, capacity);
+    this.cache = new LinkedHashMap<String, Stylesheet>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Stylesheet> eldest) {
+        if (size() > TemplatesCache.this.capacity) {
+          evictions.increment();
+          LOG.debug(String.format("Evicting stylesheet: %s", eldest.getKey()));
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Gets stylesheet compiled from the text.
+   * @param xslt stylesheet text
+   * @param parameters parameters to apply to each transformer or <code>null</code> if no parameters
+   * @return compiled stylesheet
+   * @throws TransformerConfigurationException if stylesheet is invalid
+   */
+  public Stylesheet getStylesheet(String xslt, Map<String, String> parameters) throws TransformerConfigurationException {
+    byte[] bytes = xslt.getBytes(StandardCharsets.UTF_8);
+    try {
+      return getStylesheet(digest(bytes, parameters), () -> new ByteArrayInputStream(bytes), parameters);
+    } catch (IOException ex) {
+      // reading from the memory never fails
+      throw new TransformerConfigurationException(ex);
+    }
+  }
+
+  /**
+   * Gets stylesheet identified by the key. Stylesheet is loaded and compiled 
+   * only if not found in the cache.
+   * @param key key uniquely identifying the stylesheet
+   * @param loader stylesheet loader
+   * @return compiled templates
+   * @throws IOException if loading stylesheet fails
+   * @throws TransformerConfigurationException if stylesheet is invalid
+   */
+  public Templates getTemplates(String key, Loader loader) throws IOException, TransformerConfigurationException {
+    return getStylesheet(key, loader, null).getTemplates();
+  }
+
+  /**
+   * Gets number of cache hits.
+   * @return number of hits
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets number of cache misses.
+   * @return number of misses
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets number of evicted stylesheets.
+   * @return number of evictions
+   */
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * Gets number of stylesheets currently in the cache.
+   * @return number of stylesheets
+   */
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  /**
+   * Gets capacity.
+   * @return maximum number of stylesheets to keep
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Removes all the stylesheets from the cache.
+   */
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("XSLT CACHE :: size: %d/%d, hits: %d, misses: %d, evictions: %d", size(), capacity, getHits(), getMisses(), getEvictions());
+  }
+
+  private Stylesheet getStylesheet(String key, Loader loader, Map<String, String> parameters) throws IOException, TransformerConfigurationException {
+    Stylesheet stylesheet;
+    synchronized (cache) {
+      stylesheet = cache.get(key);
+    }
+    if (stylesheet != null) {
+      hits.increment();
+      return stylesheet;
+    }
+    misses.increment();
+    
+    // compile outside of the lock; concurrent misses of the same stylesheet 
+    // might compile it twice, but only one copy ends up in the cache
+    Templates templates;
+    try (InputStream input = loader.load()) {
+      templates = TransformerFactory.newInstance().newTemplates(new StreamSource(input));
+    }
+    Stylesheet compiled = new Stylesheet(templates, parameters);
+    synchronized (cache) {
+      stylesheet = cache.putIfAbsent(key, compiled);
+    }
+    return stylesheet != null ? stylesheet : compiled;
+  }
+
+  private static String digest(byte[] xslt, Map<String, String> parameters) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      md.update(xslt);
+      if (parameters != null) {
+        for (Map.Entry<String, String> e : new TreeMap<>(parameters).entrySet()) {
+          md.update((byte) 0);
+          md.update(String.valueOf(e.getKey()).getBytes(StandardCharsets.UTF_8));
+          md.update((byte) '=');
+          md.update(String.valueOf(e.getValue()).getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      StringBuilder sb = new StringBuilder();
+      for (byte b : md.digest()) {
+        sb.append(String.format("%02x", b));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException ex) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Stylesheet loader.
+   */
+  @FunctionalInterface
+  public interface Loader {
+
+    /**
+     * Opens stylesheet stream.
+     * @return stylesheet stream
+     * @throws IOException if opening stream fails
+     */
+    InputStream load() throws IOException;
+  }
+
+  /**
+   * Compiled stylesheet.
+   * <p>
+   * Keeps a small pool of idle transformers, so transforming many documents 
+   * with the same stylesheet does not create a new transformer each time.
+   */
+  public static final class Stylesheet {
+    private static final int MAX_IDLE = Math.max(2, Runtime.getRuntime().availableProcessors());
+    
+    private final Templates templates;
+    private final Map<String, String> parameters;
+    private final ConcurrentLinkedQueue<Transformer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private Stylesheet(Templates templates, Map<String, String> parameters) {
+      this.templates = templates;
+      this.parameters = parameters != null ? Collections.unmodifiableMap(new LinkedHashMap<>(parameters)) : Collections.emptyMap();
+    }
+
+    /**
+     * Gets compiled templates.
+     * @return templates
+     */
+    public Templates getTemplates() {
+      return templates;
+    }
+
+    /**
+     * Creates a new transformer with all the parameters already set.
+     * @return transformer
+     * @throws TransformerConfigurationException if creating transformer fails
+     */
+    public Transformer newTransformer() throws TransformerConfigurationException {
+      Transformer transformer = templates.newTransformer();
+      parameters.forEach(transformer::setParameter);
+      return transformer;
+    }
+
+    /**
+     * Transforms source. Safe to be called by many threads at the same time.
+     * @param source source
+     * @param result result
+     * @throws TransformerException if transformation fails
+     */
+    public void transform(Source source, Result result) throws TransformerException {
+      Transformer transformer = idle.poll();
+      if (transformer != null) {
+        idleCount.decrementAndGet();
+      } else {
+        transformer = newTransformer();
+      }
+      transformer.transform(source, result);
+      recycle(transformer);
+    }
+
+    private void recycle(Transformer transformer) {
+      if (idleCount.incrementAndGet() > MAX_IDLE) {
+        idleCount.decrementAndGet();
+        return;
+      }
+      try {
+        transformer.reset();
+        parameters.forEach(transformer::setParameter);
+        idle.offer(transformer);
+      } catch (UnsupportedOperationException ex) {
+        idleCount.decrementAndGet();
+      }
+    }
+  }
+}
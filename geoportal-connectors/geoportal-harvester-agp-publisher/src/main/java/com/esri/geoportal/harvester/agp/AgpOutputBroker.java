@@ -32,6 +32,7 @@ import com.esri.geoportal.commons.meta.MetaAnalyzer;
 import com.esri.geoportal.commons.meta.MetaException;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.base.BaseProcessInstanceListener;
+import com.esri.geoportal.harvester.api.base.ParsedDocuments;
 import com.esri.geoportal.commons.meta.util.WKAConstants;
 import com.esri.geoportal.commons.pdf.PdfUtils;
 import com.esri.geoportal.commons.utils.SimpleCredentials;
@@ -59,7 +60,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -70,6 +71,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
+import com.esri.geoportal.commons.http.LimitedHttpClient;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -96,7 +98,7 @@ import org.xml.sax.SAXException;
   private CloseableHttpClient httpClient;
   private AgpClient client;
   private String token;
-  private final Set<String> existing = new HashSet<>();
+  private final Set<String> existing = ConcurrentHashMap.newKeySet();
   private volatile boolean preventCleanup;
   private final Integer sizeLimit;
 
@@ -125,11 +127,16 @@ import org.xml.sax.SAXException;
 
       byte[] content    = null;
 
-      if (ref.getContent(MimeType.APPLICATION_PDF) != null) {
-        content = PdfUtils.generateMetadataXML(ref.getContent(MimeType.APPLICATION_PDF), ref.getSourceUri().getPath(), ref.getSourceUri().toASCIIString(), geometryServiceUrl); 
+      // PDF and other documents are parsed directly from the stream
+      InputStream pdfContent = ref.openStream(MimeType.APPLICATION_PDF);
+      byte[] xmlContent = pdfContent == null? ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML): null;
+      if (pdfContent != null) {
+        try (InputStream input = pdfContent) {
+          content = PdfUtils.generateMetadataXML(input, ref.getSourceUri().getPath(), ref.getSourceUri().toASCIIString(), geometryServiceUrl); 
+        }
         
-      } else if (ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML) != null) {        	
-        content = ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML);
+      } else if (xmlContent != null) {
+        content = xmlContent;
 
       } else {       
           final MimeType [] toBeSkipped = new MimeType[]{MimeType.APPLICATION_PDF, MimeType.APPLICATION_XML, MimeType.TEXT_XML, MimeType.APPLICATION_JSON};
@@ -137,8 +144,9 @@ import org.xml.sax.SAXException;
                   .filter(t->!Arrays.stream(toBeSkipped).anyMatch(s->s==t))
                   .collect(Collectors.toSet());
           if (!types.isEmpty()) {
-            byte[]         rawContent = ref.getContent(types.toArray(new MimeType[types.size()]));
-            content = rawContent!=null ? DocUtils.generateMetadataXML(rawContent, new File(ref.getId()).getName(), sizeLimit) : null;
+            try (InputStream rawContent = ref.openStream(types.toArray(new MimeType[types.size()]))) {
+              content = rawContent!=null ? DocUtils.generateMetadataXML(rawContent, new File(ref.getId()).getName(), sizeLimit) : null;
+            }
           }
       }
         
@@ -376,17 +384,8 @@ import org.xml.sax.SAXException;
       attributes.getNamedAttributes().putAll(metaAnalyzer.extract(doc).getNamedAttributes());
     } else {
       if (ref.getContentType().contains(MimeType.APPLICATION_XML) || ref.getContentType().contains(MimeType.TEXT_XML)) {
-        String sXml = new String(ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML), "UTF-8");
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-        factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-        factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-        factory.setXIncludeAware(false);
-        factory.setExpandEntityReferences(false);
-        factory.setNamespaceAware(true);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        doc = builder.parse(new InputSource(new StringReader(sXml)));
+        // document parsed once is shared with the other destinations
+        doc = ParsedDocuments.getDocument(ref);
       } else if (content!=null) {
         String sXml = new String(content, "UTF-8");
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
@@ -402,7 +401,10 @@ import org.xml.sax.SAXException;
       }
       
       if (doc!=null) {
-        MapAttribute extractedAttributes = metaAnalyzer.extract(doc);
+        MapAttribute extractedAttributes;
+        synchronized (doc) {
+          extractedAttributes = metaAnalyzer.extract(doc);
+        }
         if (extractedAttributes!=null) {
           Map<String, Attribute> namedAttributes = extractedAttributes.getNamedAttributes();
           if (namedAttributes!=null) {
@@ -519,7 +521,7 @@ import org.xml.sax.SAXException;
   @Override
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
-    this.httpClient = HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build();
+    this.httpClient = new LimitedHttpClient(HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build());
     this.client = new AgpClient(httpClient, definition.getHostUrl(), definition.getCredentials(), definition.getMaxRedirects());
 
     if (!context.canCleanup()) {
@@ -20,11 +20,14 @@ import com.esri.geoportal.commons.csw.client.IRecord;
 import com.esri.geoportal.commons.csw.client.IRecords;
 import com.esri.geoportal.commons.csw.client.impl.Client;
 import com.esri.geoportal.commons.http.BotsHttpClient;
+import com.esri.geoportal.commons.http.LimitedHttpClient;
 import com.esri.geoportal.commons.robots.Bots;
 import com.esri.geoportal.commons.robots.BotsUtils;
 import com.esri.geoportal.harvester.api.ex.DataInputException;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
+import com.esri.geoportal.harvester.api.base.ContentStore;
+import com.esri.geoportal.harvester.api.base.LazyContent;
 import com.esri.geoportal.harvester.api.base.SimpleDataReference;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
@@ -33,7 +36,9 @@ import com.esri.geoportal.commons.utils.SimpleCredentials;
 import com.esri.geoportal.harvester.api.DataContent;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 import com.esri.geoportal.harvester.api.specs.InputConnector;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Date;
@@ -59,6 +64,7 @@ import org.slf4j.LoggerFactory;
   private int start = 1;
   private boolean noMore;
   private TaskDefinition td;
+  private ContentStore contentStore = ContentStore.DEFAULT;
 
   /**
    * Creates instance of the broker.
@@ -74,7 +80,8 @@ import org.slf4j.LoggerFactory;
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     td = context.getTask().getTaskDefinition();
-    httpclient = HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build();
+    contentStore = ContentStore.of(context);
+    httpclient = new LimitedHttpClient(HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build());
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
       client = new Client(connector.getProfilesService(), httpclient, definition.getHostUrl(), definition.getProfile(), definition.getCredentials());
     } else {
@@ -139,6 +146,40 @@ import org.slf4j.LoggerFactory;
       throw new DataInputException(this, String.format("Error reading data %s", id), ex);
     }
   }
+
+  /**
+   * Creates reference to the record. Metadata is read when accessed for the 
+   * first time, thus records rejected by filters are never read.
+   * @param id record id
+   * @param lastModified last modified date
+   * @return data reference
+   * @throws DataInputException if creating reference fails
+   */
+  private DataReference createReference(String id, Date lastModified) throws DataInputException {
+    try {
+      SimpleDataReference ref = new SimpleDataReference(getBrokerUri(), getEntityDefinition().getLabel(), id, lastModified, new URI("uuid", id, null), td.getSource().getRef(), td.getRef());
+      ref.addContext(MimeType.APPLICATION_XML, new LazyContent(() -> readMetadata(id), contentStore));
+      return ref;
+    } catch (URISyntaxException ex) {
+      throw new DataInputException(this, String.format("Error reading data %s", id), ex);
+    }
+  }
+  
+  /**
+   * Reads metadata.
+   * @param id record id
+   * @return metadata stream
+   * @throws IOException if reading metadata fails
+   */
+  private InputStream readMetadata(String id) throws IOException {
+    try {
+      return new ByteArrayInputStream(client.readMetadata(id).getBytes("UTF-8"));
+    } catch (IOException ex) {
+      throw ex;
+    } catch (Exception ex) {
+      throw new IOException(String.format("Error reading data %s", id), ex);
+    }
+  }
   
   /**
    * CSW iterator.
@@ -152,6 +193,10 @@ import org.slf4j.LoggerFactory;
      */
     public CswIterator(IteratorContext iteratorContext) {
       this.iteratorContext = iteratorContext;
+      String checkpoint = iteratorContext.getCheckpoint();
+      if (checkpoint!=null && checkpoint.matches("\\d+")) {
+        start = Math.max(1, Integer.parseInt(checkpoint));
+      }
     }
     
     
@@ -198,7 +243,12 @@ import org.slf4j.LoggerFactory;
       }
       IRecord rec = nextRecord;
       nextRecord=null;
-      return readContent(rec.getId(), rec.getLastModifiedDate());
+      return createReference(rec.getId(), rec.getLastModifiedDate());
+    }
+
+    @Override
+    public String getCheckpoint() {
+      return Integer.toString(start);
     }
   }
   
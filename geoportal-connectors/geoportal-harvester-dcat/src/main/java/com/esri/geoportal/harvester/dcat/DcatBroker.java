@@ -23,6 +23,7 @@ import com.esri.geoportal.commons.dcat.client.DcatParserAdaptor;
 import com.esri.geoportal.commons.dcat.client.dcat.DcatDistribution;
 import com.esri.geoportal.commons.dcat.client.dcat.DcatRecord;
 import com.esri.geoportal.commons.http.BotsHttpClient;
+import com.esri.geoportal.commons.http.LimitedHttpClient;
 import com.esri.geoportal.commons.meta.ArrayAttribute;
 import com.esri.geoportal.commons.meta.Attribute;
 import com.esri.geoportal.commons.meta.MapAttribute;
@@ -118,7 +119,7 @@ import org.w3c.dom.Document;
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     td = context.getTask().getTaskDefinition();
-    CloseableHttpClient http = HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build();
+    CloseableHttpClient http = new LimitedHttpClient(HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build());
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
       httpClient = http;
     } else {
@@ -32,13 +32,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -53,7 +54,7 @@ import static com.esri.geoportal.harvester.folderbig.PathUtil.splitPath;
   private final static Logger LOG = LoggerFactory.getLogger(FolderBroker.class);
   private final FolderConnector connector;
   private final FolderBrokerDefinitionAdaptor definition;
-  private final Set<String> existing = new HashSet<>();
+  private final Set<String> existing = ConcurrentHashMap.newKeySet();
   private volatile boolean preventCleanup;
   private volatile boolean splitFolders = true;
   private volatile Integer splitSize = 1000;
@@ -145,8 +146,8 @@ import static com.esri.geoportal.harvester.folderbig.PathUtil.splitPath;
           boolean created = !Files.exists(f);
 
           Files.createDirectories(f.getParent());
-          try (OutputStream output = Files.newOutputStream(f)) {
-            output.write(ref.getContent(ct));
+          try (InputStream input = ref.openStream(ct); OutputStream output = Files.newOutputStream(f)) {
+            input.transferTo(output);
             existing.remove(f.toRealPath().toString());
             //return created ? PublishingStatus.CREATED : PublishingStatus.UPDATED;
           } catch (Exception ex) {
@@ -28,6 +28,7 @@ import com.esri.geoportal.harvester.api.ex.DataProcessorException;
 import com.esri.geoportal.harvester.api.specs.OutputBroker;
 import com.esri.geoportal.harvester.api.specs.OutputConnector;
 import java.util.List;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import static com.esri.geoportal.harvester.folder.PathUtil.splitPath;
@@ -36,7 +37,7 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
@@ -51,7 +52,7 @@ import org.slf4j.LoggerFactory;
   private final static Logger LOG = LoggerFactory.getLogger(FolderBroker.class);
   private final FolderConnector connector;
   private final FolderBrokerDefinitionAdaptor definition;
-  private final Set<String> existing = new HashSet<>();
+  private final Set<String> existing = ConcurrentHashMap.newKeySet();
   private volatile boolean preventCleanup;
 
   /**
@@ -135,8 +136,8 @@ import org.slf4j.LoggerFactory;
           Path f = generateFileName(ref.getBrokerUri(), ref.getSourceUri(), ref.getId(), extension);
           boolean created = !Files.exists(f);
           Files.createDirectories(f.getParent());
-          try (OutputStream output = Files.newOutputStream(f)) {
-            output.write(ref.getContent(ct));
+          try (InputStream input = ref.openStream(ct); OutputStream output = Files.newOutputStream(f)) {
+            input.transferTo(output);
             existing.remove(f.toRealPath().toString());
             //return created ? PublishingStatus.CREATED : PublishingStatus.UPDATED;
           } catch (Exception ex) {
@@ -18,14 +18,17 @@ package com.esri.geoportal.harvester.gpt;
 import com.esri.geoportal.commons.utils.SimpleCredentials;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -37,12 +40,14 @@ import com.esri.geoportal.commons.doc.DocUtils;
 import com.esri.geoportal.commons.gpt.client.Client;
 import com.esri.geoportal.commons.gpt.client.PublishRequest;
 import com.esri.geoportal.commons.gpt.client.PublishResponse;
+import com.esri.geoportal.commons.http.LimitedHttpClient;
 import com.esri.geoportal.commons.pdf.PdfUtils;
 import com.esri.geoportal.harvester.api.DataReference;
 import com.esri.geoportal.harvester.api.base.BaseProcessInstanceListener;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.PublishingStatus;
 import com.esri.geoportal.harvester.api.ex.DataException;
+import com.esri.geoportal.harvester.api.ex.DataOutputBatchException;
 import com.esri.geoportal.harvester.api.ex.DataOutputException;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
 import com.esri.geoportal.harvester.api.specs.OutputBroker;
@@ -50,9 +55,20 @@ import com.esri.geoportal.harvester.api.specs.OutputConnector;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.LaxRedirectStrategy;
 
 /**
  * GPT broker.
+ * <p>
+ * Publishing a single record takes two requests: a query for the item published
+ * before from the same source URI, and the item itself. When the processor 
+ * publishes in batches (see its <code>p-batch</code> property), items of all
+ * the records of a batch are found with a single query, thus a batch of N 
+ * records takes N+1 requests. If the server does not support such a query, 
+ * records are published one by one.
  */
 /*package*/ class GptBroker implements OutputBroker {
 
@@ -62,9 +78,10 @@ import org.apache.commons.lang3.StringUtils;
   private final static String SBOM = generateSBOM();
   private final GptConnector connector;
   private final GptBrokerDefinitionAdaptor definition;
-  private final Set<String> existing = new HashSet<>();
+  private final Set<String> existing = ConcurrentHashMap.newKeySet();
   private Client client;
   private volatile boolean preventCleanup;
+  private volatile boolean lookupUnsupported;
   private final String geometryServiceUrl;
   private final Integer sizeLimit;
 
@@ -95,7 +112,8 @@ import org.apache.commons.lang3.StringUtils;
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     try {
-      client = new Client(definition.getHostUrl(), definition.getCredentials(), definition.getIndex(), 
+      CloseableHttpClient httpClient = new LimitedHttpClient(HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build());
+      client = new Client(httpClient, definition.getHostUrl(), definition.getCredentials(), definition.getIndex(), 
         StringUtils.defaultIfBlank(definition.getCollectionsFieldName(), DEFAULT_COLLECTIONS_FIELD_NAME));
 
       if (!context.canCleanup()) {
@@ -143,82 +161,202 @@ import org.apache.commons.lang3.StringUtils;
   @Override
   public PublishingStatus publish(DataReference ref) throws DataOutputException {
     try {
-      Object ownerObj = ref.getAttributesMap().get("owner");
-      String owner = ownerObj instanceof String ? (String) ownerObj : null;
-
-      Object uuidObj = ref.getAttributesMap().get("uuid");
-      String uuid = uuidObj instanceof UUID ? ((UUID) uuidObj).toString().replaceAll("[\\{\\}-]", "") : null;
-
-      PublishRequest data = new PublishRequest();
-      data.src_source_type_s = ref.getBrokerUri().getScheme();
-      data.src_source_uri_s = ref.getBrokerUri().toASCIIString();
-      data.src_source_name_s = ref.getBrokerName();
-      data.src_uri_s = ref.getSourceUri().toASCIIString();
-      data.src_lastupdate_dt = ref.getLastModifiedDate() != null ? fromatDate(ref.getLastModifiedDate()) : null;
-      data.sys_owner_s = owner;
-      data.sys_owner_txt = owner;
-      data.src_source_ref_s = ref.getInputBrokerRef()!=null? ref.getInputBrokerRef().replaceAll("-", ""): null;
-      data.src_task_ref_s = ref.getTaskRef()!=null? ref.getTaskRef().replaceAll("-", ""): null;
-      data.app_editor_s = definition.isEditable()? "gxe": null;
-
-      String xml = null;
-      if (definition.getAcceptXml()) {
-    	  
-        byte[] content    = null;
-        
-        if (ref.getContent(MimeType.APPLICATION_PDF) != null && definition.isTranslatePdf()) {
-        	content = PdfUtils.generateMetadataXML(ref.getContent(MimeType.APPLICATION_PDF), ref.getSourceUri().getPath(), ref.getSourceUri().toASCIIString(), geometryServiceUrl); 
-        
-        } else if (ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML) != null) {        	
-        	content = ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML);
-          
-        } else {       
-            final MimeType [] toBeSkipped = new MimeType[]{MimeType.APPLICATION_PDF, MimeType.APPLICATION_XML, MimeType.TEXT_XML, MimeType.APPLICATION_JSON};
-            Set <MimeType> types      = ref.getContentType().stream()
-                    .filter(t->!Arrays.stream(toBeSkipped).anyMatch(s->s==t))
-                    .collect(Collectors.toSet());
-            if (!types.isEmpty()) {
-              byte[]         rawContent = ref.getContent(types.toArray(new MimeType[types.size()]));
-              content = rawContent!=null ? DocUtils.generateMetadataXML(rawContent, new File(ref.getId()).getName(), sizeLimit) : null;
-            }
-        }
+      Document doc = createDocument(ref);
+      PublishResponse response = client.publish(doc.data, ref.getAttributesMap(), doc.uuid, doc.xml, doc.json, definition.getForceAdd(), definition.getCollectionsAsArray());
+      return createStatus(ref, response);
+    } catch (IOException | URISyntaxException ex) {
+      throw new DataOutputException(this, ref, String.format("Error publishing data: %s", ref), ex);
+    }
+  }
+
+  @Override
+  public boolean isBatchSupported() {
+    return definition.getBatchSize() > 1;
+  }
 
-        if (content != null) {
-          xml = new String(content, "UTF-8");
-          if (xml.startsWith(SBOM)) {
-            xml = xml.substring(1);
+  @Override
+  public List<PublishingStatus> publishBatch(List<DataReference> refs) throws DataOutputException {
+    List<PublishingStatus> statuses = new ArrayList<>(refs.size());
+    List<DataOutputException> errors = new ArrayList<>(refs.size());
+    DataReference failed = null;
+    
+    for (int start = 0; start < refs.size(); start += definition.getBatchSize()) {
+      List<DataReference> chunk = refs.subList(start, Math.min(refs.size(), start + definition.getBatchSize()));
+      Map<String, String> ids = queryIds(chunk);
+      for (DataReference ref : chunk) {
+        try {
+          statuses.add(ids != null ? publish(ref, ids) : publish(ref));
+          errors.add(null);
+        } catch (DataOutputException ex) {
+          statuses.add(null);
+          errors.add(ex);
+          if (failed == null) {
+            failed = ref;
           }
         }
       }
+    }
+    
+    if (failed != null) {
+      throw new DataOutputBatchException(this, failed, statuses, errors);
+    }
+    return statuses;
+  }
 
-      String json = null;
-      if (definition.getAcceptJson()) {
-        byte[] content = ref.getContent(MimeType.APPLICATION_JSON);
-        if (content != null) {
-          json = new String(content, "UTF-8");
-          if (json.startsWith(SBOM)) {
-            json = json.substring(1);
-          }
-        }
+  /**
+   * Publishes data as the item already published from the same source URI.
+   * @param ref data reference
+   * @param ids ids of the items by source URI; updated once a new item is created
+   * @return publishing status
+   * @throws DataOutputException if publishing data fails
+   */
+  private PublishingStatus publish(DataReference ref, Map<String, String> ids) throws DataOutputException {
+    try {
+      Document doc = createDocument(ref);
+      String id = doc.uuid != null ? doc.uuid : ids.get(doc.data.src_uri_s);
+      PublishResponse response = client.publishItem(doc.data, ref.getAttributesMap(), id, doc.xml, doc.json, definition.getCollectionsAsArray());
+      PublishingStatus status = createStatus(ref, response);
+      if (doc.uuid == null) {
+        ids.put(doc.data.src_uri_s, response.getId());
       }
+      return status;
+    } catch (IOException | URISyntaxException ex) {
+      throw new DataOutputException(this, ref, String.format("Error publishing data: %s", ref), ex);
+    }
+  }
 
-      PublishResponse response = client.publish(data, ref.getAttributesMap(), uuid, xml, json, definition.getForceAdd(), definition.getCollectionsAsArray());
-      if (response == null) {
-        throw new DataOutputException(this, ref, "No response received");
+  /**
+   * Finds items already published from the source URIs of the references.
+   * @param refs data references
+   * @return ids of the items by source URI or <code>null</code> if each record has to be looked up separately
+   */
+  private Map<String, String> queryIds(List<DataReference> refs) {
+    if (definition.getForceAdd() || lookupUnsupported) {
+      return null;
+    }
+    List<String> uris = refs.stream()
+            .filter(ref -> getUuid(ref) == null)
+            .map(ref -> ref.getSourceUri().toASCIIString())
+            .collect(Collectors.toList());
+    try {
+      return client.queryIdsBySourceUri(uris);
+    } catch (HttpResponseException ex) {
+      if (ex.getStatusCode() >= 400 && ex.getStatusCode() < 500) {
+        lookupUnsupported = true;
+        LOG.warn(String.format("Querying items by source URI not supported by %s; records will be published one by one.", definition.getHostUrl()), ex);
+      } else {
+        LOG.debug(String.format("Error querying items by source URI at %s", definition.getHostUrl()), ex);
       }
-      if (response.getError() != null) {
-        throw new DataOutputException(this, ref, response.getError().getMessage()) {
-          @Override
-          public boolean isNegligible() {
-            return true;
+      return null;
+    } catch (IOException | URISyntaxException ex) {
+      LOG.debug(String.format("Error querying items by source URI at %s", definition.getHostUrl()), ex);
+      return null;
+    }
+  }
+
+  /**
+   * Creates publishing status from the response.
+   * @param ref data reference
+   * @param response publish response
+   * @return publishing status
+   * @throws DataOutputException if response indicates an error
+   */
+  private PublishingStatus createStatus(DataReference ref, PublishResponse response) throws DataOutputException {
+    if (response == null) {
+      throw new DataOutputException(this, ref, "No response received");
+    }
+    if (response.getError() != null) {
+      throw new DataOutputException(this, ref, response.getError().getMessage()) {
+        @Override
+        public boolean isNegligible() {
+          return true;
+        }
+      };
+    }
+    existing.remove(response.getId());
+    return response.getStatus().equalsIgnoreCase("created") ? PublishingStatus.CREATED : PublishingStatus.UPDATED;
+  }
+
+  private String getUuid(DataReference ref) {
+    Object uuidObj = ref.getAttributesMap().get("uuid");
+    return uuidObj instanceof UUID ? ((UUID) uuidObj).toString().replaceAll("[\\{\\}-]", "") : null;
+  }
+
+  /**
+   * Creates document to publish.
+   * @param ref data reference
+   * @return document
+   * @throws IOException if reading content fails
+   */
+  private Document createDocument(DataReference ref) throws IOException {
+    Object ownerObj = ref.getAttributesMap().get("owner");
+    String owner = ownerObj instanceof String ? (String) ownerObj : null;
+
+    PublishRequest data = new PublishRequest();
+    data.src_source_type_s = ref.getBrokerUri().getScheme();
+    data.src_source_uri_s = ref.getBrokerUri().toASCIIString();
+    data.src_source_name_s = ref.getBrokerName();
+    data.src_uri_s = ref.getSourceUri().toASCIIString();
+    data.src_lastupdate_dt = ref.getLastModifiedDate() != null ? fromatDate(ref.getLastModifiedDate()) : null;
+    data.sys_owner_s = owner;
+    data.sys_owner_txt = owner;
+    data.src_source_ref_s = ref.getInputBrokerRef()!=null? ref.getInputBrokerRef().replaceAll("-", ""): null;
+    data.src_task_ref_s = ref.getTaskRef()!=null? ref.getTaskRef().replaceAll("-", ""): null;
+    data.app_editor_s = definition.isEditable()? "gxe": null;
+
+    String xml = null;
+    if (definition.getAcceptXml()) {
+  	  
+      byte[] content    = null;
+      
+      // PDF and other documents are parsed directly from the stream
+      InputStream pdfContent = definition.isTranslatePdf()? ref.openStream(MimeType.APPLICATION_PDF): null;
+      byte[] xmlContent = pdfContent == null? ref.getContent(MimeType.APPLICATION_XML, MimeType.TEXT_XML): null;
+      if (pdfContent != null) {
+        try (InputStream input = pdfContent) {
+          content = PdfUtils.generateMetadataXML(input, ref.getSourceUri().getPath(), ref.getSourceUri().toASCIIString(), geometryServiceUrl); 
+        }
+      
+      } else if (xmlContent != null) {
+        content = xmlContent;
+
+      } else {       
+          final MimeType [] toBeSkipped = new MimeType[]{MimeType.APPLICATION_PDF, MimeType.APPLICATION_XML, MimeType.TEXT_XML, MimeType.APPLICATION_JSON};
+          Set <MimeType> types      = ref.getContentType().stream()
+                  .filter(t->!Arrays.stream(toBeSkipped).anyMatch(s->s==t))
+                  .collect(Collectors.toSet());
+          if (!types.isEmpty()) {
+            try (InputStream rawContent = ref.openStream(types.toArray(new MimeType[types.size()]))) {
+              content = rawContent!=null ? DocUtils.generateMetadataXML(rawContent, new File(ref.getId()).getName(), sizeLimit) : null;
+            }
           }
-        };
       }
-      existing.remove(response.getId());
-      return response.getStatus().equalsIgnoreCase("created") ? PublishingStatus.CREATED : PublishingStatus.UPDATED;
-    } catch (IOException | URISyntaxException ex) {
-      throw new DataOutputException(this, ref, String.format("Error publishing data: %s", ref), ex);
+
+      if (content != null) {
+        xml = new String(content, "UTF-8");
+        if (xml.startsWith(SBOM)) {
+          xml = xml.substring(1);
+        }
+      }
     }
+
+    String json = null;
+    if (definition.getAcceptJson()) {
+      byte[] content = ref.getContent(MimeType.APPLICATION_JSON);
+      if (content != null) {
+        json = new String(content, "UTF-8");
+        if (json.startsWith(SBOM)) {
+          json = json.substring(1);
+        }
+      }
+    }
+
+    Document doc = new Document();
+    doc.data = data;
+    doc.uuid = getUuid(ref);
+    doc.xml = xml;
+    doc.json = json;
+    return doc;
   }
 
   @Override
@@ -245,4 +383,14 @@ import org.apache.commons.lang3.StringUtils;
     ZonedDateTime zonedDateTime = ZonedDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
     return FORMATTER.format(zonedDateTime);
   }
+  
+  /**
+   * Document to publish.
+   */
+  private static class Document {
+    private PublishRequest data;
+    private String uuid;
+    private String xml;
+    private String json;
+  }
 }
@@ -32,6 +32,7 @@ import org.apache.commons.lang3.StringUtils;
  * GPT broker definition adaptor.
  */
 /*package*/ class GptBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
+  public static final int DEFAULT_BATCH_SIZE = 100;
 
   private final CredentialsDefinitionAdaptor credAdaptor;
   private URL hostUrl;
@@ -44,6 +45,7 @@ import org.apache.commons.lang3.StringUtils;
   private boolean editable = false;
   private String collections = "";
   private String collectionsFieldName = "";
+  private int batchSize = DEFAULT_BATCH_SIZE;
 
   /**
    * Creates instance of the adaptor.
@@ -78,6 +80,17 @@ import org.apache.commons.lang3.StringUtils;
       editable = BooleanUtils.toBooleanDefaultIfNull(BooleanUtils.toBooleanObject(get(P_EDITABLE)), false);
       collections = StringUtils.defaultIfBlank(get(P_COLLECTIONS), "");
       collectionsFieldName = StringUtils.defaultIfBlank(get(P_COLLECTIONS_FLD), "");
+      String sBatchSize = StringUtils.trimToEmpty(get(P_BATCH_SIZE));
+      if (!sBatchSize.isEmpty()) {
+        try {
+          batchSize = Integer.parseInt(sBatchSize);
+        } catch (NumberFormatException ex) {
+          throw new InvalidDefinitionException(String.format("Invalid %s: %s", P_BATCH_SIZE, sBatchSize), ex);
+        }
+        if (batchSize <= 0) {
+          throw new InvalidDefinitionException(String.format("Invalid %s: %s", P_BATCH_SIZE, sBatchSize));
+        }
+      }
     }
   }
 
@@ -93,6 +106,7 @@ import org.apache.commons.lang3.StringUtils;
     consume(params,P_EDITABLE);
     consume(params,P_COLLECTIONS);
     consume(params,P_COLLECTIONS_FLD);
+    consume(params,P_BATCH_SIZE);
     credAdaptor.override(params);
   }
 
@@ -273,4 +287,21 @@ import org.apache.commons.lang3.StringUtils;
     this.collectionsFieldName = StringUtils.defaultIfBlank(collectionsFieldName, "");
     set(P_COLLECTIONS_FLD, StringUtils.defaultIfBlank(collectionsFieldName, ""));
   }
+
+  /**
+   * Gets maximum number of records looked up with a single query.
+   * @return batch size; 1 to publish records one by one
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Sets maximum number of records looked up with a single query.
+   * @param batchSize batch size; 1 to publish records one by one
+   */
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+    set(P_BATCH_SIZE, Integer.toString(batchSize));
+  }
 }
@@ -88,6 +88,12 @@ public class GptConnector implements OutputConnector<OutputBroker> {
         return String.format(bundle.getString("gpt.collections.fld.hint"), GptBroker.DEFAULT_COLLECTIONS_FIELD_NAME);
       }
     });
+    arguments.add(new UITemplate.IntegerArgument(P_BATCH_SIZE, bundle.getString("gpt.batch.size"), false, GptBrokerDefinitionAdaptor.DEFAULT_BATCH_SIZE) {
+      @Override
+      public String getHint() {
+        return bundle.getString("gpt.batch.size.hint");
+      }
+    });
     return new UITemplate(getType(), bundle.getString("gpt"), arguments);
   }
 
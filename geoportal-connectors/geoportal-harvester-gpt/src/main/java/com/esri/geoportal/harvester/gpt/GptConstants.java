@@ -29,4 +29,5 @@ package com.esri.geoportal.harvester.gpt;
   public static final String P_EDITABLE        = "gpt-editable";
   public static final String P_COLLECTIONS     = "gpt-collections";
   public static final String P_COLLECTIONS_FLD = "gpt-collections-fld";
+  public static final String P_BATCH_SIZE      = "gpt-batch-size";
 }
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.gpt;
+
+import static com.esri.geoportal.commons.constants.CredentialsConstants.*;
+import static com.esri.geoportal.harvester.gpt.GptConstants.*;
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.base.SimpleDataReference;
+import com.esri.geoportal.harvester.api.base.SimpleInitContext;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * GPT broker test.
+ */
+public class GptBrokerTest {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  static {
+    // otherwise each small response is delayed by the TCP acknowledgment
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+  
+  private HttpServer server;
+  private final Map<String,String> items = new ConcurrentHashMap<>();
+  private final AtomicInteger lookups = new AtomicInteger();
+  private final AtomicInteger searches = new AtomicInteger();
+  private final AtomicInteger puts = new AtomicInteger();
+  private volatile String lookupResponse;
+  
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/gpt/", this::handle);
+    server.start();
+  }
+  
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testRecordsPublishedOneByOne() throws Exception {
+    OutputBroker broker = createBroker();
+    try {
+      for (DataReference ref: createRefs(0, 10)) {
+        assertEquals(PublishingStatus.CREATED, broker.publish(ref));
+      }
+    } finally {
+      broker.terminate();
+    }
+    
+    // each record is looked up before being published
+    assertEquals(10, searches.get());
+    assertEquals(10, puts.get());
+  }
+
+  @Test
+  public void testBatchLookedUpWithSingleQuery() throws Exception {
+    OutputBroker broker = createBroker();
+    try {
+      assertTrue(broker.isBatchSupported());
+      assertEquals(Collections.nCopies(100, PublishingStatus.CREATED), broker.publishBatch(createRefs(0, 100)));
+      assertEquals(1, lookups.get());
+      assertEquals(0, searches.get());
+      assertEquals(100, puts.get());
+      
+      assertEquals(Collections.nCopies(100, PublishingStatus.UPDATED), broker.publishBatch(createRefs(0, 100)));
+      assertEquals(2, lookups.get());
+      assertEquals(0, searches.get());
+      assertEquals(200, puts.get());
+      assertEquals(100, items.size());
+    } finally {
+      broker.terminate();
+    }
+  }
+
+  @Test
+  public void testBatchLargerThanBatchSize() throws Exception {
+    OutputBroker broker = createBroker(P_BATCH_SIZE, "40");
+    try {
+      assertEquals(Collections.nCopies(100, PublishingStatus.CREATED), broker.publishBatch(createRefs(0, 100)));
+    } finally {
+      broker.terminate();
+    }
+    
+    assertEquals(3, lookups.get());
+    assertEquals(100, puts.get());
+  }
+
+  @Test
+  public void testSameSourceUriWithinBatch() throws Exception {
+    OutputBroker broker = createBroker();
+    try {
+      List<DataReference> refs = new ArrayList<>(createRefs(0, 1));
+      refs.addAll(createRefs(0, 1));
+      assertEquals(Arrays.asList(PublishingStatus.CREATED, PublishingStatus.UPDATED), broker.publishBatch(refs));
+    } finally {
+      broker.terminate();
+    }
+    
+    assertEquals(1, items.size());
+  }
+
+  @Test
+  public void testLookupRejected() throws Exception {
+    lookupResponse = "{\"error\":{\"type\":\"parsing_exception\"},\"status\":400}";
+    OutputBroker broker = createBroker();
+    try {
+      broker.publishBatch(createRefs(0, 10));
+      assertEquals(Collections.nCopies(10, PublishingStatus.UPDATED), broker.publishBatch(createRefs(0, 10)));
+    } finally {
+      broker.terminate();
+    }
+    
+    // lookup is not attempted again once rejected
+    assertEquals(1, lookups.get());
+    assertEquals(20, searches.get());
+    assertEquals(10, items.size());
+  }
+
+  @Test
+  public void testLookupWithoutHits() throws Exception {
+    OutputBroker broker = createBroker();
+    try {
+      broker.publishBatch(createRefs(0, 10));
+      lookupResponse = "{\"error\":\"Forbidden\"}";
+      assertEquals(Collections.nCopies(10, PublishingStatus.UPDATED), broker.publishBatch(createRefs(0, 10)));
+    } finally {
+      broker.terminate();
+    }
+    
+    // response without hits doesn't tell that items don't exist
+    assertEquals(10, items.size());
+  }
+  
+  private OutputBroker createBroker(String...properties) throws Exception {
+    EntityDefinition definition = new EntityDefinition();
+    definition.setType(GptConnector.TYPE);
+    definition.getProperties().put(P_HOST_URL, String.format("http://localhost:%d/gpt/", server.getAddress().getPort()));
+    definition.getProperties().put(P_CRED_USERNAME, "user");
+    definition.getProperties().put(P_CRED_PASSWORD, "pass");
+    for (int i=0; i+1<properties.length; i+=2) {
+      definition.getProperties().put(properties[i], properties[i+1]);
+    }
+    OutputBroker broker = new GptConnector(null).createBroker(definition);
+    broker.initialize(new SimpleInitContext(null, new ArrayList<>()));
+    return broker;
+  }
+  
+  private List<DataReference> createRefs(int from, int to) {
+    List<DataReference> refs = new ArrayList<>();
+    for (int i=from; i<to; i++) {
+      SimpleDataReference ref = new SimpleDataReference(URI.create("test:src"), "test", Integer.toString(i), new Date(), URI.create("test:" + i), null, null);
+      ref.addContext(MimeType.APPLICATION_XML, String.format("<record>%d</record>", i).getBytes(StandardCharsets.UTF_8));
+      refs.add(ref);
+    }
+    return refs;
+  }
+  
+  /**
+   * Handles requests as Geoportal storing items in memory.
+   * @param exchange exchange
+   * @throws IOException if handling request fails
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    byte[] body = IOUtils.toByteArray(exchange.getRequestBody());
+    String response;
+    if (path.endsWith("/oauth/token")) {
+      response = "{\"access_token\":\"token\",\"token_type\":\"bearer\",\"expires_in\":3600}";
+    } else if (path.endsWith("/_search")) {
+      JsonNode query = MAPPER.readTree(body).path("query");
+      List<String> uris = new ArrayList<>();
+      if (query.has("terms")) {
+        lookups.incrementAndGet();
+        if (lookupResponse!=null) {
+          send(exchange, 400, lookupResponse);
+          return;
+        }
+        query.path("terms").path("src_uri_s").forEach(uri -> uris.add(uri.asText()));
+      } else {
+        searches.incrementAndGet();
+        uris.add(query.path("match").path("src_uri_s").asText());
+      }
+      ObjectNode result = MAPPER.createObjectNode();
+      ArrayNode hits = result.putObject("hits").putArray("hits");
+      for (String uri: uris) {
+        String id = items.get(uri);
+        if (id!=null) {
+          ObjectNode hit = hits.addObject();
+          hit.put("_id", id);
+          hit.putObject("_source").put("src_uri_s", uri);
+        }
+      }
+      response = MAPPER.writeValueAsString(result);
+    } else if (exchange.getRequestMethod().equals("PUT")) {
+      puts.incrementAndGet();
+      String id = path.replaceAll("^.*/rest/metadata/item/?", "");
+      String status = !id.isEmpty()? "updated": "created";
+      if (id.isEmpty()) {
+        id = Integer.toString(items.size() + 1);
+      }
+      items.put(MAPPER.readTree(body).path("src_uri_s").asText(), id);
+      response = String.format("{\"id\":\"%s\",\"status\":\"%s\"}", id, status);
+    } else {
+      response = "{}";
+    }
+    send(exchange, 200, response);
+  }
+  
+  private void send(HttpExchange exchange, int status, String response) throws IOException {
+    byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+}
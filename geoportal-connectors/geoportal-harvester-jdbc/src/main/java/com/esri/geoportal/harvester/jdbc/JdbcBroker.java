@@ -19,6 +19,8 @@ import com.esri.geoportal.commons.constants.MimeType;
 import com.esri.geoportal.commons.utils.SimpleCredentials;
 import com.esri.geoportal.harvester.api.DataContent;
 import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.base.Content;
+import com.esri.geoportal.harvester.api.base.ContentStore;
 import com.esri.geoportal.harvester.api.base.SimpleDataReference;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
@@ -27,17 +29,20 @@ import com.esri.geoportal.harvester.api.ex.DataProcessorException;
 import com.esri.geoportal.harvester.api.specs.InputBroker;
 import com.esri.geoportal.harvester.api.specs.InputConnector;
 import com.esri.geoportal.harvester.jdbc.ScriptProcessor.Data;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.io.Reader;
-import java.io.UnsupportedEncodingException;
+import java.io.SequenceInputStream;
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Connection;
@@ -46,6 +51,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.time.DateTimeException;
 import java.time.ZoneId;
@@ -55,16 +61,26 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.script.ScriptException;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.ReaderInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
@@ -72,6 +88,27 @@ import org.slf4j.LoggerFactory;
 
 /**
  * JDBC broker.
+ * <p>
+ * If modified column is defined, incremental harvest reads only rows with the
+ * value of that column greater than or equal to the greatest value seen by the 
+ * previous harvest, which is kept as the watermark. Rows modified at the very
+ * same time as the watermark are read again, since there may be more of them
+ * than the previous harvest has seen. Rows committed by a long transaction may
+ * be stamped with time earlier than the watermark, thus temporal watermark can
+ * be lowered by the overlap window. Rows read again are published once again 
+ * under the same id, so they update the records already published and, if 
+ * unchanged, are skipped by the incremental harvest. The wider window the 
+ * fewer rows missed, but the more rows read again by every harvest.
+ * <p>
+ * If more than one partition is defined, data is split into partitions either 
+ * by ranges of the numeric partition column, or by the remainder of dividing 
+ * partition expression by the number of partitions. Each partition is read
+ * on its own connection by a separate thread.
+ * <p>
+ * Unless disabled, rows are streamed through a forward-only, read-only cursor
+ * fetching a limited number of rows at once, and the XML column is copied 
+ * straight into the content store, thus memory use does not depend on the
+ * size of the table.
  */
 /*package*/class JdbcBroker implements InputBroker {
   private static final Logger LOG = LoggerFactory.getLogger(JdbcBroker.class);
@@ -79,6 +116,10 @@ import org.slf4j.LoggerFactory;
   private static final String KVP_SPLIT_CHARS = "=|:";
   private static final String KEYWORDS_SPLIT_REGEX = "[,;|]";
   private static final Pattern BRACKETS_PATTERN;
+  private static final int QUEUE_CAPACITY_PER_PARTITION = 16;
+  private static final long PROGRESS_INTERVAL = 10000;
+  private static final String XML_PROLOG = "<?xml";
+  private static final byte[] XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>".getBytes(StandardCharsets.UTF_8);
   
   static {
     BRACKETS_PATTERN = Pattern.compile(String.format("\\[[^]]*\\](?=\\s*[%s])", KVP_SPLIT_CHARS));
@@ -89,6 +130,7 @@ import org.slf4j.LoggerFactory;
   private Connection connection;
   private PreparedStatement statement;
   private PreparedStatement idStatement;
+  private PreparedStatement watermarkStatement;
   private ResultSet resultSet;
   private final List<JsonPropertyInjector> jsonPropertyInjectors = new ArrayList<>();
   private final List<AttributeInjector> attributeInjectors = new ArrayList<>();
@@ -97,6 +139,10 @@ import org.slf4j.LoggerFactory;
   private RecordIdSetter idSetter;
   private TaskDefinition td;
   private ScriptProcessor scriptProcessor;
+  private JdbcWatermark watermark;
+  private String partitionColumn;
+  private PartitionedIterator partitionedIterator;
+  private ContentStore contentStore = ContentStore.DEFAULT;
   
   private static class AttributeName {
     public final String name;
@@ -139,6 +185,7 @@ import org.slf4j.LoggerFactory;
   @Override
   public void initialize(InitContext context) throws DataProcessorException {
     td = context.getTask().getTaskDefinition();
+    contentStore = ContentStore.of(context);
     parseColumnNames();
     createConnection();
     createStatement();
@@ -146,11 +193,18 @@ import org.slf4j.LoggerFactory;
     createJsonPropertyInjectors();
     createAttributeInjectors();
     createRecordIdSetter();
+    createWatermark();
+    createPartitionColumn();
     createScriptEngine();
   }
 
   @Override
   public void terminate() {
+    if (partitionedIterator != null) {
+      partitionedIterator.close();
+      partitionedIterator = null;
+    }
+    
     try {
       if (resultSet != null) {
         resultSet.close();
@@ -174,9 +228,18 @@ import org.slf4j.LoggerFactory;
     } catch (SQLException ex) {
       LOG.warn(String.format("Unexpected error closing statement."), ex);
     }
+
+    try {
+      if (watermarkStatement != null) {
+        watermarkStatement.close();
+      }
+    } catch (SQLException ex) {
+      LOG.warn(String.format("Unexpected error closing statement."), ex);
+    }
     
     try {
       if (connection!=null && !connection.isClosed()) {
+        rollback(connection);
         connection.close();
       }
     } catch (SQLException ex) {
@@ -189,7 +252,18 @@ import org.slf4j.LoggerFactory;
 
   @Override
   public Iterator iterator(IteratorContext iteratorContext) throws DataInputException {
-    return new JdbcIterator(iteratorContext);
+    Comparable since = watermark != null? parseWatermark(iteratorContext.getWatermark()): null;
+    if (definition.getPartitions() > 1) {
+      if (partitionedIterator != null) {
+        partitionedIterator.close();
+      }
+      partitionedIterator = new PartitionedIterator(createPartitions(), since);
+      return partitionedIterator.start();
+    }
+    if (watermark != null) {
+      selectModifiedSince(since);
+    }
+    return new JdbcIterator(iteratorContext, since);
   }
 
   @Override
@@ -204,7 +278,7 @@ import org.slf4j.LoggerFactory;
         }
       }
       return null;
-    } catch (SQLException|JsonProcessingException|URISyntaxException|ScriptException|UnsupportedEncodingException ex) {
+    } catch (SQLException|IOException|URISyntaxException|ScriptException ex) {
       throw new DataInputException(this, String.format("Error reading content for: %s", id), ex);
     }
   }
@@ -235,7 +309,7 @@ import org.slf4j.LoggerFactory;
   private void createConnection() throws DataProcessorException {
     try {
       Class.forName(definition.getDriverClass());
-      connection = DriverManager.getConnection(definition.getConnection(), definition.getCredentials().getUserName(), definition.getCredentials().getPassword());
+      connection = openConnection();
     } catch (ClassNotFoundException ex) {
       throw new DataProcessorException(String.format("Error loading JDBC driver class: %s", definition.getDriverClass()), ex);
     } catch (SQLException ex) {
@@ -243,15 +317,63 @@ import org.slf4j.LoggerFactory;
     }
   }
   
+  private Connection openConnection() throws SQLException {
+    Connection conn = DriverManager.getConnection(definition.getConnection(), definition.getCredentials().getUserName(), definition.getCredentials().getPassword());
+    if (definition.isStreaming()) {
+      try {
+        // some drivers (PostgreSQL) fetch rows through a cursor only within a transaction
+        conn.setAutoCommit(false);
+      } catch (SQLException ex) {
+        conn.close();
+        throw ex;
+      }
+    }
+    return conn;
+  }
+  
+  private void rollback(Connection conn) {
+    try {
+      if (!conn.getAutoCommit()) {
+        conn.rollback();
+      }
+    } catch (SQLException ex) {
+      LOG.debug(String.format("Unexpected error ending transaction on: %s", definition.getConnection()), ex);
+    }
+  }
+  
+  private PreparedStatement prepareStatement(Connection conn, String sql) throws SQLException {
+    PreparedStatement st = definition.isStreaming()
+            ? conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+            : conn.prepareStatement(sql);
+    st.setFetchSize(definition.getFetchSize());
+    return st;
+  }
+  
+  private boolean isTableName() {
+    return definition.getSqlStatement().split("\\p{Space}").length == 1;
+  }
+  
+  private String from() {
+    return isTableName()
+            ? definition.getSqlStatement()
+            : String.format("(%s) AS data", definition.getSqlStatement());
+  }
+  
+  private String select(String condition) {
+    return String.format("SELECT * FROM %s WHERE %s", from(), condition);
+  }
+  
   private void createStatement() throws DataProcessorException {
     try {
-      statement = definition.getSqlStatement().split("\\p{Space}").length == 1 
-              ? connection.prepareStatement(String.format("SELECT * FROM %s", definition.getSqlStatement())) 
-              : connection.prepareStatement(definition.getSqlStatement());
+      statement = isTableName()
+              ? prepareStatement(connection, String.format("SELECT * FROM %s", definition.getSqlStatement())) 
+              : prepareStatement(connection, definition.getSqlStatement());
+      
+      idStatement = prepareStatement(connection, select(String.format("%s = ?", definition.getFileIdColumn())));
       
-      idStatement = definition.getSqlStatement().split("\\p{Space}").length == 1 
-              ? connection.prepareStatement(String.format("SELECT * FROM %s WHERE %s = ?", definition.getSqlStatement(), definition.getFileIdColumn())) 
-              : connection.prepareStatement(String.format("SELECT * FROM (%s) AS data WHERE %s = ?", definition.getSqlStatement(), definition.getFileIdColumn()));
+      if (!StringUtils.isBlank(definition.getModifiedColumn())) {
+        watermarkStatement = prepareStatement(connection, select(String.format("%s >= ?", definition.getModifiedColumn())));
+      }
     } catch (SQLException ex) {
       throw new DataProcessorException(String.format("Error opening JDBC connection to: %s", definition.getConnection()), ex);
     }
@@ -259,12 +381,153 @@ import org.slf4j.LoggerFactory;
   
   private void createResultSet() throws DataProcessorException {
     try {
-      resultSet = statement.executeQuery();
+      if (watermarkStatement == null && definition.getPartitions() <= 1) {
+        resultSet = statement.executeQuery();
+      } else {
+        // rows will be selected once the watermark is known; only columns are needed now
+        resultSet = connection.prepareStatement(select("1=0")).executeQuery();
+      }
     } catch (SQLException ex) {
       throw new DataProcessorException(String.format("Error opening JDBC connection to: %s", definition.getConnection()), ex);
     }
   }
   
+  private void createWatermark() throws DataProcessorException {
+    if (watermarkStatement == null) {
+      return;
+    }
+    try {
+      ResultSetMetaData metaData = resultSet.getMetaData();
+      for (int i=1; i<= metaData.getColumnCount(); i++) {
+        if (metaData.getColumnName(i).equalsIgnoreCase(definition.getModifiedColumn())) {
+          watermark = new JdbcWatermark(metaData.getColumnName(i), metaData.getColumnType(i));
+          break;
+        }
+      }
+    } catch (SQLException ex) {
+      throw new DataProcessorException(String.format("Error opening JDBC connection to: %s", definition.getConnection()), ex);
+    }
+    if (watermark == null) {
+      throw new DataProcessorException(String.format("Modified column not found: %s", definition.getModifiedColumn()));
+    }
+  }
+  
+  private void createPartitionColumn() throws DataProcessorException {
+    if (definition.getPartitions() <= 1) {
+      return;
+    }
+    try {
+      ResultSetMetaData metaData = resultSet.getMetaData();
+      for (int i=1; i<= metaData.getColumnCount(); i++) {
+        if (metaData.getColumnName(i).equalsIgnoreCase(definition.getPartitionExpression())) {
+          switch (metaData.getColumnType(i)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+              partitionColumn = metaData.getColumnName(i);
+              break;
+            default:
+              throw new DataProcessorException(String.format("Partition column is not numeric: %s; use integer expression instead.", metaData.getColumnName(i)));
+          }
+          break;
+        }
+      }
+    } catch (SQLException ex) {
+      throw new DataProcessorException(String.format("Error opening JDBC connection to: %s", definition.getConnection()), ex);
+    }
+  }
+  
+  /**
+   * Creates conditions selecting each partition. Ranges of the partition column
+   * are calculated from its current minimum and maximum; the first and the last
+   * range are open, so rows added meanwhile are not missed.
+   * @return list of conditions
+   * @throws DataInputException if calculating ranges fails
+   */
+  private List<String> createPartitions() throws DataInputException {
+    int count = definition.getPartitions();
+    String expression = definition.getPartitionExpression();
+    List<String> conditions = new ArrayList<>();
+    
+    if (partitionColumn == null) {
+      for (int i=0; i<count; i++) {
+        String condition = String.format("ABS(MOD(%s, %d)) = %d", expression, count, i);
+        conditions.add(i==0? String.format("(%s OR %s IS NULL)", condition, expression): condition);
+      }
+      return conditions;
+    }
+    
+    BigDecimal min, max;
+    try (PreparedStatement st = connection.prepareStatement(String.format("SELECT MIN(%s), MAX(%s) FROM %s", partitionColumn, partitionColumn, from()));
+         ResultSet rs = st.executeQuery();) {
+      rs.next();
+      min = rs.getBigDecimal(1);
+      max = rs.getBigDecimal(2);
+    } catch (SQLException ex) {
+      throw new DataInputException(this, String.format("Error calculating partitions of: %s", definition.getConnection()), ex);
+    }
+    if (min == null || max == null) {
+      conditions.add("1=1");
+      return conditions;
+    }
+    
+    List<BigDecimal> bounds = new ArrayList<>();
+    BigDecimal span = max.subtract(min);
+    for (int i=1; i<count; i++) {
+      bounds.add(min.add(span.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64)));
+    }
+    for (int i=0; i<count; i++) {
+      String lower = i > 0? String.format("%s >= %s", partitionColumn, bounds.get(i-1).toPlainString()): null;
+      String upper = i < count-1? String.format("%s < %s", partitionColumn, bounds.get(i).toPlainString()): null;
+      if (lower == null) {
+        conditions.add(String.format("(%s OR %s IS NULL)", upper, partitionColumn));
+      } else if (upper == null) {
+        conditions.add(lower);
+      } else {
+        conditions.add(String.format("%s AND %s", lower, upper));
+      }
+    }
+    return conditions;
+  }
+  
+  private Comparable parseWatermark(String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return watermark.parse(value);
+    } catch (IllegalArgumentException ex) {
+      LOG.warn(String.format("Invalid watermark %s of %s; harvesting all the data.", value, watermark), ex);
+      return null;
+    }
+  }
+  
+  private void selectModifiedSince(Comparable since) throws DataInputException {
+    try {
+      Statement probe = resultSet.getStatement();
+      resultSet.close();
+      if (probe != null) {
+        probe.close();
+      }
+      if (since != null) {
+        Comparable from = watermark.lower(since, definition.getModifiedOverlap());
+        LOG.info(String.format("Harvesting data with %s greater than or equal to: %s", watermark.getColumnName(), watermark.format(from)));
+        watermark.bind(watermarkStatement, 1, from);
+        resultSet = watermarkStatement.executeQuery();
+      } else {
+        resultSet = statement.executeQuery();
+      }
+    } catch (SQLException ex) {
+      throw new DataInputException(this, String.format("Error selecting data from: %s", definition.getConnection()), ex);
+    }
+  }
+  
   private <T> T readValue(ResultSet r, String columnName, Class<T> clazz) throws SQLException {
     switch (clazz.getSimpleName()) {
       case "String":
@@ -563,7 +826,7 @@ import org.slf4j.LoggerFactory;
                       }
                     }
                   } else {
-                    x.xml = readValue(r, columnName, String.class);
+                    x.set(storeXml(r.getCharacterStream(columnName)));
                   }
                 }));
         break;
@@ -621,7 +884,7 @@ import org.slf4j.LoggerFactory;
                   if (!name.name.endsWith("_xml")) {
                     a.put(name.name, formatClob(r.getClob(columnName))); 
                   } else {
-                    x.xml = formatClob(r.getClob(columnName));
+                    x.set(storeXml(r.getCharacterStream(columnName)));
                   }
                 }));
         break;
@@ -633,6 +896,8 @@ import org.slf4j.LoggerFactory;
         if (columnMappings.containsKey(norm(columnName)) && columnMappings.get(norm(columnName)).endsWith("_txt")) {
           createAttributeNames("src_%s_txt", norm(columnName)).forEach(
               name -> injectors.add((a,x,r)->a.put(name.name, formatBlob(r.getBlob(columnName)))));
+        } else if (columnMappings.containsKey(norm(columnName)) && columnMappings.get(norm(columnName)).endsWith("_xml")) {
+          injectors.add((a,x,r)->x.set(storeXml(r.getBinaryStream(columnName))));
         }
         break;
     }
@@ -701,7 +966,11 @@ import org.slf4j.LoggerFactory;
   
   private void createScriptEngine() throws DataProcessorException {
     if (!StringUtils.isBlank(definition.getScript())) {
-      scriptProcessor = new ScriptProcessor(definition.getScript());
+      try {
+        scriptProcessor = new ScriptProcessor(definition.getScript());
+      } catch (ScriptException ex) {
+        throw new DataProcessorException(String.format("Error compiling script: %s", ex.getMessage()), ex);
+      }
     }
   }
   
@@ -744,18 +1013,49 @@ import org.slf4j.LoggerFactory;
     }
   }
   
-  private String sanitizeXml(String xml) {
-    xml = StringUtils.trimToEmpty(xml);
-    if (!xml.startsWith("<?xml")) {
-      xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>" + xml;
+  private Content storeXml(Reader reader) throws IOException {
+    return reader!=null? storeXml(new ReaderInputStream(reader, StandardCharsets.UTF_8)): null;
+  }
+  
+  /**
+   * Copies XML into the content store. Leading white spaces are skipped and
+   * XML declaration is added if missing.
+   * @param input XML stream or <code>null</code>
+   * @return content or <code>null</code> if no stream
+   * @throws IOException if reading or storing XML fails
+   */
+  private Content storeXml(InputStream input) throws IOException {
+    if (input==null) return null;
+    try (PushbackInputStream in = new PushbackInputStream(input, XML_PROLOG.length())) {
+      int b;
+      do {
+        b = in.read();
+      } while (b >= 0 && b <= ' ');
+      if (b >= 0) {
+        in.unread(b);
+      }
+      byte[] head = in.readNBytes(XML_PROLOG.length());
+      in.unread(head);
+      InputStream xml = new String(head, StandardCharsets.UTF_8).equals(XML_PROLOG)
+              ? in
+              : new SequenceInputStream(new ByteArrayInputStream(XML_DECLARATION), in);
+      return contentStore.store(xml);
     }
-    return xml;
   }
   
-  private DataReference createReference(ResultSet resultSet) throws SQLException, JsonProcessingException, URISyntaxException, UnsupportedEncodingException, ScriptException  {
+  private DataReference createReference(ResultSet resultSet) throws SQLException, IOException, URISyntaxException, ScriptException  {
+    XmlHolder xmlHolder = new XmlHolder();
+    try {
+      return createReference(resultSet, xmlHolder);
+    } catch (SQLException|IOException|URISyntaxException|ScriptException|RuntimeException ex) {
+      xmlHolder.set(null);
+      throw ex;
+    }
+  }
+  
+  private DataReference createReference(ResultSet resultSet, XmlHolder xmlHolder) throws SQLException, IOException, URISyntaxException, ScriptException  {
     ObjectNode node = OBJECT_MAPPER.createObjectNode();
     Map<String,Object> attr = new HashMap<>();
-    XmlHolder xmlHolder = new XmlHolder();
     
     for (JsonPropertyInjector jsonPropertyInjector: jsonPropertyInjectors) {
       jsonPropertyInjector.inject(node, resultSet);
@@ -765,7 +1065,7 @@ import org.slf4j.LoggerFactory;
       attributeInjector.inject(attr, xmlHolder, resultSet);
     }
 
-    String nodeAsJson;
+    byte[] nodeAsJson;
     String id = node.get("fileid").textValue();
     URI sourceUri = new URI("uuid", id, null);
     String sourceRef = td.getSource().getRef();
@@ -782,20 +1082,20 @@ import org.slf4j.LoggerFactory;
       data.put("sourceRef", sourceRef);
       data.put("taskRef", taskRef);
       
-      data.json = (Map)OBJECT_MAPPER.convertValue(node, Map.class);
+      data.json = ScriptProcessor.toMap(node);
       data.attr = attr;
       
       data = scriptProcessor.process(data);
-      nodeAsJson = OBJECT_MAPPER.writeValueAsString(data.json);
+      nodeAsJson = OBJECT_MAPPER.writeValueAsBytes(data.json);
       attr = data.attr;
     } else {
-      nodeAsJson = OBJECT_MAPPER.writeValueAsString(node);
+      nodeAsJson = OBJECT_MAPPER.writeValueAsBytes(node);
     }
     
     if (xmlHolder.xml!=null) {
-      ref.addContext(MimeType.APPLICATION_XML, sanitizeXml(xmlHolder.xml).getBytes("UTF-8"));
+      ref.addContext(MimeType.APPLICATION_XML, xmlHolder.xml);
     }
-    ref.addContext(MimeType.APPLICATION_JSON, nodeAsJson.getBytes("UTF-8"));
+    ref.addContext(MimeType.APPLICATION_JSON, nodeAsJson);
     ref.getAttributesMap().putAll(attr);
 
     return ref;
@@ -808,7 +1108,7 @@ import org.slf4j.LoggerFactory;
   
   @FunctionalInterface
   private interface AttributeInjector {
-    void inject(Map<String,Object> attributeMap, XmlHolder xmlHolder, ResultSet resultSet) throws SQLException;
+    void inject(Map<String,Object> attributeMap, XmlHolder xmlHolder, ResultSet resultSet) throws SQLException, IOException;
   }
   
   @FunctionalInterface
@@ -817,19 +1117,29 @@ import org.slf4j.LoggerFactory;
   }
     
   private static class XmlHolder {
-    public String xml;
+    public Content xml;
+    
+    public void set(Content xml) {
+      if (this.xml != null) {
+        this.xml.release();
+      }
+      this.xml = xml;
+    }
   }
 
 
   private class JdbcIterator implements InputBroker.Iterator {
     private final IteratorContext iteratorContext;
+    private Comparable latest;
 
     /**
      * Creates instance of the iterator.
      * @param iteratorContext iterator context
+     * @param since value of the modified column of the previous harvest
      */
-    public JdbcIterator(IteratorContext iteratorContext) {
+    public JdbcIterator(IteratorContext iteratorContext, Comparable since) {
       this.iteratorContext = iteratorContext;
+      this.latest = since;
     }
 
     @Override
@@ -844,10 +1154,196 @@ import org.slf4j.LoggerFactory;
     @Override
     public DataReference next() throws DataInputException {
       try {
-        return createReference(resultSet);
-      } catch (SQLException|URISyntaxException|UnsupportedEncodingException|JsonProcessingException|ScriptException ex) {
+        DataReference ref = createReference(resultSet);
+        if (watermark != null) {
+          latest = watermark.max(latest, watermark.read(resultSet));
+        }
+        return ref;
+      } catch (SQLException|URISyntaxException|IOException|ScriptException ex) {
         throw new DataInputException(JdbcBroker.this, String.format("Error reading data"), ex);
       }
     }
+
+    @Override
+    public String getWatermark() {
+      return watermark != null? watermark.format(latest): null;
+    }
+  }
+
+  /**
+   * Iterator reading partitions in parallel. Each partition is read on its own
+   * connection by a separate thread; records are merged through a bounded 
+   * queue, thus readers wait if records are not consumed fast enough.
+   */
+  private class PartitionedIterator implements InputBroker.Iterator {
+    private final List<Partition> partitions = new ArrayList<>();
+    private final Comparable since;
+    private final BlockingQueue<DataReference> queue;
+    private final AtomicInteger running = new AtomicInteger();
+    private final ExecutorService executor;
+    private volatile DataInputException error;
+    private DataReference next;
+
+    /**
+     * Creates instance of the iterator.
+     * @param conditions conditions selecting each partition
+     * @param since value of the modified column of the previous harvest
+     */
+    public PartitionedIterator(List<String> conditions, Comparable since) {
+      this.since = since;
+      for (int i=0; i<conditions.size(); i++) {
+        partitions.add(new Partition(i+1, conditions.get(i)));
+      }
+      this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY_PER_PARTITION * partitions.size());
+      AtomicInteger counter = new AtomicInteger();
+      this.executor = Executors.newFixedThreadPool(partitions.size(), r -> new Thread(r, String.format("JDBC-PARTITION-%d", counter.incrementAndGet())));
+    }
+    
+    /**
+     * Starts reading all the partitions.
+     * @return this iterator
+     */
+    public PartitionedIterator start() {
+      LOG.info(String.format("Reading %s in %d partitions by: %s", definition.getConnection(), partitions.size(), definition.getPartitionExpression()));
+      running.set(partitions.size());
+      partitions.forEach(partition -> executor.execute(() -> read(partition)));
+      return this;
+    }
+
+    @Override
+    public boolean hasNext() throws DataInputException {
+      try {
+        while (next == null) {
+          if (error != null) {
+            throw error;
+          }
+          next = queue.poll(100, TimeUnit.MILLISECONDS);
+          if (next == null && running.get() == 0) {
+            // a reader might have queued its last record just before completing
+            next = queue.poll();
+            if (next == null) {
+              if (error != null) {
+                throw error;
+              }
+              return false;
+            }
+          }
+        }
+        return true;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    @Override
+    public DataReference next() throws DataInputException {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      DataReference ref = next;
+      next = null;
+      return ref;
+    }
+
+    @Override
+    public String getWatermark() {
+      if (watermark == null) {
+        return null;
+      }
+      Comparable latest = since;
+      for (Partition partition: partitions) {
+        latest = watermark.max(latest, partition.latest);
+      }
+      return watermark.format(latest);
+    }
+
+    @Override
+    public Map<String, Long> getStatistics() {
+      Map<String,Long> statistics = new LinkedHashMap<>();
+      statistics.put("partitions", (long)partitions.size());
+      statistics.put("partitions.completed", partitions.stream().filter(p -> p.completed).count());
+      partitions.forEach(p -> statistics.put(String.format("partition.%d.rows", p.number), p.rows.get()));
+      return statistics;
+    }
+    
+    /**
+     * Stops all the readers and releases records not consumed yet.
+     */
+    public void close() {
+      executor.shutdownNow();
+      boolean interrupted = Thread.interrupted();
+      try {
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+          LOG.warn(String.format("Reading partitions of %s has not stopped.", definition.getConnection()));
+        }
+      } catch (InterruptedException ex) {
+        interrupted = true;
+      }
+      queue.forEach(DataReference::release);
+      queue.clear();
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    
+    /**
+     * Reads single partition.
+     * @param partition partition
+     */
+    private void read(Partition partition) {
+      long start = System.currentTimeMillis();
+      String condition = since != null? String.format("(%s) AND %s >= ?", partition.condition, watermark.getColumnName()): partition.condition;
+      LOG.info(String.format("Reading partition %d of %d: %s", partition.number, partitions.size(), condition));
+      try (Connection partitionConnection = openConnection();) {
+        try (PreparedStatement st = prepareStatement(partitionConnection, select(condition));) {
+          if (since != null) {
+            watermark.bind(st, 1, watermark.lower(since, definition.getModifiedOverlap()));
+          }
+          try (ResultSet rs = st.executeQuery();) {
+            while (rs.next()) {
+              DataReference ref = createReference(rs);
+              if (watermark != null) {
+                partition.latest = watermark.max(partition.latest, watermark.read(rs));
+              }
+              queue.put(ref);
+              long rows = partition.rows.incrementAndGet();
+              if (rows % PROGRESS_INTERVAL == 0) {
+                LOG.debug(String.format("Partition %d of %d: %d rows read.", partition.number, partitions.size(), rows));
+              }
+            }
+          }
+        } finally {
+          rollback(partitionConnection);
+        }
+        partition.completed = true;
+        LOG.info(String.format("Partition %d of %d completed: %d rows read in %d ms.", partition.number, partitions.size(), partition.rows.get(), System.currentTimeMillis() - start));
+      } catch (InterruptedException ex) {
+        LOG.debug(String.format("Reading partition %d of %d interrupted.", partition.number, partitions.size()));
+      } catch (SQLException|URISyntaxException|IOException|ScriptException|RuntimeException ex) {
+        // the harvest has to fail rather than complete without the rest of the partition
+        if (error == null) {
+          error = new DataInputException(JdbcBroker.this, String.format("Error reading partition %d of %d", partition.number, partitions.size()), ex);
+        }
+      } finally {
+        running.decrementAndGet();
+      }
+    }
+  }
+  
+  /**
+   * Partition.
+   */
+  private static class Partition {
+    private final int number;
+    private final String condition;
+    private final AtomicLong rows = new AtomicLong();
+    private volatile boolean completed;
+    private volatile Comparable latest;
+
+    public Partition(int number, String condition) {
+      this.number = number;
+      this.condition = condition;
+    }
   }
 }
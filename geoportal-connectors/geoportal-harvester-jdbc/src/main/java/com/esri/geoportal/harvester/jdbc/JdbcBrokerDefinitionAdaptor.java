@@ -28,6 +28,10 @@ import org.apache.commons.lang3.StringUtils;
  * JDBC broker definition adaptor.
  */
 /*package*/ class JdbcBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
+  public static final int DEFAULT_PARTITIONS = 1;
+  public static final int DEFAULT_FETCH_SIZE = 1000;
+  public static final int DEFAULT_MODIFIED_OVERLAP = 0;
+  
   private final CredentialsDefinitionAdaptor credAdaptor;
   private String driverClass;
   private String connection;
@@ -37,6 +41,12 @@ import org.apache.commons.lang3.StringUtils;
   private String descriptionColumn;
   private String types;
   private String script;
+  private String modifiedColumn;
+  private int modifiedOverlap;
+  private int partitions;
+  private String partitionExpression;
+  private int fetchSize;
+  private boolean streaming;
 
   /**
    * Creates instance of the adaptor.
@@ -60,6 +70,12 @@ import org.apache.commons.lang3.StringUtils;
       descriptionColumn = get(JdbcConstants.P_JDBC_DESCRIPTION_COLUMN);
       types = get(JdbcConstants.P_JDBC_TYPES);
       script = get(JdbcConstants.P_JDBC_SCRIPT);
+      modifiedColumn = get(JdbcConstants.P_JDBC_MODIFIED_COLUMN);
+      modifiedOverlap = readInteger(JdbcConstants.P_JDBC_MODIFIED_OVERLAP, DEFAULT_MODIFIED_OVERLAP, 0);
+      partitions = readInteger(JdbcConstants.P_JDBC_PARTITIONS, DEFAULT_PARTITIONS);
+      partitionExpression = get(JdbcConstants.P_JDBC_PARTITION_EXPRESSION);
+      fetchSize = readInteger(JdbcConstants.P_JDBC_FETCH_SIZE, DEFAULT_FETCH_SIZE);
+      streaming = StringUtils.isBlank(get(JdbcConstants.P_JDBC_STREAMING)) || Boolean.parseBoolean(get(JdbcConstants.P_JDBC_STREAMING));
       
       validate();
     }
@@ -75,6 +91,12 @@ import org.apache.commons.lang3.StringUtils;
     consume(params,JdbcConstants.P_JDBC_DESCRIPTION_COLUMN);
     consume(params,JdbcConstants.P_JDBC_TYPES);
     consume(params,JdbcConstants.P_JDBC_SCRIPT);
+    consume(params,JdbcConstants.P_JDBC_MODIFIED_COLUMN);
+    consume(params,JdbcConstants.P_JDBC_MODIFIED_OVERLAP);
+    consume(params,JdbcConstants.P_JDBC_PARTITIONS);
+    consume(params,JdbcConstants.P_JDBC_PARTITION_EXPRESSION);
+    consume(params,JdbcConstants.P_JDBC_FETCH_SIZE);
+    consume(params,JdbcConstants.P_JDBC_STREAMING);
     credAdaptor.override(params);
   }
 
@@ -165,6 +187,115 @@ import org.apache.commons.lang3.StringUtils;
     this.script = script;
     set(JdbcConstants.P_JDBC_SCRIPT, script);
   }
+
+  public String getModifiedColumn() {
+    return modifiedColumn;
+  }
+
+  public void setModifiedColumn(String modifiedColumn) {
+    this.modifiedColumn = modifiedColumn;
+    set(JdbcConstants.P_JDBC_MODIFIED_COLUMN, modifiedColumn);
+  }
+
+  /**
+   * Gets time window before the watermark read again by incremental harvest.
+   * @return overlap in seconds
+   */
+  public int getModifiedOverlap() {
+    return modifiedOverlap;
+  }
+
+  public void setModifiedOverlap(int modifiedOverlap) {
+    this.modifiedOverlap = modifiedOverlap;
+    set(JdbcConstants.P_JDBC_MODIFIED_OVERLAP, Integer.toString(modifiedOverlap));
+  }
+
+  /**
+   * Gets number of partitions read in parallel.
+   * @return number of partitions; 1 to read all the data through a single query
+   */
+  public int getPartitions() {
+    return partitions;
+  }
+
+  public void setPartitions(int partitions) {
+    this.partitions = partitions;
+    set(JdbcConstants.P_JDBC_PARTITIONS, Integer.toString(partitions));
+  }
+
+  /**
+   * Gets expression used to split data into partitions.
+   * @return numeric column or expression; primary key column if not defined
+   */
+  public String getPartitionExpression() {
+    return StringUtils.defaultIfBlank(partitionExpression, fileIdColumn);
+  }
+
+  public void setPartitionExpression(String partitionExpression) {
+    this.partitionExpression = partitionExpression;
+    set(JdbcConstants.P_JDBC_PARTITION_EXPRESSION, partitionExpression);
+  }
+
+  /**
+   * Gets number of rows fetched from the database in a single round trip.
+   * @return fetch size
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+    set(JdbcConstants.P_JDBC_FETCH_SIZE, Integer.toString(fetchSize));
+  }
+
+  /**
+   * Checks if rows are streamed through a forward-only, read-only cursor.
+   * @return <code>true</code> to stream rows; <code>false</code> to use driver defaults
+   */
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+    set(JdbcConstants.P_JDBC_STREAMING, Boolean.toString(streaming));
+  }
+  
+  /**
+   * Reads positive integer property.
+   * @param propertyName property name
+   * @param defaultValue default value
+   * @return value
+   * @throws InvalidDefinitionException if invalid value
+   */
+  private int readInteger(String propertyName, int defaultValue) throws InvalidDefinitionException {
+    return readInteger(propertyName, defaultValue, 1);
+  }
+  
+  /**
+   * Reads integer property.
+   * @param propertyName property name
+   * @param defaultValue default value
+   * @param minValue minimal value
+   * @return value
+   * @throws InvalidDefinitionException if invalid value
+   */
+  private int readInteger(String propertyName, int defaultValue, int minValue) throws InvalidDefinitionException {
+    String value = StringUtils.trimToEmpty(get(propertyName));
+    if (value.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      int result = Integer.parseInt(value);
+      if (result < minValue) {
+        throw new InvalidDefinitionException(String.format("Invalid %s: %s", propertyName, value));
+      }
+      return result;
+    } catch (NumberFormatException ex) {
+      throw new InvalidDefinitionException(String.format("Invalid %s: %s", propertyName, value), ex);
+    }
+  }
   
   private void validate() throws InvalidDefinitionException {
     JdbcValidator.validateStatement(getSqlStatement());
@@ -74,6 +74,32 @@ public class JdbcConnector  implements InputConnector<InputBroker> {
     arguments.add(new UITemplate.StringArgument(JdbcConstants.P_JDBC_FILEID_COLUMN, bundle.getString("jdbc.fileid"), true));
     arguments.add(new UITemplate.StringArgument(JdbcConstants.P_JDBC_TITLE_COLUMN, bundle.getString("jdbc.title"), true));
     arguments.add(new UITemplate.StringArgument(JdbcConstants.P_JDBC_DESCRIPTION_COLUMN, bundle.getString("jdbc.description")));
+    arguments.add(new UITemplate.StringArgument(JdbcConstants.P_JDBC_MODIFIED_COLUMN, bundle.getString("jdbc.modified")){
+      @Override
+      public String getHint() {
+        return bundle.getString("jdbc.modified.hint");
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(JdbcConstants.P_JDBC_MODIFIED_OVERLAP, bundle.getString("jdbc.modified.overlap"), false, JdbcBrokerDefinitionAdaptor.DEFAULT_MODIFIED_OVERLAP){
+      @Override
+      public String getHint() {
+        return bundle.getString("jdbc.modified.overlap.hint");
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(JdbcConstants.P_JDBC_PARTITIONS, bundle.getString("jdbc.partitions"), false, JdbcBrokerDefinitionAdaptor.DEFAULT_PARTITIONS));
+    arguments.add(new UITemplate.StringArgument(JdbcConstants.P_JDBC_PARTITION_EXPRESSION, bundle.getString("jdbc.partition.expression")){
+      @Override
+      public String getHint() {
+        return bundle.getString("jdbc.partition.expression.hint");
+      }
+    });
+    arguments.add(new UITemplate.IntegerArgument(JdbcConstants.P_JDBC_FETCH_SIZE, bundle.getString("jdbc.fetch.size"), false, JdbcBrokerDefinitionAdaptor.DEFAULT_FETCH_SIZE));
+    arguments.add(new UITemplate.BooleanArgument(JdbcConstants.P_JDBC_STREAMING, bundle.getString("jdbc.streaming"), false, true){
+      @Override
+      public String getHint() {
+        return bundle.getString("jdbc.streaming.hint");
+      }
+    });
     arguments.add(new UITemplate.StringArgument(JdbcConstants.P_JDBC_TYPES, bundle.getString("jdbc.mapping")){
       @Override
       public String getHint() {
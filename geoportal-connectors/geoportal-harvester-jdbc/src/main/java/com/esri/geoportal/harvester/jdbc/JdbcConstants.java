@@ -27,4 +27,10 @@ package com.esri.geoportal.harvester.jdbc;
   public static String P_JDBC_DESCRIPTION_COLUMN = "jdbc-description-column";
   public static String P_JDBC_TYPES              = "jdbc-types";
   public static String P_JDBC_SCRIPT             = "jdbc-script";
+  public static String P_JDBC_MODIFIED_COLUMN    = "jdbc-modified-column";
+  public static String P_JDBC_MODIFIED_OVERLAP   = "jdbc-modified-overlap";
+  public static String P_JDBC_PARTITIONS         = "jdbc-partitions";
+  public static String P_JDBC_PARTITION_EXPRESSION = "jdbc-partition-expression";
+  public static String P_JDBC_FETCH_SIZE         = "jdbc-fetch-size";
+  public static String P_JDBC_STREAMING          = "jdbc-streaming";
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * JDBC watermark.
+ * <p>
+ * Describes column holding modification time (or any other value growing with
+ * each modification) of the record. Values of the column are compared as 
+ * temporal values, numbers or strings depending on the column type, and 
+ * formatted into watermark as plain text.
+ * <p>
+ * Temporal values are read and bound as <code>java.time</code> objects, thus 
+ * the watermark holds the value exactly as stored in the database (ISO 8601
+ * date and time, with offset if the column has the time zone) and does not 
+ * depend on the time zone of the JVM.
+ */
+/*package*/ class JdbcWatermark {
+  private static final long SECONDS_PER_DAY = 86400;
+  
+  private final String columnName;
+  private final Kind kind;
+
+  /**
+   * Creates instance of the watermark.
+   * @param columnName column name
+   * @param columnType column type
+   */
+  public JdbcWatermark(String columnName, int columnType) {
+    this.columnName = columnName;
+    this.kind = Kind.of(columnType);
+  }
+
+  /**
+   * Gets column name.
+   * @return column name
+   */
+  public String getColumnName() {
+    return columnName;
+  }
+
+  /**
+   * Gets kind of values.
+   * @return kind of values
+   */
+  /*package*/ Kind getKind() {
+    return kind;
+  }
+  
+  /**
+   * Reads value of the column.
+   * @param resultSet result set
+   * @return value or <code>null</code> if no value
+   * @throws SQLException if reading value fails
+   */
+  public Comparable read(ResultSet resultSet) throws SQLException {
+    switch (kind) {
+      case NUMBER:
+        return resultSet.getBigDecimal(columnName);
+      case STRING:
+        return resultSet.getString(columnName);
+      default:
+        return (Comparable)resultSet.getObject(columnName, kind.type);
+    }
+  }
+  
+  /**
+   * Binds value to the statement parameter.
+   * @param statement statement
+   * @param index parameter index
+   * @param value value
+   * @throws SQLException if binding value fails
+   */
+  public void bind(PreparedStatement statement, int index, Comparable value) throws SQLException {
+    switch (kind) {
+      case NUMBER:
+        statement.setBigDecimal(index, (BigDecimal)value);
+        break;
+      case STRING:
+        statement.setString(index, (String)value);
+        break;
+      default:
+        statement.setObject(index, value);
+        break;
+    }
+  }
+  
+  /**
+   * Selects greater of two values.
+   * @param value value
+   * @param other other value
+   * @return greater value; <code>null</code> is less than any value
+   */
+  public Comparable max(Comparable value, Comparable other) {
+    if (value == null) {
+      return other;
+    }
+    if (other == null) {
+      return value;
+    }
+    return value.compareTo(other) >= 0? value: other;
+  }
+  
+  /**
+   * Lowers temporal value by the overlap. Numbers and strings are not lowered.
+   * Time of day is never lowered below midnight.
+   * @param value value
+   * @param overlap overlap in seconds
+   * @return lowered value
+   */
+  public Comparable lower(Comparable value, long overlap) {
+    if (value == null || overlap <= 0) {
+      return value;
+    }
+    switch (kind) {
+      case TIMESTAMP:
+        return ((LocalDateTime)value).minusSeconds(overlap);
+      case TIMESTAMP_WITH_TIMEZONE:
+        return ((OffsetDateTime)value).minusSeconds(overlap);
+      case DATE:
+        return ((LocalDate)value).minusDays((overlap + SECONDS_PER_DAY - 1) / SECONDS_PER_DAY);
+      case TIME: {
+        LocalTime time = (LocalTime)value;
+        return overlap < time.toSecondOfDay()? time.minusSeconds(overlap): LocalTime.MIN;
+      }
+      case TIME_WITH_TIMEZONE: {
+        OffsetTime time = (OffsetTime)value;
+        return overlap < time.toLocalTime().toSecondOfDay()? time.minusSeconds(overlap): time.with(LocalTime.MIN);
+      }
+      default:
+        return value;
+    }
+  }
+  
+  /**
+   * Parses watermark.
+   * @param watermark watermark
+   * @return value
+   * @throws IllegalArgumentException if invalid watermark
+   */
+  public Comparable parse(String watermark) {
+    try {
+      switch (kind) {
+        case TIMESTAMP:
+          return LocalDateTime.parse(watermark);
+        case TIMESTAMP_WITH_TIMEZONE:
+          return OffsetDateTime.parse(watermark);
+        case DATE:
+          return LocalDate.parse(watermark);
+        case TIME:
+          return LocalTime.parse(watermark);
+        case TIME_WITH_TIMEZONE:
+          return OffsetTime.parse(watermark);
+        case NUMBER:
+          return new BigDecimal(watermark);
+        default:
+          return watermark;
+      }
+    } catch (DateTimeParseException ex) {
+      throw new IllegalArgumentException(String.format("Invalid watermark: %s", watermark), ex);
+    }
+  }
+  
+  /**
+   * Formats value as watermark.
+   * @param value value
+   * @return watermark or <code>null</code> if no value
+   */
+  public String format(Comparable value) {
+    if (value == null) {
+      return null;
+    }
+    return kind == Kind.NUMBER? ((BigDecimal)value).toPlainString(): value.toString();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s (%s)", columnName, kind);
+  }
+  
+  /**
+   * Kind of values.
+   */
+  /*package*/ enum Kind {
+    TIMESTAMP(LocalDateTime.class), 
+    TIMESTAMP_WITH_TIMEZONE(OffsetDateTime.class), 
+    DATE(LocalDate.class), 
+    TIME(LocalTime.class), 
+    TIME_WITH_TIMEZONE(OffsetTime.class), 
+    NUMBER(BigDecimal.class), 
+    STRING(String.class);
+    
+    private final Class<?> type;
+
+    private Kind(Class<?> type) {
+      this.type = type;
+    }
+    
+    static Kind of(int columnType) {
+      switch (columnType) {
+        case Types.TIMESTAMP:
+          return TIMESTAMP;
+        case Types.TIMESTAMP_WITH_TIMEZONE:
+          return TIMESTAMP_WITH_TIMEZONE;
+        case Types.DATE:
+          return DATE;
+        case Types.TIME:
+          return TIME;
+        case Types.TIME_WITH_TIMEZONE:
+          return TIME_WITH_TIMEZONE;
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+        case Types.BIGINT:
+        case Types.FLOAT:
+        case Types.REAL:
+        case Types.DOUBLE:
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+          return NUMBER;
+        default:
+          return STRING;
+      }
+    }
+  }
+}
@@ -16,28 +16,42 @@
 package com.esri.geoportal.harvester.jdbc;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 /**
  * Script processor.
+ * <p>
+ * Script is compiled once when the processor is created and evaluated for
+ * each row within the same engine, thus variables declared by the script
+ * (including <code>globals</code>) survive from one row to the next. Rows 
+ * are processed one at a time even if read by many threads.
  */
 /*package*/ class ScriptProcessor {
   private final ObjectMapper mapper = new ObjectMapper();
   private final ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
-  private final String script;
+  private final CompiledScript script;
   private Map globals = new HashMap<>();
 
   /**
    * Creates instance of the script processor.
    * @param script script
+   * @throws ScriptException if script can not be compiled
    */
-  public ScriptProcessor(String script) {
-    this.script = script;
+  public ScriptProcessor(String script) throws ScriptException {
+    this.script = ((Compilable)engine).compile(script);
   }
   
   /**
@@ -47,11 +61,11 @@ import javax.script.ScriptException;
    * @throws ScriptException if error executing script
    * @throws JsonProcessingException if error transforming JSON data
    */
-  public Data process(Data data) throws ScriptException, JsonProcessingException {
+  public synchronized Data process(Data data) throws ScriptException, JsonProcessingException {
     engine.put("globals", globals);
     engine.put("data", data);
     
-    engine.eval(script);
+    script.eval();
     
     globals = (Map)engine.get("globals");
     data = (Data)engine.get("data");
@@ -59,6 +73,43 @@ import javax.script.ScriptException;
     return data;
   }
   
+  /**
+   * Converts JSON object into a map accessible by the script. Objects become
+   * maps, arrays become lists, and values become strings, numbers or booleans.
+   * @param node JSON object
+   * @return map
+   */
+  public static Map<String,Object> toMap(ObjectNode node) {
+    Map<String,Object> map = new LinkedHashMap<>();
+    Iterator<Map.Entry<String,JsonNode>> fields = node.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String,JsonNode> field = fields.next();
+      map.put(field.getKey(), toValue(field.getValue()));
+    }
+    return map;
+  }
+  
+  private static Object toValue(JsonNode node) {
+    if (node.isObject()) {
+      return toMap((ObjectNode)node);
+    }
+    if (node.isArray()) {
+      List<Object> list = new ArrayList<>(node.size());
+      node.forEach(n -> list.add(toValue(n)));
+      return list;
+    }
+    if (node.isTextual()) {
+      return node.textValue();
+    }
+    if (node.isNumber()) {
+      return node.numberValue();
+    }
+    if (node.isBoolean()) {
+      return node.booleanValue();
+    }
+    return null;
+  }
+  
   /**
    * Data
    */
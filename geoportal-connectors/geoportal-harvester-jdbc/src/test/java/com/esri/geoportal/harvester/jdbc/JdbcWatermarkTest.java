@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.jdbc;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * JDBC watermark test.
+ */
+public class JdbcWatermarkTest {
+  private TimeZone defaultTimeZone;
+
+  @Before
+  public void setUp() {
+    defaultTimeZone = TimeZone.getDefault();
+  }
+
+  @After
+  public void tearDown() {
+    TimeZone.setDefault(defaultTimeZone);
+  }
+
+  @Test
+  public void testKindOfColumnType() {
+    assertEquals(JdbcWatermark.Kind.TIMESTAMP, new JdbcWatermark("m", Types.TIMESTAMP).getKind());
+    assertEquals(JdbcWatermark.Kind.TIMESTAMP_WITH_TIMEZONE, new JdbcWatermark("m", Types.TIMESTAMP_WITH_TIMEZONE).getKind());
+    assertEquals(JdbcWatermark.Kind.DATE, new JdbcWatermark("m", Types.DATE).getKind());
+    assertEquals(JdbcWatermark.Kind.TIME, new JdbcWatermark("m", Types.TIME).getKind());
+    assertEquals(JdbcWatermark.Kind.TIME_WITH_TIMEZONE, new JdbcWatermark("m", Types.TIME_WITH_TIMEZONE).getKind());
+    assertEquals(JdbcWatermark.Kind.NUMBER, new JdbcWatermark("m", Types.BIGINT).getKind());
+    assertEquals(JdbcWatermark.Kind.NUMBER, new JdbcWatermark("m", Types.DECIMAL).getKind());
+    assertEquals(JdbcWatermark.Kind.STRING, new JdbcWatermark("m", Types.VARCHAR).getKind());
+  }
+
+  @Test
+  public void testTimestampRoundTripAcrossTimeZones() {
+    JdbcWatermark watermark = new JdbcWatermark("m", Types.TIMESTAMP);
+    // ambiguous hour (end of DST) and nonexistent hour (start of DST) in New York
+    LocalDateTime ambiguous = LocalDateTime.of(2016, 11, 6, 1, 30, 15, 123456789);
+    LocalDateTime nonexistent = LocalDateTime.of(2016, 3, 13, 2, 30);
+    
+    TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+    String formattedAmbiguous = watermark.format(ambiguous);
+    String formattedNonexistent = watermark.format(nonexistent);
+    assertEquals("2016-11-06T01:30:15.123456789", formattedAmbiguous);
+    assertEquals("2016-03-13T02:30", formattedNonexistent);
+    assertEquals(ambiguous, watermark.parse(formattedAmbiguous));
+    assertEquals(nonexistent, watermark.parse(formattedNonexistent));
+    
+    TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+    assertEquals(ambiguous, watermark.parse(formattedAmbiguous));
+    assertEquals(nonexistent, watermark.parse(formattedNonexistent));
+  }
+
+  @Test
+  public void testTimestampWithTimeZone() {
+    JdbcWatermark watermark = new JdbcWatermark("m", Types.TIMESTAMP_WITH_TIMEZONE);
+    OffsetDateTime warsaw = OffsetDateTime.of(2016, 8, 19, 12, 0, 0, 0, ZoneOffset.ofHours(2));
+    OffsetDateTime utc = OffsetDateTime.of(2016, 8, 19, 11, 0, 0, 0, ZoneOffset.UTC);
+    
+    TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+    String formatted = watermark.format(warsaw);
+    assertEquals("2016-08-19T12:00+02:00", formatted);
+    TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    assertEquals(warsaw, watermark.parse(formatted));
+    
+    // values are compared by the instant, not by the local time
+    assertEquals(utc, watermark.max(warsaw, utc));
+  }
+
+  @Test
+  public void testDate() {
+    JdbcWatermark watermark = new JdbcWatermark("m", Types.DATE);
+    LocalDate date = LocalDate.of(2016, 8, 19);
+    
+    assertEquals("2016-08-19", watermark.format(date));
+    assertEquals(date, watermark.parse("2016-08-19"));
+    assertEquals(date, watermark.lower(date, 0));
+    assertEquals(LocalDate.of(2016, 8, 18), watermark.lower(date, 1));
+    assertEquals(LocalDate.of(2016, 8, 18), watermark.lower(date, 86400));
+    assertEquals(LocalDate.of(2016, 8, 17), watermark.lower(date, 86401));
+  }
+
+  @Test
+  public void testTime() {
+    JdbcWatermark watermark = new JdbcWatermark("m", Types.TIME);
+    LocalTime time = LocalTime.of(0, 10);
+    
+    assertEquals("00:10", watermark.format(time));
+    assertEquals(time, watermark.parse("00:10"));
+    assertEquals(LocalTime.of(0, 5), watermark.lower(time, 300));
+    assertEquals(LocalTime.MIN, watermark.lower(time, 3600));
+    
+    JdbcWatermark offsetWatermark = new JdbcWatermark("m", Types.TIME_WITH_TIMEZONE);
+    OffsetTime offsetTime = OffsetTime.of(0, 10, 0, 0, ZoneOffset.ofHours(2));
+    assertEquals(offsetTime, offsetWatermark.parse(offsetWatermark.format(offsetTime)));
+    assertEquals(OffsetTime.of(0, 0, 0, 0, ZoneOffset.ofHours(2)), offsetWatermark.lower(offsetTime, 3600));
+  }
+
+  @Test
+  public void testLowerTimestamp() {
+    JdbcWatermark watermark = new JdbcWatermark("m", Types.TIMESTAMP);
+    LocalDateTime timestamp = LocalDateTime.of(2016, 8, 19, 0, 0, 30);
+    
+    assertEquals(LocalDateTime.of(2016, 8, 18, 23, 59, 30), watermark.lower(timestamp, 60));
+    assertNull(watermark.lower(null, 60));
+  }
+
+  @Test
+  public void testNumberAndString() {
+    JdbcWatermark number = new JdbcWatermark("m", Types.NUMERIC);
+    assertEquals("1000", number.format(new BigDecimal("1E+3")));
+    assertEquals(0, new BigDecimal("1000").compareTo((BigDecimal)number.parse("1000")));
+    assertEquals(new BigDecimal("1000"), number.lower(new BigDecimal("1000"), 60));
+    
+    JdbcWatermark string = new JdbcWatermark("m", Types.VARCHAR);
+    assertEquals("20160819", string.format(string.parse("20160819")));
+    assertEquals("20160819", string.lower("20160819", 60));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWatermark() {
+    new JdbcWatermark("m", Types.TIMESTAMP).parse("2016-08-19 10:15:30.0 EDT");
+  }
+
+  @Test
+  public void testReadAndBindTemporalValues() throws Exception {
+    JdbcWatermark watermark = new JdbcWatermark("modified", Types.TIMESTAMP);
+    LocalDateTime value = LocalDateTime.of(2016, 8, 19, 10, 15, 30);
+    List<Object> requested = new ArrayList<>();
+    List<Object> bound = new ArrayList<>();
+    
+    ResultSet resultSet = (ResultSet)Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ResultSet.class}, (proxy, method, args) -> {
+      if (method.getName().equals("getObject") && args.length==2 && "modified".equals(args[0])) {
+        requested.add(args[1]);
+        return value;
+      }
+      throw new UnsupportedOperationException(method.getName());
+    });
+    PreparedStatement statement = (PreparedStatement)Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+      if (method.getName().equals("setObject") && args.length==2) {
+        bound.add(args[0]);
+        bound.add(args[1]);
+        return null;
+      }
+      throw new UnsupportedOperationException(method.getName());
+    });
+    
+    assertEquals(value, watermark.read(resultSet));
+    watermark.bind(statement, 1, value);
+    
+    assertEquals(LocalDateTime.class, requested.get(0));
+    assertEquals(1, bound.get(0));
+    assertEquals(value, bound.get(1));
+  }
+}
@@ -17,6 +17,7 @@ package com.esri.geoportal.harvester.oai.pmh;
 
 import com.esri.geoportal.commons.constants.MimeType;
 import com.esri.geoportal.commons.http.BotsHttpClient;
+import com.esri.geoportal.commons.http.LimitedHttpClient;
 import com.esri.geoportal.commons.oai.client.Client;
 import com.esri.geoportal.commons.oai.client.Header;
 import com.esri.geoportal.commons.oai.client.ListIdsResponse;
@@ -80,7 +81,7 @@ import org.apache.http.impl.client.LaxRedirectStrategy;
   public void initialize(Initializable.InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     td = context.getTask().getTaskDefinition();
-    CloseableHttpClient http = HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build();
+    CloseableHttpClient http = new LimitedHttpClient(HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build());
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
       httpClient = http;
     } else {
@@ -158,10 +159,14 @@ import org.apache.http.impl.client.LaxRedirectStrategy;
 
     private java.util.Iterator<Header> idIter;
     private String resumptionToken;
+    private String pageToken;         // resumption token of the current page
+    private boolean resuming;
     private boolean lastCall = false; // no resumption token
 
     public OaiIterator(InputBroker.IteratorContext iteratorContext) {
       this.iteratorContext = iteratorContext;
+      this.resumptionToken = iteratorContext.getCheckpoint();
+      this.resuming = resumptionToken != null;
     }
 
     @Override
@@ -174,7 +179,20 @@ import org.apache.http.impl.client.LaxRedirectStrategy;
           return false;
         }
 
-        ListIdsResponse listIds = client.listIds(resumptionToken, iteratorContext.getLastHarvestDate());
+        ListIdsResponse listIds;
+        try {
+          listIds = client.listIds(resumptionToken, iteratorContext.getLastHarvestDate());
+        } catch (IOException ex) {
+          if (!resuming) {
+            throw ex;
+          }
+          // resumption tokens expire; start over
+          LOG.warn(String.format("Unable to resume harvesting of %s with token: %s", OaiBroker.this, resumptionToken), ex);
+          resumptionToken = null;
+          listIds = client.listIds(resumptionToken, iteratorContext.getLastHarvestDate());
+        }
+        resuming = false;
+        pageToken = resumptionToken;
         resumptionToken = listIds.resumptionToken;
         if (listIds.resumptionToken == null || listIds.resumptionToken.isEmpty()) {
           lastCall = true;
@@ -207,6 +225,11 @@ import org.apache.http.impl.client.LaxRedirectStrategy;
       return readContent(header.identifier, parseIsoDate(header.datestamp));
     }
 
+    @Override
+    public String getCheckpoint() {
+      return pageToken;
+    }
+
   }
 
   /**
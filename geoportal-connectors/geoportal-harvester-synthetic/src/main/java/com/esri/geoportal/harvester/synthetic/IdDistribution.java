@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+/**
+ * Distribution of the synthetic record ids.
+ */
+public enum IdDistribution {
+  /** Each record gets a unique id. */
+  SEQUENTIAL,
+  /** Ids are drawn uniformly from the id space thus some of them repeat. */
+  UNIFORM,
+  /** 80% of the ids are drawn from 20% of the id space. */
+  HOTSPOT;
+  
+  public static final IdDistribution DEFAULT = SEQUENTIAL;
+  
+  /**
+   * Parses id distribution.
+   * @param name name of the distribution
+   * @return distribution or <code>null</code> if unknown
+   */
+  public static IdDistribution parse(String name) {
+    for (IdDistribution distribution: values()) {
+      if (distribution.name().equalsIgnoreCase(name)) {
+        return distribution;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+import com.esri.geoportal.commons.constants.MimeType;
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.PublishingStatus;
+import com.esri.geoportal.harvester.api.ex.DataOutputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.esri.geoportal.harvester.api.specs.OutputConnector;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Null broker.
+ * <p>
+ * Discards all the records and prints throughput into the console once 
+ * terminated. Records can be published from many threads at the same time 
+ * and in batches.
+ */
+/*package*/ class NullBroker implements OutputBroker {
+  private final NullConnector connector;
+  private final NullBrokerDefinitionAdaptor definition;
+  
+  private final LongAdder records = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+  private final AtomicLong firstPublished = new AtomicLong(Long.MIN_VALUE);
+  private volatile long lastPublished;
+  private volatile long started;
+
+  /**
+   * Creates instance of the broker.
+   * @param connector connector
+   * @param definition definition
+   */
+  public NullBroker(NullConnector connector, NullBrokerDefinitionAdaptor definition) {
+    this.connector = connector;
+    this.definition = definition;
+  }
+
+  @Override
+  public void initialize(InitContext context) throws DataProcessorException {
+    definition.override(context.getParams());
+    started = System.nanoTime();
+  }
+
+  @Override
+  public void terminate() {
+    long count = records.sum();
+    long size = bytes.sum();
+    double totalSeconds = (System.nanoTime() - started) / 1e9;
+    double publishingSeconds = count > 0? (lastPublished - firstPublished.get()) / 1e9: 0;
+    System.out.println(String.format("%s: %d records, %d bytes in %.3f s; %.1f records/s, %.3f MB/s (%.1f records/s between first and last record)", 
+            this, count, size, totalSeconds, 
+            rate(count, totalSeconds), rate(size, totalSeconds) / (1024 * 1024), 
+            rate(count - 1, publishingSeconds)));
+  }
+
+  @Override
+  public PublishingStatus publish(DataReference ref) throws DataOutputException {
+    long size = 0;
+    if (definition.getReadContent()) {
+      try {
+        for (MimeType ct: ref.getContentType()) {
+          try (InputStream content = ref.openStream(ct)) {
+            size += content!=null? content.transferTo(OutputStream.nullOutputStream()): 0;
+          }
+        }
+      } catch (IOException ex) {
+        throw new DataOutputException(this, ref, String.format("Error reading data: %s", ref), ex);
+      }
+    }
+    
+    long now = System.nanoTime();
+    firstPublished.compareAndSet(Long.MIN_VALUE, now);
+    lastPublished = now;
+    records.increment();
+    bytes.add(size);
+    
+    return PublishingStatus.CREATED;
+  }
+
+  @Override
+  public boolean isBatchSupported() {
+    return true;
+  }
+
+  @Override
+  public OutputConnector getConnector() {
+    return connector;
+  }
+
+  @Override
+  public EntityDefinition getEntityDefinition() {
+    return definition.getEntityDefinition();
+  }
+
+  @Override
+  public boolean hasAccess(SimpleCredentials creds) {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("NULL");
+  }
+  
+  /**
+   * Calculates rate.
+   * @param amount amount
+   * @param seconds seconds
+   * @return rate per second
+   */
+  private static double rate(long amount, double seconds) {
+    return seconds > 0 && amount > 0? amount / seconds: 0;
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+import static com.esri.geoportal.harvester.synthetic.SyntheticConstants.P_READ_CONTENT;
+import com.esri.geoportal.harvester.api.base.BrokerDefinitionAdaptor;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Null broker definition adaptor.
+ */
+/*package*/ class NullBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
+  private boolean readContent;
+
+  /**
+   * Creates instance of the adaptor.
+   * @param def broker definition
+   * @throws InvalidDefinitionException if invalid broker definition
+   */
+  public NullBrokerDefinitionAdaptor(EntityDefinition def) throws InvalidDefinitionException {
+    super(def);
+    if (StringUtils.trimToEmpty(def.getType()).isEmpty()) {
+      def.setType(NullConnector.TYPE);
+    } else if (!NullConnector.TYPE.equals(def.getType())) {
+      throw new InvalidDefinitionException("Broker definition doesn't match");
+    }
+    readContent = Boolean.parseBoolean(StringUtils.defaultIfBlank(get(P_READ_CONTENT), "true"));
+  }
+
+  @Override
+  public void override(Map<String, String> params) {
+    consume(params, P_READ_CONTENT);
+  }
+
+  /**
+   * Checks if content of each record should be read.
+   * @return <code>true</code> to read content
+   */
+  public boolean getReadContent() {
+    return readContent;
+  }
+
+  /**
+   * Sets flag to read content of each record.
+   * @param readContent <code>true</code> to read content
+   */
+  public void setReadContent(boolean readContent) {
+    this.readContent = readContent;
+    set(P_READ_CONTENT, Boolean.toString(readContent));
+  }
+}
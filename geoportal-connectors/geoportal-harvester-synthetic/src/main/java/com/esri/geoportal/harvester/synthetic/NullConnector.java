@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+import static com.esri.geoportal.harvester.synthetic.SyntheticConstants.P_READ_CONTENT;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import com.esri.geoportal.harvester.api.specs.OutputBroker;
+import com.esri.geoportal.harvester.api.specs.OutputConnector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * Null connector.
+ * @see com.esri.geoportal.harvester.synthetic API
+ */
+public class NullConnector implements OutputConnector<OutputBroker> {
+  public static final String TYPE = "NULL";
+
+  @Override
+  public String getType() {
+    return TYPE;
+  }
+
+  @Override
+  public UITemplate getTemplate(Locale locale) {
+    ResourceBundle bundle = ResourceBundle.getBundle("SyntheticResource", locale);
+    List<UITemplate.Argument> args = new ArrayList<>();
+    args.add(new UITemplate.BooleanArgument(P_READ_CONTENT, bundle.getString("null.readContent"), false, Boolean.TRUE));
+    return new UITemplate(getType(), bundle.getString("null"), args);
+  }
+
+  @Override
+  public void validateDefinition(EntityDefinition definition) throws InvalidDefinitionException {
+    new NullBrokerDefinitionAdaptor(definition);
+  }
+
+  @Override
+  public OutputBroker createBroker(EntityDefinition entityDefinition) throws InvalidDefinitionException {
+    return new NullBroker(this, new NullBrokerDefinitionAdaptor(entityDefinition));
+  }
+
+  @Override
+  public String getResourceLocator(EntityDefinition definition) {
+    try {
+      new NullBrokerDefinitionAdaptor(definition);
+      return "null";
+    } catch (InvalidDefinitionException ex) {
+      return "";
+    }
+  }
+  
+}
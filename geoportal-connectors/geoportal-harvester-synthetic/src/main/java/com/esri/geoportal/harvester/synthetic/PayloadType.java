@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+import com.esri.geoportal.commons.constants.MimeType;
+
+/**
+ * Type of the synthetic payload.
+ */
+public enum PayloadType {
+  /** Dublin Core record. */
+  XML(MimeType.APPLICATION_XML),
+  /** JSON document. */
+  JSON(MimeType.APPLICATION_JSON),
+  /** Single page PDF stub. */
+  PDF(MimeType.APPLICATION_PDF);
+  
+  private final MimeType mimeType;
+
+  private PayloadType(MimeType mimeType) {
+    this.mimeType = mimeType;
+  }
+
+  /**
+   * Gets mime type of the payload.
+   * @return mime type
+   */
+  public MimeType getMimeType() {
+    return mimeType;
+  }
+  
+  /**
+   * Parses payload type.
+   * @param name name of the payload type
+   * @return payload type or <code>null</code> if unknown
+   */
+  public static PayloadType parse(String name) {
+    for (PayloadType type: values()) {
+      if (type.name().equalsIgnoreCase(name)) {
+        return type;
+      }
+    }
+    return null;
+  }
+}
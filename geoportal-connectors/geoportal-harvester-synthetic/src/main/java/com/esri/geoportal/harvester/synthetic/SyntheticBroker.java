@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.DataContent;
+import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.TaskDefinition;
+import com.esri.geoportal.harvester.api.ex.DataInputException;
+import com.esri.geoportal.harvester.api.ex.DataProcessorException;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import com.esri.geoportal.harvester.api.specs.InputConnector;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Date;
+
+/**
+ * Synthetic broker.
+ */
+/*package*/ class SyntheticBroker implements InputBroker {
+  private final SyntheticConnector connector;
+  private final SyntheticBrokerDefinitionAdaptor definition;
+  
+  private SyntheticRecords records;
+
+  /**
+   * Creates instance of the broker.
+   * @param connector connector
+   * @param definition definition
+   */
+  public SyntheticBroker(SyntheticConnector connector, SyntheticBrokerDefinitionAdaptor definition) {
+    this.connector = connector;
+    this.definition = definition;
+  }
+
+  @Override
+  public void initialize(InitContext context) throws DataProcessorException {
+    definition.override(context.getParams());
+    TaskDefinition td = context.getTask().getTaskDefinition();
+    try {
+      records = new SyntheticRecords(
+              getBrokerUri(), 
+              definition.getEntityDefinition().getLabel(), 
+              td!=null && td.getSource()!=null? td.getSource().getRef(): null, 
+              td!=null? td.getRef(): null, 
+              definition, 
+              System.currentTimeMillis());
+    } catch (URISyntaxException ex) {
+      throw new DataProcessorException(String.format("Error initializing broker: %s", this), ex);
+    }
+  }
+
+  @Override
+  public void terminate() {
+    // nothing to terminate
+  }
+
+  @Override
+  public URI getBrokerUri() throws URISyntaxException {
+    return new URI(SyntheticConnector.TYPE, String.format("seed-%d", definition.getSeed()), null, null);
+  }
+
+  @Override
+  public Iterator iterator(IteratorContext iteratorContext) throws DataInputException {
+    return new SyntheticIterator(iteratorContext);
+  }
+
+  @Override
+  public DataContent readContent(String id) throws DataInputException {
+    int number = records.parseNumber(id);
+    if (number < 0) {
+      throw new DataInputException(this, String.format("Invalid id: %s", id));
+    }
+    try {
+      return records.create(number);
+    } catch (URISyntaxException ex) {
+      throw new DataInputException(this, String.format("Error reading content: %s", id), ex);
+    }
+  }
+
+  @Override
+  public EntityDefinition getEntityDefinition() {
+    return definition.getEntityDefinition();
+  }
+
+  @Override
+  public InputConnector getConnector() {
+    return connector;
+  }
+
+  @Override
+  public boolean hasAccess(SimpleCredentials creds) {
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SYNTHETIC [count: %d, size: %d, types: %s, ids: %s, seed: %d]", 
+            definition.getCount(), definition.getPayloadSize(), definition.getPayloadTypes(), definition.getIdDistribution(), definition.getSeed());
+  }
+  
+  /**
+   * Synthetic iterator.
+   */
+  private class SyntheticIterator implements InputBroker.Iterator {
+    private final IteratorContext iteratorContext;
+    private int position;
+    private DataReference nextRef;
+
+    /**
+     * Creates instance of the iterator.
+     * @param iteratorContext iterator context
+     */
+    public SyntheticIterator(IteratorContext iteratorContext) {
+      this.iteratorContext = iteratorContext;
+      String checkpoint = iteratorContext.getCheckpoint();
+      if (checkpoint!=null && checkpoint.matches("\\d+")) {
+        position = Math.min(records.getCount(), Integer.parseInt(checkpoint));
+      }
+    }
+
+    @Override
+    public boolean hasNext() throws DataInputException {
+      try {
+        Date lastHarvestDate = iteratorContext.getLastHarvestDate();
+        while (nextRef==null && position < records.getCount()) {
+          DataReference ref = records.create(records.numberAt(position++));
+          if (lastHarvestDate==null || !ref.getLastModifiedDate().before(lastHarvestDate)) {
+            nextRef = ref;
+          }
+        }
+        return nextRef!=null;
+      } catch (URISyntaxException ex) {
+        throw new DataInputException(SyntheticBroker.this, "Error generating data.", ex);
+      }
+    }
+
+    @Override
+    public DataReference next() throws DataInputException {
+      if (!hasNext()) {
+        throw new DataInputException(SyntheticBroker.this, String.format("No more records."));
+      }
+      DataReference ref = nextRef;
+      nextRef = null;
+      return ref;
+    }
+
+    @Override
+    public String getCheckpoint() {
+      return Integer.toString(nextRef!=null? position - 1: position);
+    }
+  }
+}
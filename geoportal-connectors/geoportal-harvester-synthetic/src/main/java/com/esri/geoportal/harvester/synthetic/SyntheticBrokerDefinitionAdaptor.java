@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+import static com.esri.geoportal.harvester.synthetic.SyntheticConstants.*;
+import com.esri.geoportal.harvester.api.base.BrokerDefinitionAdaptor;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Synthetic broker definition adaptor.
+ */
+/*package*/ class SyntheticBrokerDefinitionAdaptor extends BrokerDefinitionAdaptor {
+  public static final int DEFAULT_COUNT = 1000;
+  public static final int DEFAULT_PAYLOAD_SIZE = 4096;
+  public static final int DEFAULT_MODIFIED_SPREAD = 365;
+  
+  private int count;
+  private int payloadSize;
+  private List<PayloadType> payloadTypes;
+  private IdDistribution idDistribution;
+  private int modifiedSpread;
+  private long seed;
+
+  /**
+   * Creates instance of the adaptor.
+   * @param def broker definition
+   * @throws InvalidDefinitionException if invalid broker definition
+   */
+  public SyntheticBrokerDefinitionAdaptor(EntityDefinition def) throws InvalidDefinitionException {
+    super(def);
+    if (StringUtils.trimToEmpty(def.getType()).isEmpty()) {
+      def.setType(SyntheticConnector.TYPE);
+    } else if (!SyntheticConnector.TYPE.equals(def.getType())) {
+      throw new InvalidDefinitionException("Broker definition doesn't match");
+    }
+    initialize();
+  }
+  
+  /**
+   * Initializes adaptor from definition.
+   * @throws InvalidDefinitionException if definition is invalid
+   */
+  private void initialize() throws InvalidDefinitionException {
+    count = readInteger(P_COUNT, DEFAULT_COUNT);
+    payloadSize = readInteger(P_PAYLOAD_SIZE, DEFAULT_PAYLOAD_SIZE);
+    modifiedSpread = readInteger(P_MODIFIED_SPREAD, DEFAULT_MODIFIED_SPREAD);
+    
+    String sSeed = StringUtils.trimToEmpty(get(P_SEED));
+    try {
+      seed = !sSeed.isEmpty()? Long.parseLong(sSeed): 0L;
+    } catch (NumberFormatException ex) {
+      throw new InvalidDefinitionException(String.format("Invalid %s: %s", P_SEED, sSeed), ex);
+    }
+    
+    String sDistribution = StringUtils.trimToEmpty(get(P_ID_DISTRIBUTION));
+    idDistribution = !sDistribution.isEmpty()? IdDistribution.parse(sDistribution): IdDistribution.DEFAULT;
+    if (idDistribution==null) {
+      throw new InvalidDefinitionException(String.format("Invalid %s: %s", P_ID_DISTRIBUTION, sDistribution));
+    }
+    
+    List<PayloadType> types = new ArrayList<>();
+    for (String sType: StringUtils.split(StringUtils.defaultIfBlank(get(P_MIME_TYPES), PayloadType.XML.name()), ", ")) {
+      PayloadType type = PayloadType.parse(sType);
+      if (type==null) {
+        throw new InvalidDefinitionException(String.format("Invalid %s: %s", P_MIME_TYPES, get(P_MIME_TYPES)));
+      }
+      types.add(type);
+    }
+    payloadTypes = Collections.unmodifiableList(types);
+  }
+  
+  /**
+   * Reads non-negative integer property.
+   * @param propertyName property name
+   * @param defaultValue default value
+   * @return value
+   * @throws InvalidDefinitionException if invalid value
+   */
+  private int readInteger(String propertyName, int defaultValue) throws InvalidDefinitionException {
+    String value = StringUtils.trimToEmpty(get(propertyName));
+    if (value.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      int result = Integer.parseInt(value);
+      if (result < 0) {
+        throw new InvalidDefinitionException(String.format("Invalid %s: %s", propertyName, value));
+      }
+      return result;
+    } catch (NumberFormatException ex) {
+      throw new InvalidDefinitionException(String.format("Invalid %s: %s", propertyName, value), ex);
+    }
+  }
+
+  @Override
+  public void override(Map<String, String> params) {
+    consume(params, P_COUNT);
+    consume(params, P_PAYLOAD_SIZE);
+    consume(params, P_MIME_TYPES);
+    consume(params, P_ID_DISTRIBUTION);
+    consume(params, P_MODIFIED_SPREAD);
+    consume(params, P_SEED);
+  }
+
+  /**
+   * Gets number of records to generate.
+   * @return number of records
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Sets number of records to generate.
+   * @param count number of records
+   */
+  public void setCount(int count) {
+    this.count = count;
+    set(P_COUNT, Integer.toString(count));
+  }
+
+  /**
+   * Gets approximate size of each payload.
+   * @return size in bytes
+   */
+  public int getPayloadSize() {
+    return payloadSize;
+  }
+
+  /**
+   * Sets approximate size of each payload.
+   * @param payloadSize size in bytes
+   */
+  public void setPayloadSize(int payloadSize) {
+    this.payloadSize = payloadSize;
+    set(P_PAYLOAD_SIZE, Integer.toString(payloadSize));
+  }
+
+  /**
+   * Gets payload types. Records are assigned types in a round robin fashion.
+   * @return list of payload types
+   */
+  public List<PayloadType> getPayloadTypes() {
+    return payloadTypes;
+  }
+
+  /**
+   * Sets payload types.
+   * @param payloadTypes list of payload types
+   */
+  public void setPayloadTypes(List<PayloadType> payloadTypes) {
+    this.payloadTypes = Collections.unmodifiableList(new ArrayList<>(payloadTypes));
+    set(P_MIME_TYPES, payloadTypes.stream().map(PayloadType::name).collect(Collectors.joining(",")));
+  }
+
+  /**
+   * Gets id distribution.
+   * @return id distribution
+   */
+  public IdDistribution getIdDistribution() {
+    return idDistribution;
+  }
+
+  /**
+   * Sets id distribution.
+   * @param idDistribution id distribution
+   */
+  public void setIdDistribution(IdDistribution idDistribution) {
+    this.idDistribution = idDistribution;
+    set(P_ID_DISTRIBUTION, idDistribution.name());
+  }
+
+  /**
+   * Gets spread of the last modified dates.
+   * @return number of days back from now
+   */
+  public int getModifiedSpread() {
+    return modifiedSpread;
+  }
+
+  /**
+   * Sets spread of the last modified dates.
+   * @param modifiedSpread number of days back from now
+   */
+  public void setModifiedSpread(int modifiedSpread) {
+    this.modifiedSpread = modifiedSpread;
+    set(P_MODIFIED_SPREAD, Integer.toString(modifiedSpread));
+  }
+
+  /**
+   * Gets random seed.
+   * @return random seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Sets random seed.
+   * @param seed random seed
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+    set(P_SEED, Long.toString(seed));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+import static com.esri.geoportal.harvester.synthetic.SyntheticConstants.*;
+import com.esri.geoportal.harvester.api.defs.EntityDefinition;
+import com.esri.geoportal.harvester.api.defs.UITemplate;
+import com.esri.geoportal.harvester.api.defs.UITemplate.Choice;
+import com.esri.geoportal.harvester.api.ex.InvalidDefinitionException;
+import com.esri.geoportal.harvester.api.specs.InputBroker;
+import com.esri.geoportal.harvester.api.specs.InputConnector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * Synthetic connector.
+ * @see com.esri.geoportal.harvester.synthetic API
+ */
+public class SyntheticConnector implements InputConnector<InputBroker> {
+  public static final String TYPE = "SYNTHETIC";
+
+  @Override
+  public String getType() {
+    return TYPE;
+  }
+
+  @Override
+  public UITemplate getTemplate(Locale locale) {
+    ResourceBundle bundle = ResourceBundle.getBundle("SyntheticResource", locale);
+    List<UITemplate.Argument> args = new ArrayList<>();
+    args.add(new UITemplate.IntegerArgument(P_COUNT, bundle.getString("synthetic.count"), false, SyntheticBrokerDefinitionAdaptor.DEFAULT_COUNT));
+    args.add(new UITemplate.IntegerArgument(P_PAYLOAD_SIZE, bundle.getString("synthetic.payloadSize"), false, SyntheticBrokerDefinitionAdaptor.DEFAULT_PAYLOAD_SIZE));
+    args.add(new UITemplate.StringArgument(P_MIME_TYPES, bundle.getString("synthetic.mimeTypes"), false, PayloadType.XML.name()) {
+      @Override
+      public String getHint() {
+        return bundle.getString("synthetic.mimeTypes.hint");
+      }
+    });
+    Choice[] choices = Arrays.stream(IdDistribution.values()).map(ch -> new Choice<String>(ch.name(), bundle.getString(String.format("synthetic.idDistribution.%s", ch.name().toLowerCase())))).toArray(Choice[]::new);
+    args.add(new UITemplate.ChoiceArgument(P_ID_DISTRIBUTION, bundle.getString("synthetic.idDistribution"), Arrays.asList(choices)));
+    args.add(new UITemplate.IntegerArgument(P_MODIFIED_SPREAD, bundle.getString("synthetic.modifiedSpread"), false, SyntheticBrokerDefinitionAdaptor.DEFAULT_MODIFIED_SPREAD));
+    args.add(new UITemplate.StringArgument(P_SEED, bundle.getString("synthetic.seed"), false, "0"));
+    return new UITemplate(getType(), bundle.getString("synthetic"), args);
+  }
+
+  @Override
+  public void validateDefinition(EntityDefinition definition) throws InvalidDefinitionException {
+    new SyntheticBrokerDefinitionAdaptor(definition);
+  }
+
+  @Override
+  public InputBroker createBroker(EntityDefinition definition) throws InvalidDefinitionException {
+    return new SyntheticBroker(this, new SyntheticBrokerDefinitionAdaptor(definition));
+  }
+
+  @Override
+  public String getResourceLocator(EntityDefinition definition) {
+    try {
+      SyntheticBrokerDefinitionAdaptor adaptor = new SyntheticBrokerDefinitionAdaptor(definition);
+      return String.format("seed-%d", adaptor.getSeed());
+    } catch (InvalidDefinitionException ex) {
+      return "";
+    }
+  }
+  
+}
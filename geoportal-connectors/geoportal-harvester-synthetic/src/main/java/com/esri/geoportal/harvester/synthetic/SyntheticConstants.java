@@ -0,0 +1,30 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+/**
+ * Synthetic constants.
+ */
+/*package*/ final class SyntheticConstants {
+  public static final String P_COUNT            = "syn-count";
+  public static final String P_PAYLOAD_SIZE     = "syn-payload-size";
+  public static final String P_MIME_TYPES       = "syn-mime-types";
+  public static final String P_ID_DISTRIBUTION  = "syn-id-distribution";
+  public static final String P_MODIFIED_SPREAD  = "syn-modified-spread";
+  public static final String P_SEED             = "syn-seed";
+  
+  public static final String P_READ_CONTENT     = "null-read-content";
+}
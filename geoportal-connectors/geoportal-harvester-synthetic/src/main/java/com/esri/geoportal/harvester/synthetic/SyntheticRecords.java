@@ -0,0 +1,266 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.esri.geoportal.harvester.synthetic;
+
+import com.esri.geoportal.harvester.api.base.SimpleDataReference;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Synthetic records.
+ * <p>
+ * Generates records deterministically: id, payload type, last modified date 
+ * and payload of the record depend only on the record number and the seed, 
+ * while the record number at the given position of the stream depends only on
+ * the position, the id distribution and the seed. Thus the same definition 
+ * always produces the same stream of records and any record can be recreated
+ * from its id alone.
+ */
+/*package*/ class SyntheticRecords {
+  private static final Pattern ID_PATTERN = Pattern.compile("^SYN-(\\d+)$");
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final long POSITION_SALT = 0x5DEECE66DL;
+  private static final int LINE_LENGTH = 76;
+  
+  private final URI brokerUri;
+  private final String brokerName;
+  private final String inputBrokerRef;
+  private final String taskRef;
+  private final int count;
+  private final List<PayloadType> payloadTypes;
+  private final IdDistribution idDistribution;
+  private final long modifiedSpread;
+  private final long seed;
+  private final long baseTime;
+  private final String filler;
+
+  /**
+   * Creates instance of the records.
+   * @param brokerUri broker URI
+   * @param brokerName broker name
+   * @param inputBrokerRef input broker reference
+   * @param taskRef task reference
+   * @param definition broker definition
+   * @param baseTime time of the most recent last modified date
+   */
+  public SyntheticRecords(URI brokerUri, String brokerName, String inputBrokerRef, String taskRef, SyntheticBrokerDefinitionAdaptor definition, long baseTime) {
+    this.brokerUri = brokerUri;
+    this.brokerName = brokerName;
+    this.inputBrokerRef = inputBrokerRef;
+    this.taskRef = taskRef;
+    this.count = definition.getCount();
+    this.payloadTypes = definition.getPayloadTypes();
+    this.idDistribution = definition.getIdDistribution();
+    this.modifiedSpread = TimeUnit.DAYS.toMillis(definition.getModifiedSpread());
+    this.seed = definition.getSeed();
+    this.baseTime = baseTime;
+    this.filler = createFiller(definition.getPayloadSize(), seed);
+  }
+  
+  /**
+   * Gets number of records.
+   * @return number of records
+   */
+  public int getCount() {
+    return count;
+  }
+  
+  /**
+   * Gets record number at the given position of the stream.
+   * @param position position
+   * @return record number
+   */
+  public int numberAt(int position) {
+    switch (idDistribution) {
+      case UNIFORM: {
+        SplittableRandom random = random(position ^ POSITION_SALT);
+        return random.nextInt(count);
+      }
+      case HOTSPOT: {
+        SplittableRandom random = random(position ^ POSITION_SALT);
+        int hotspot = Math.max(1, count / 5);
+        return random.nextInt(10) < 8? random.nextInt(hotspot): random.nextInt(count);
+      }
+      default:
+        return position;
+    }
+  }
+  
+  /**
+   * Parses record number from the id.
+   * @param id id
+   * @return record number or -1 if id is not a valid synthetic record id
+   */
+  public int parseNumber(String id) {
+    Matcher matcher = ID_PATTERN.matcher(id!=null? id: "");
+    if (!matcher.matches()) {
+      return -1;
+    }
+    try {
+      int number = Integer.parseInt(matcher.group(1));
+      return number < count? number: -1;
+    } catch (NumberFormatException ex) {
+      return -1;
+    }
+  }
+  
+  /**
+   * Creates record.
+   * @param number record number
+   * @return data reference
+   * @throws URISyntaxException if error creating source URI
+   */
+  public SimpleDataReference create(int number) throws URISyntaxException {
+    String id = String.format("SYN-%08d", number);
+    SplittableRandom random = random(number);
+    Date lastModified = new Date(baseTime - (modifiedSpread > 0? random.nextLong(modifiedSpread + 1): 0));
+    PayloadType type = payloadTypes.get(number % payloadTypes.size());
+    URI sourceUri = new URI(brokerUri.getScheme(), brokerUri.getAuthority(), "/" + id, null);
+    
+    SimpleDataReference ref = new SimpleDataReference(brokerUri, brokerName, id, lastModified, sourceUri, inputBrokerRef, taskRef);
+    ref.addContext(type.getMimeType(), createPayload(type, id, lastModified));
+    return ref;
+  }
+  
+  /**
+   * Creates payload.
+   * @param type payload type
+   * @param id record id
+   * @param lastModified last modified date
+   * @return payload
+   */
+  private byte[] createPayload(PayloadType type, String id, Date lastModified) {
+    String title = String.format("Synthetic record %s", id);
+    String date = Instant.ofEpochMilli(lastModified.getTime()).toString();
+    switch (type) {
+      case JSON: {
+        String head = String.format("{\"id\":\"%s\",\"title\":\"%s\",\"modified\":\"%s\",\"description\":\"", id, title, date);
+        String tail = "\"}";
+        return fill(head, tail).getBytes(StandardCharsets.UTF_8);
+      }
+      case PDF:
+        return createPdf(title, lastModified).getBytes(StandardCharsets.US_ASCII);
+      default: {
+        String head = String.format(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+              + "<rdf:RDF xmlns:rdf=\"http://www.w3.org/1999/02/22-rdf-syntax-ns#\" xmlns:dc=\"http://purl.org/dc/elements/1.1/\">\n"
+              + "  <rdf:Description rdf:about=\"%s\">\n"
+              + "    <dc:identifier>%s</dc:identifier>\n"
+              + "    <dc:title>%s</dc:title>\n"
+              + "    <dc:date>%s</dc:date>\n"
+              + "    <dc:type>dataset</dc:type>\n"
+              + "    <dc:description>", id, id, title, date);
+        String tail = "</dc:description>\n  </rdf:Description>\n</rdf:RDF>\n";
+        return fill(head, tail).getBytes(StandardCharsets.UTF_8);
+      }
+    }
+  }
+  
+  /**
+   * Creates single page PDF. Filler is stored as comment lines.
+   * @param title title
+   * @param lastModified last modified date
+   * @return PDF document
+   */
+  private String createPdf(String title, Date lastModified) {
+    SimpleDateFormat format = new SimpleDateFormat("yyyyMMddHHmmss", Locale.ROOT);
+    format.setTimeZone(TimeZone.getTimeZone("UTC"));
+    String content = String.format("BT /F1 12 Tf 72 720 Td (%s) Tj ET", title);
+    String[] objects = {
+      "<< /Type /Catalog /Pages 2 0 R >>",
+      "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+      "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 612 792] /Contents 4 0 R /Resources << /Font << /F1 5 0 R >> >> >>",
+      String.format("<< /Length %d >>\nstream\n%s\nendstream", content.length(), content),
+      "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica >>",
+      String.format("<< /Title (%s) /ModDate (D:%sZ) >>", title, format.format(lastModified))
+    };
+    
+    StringBuilder pdf = new StringBuilder("%PDF-1.4\n");
+    long[] offsets = new long[objects.length];
+    for (int i=0; i<objects.length; i++) {
+      offsets[i] = pdf.length();
+      pdf.append(i + 1).append(" 0 obj\n").append(objects[i]).append("\nendobj\n");
+    }
+    
+    int trailerLength = 200 + 20 * objects.length;
+    int fillerLength = Math.max(0, filler.length() - pdf.length() - trailerLength);
+    for (int i=0; i<fillerLength; i+=LINE_LENGTH) {
+      pdf.append('%').append(filler, i, Math.min(fillerLength, i + LINE_LENGTH)).append('\n');
+    }
+    
+    long xref = pdf.length();
+    pdf.append("xref\n0 ").append(objects.length + 1).append("\n0000000000 65535 f \n");
+    for (long offset: offsets) {
+      pdf.append(String.format("%010d 00000 n \n", offset));
+    }
+    pdf.append(String.format("trailer\n<< /Size %d /Root 1 0 R /Info %d 0 R >>\nstartxref\n%d\n%%%%EOF\n", objects.length + 1, objects.length, xref));
+    return pdf.toString();
+  }
+  
+  /**
+   * Puts filler between head and tail so the total length approximates 
+   * payload size.
+   * @param head head
+   * @param tail tail
+   * @return text
+   */
+  private String fill(String head, String tail) {
+    int fillerLength = Math.max(0, filler.length() - head.length() - tail.length());
+    return new StringBuilder(head.length() + fillerLength + tail.length())
+            .append(head).append(filler, 0, fillerLength).append(tail).toString();
+  }
+  
+  /**
+   * Creates random generator for the given index.
+   * @param index index
+   * @return random generator
+   */
+  private SplittableRandom random(long index) {
+    return new SplittableRandom(seed * GOLDEN_GAMMA + index);
+  }
+  
+  /**
+   * Creates filler made of pseudo words.
+   * @param size size of the filler
+   * @param seed random seed
+   * @return filler
+   */
+  private static String createFiller(int size, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    StringBuilder sb = new StringBuilder(size);
+    while (sb.length() < size) {
+      int wordLength = 2 + random.nextInt(9);
+      for (int i=0; i<wordLength && sb.length() < size; i++) {
+        sb.append((char)('a' + random.nextInt(26)));
+      }
+      if (sb.length() < size) {
+        sb.append(' ');
+      }
+    }
+    return sb.toString();
+  }
+}
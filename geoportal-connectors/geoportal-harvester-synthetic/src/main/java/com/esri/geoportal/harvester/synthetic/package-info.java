@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Esri, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * Synthetic input and null output.
+ * <p>
+ * Allows to run end-to-end throughput tests without any external system. 
+ * Synthetic input generates records of the configurable count, payload size, 
+ * payload types, id distribution and spread of the last modified dates. 
+ * Generation is deterministic for the given seed. Null output discards 
+ * records and reports throughput once harvesting is done.
+ * <p>
+ * Example of the JSON SYNTHETIC definition is below:
+ * <pre><code>
+ 
+   {
+     "type": "SYNTHETIC",
+     "properties": {
+       "syn-count": "100000",
+       "syn-payload-size": "4096",
+       "syn-mime-types": "XML,JSON,PDF",
+       "syn-id-distribution": "SEQUENTIAL",
+       "syn-modified-spread": "365",
+       "syn-seed": "0"
+     }
+   }
+ * </code></pre>
+ * Supported id distributions are: SEQUENTIAL, UNIFORM and HOTSPOT.
+ * <p>
+ * Example of the JSON NULL definition is below:
+ * <pre><code>
+ 
+   {
+     "type": "NULL",
+     "properties": {
+       "null-read-content": "true"
+     }
+   }
+ * </code></pre>
+ * In order to use such definition to create broker it must be converted to the
+ * instance of {@link com.esri.geoportal.harvester.api.defs.EntityDefinition}.
+ * The easiest way to do it is to use Jackson ObjectMapper:
+ * <pre><code>
+ * 
+   String JSON = ...;
+   ObjectMapper mapper = new ObjectMapper();
+   EntityDefinition definition = mapper.readValue(JSON,EntityDefinition.class);
+   SyntheticConnector connector = new SyntheticConnector();
+   InputBroker broker = connector.createBroker(definition);
+ * </code></pre>
+ * At this moment, broker object can be used to read data through the 
+ * {@link com.esri.geoportal.harvester.api.specs.InputBroker} interface.
+ */
+package com.esri.geoportal.harvester.synthetic;
@@ -17,6 +17,7 @@ package com.esri.geoportal.harvester.thredds;
 
 import com.esri.geoportal.commons.constants.MimeType;
 import com.esri.geoportal.commons.http.BotsHttpClient;
+import com.esri.geoportal.commons.http.LimitedHttpClient;
 import com.esri.geoportal.commons.robots.Bots;
 import com.esri.geoportal.commons.robots.BotsUtils;
 import com.esri.geoportal.commons.thredds.client.Client;
@@ -39,6 +40,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.esri.geoportal.harvester.api.DataContent;
 import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.base.ContentStore;
+import com.esri.geoportal.harvester.api.base.HttpContent;
+import com.esri.geoportal.harvester.api.base.LazyContent;
 import com.esri.geoportal.harvester.api.base.SimpleDataReference;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 import java.net.URL;
@@ -68,6 +72,7 @@ import org.xml.sax.SAXException;
   protected CloseableHttpClient httpClient;
   private Client client;
   protected TaskDefinition td;
+  private ContentStore contentStore = ContentStore.DEFAULT;
 
   /**
    * Creates instance of the broker.
@@ -84,7 +89,8 @@ import org.xml.sax.SAXException;
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     td = context.getTask().getTaskDefinition();
-    CloseableHttpClient http = HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build();
+    contentStore = ContentStore.of(context);
+    CloseableHttpClient http = new LimitedHttpClient(HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build());
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
       httpClient = http;
     } else {
@@ -202,9 +208,19 @@ import org.xml.sax.SAXException;
       return fld;
     }
 
+    /**
+     * Reads content. Unless the server doesn't answer HEAD request, the body
+     * is not downloaded until accessed.
+     * @param rec record
+     * @return content or <code>null</code> if content unavailable or not modified
+     */
     private Content readContent(Record rec) {
       try {
-        Content content = client.fetchContent(rec, preDownload -> iteratorContext.getLastHarvestDate() == null || preDownload.lastModifiedDate == null || preDownload.lastModifiedDate.getTime() >= iteratorContext.getLastHarvestDate().getTime());
+        ContentData info = client.fetchContentInfo(rec.uri);
+        if (info != null) {
+          return isModified(info) ? new Content(rec, info) : null;
+        }
+        Content content = client.fetchContent(rec, this::isModified);
         if (content != null && content.body != null) {
           return content;
         }
@@ -213,6 +229,10 @@ import org.xml.sax.SAXException;
       }
       return null;
     }
+    
+    private boolean isModified(ContentData preDownload) {
+      return iteratorContext.getLastHarvestDate() == null || preDownload.lastModifiedDate == null || preDownload.lastModifiedDate.getTime() >= iteratorContext.getLastHarvestDate().getTime();
+    }
 
     @Override
     public DataReference next() throws DataInputException {
@@ -249,7 +269,11 @@ import org.xml.sax.SAXException;
       }
       
     };
-    ref.addContext(content.contentType, content.body);
+    if (content.body != null) {
+      ref.addContext(content.contentType, content.body);
+    } else {
+      ref.addContext(content.contentType, new LazyContent(() -> new HttpContent(httpClient, content.record.uri.toURL(), null, -1).openStream(), contentStore));
+    }
     return ref;
   }
 
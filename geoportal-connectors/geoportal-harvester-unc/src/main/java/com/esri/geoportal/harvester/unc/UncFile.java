@@ -15,16 +15,15 @@
  */
 package com.esri.geoportal.harvester.unc;
 
+import com.esri.geoportal.harvester.api.base.FileContent;
 import com.esri.geoportal.harvester.api.base.SimpleDataReference;
 import com.esri.geoportal.commons.constants.MimeType;
 import com.esri.geoportal.commons.constants.MimeTypeUtils;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Date;
-import org.apache.commons.io.IOUtils;
 
 /**
  * UNC file.
@@ -44,7 +43,7 @@ import org.apache.commons.io.IOUtils;
   }
 
   /**
-   * Reads content.
+   * Reads content. File itself is read only when the content is accessed.
    * @return content reference
    * @throws IOException if reading content fails
    * @throws URISyntaxException if file url is an invalid URI
@@ -52,11 +51,9 @@ import org.apache.commons.io.IOUtils;
   public SimpleDataReference readContent() throws IOException, URISyntaxException {
     Date lastModifiedDate = readLastModifiedDate();
     MimeType contentType = readContentType();
-    try (InputStream input = Files.newInputStream(file)) {
-      SimpleDataReference ref = new SimpleDataReference(broker.getBrokerUri(), broker.getEntityDefinition().getLabel(), file.toAbsolutePath().toString(), lastModifiedDate, file.toUri(), broker.td.getSource().getRef(), broker.td.getRef());
-      ref.addContext(contentType, IOUtils.toByteArray(input));
-      return ref;
-    }
+    SimpleDataReference ref = new SimpleDataReference(broker.getBrokerUri(), broker.getEntityDefinition().getLabel(), file.toAbsolutePath().toString(), lastModifiedDate, file.toUri(), broker.td.getSource().getRef(), broker.td.getRef());
+    ref.addContext(contentType, new FileContent(file.toFile()));
+    return ref;
   }
 
   /**
@@ -16,12 +16,14 @@
 package com.esri.geoportal.harvester.waf;
 
 import com.esri.geoportal.commons.http.BotsHttpClient;
+import com.esri.geoportal.commons.http.LimitedHttpClient;
 import com.esri.geoportal.commons.robots.Bots;
 import com.esri.geoportal.commons.robots.BotsUtils;
 import com.esri.geoportal.commons.utils.SimpleCredentials;
 import com.esri.geoportal.harvester.api.DataContent;
 import com.esri.geoportal.harvester.api.ex.DataInputException;
 import com.esri.geoportal.harvester.api.DataReference;
+import com.esri.geoportal.harvester.api.base.ContentStore;
 import com.esri.geoportal.harvester.api.defs.EntityDefinition;
 import com.esri.geoportal.harvester.api.defs.TaskDefinition;
 import com.esri.geoportal.harvester.api.ex.DataProcessorException;
@@ -55,6 +57,7 @@ import org.slf4j.LoggerFactory;
   private LinkedList<WafFolder> subFolders;
   private LinkedList<WafFile> files;
   TaskDefinition td;
+  ContentStore contentStore = ContentStore.DEFAULT;
 
   
   /**
@@ -71,7 +74,8 @@ import org.slf4j.LoggerFactory;
   public void initialize(InitContext context) throws DataProcessorException {
     definition.override(context.getParams());
     td = context.getTask().getTaskDefinition();
-    CloseableHttpClient client = HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build();
+    contentStore = ContentStore.of(context);
+    CloseableHttpClient client = new LimitedHttpClient(HttpClientBuilder.create().useSystemProperties().setRedirectStrategy(LaxRedirectStrategy.INSTANCE).build());
     if (context.getTask().getTaskDefinition().isIgnoreRobotsTxt()) {
       httpClient = client;
     } else {
@@ -160,7 +164,7 @@ import org.slf4j.LoggerFactory;
       try {
         if (files!=null && !files.isEmpty()) {
           nextFile = readContent();
-          if (nextFile==null || nextFile.getContent(nextFile.getContentType().stream().findFirst().orElse(null))==null) {
+          if (nextFile==null) {
             nextFile = null;
             return hasNext();
           }
@@ -206,7 +210,7 @@ import org.slf4j.LoggerFactory;
     private DataReference readContent() throws IOException, URISyntaxException {
       WafFile file = files.poll();
       try {
-        return file.readContent(httpClient, iteratorContext.getLastHarvestDate());
+        return file.readReference(httpClient, iteratorContext.getLastHarvestDate());
       } catch (HttpResponseException ex) {
         if (ex.getStatusCode()!=403 && ex.getStatusCode()!=404) {
           throw ex;
@@ -23,6 +23,8 @@ import com.esri.geoportal.commons.meta.util.WKAConstants;
 import static com.esri.geoportal.commons.utils.Constants.DEFAULT_REQUEST_CONFIG;
 import static com.esri.geoportal.commons.utils.HttpClientContextBuilder.createHttpClientContext;
 import com.esri.geoportal.commons.utils.SimpleCredentials;
+import com.esri.geoportal.harvester.api.base.HttpContent;
+import com.esri.geoportal.harvester.api.base.LazyContent;
 import com.esri.geoportal.harvester.api.base.SimpleDataReference;
 import java.io.IOException;
 import java.io.InputStream;
@@ -31,12 +33,12 @@ import java.net.URL;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
-import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.impl.client.CloseableHttpClient;
 
@@ -62,6 +64,47 @@ import org.apache.http.impl.client.CloseableHttpClient;
     this.creds = creds;
   }
 
+  /**
+   * Reads content reference.
+   * <p>
+   * Only headers are requested at first; the file itself is fetched when its
+   * content is accessed, so records rejected by filters are never downloaded.
+   * If the server doesn't answer the HEAD request, the file is fetched at once.
+   * @param httpClient HTTP client
+   * @param since since date
+   * @return content reference or <code>null</code> if file not modified since the date
+   * @throws IOException if reading content fails
+   * @throws URISyntaxException if file url is an invalid URI
+   */
+  public SimpleDataReference readReference(CloseableHttpClient httpClient, Date since) throws IOException, URISyntaxException {
+    HttpHead method = new HttpHead(fileUrl.toExternalForm());
+    method.setConfig(DEFAULT_REQUEST_CONFIG);
+    method.setHeader("User-Agent", HttpConstants.getUserAgent());
+    HttpClientContext context = creds!=null && !creds.isEmpty()? createHttpClientContext(fileUrl, creds): null;
+    
+    try (CloseableHttpResponse httpResponse = httpClient.execute(method,context)) {
+      if (httpResponse.getStatusLine().getStatusCode()<400) {
+        Date lastModifiedDate = readLastModifiedDate(httpResponse);
+        MimeType contentType = readContentType(httpResponse);
+        boolean readBody = since==null || lastModifiedDate==null || lastModifiedDate.getTime()>=since.getTime();
+        if (!readBody) {
+          return null;
+        }
+        SimpleDataReference ref = new SimpleDataReference(broker.getBrokerUri(), broker.getEntityDefinition().getLabel(), fileUrl.toExternalForm(), lastModifiedDate, fileUrl.toURI(), broker.td.getSource().getRef(), broker.td.getRef());
+        HttpContent content = new HttpContent(httpClient, fileUrl, creds, -1);
+        ref.addContext(contentType, new LazyContent(content::openStream, readContentLength(httpResponse), broker.contentStore));
+
+        // Adding in resource map attributes for saving to AGP...
+        ref.getAttributesMap().put(WKAConstants.WKA_RESOURCE_URL, fileUrl.toURI());
+
+        return ref;
+      }
+    }
+    
+    SimpleDataReference ref = readContent(httpClient, since);
+    return ref.getContent(ref.getContentType().stream().findFirst().orElse(null))!=null? ref: null;
+  }
+
   /**
    * Reads content.
    * @param httpClient HTTP client
@@ -87,7 +130,7 @@ import org.apache.http.impl.client.CloseableHttpClient;
       MimeType contentType = readContentType(httpResponse);
       boolean readBody = since==null || lastModifiedDate==null || lastModifiedDate.getTime()>=since.getTime();
       SimpleDataReference ref = new SimpleDataReference(broker.getBrokerUri(), broker.getEntityDefinition().getLabel(), fileUrl.toExternalForm(), lastModifiedDate, fileUrl.toURI(), broker.td.getSource().getRef(), broker.td.getRef());
-      ref.addContext(contentType, readBody? IOUtils.toByteArray(input): null);
+      ref.addContext(contentType, readBody? broker.contentStore.store(input): null);
 
       // Adding in resource map attributes for saving to AGP...
       ref.getAttributesMap().put(WKAConstants.WKA_RESOURCE_URL, fileUrl.toURI());
@@ -112,6 +155,20 @@ import org.apache.http.impl.client.CloseableHttpClient;
     }
   }
   
+  /**
+   * Reads content length.
+   * @param response HTTP response
+   * @return content length or <code>-1</code> if unavailable
+   */
+  private long readContentLength(HttpResponse response) {
+    try {
+      Header contentLengthHeader = response.getFirstHeader("Content-Length");
+      return contentLengthHeader != null? Long.parseLong(contentLengthHeader.getValue().trim()): -1;
+    } catch (NumberFormatException ex) {
+      return -1;
+    }
+  }
+  
   /**
    * Reads content type.
    * @param response HTTP response